@@ -0,0 +1,35 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder;
+
+import org.onehippo.forge.content.pojo.model.ContentNode;
+
+/**
+ * Resolves the absolute path of the target physical data node (e.g, {@link javax.jcr.Node})
+ * to bind a {@link ContentNode} to, when importing content nodes in bulk.
+ */
+@FunctionalInterface
+public interface ContentNodeBindingTargetPathResolver {
+
+    /**
+     * Returns the absolute path of the target physical data node to bind the {@code contentNode} to.
+     * @param contentNode {@link ContentNode} source to bind from
+     * @return the absolute path of the target physical data node
+     * @throws ContentNodeBindingException if the target path cannot be resolved
+     */
+    String resolveTargetPath(ContentNode contentNode) throws ContentNodeBindingException;
+
+}
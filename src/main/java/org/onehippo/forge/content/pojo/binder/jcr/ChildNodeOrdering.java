@@ -0,0 +1,154 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes the minimal {@code orderBefore} moves reordering child nodes from their current order into a desired
+ * order. The child nodes forming a longest common subsequence of both orders, i.e, a longest increasing subsequence
+ * of the desired positions in the current order, stay in place and only the other ones are moved.
+ * Used internally by {@link DefaultJcrContentNodeBinder} and its change planner, on node references, when child
+ * nodes are bound in place, i.e, in change detection mode or when merging sub nodes with a matching strategy.
+ * The default mode removes the matching child nodes and adds them again in the content order, so moves nothing.
+ */
+final class ChildNodeOrdering {
+
+    /**
+     * Move of a child node before another child node, or to the end if the other child node is null.
+     */
+    static class Move {
+
+        private final String ref;
+        private final String beforeRef;
+
+        Move(String ref, String beforeRef) {
+            this.ref = ref;
+            this.beforeRef = beforeRef;
+        }
+
+        String getRef() {
+            return ref;
+        }
+
+        String getBeforeRef() {
+            return beforeRef;
+        }
+    }
+
+    private ChildNodeOrdering() {
+    }
+
+    /**
+     * Returns the moves to apply in order to reorder the child nodes from the {@code currentRefs} order into
+     * the {@code orderedRefs} order. References missing in either list are left out.
+     * @param currentRefs references to the child nodes in the current order
+     * @param orderedRefs references to the child nodes in the desired order
+     * @return the moves to apply in order, as few as possible
+     */
+    static List<Move> moves(List<String> currentRefs, List<String> orderedRefs) {
+        Set<String> currentSet = new HashSet<>(currentRefs);
+        List<String> desired = new ArrayList<>(orderedRefs.size());
+        Map<String, Integer> desiredPositions = new HashMap<>();
+
+        for (String ref : new LinkedHashSet<>(orderedRefs)) {
+            if (currentSet.contains(ref)) {
+                desiredPositions.put(ref, desired.size());
+                desired.add(ref);
+            }
+        }
+
+        if (desired.size() < 2) {
+            return Collections.emptyList();
+        }
+
+        Set<String> currentOnce = new LinkedHashSet<>(currentRefs);
+        currentOnce.retainAll(desiredPositions.keySet());
+        List<String> current = new ArrayList<>(currentOnce);
+
+        Set<String> stableRefs = longestIncreasingSubsequence(current, desiredPositions);
+
+        if (stableRefs.size() == desired.size()) {
+            return Collections.emptyList();
+        }
+
+        List<Move> moves = new ArrayList<>(desired.size() - stableRefs.size());
+
+        // moving from the end, each moved node goes right before its desired successor, already in place.
+        for (int i = desired.size() - 1; i >= 0; i--) {
+            String ref = desired.get(i);
+
+            if (!stableRefs.contains(ref)) {
+                moves.add(new Move(ref, (i + 1 < desired.size()) ? desired.get(i + 1) : null));
+            }
+        }
+
+        return moves;
+    }
+
+    /**
+     * Returns the references forming a longest subsequence of {@code current} having increasing desired positions,
+     * in O(n log n) time.
+     */
+    private static Set<String> longestIncreasingSubsequence(List<String> current,
+                                                            Map<String, Integer> desiredPositions) {
+        final int size = current.size();
+        int[] positions = new int[size];
+        int[] tails = new int[size];
+        int[] predecessors = new int[size];
+        int length = 0;
+
+        for (int i = 0; i < size; i++) {
+            positions[i] = desiredPositions.get(current.get(i));
+        }
+
+        for (int i = 0; i < size; i++) {
+            int low = 0;
+            int high = length;
+
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (positions[tails[mid]] < positions[i]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+
+            predecessors[i] = (low > 0) ? tails[low - 1] : -1;
+            tails[low] = i;
+
+            if (low == length) {
+                ++length;
+            }
+        }
+
+        Set<String> stableRefs = new HashSet<>(length * 2);
+
+        for (int i = (length > 0) ? tails[length - 1] : -1; i >= 0; i = predecessors[i]) {
+            stableRefs.add(current.get(i));
+        }
+
+        return stableRefs;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import java.util.Map;
+
+import javax.jcr.Node;
+import javax.jcr.Property;
+import javax.jcr.RepositoryException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.onehippo.forge.content.pojo.common.util.ContentNodeDigestUtils;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+
+/**
+ * {@link ContentNodeMatchingStrategy} pairing child nodes by the digest of their content, stored by the binder
+ * in a digest property of each bound JCR child node having same-name siblings. The JCR child nodes having
+ * the digest of a child content node are left untouched, possibly only moved, while the others are bound again
+ * or added.
+ * <P>
+ * As the digest covers the content only, a JCR child node left untouched keeps any item changed or added
+ * in JCR after it was bound, e.g, a property set by another process, until the content of the child node
+ * changes. Use this strategy only if the bound JCR child nodes are not modified by anything but the binder.
+ * </P>
+ */
+public class ContentDigestMatchingStrategy implements ContentNodeMatchingStrategy {
+
+    private final String digestPropertyName;
+
+    /**
+     * Constructs a strategy storing the digest of each bound child content node in the {@code digestPropertyName}
+     * property.
+     * @param digestPropertyName digest property name
+     */
+    public ContentDigestMatchingStrategy(final String digestPropertyName) {
+        if (StringUtils.isBlank(digestPropertyName)) {
+            throw new IllegalArgumentException("digestPropertyName must not be blank.");
+        }
+
+        this.digestPropertyName = digestPropertyName;
+    }
+
+    @Override
+    public String getContentNodeKey(ContentNode contentNode) {
+        return ContentNodeDigestUtils.digest(contentNode, digestPropertyName);
+    }
+
+    /**
+     * Returns the digest of the {@code contentNode}, reusing the digests of its subtrees computed earlier in the same
+     * binding, as a binding computes the digests of the child content nodes at every depth.
+     */
+    @Override
+    public String getContentNodeKey(ContentNode contentNode, Map<ContentNode, String> keys) {
+        return ContentNodeDigestUtils.digest(contentNode, keys, digestPropertyName);
+    }
+
+    @Override
+    public String getJcrNodeKey(Node node) throws RepositoryException {
+        if (!node.hasProperty(digestPropertyName)) {
+            return null;
+        }
+
+        Property property = node.getProperty(digestPropertyName);
+        return property.isMultiple() ? null : property.getString();
+    }
+
+    @Override
+    public String getKeyPropertyName() {
+        return digestPropertyName;
+    }
+
+    @Override
+    public boolean isContentKey() {
+        return true;
+    }
+}
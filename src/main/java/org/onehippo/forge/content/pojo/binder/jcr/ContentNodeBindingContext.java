@@ -0,0 +1,262 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.jcr.InvalidItemStateException;
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reference binding context shared by the bindings of a batch, caching the nodes resolved from the values of
+ * {@link org.onehippo.forge.content.pojo.model.ContentPropertyType#PATH} properties, and deferring the references
+ * to nodes which do not exist yet until {@link #resolveDeferredReferences()} is invoked after the whole batch
+ * has been bound, so that forward references to nodes bound later in the same batch are not dropped.
+ * It also accumulates the {@link #getBindingStatistics() statistics} of the bindings of the batch.
+ * <P>
+ * References which cannot be resolved yet stay deferred, to be resolved by a later invocation, e.g, before saving
+ * a later batch. As the references resolved before a save are lost when the session is refreshed instead,
+ * {@link #saved()} and {@link #discarded()} are to be invoked after the session is saved or refreshed.
+ * </P>
+ * <P>
+ * A context is not thread-safe and is meant to be used with one session.
+ * </P>
+ */
+public class ContentNodeBindingContext {
+
+    private static Logger log = LoggerFactory.getLogger(ContentNodeBindingContext.class);
+
+    private final Map<String, Node> resolvedNodes = new HashMap<>();
+
+    private final Set<DeferredReference> deferredReferences = new LinkedHashSet<>();
+
+    private final List<DeferredReference> deferredSinceSave = new ArrayList<>();
+
+    private final List<DeferredReference> resolvedSinceSave = new ArrayList<>();
+
+    private final ContentNodeBindingStatistics bindingStatistics = new ContentNodeBindingStatistics();
+
+    /**
+     * Default constructor.
+     */
+    public ContentNodeBindingContext() {
+        super();
+    }
+
+    /**
+     * Returns the counts of the nodes and properties written and skipped by the bindings in this context.
+     * @return the counts of the nodes and properties written and skipped by the bindings in this context
+     */
+    public ContentNodeBindingStatistics getBindingStatistics() {
+        return bindingStatistics;
+    }
+
+    /**
+     * Returns the node at the {@code path}, from the cache if already resolved, or null if not existing.
+     * @param session JCR session
+     * @param path absolute node path
+     * @return the node at the {@code path}, or null if not existing
+     * @throws RepositoryException if repository exception occurs
+     */
+    public Node resolveNode(Session session, String path) throws RepositoryException {
+        Node node = resolvedNodes.get(path);
+
+        if (node != null) {
+            try {
+                // a cached node may have been removed by a later binding, e.g, to be added again.
+                node.getIdentifier();
+                return node;
+            } catch (InvalidItemStateException e) {
+                resolvedNodes.remove(path);
+            }
+        }
+
+        if (!session.nodeExists(path)) {
+            return null;
+        }
+
+        node = session.getNode(path);
+        resolvedNodes.put(path, node);
+        return node;
+    }
+
+    /**
+     * Defers setting the {@code propName} reference property of the {@code node} to the node at the {@code path}.
+     * @param node JCR node having the reference property
+     * @param propName reference property name
+     * @param path absolute path of the referenced node
+     */
+    public void deferReference(Node node, String propName, String path) {
+        DeferredReference reference = new DeferredReference(node, propName, path);
+        // replaces any reference deferred earlier for the same property.
+        deferredReferences.remove(reference);
+        deferredReferences.add(reference);
+        deferredSinceSave.add(reference);
+    }
+
+    /**
+     * Invoked when the {@code propName} reference property of the {@code node} has been set directly,
+     * to cancel any reference deferred earlier for the same property.
+     */
+    void referenceBound(Node node, String propName) {
+        if (!deferredReferences.isEmpty()) {
+            deferredReferences.remove(new DeferredReference(node, propName, null));
+        }
+    }
+
+    /**
+     * Returns the number of references not resolved yet.
+     * @return the number of references not resolved yet
+     */
+    public int getDeferredReferenceCount() {
+        return deferredReferences.size();
+    }
+
+    /**
+     * Returns descriptions of the references not resolved yet, in the form of
+     * <code>&lt;node path&gt;/@&lt;property name&gt; -&gt; &lt;referenced node path&gt;</code>.
+     * @return descriptions of the references not resolved yet
+     */
+    public List<String> getDeferredReferences() {
+        List<String> descriptions = new ArrayList<>(deferredReferences.size());
+
+        for (DeferredReference reference : deferredReferences) {
+            descriptions.add(reference.toString());
+        }
+
+        return descriptions;
+    }
+
+    /**
+     * Sets the deferred reference properties to the referenced nodes existing by now. The references to nodes
+     * still not existing stay deferred, while the references of nodes removed in the meantime are dropped.
+     * @return the number of resolved references
+     * @throws RepositoryException if repository exception occurs
+     */
+    public int resolveDeferredReferences() throws RepositoryException {
+        int resolvedCount = 0;
+
+        for (Iterator<DeferredReference> it = deferredReferences.iterator(); it.hasNext(); ) {
+            DeferredReference reference = it.next();
+
+            try {
+                Node target = resolveNode(reference.node.getSession(), reference.path);
+
+                if (target == null) {
+                    continue;
+                }
+
+                reference.node.setProperty(reference.propName, target);
+                resolvedSinceSave.add(reference);
+                ++resolvedCount;
+            } catch (InvalidItemStateException e) {
+                log.warn("Dropping the reference {} of a removed node.", reference);
+            }
+
+            it.remove();
+        }
+
+        return resolvedCount;
+    }
+
+    /**
+     * Invoked after the session has been saved, to keep the references resolved so far.
+     */
+    public void saved() {
+        deferredSinceSave.clear();
+        resolvedSinceSave.clear();
+    }
+
+    /**
+     * Invoked after the pending changes of the session have been discarded, to drop the references deferred by
+     * the discarded bindings, to defer again the references resolved since the last save and to clear the cache.
+     */
+    public void discarded() {
+        deferredSinceSave.forEach(deferredReferences::remove);
+        resolvedSinceSave.removeAll(deferredSinceSave);
+        deferredReferences.addAll(resolvedSinceSave);
+        deferredSinceSave.clear();
+        resolvedSinceSave.clear();
+        resolvedNodes.clear();
+    }
+
+    /**
+     * Clears the cached nodes and the deferred references.
+     */
+    public void clear() {
+        resolvedNodes.clear();
+        deferredReferences.clear();
+        deferredSinceSave.clear();
+        resolvedSinceSave.clear();
+    }
+
+    /**
+     * A reference property to set once the referenced node exists.
+     */
+    private static class DeferredReference {
+
+        private final Node node;
+
+        private final String propName;
+
+        private final String path;
+
+        private DeferredReference(Node node, String propName, String path) {
+            this.node = node;
+            this.propName = propName;
+            this.path = path;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof DeferredReference)) {
+                return false;
+            }
+
+            DeferredReference that = (DeferredReference) o;
+            return node == that.node && propName.equals(that.propName);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(node) * 31 + propName.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            String nodePath;
+
+            try {
+                nodePath = node.getPath();
+            } catch (RepositoryException e) {
+                nodePath = String.valueOf(node);
+            }
+
+            return nodePath + "/@" + propName + " -> " + path;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import java.io.Serializable;
+
+/**
+ * Counts of the JCR nodes and properties which were written or left untouched by a {@link DefaultJcrContentNodeBinder},
+ * accumulated over the bindings in a {@link ContentNodeBindingContext} since the statistics were last reset.
+ * <P>
+ * A node is counted as written if it was added or if its primary type, mixin types or any of its properties
+ * were written, and as skipped otherwise. Removed child nodes and whole subtrees skipped because of a matching
+ * fingerprint are counted separately.
+ * </P>
+ */
+public class ContentNodeBindingStatistics implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long writtenNodeCount;
+
+    private long skippedNodeCount;
+
+    private long removedNodeCount;
+
+    private long writtenPropertyCount;
+
+    private long skippedPropertyCount;
+
+    private long skippedSubtreeCount;
+
+    /**
+     * Default constructor.
+     */
+    public ContentNodeBindingStatistics() {
+        super();
+    }
+
+    /**
+     * Returns the number of nodes which were added or modified.
+     * @return the number of nodes which were added or modified
+     */
+    public long getWrittenNodeCount() {
+        return writtenNodeCount;
+    }
+
+    /**
+     * Returns the number of bound nodes which were left unmodified.
+     * @return the number of bound nodes which were left unmodified
+     */
+    public long getSkippedNodeCount() {
+        return skippedNodeCount;
+    }
+
+    /**
+     * Returns the number of removed child nodes.
+     * @return the number of removed child nodes
+     */
+    public long getRemovedNodeCount() {
+        return removedNodeCount;
+    }
+
+    /**
+     * Returns the number of properties which were set.
+     * @return the number of properties which were set
+     */
+    public long getWrittenPropertyCount() {
+        return writtenPropertyCount;
+    }
+
+    /**
+     * Returns the number of properties which were not set because the existing values were equal.
+     * @return the number of properties which were not set because the existing values were equal
+     */
+    public long getSkippedPropertyCount() {
+        return skippedPropertyCount;
+    }
+
+    /**
+     * Returns the number of bound subtrees skipped entirely because their fingerprint was unchanged.
+     * @return the number of bound subtrees skipped entirely because their fingerprint was unchanged
+     */
+    public long getSkippedSubtreeCount() {
+        return skippedSubtreeCount;
+    }
+
+    /**
+     * Resets all the counts to zero.
+     */
+    public void reset() {
+        writtenNodeCount = 0;
+        skippedNodeCount = 0;
+        removedNodeCount = 0;
+        writtenPropertyCount = 0;
+        skippedPropertyCount = 0;
+        skippedSubtreeCount = 0;
+    }
+
+    void nodeWritten() {
+        ++writtenNodeCount;
+    }
+
+    void nodeSkipped() {
+        ++skippedNodeCount;
+    }
+
+    void nodeRemoved() {
+        ++removedNodeCount;
+    }
+
+    void propertyWritten() {
+        ++writtenPropertyCount;
+    }
+
+    void propertySkipped() {
+        ++skippedPropertyCount;
+    }
+
+    void subtreeSkipped() {
+        ++skippedSubtreeCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d written node(s), %d skipped node(s), %d removed node(s), "
+                + "%d written property(ies), %d skipped property(ies), %d skipped subtree(s)",
+                writtenNodeCount, skippedNodeCount, removedNodeCount, writtenPropertyCount, skippedPropertyCount,
+                skippedSubtreeCount);
+    }
+}
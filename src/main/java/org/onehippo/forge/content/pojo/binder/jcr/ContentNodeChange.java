@@ -0,0 +1,247 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import java.io.Serializable;
+
+import org.onehippo.forge.content.pojo.model.ContentProperty;
+
+/**
+ * A single change to JCR nodes, planned by {@link DefaultJcrContentNodeBinder#plan(javax.jcr.Node,
+ * org.onehippo.forge.content.pojo.model.ContentNode)} and applied by
+ * {@link DefaultJcrContentNodeBinder#apply(javax.jcr.Session, ContentNodeChangePlan)}.
+ * <P>
+ * Nodes are referred to by node references: the identifier of an existing node, or a plan-local reference
+ * starting with {@link #ADDED_NODE_REF_PREFIX} for a node added by an earlier change in the same plan.
+ * The path is informational only, for previewing the change.
+ * </P>
+ */
+public class ContentNodeChange implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Prefix of the references of the nodes added by a plan.
+     */
+    public static final String ADDED_NODE_REF_PREFIX = "#";
+
+    /**
+     * Change type.
+     */
+    public enum Type {
+
+        /**
+         * Sets the primary type of the node.
+         */
+        SET_PRIMARY_TYPE,
+
+        /**
+         * Adds the mixin type {@link ContentNodeChange#getName()} to the node.
+         */
+        ADD_MIXIN,
+
+        /**
+         * Sets the property {@link ContentNodeChange#getProperty()} on the node.
+         */
+        SET_PROPERTY,
+
+        /**
+         * Removes the property {@link ContentNodeChange#getName()} from the node.
+         */
+        REMOVE_PROPERTY,
+
+        /**
+         * Removes the node.
+         */
+        REMOVE_NODE,
+
+        /**
+         * Adds the node {@link ContentNodeChange#getName()} under the parent node.
+         */
+        ADD_NODE,
+
+        /**
+         * Moves the node before the sibling node {@link ContentNodeChange#getBeforeRef()} under the parent node,
+         * or to the end if the sibling node reference is null.
+         */
+        ORDER_BEFORE
+    }
+
+    private Type type;
+
+    private String path;
+
+    private String nodeRef;
+
+    private String parentRef;
+
+    private String beforeRef;
+
+    private String name;
+
+    private String primaryType;
+
+    private ContentProperty property;
+
+    private boolean deferred;
+
+    /**
+     * Default constructor for deserialization.
+     */
+    public ContentNodeChange() {
+        super();
+    }
+
+    /**
+     * Constructor with change type, the reference and the path of the changed node.
+     * @param type change type
+     * @param nodeRef reference of the changed node
+     * @param path path of the changed node
+     */
+    public ContentNodeChange(Type type, String nodeRef, String path) {
+        this.type = type;
+        this.nodeRef = nodeRef;
+        this.path = path;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    /**
+     * Returns the path of the changed node, or the path the added node will have.
+     * @return the path of the changed node, or the path the added node will have
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    /**
+     * Returns the reference of the changed, removed, added or moved node.
+     * @return the reference of the changed, removed, added or moved node
+     */
+    public String getNodeRef() {
+        return nodeRef;
+    }
+
+    public void setNodeRef(String nodeRef) {
+        this.nodeRef = nodeRef;
+    }
+
+    /**
+     * Returns the reference of the parent node of an added or moved node.
+     * @return the reference of the parent node of an added or moved node
+     */
+    public String getParentRef() {
+        return parentRef;
+    }
+
+    public void setParentRef(String parentRef) {
+        this.parentRef = parentRef;
+    }
+
+    /**
+     * Returns the reference of the sibling node before which a node is moved, or null if moved to the end.
+     * @return the reference of the sibling node before which a node is moved, or null if moved to the end
+     */
+    public String getBeforeRef() {
+        return beforeRef;
+    }
+
+    public void setBeforeRef(String beforeRef) {
+        this.beforeRef = beforeRef;
+    }
+
+    /**
+     * Returns the name of the added node or the added mixin type.
+     * @return the name of the added node or the added mixin type
+     */
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the primary type to set or of the added node.
+     * @return the primary type to set or of the added node
+     */
+    public String getPrimaryType() {
+        return primaryType;
+    }
+
+    public void setPrimaryType(String primaryType) {
+        this.primaryType = primaryType;
+    }
+
+    /**
+     * Returns the content property to set.
+     * @return the content property to set
+     */
+    public ContentProperty getProperty() {
+        return property;
+    }
+
+    public void setProperty(ContentProperty property) {
+        this.property = property;
+    }
+
+    /**
+     * Returns true if the content property to set is a reference to a node not existing yet when planned,
+     * to be set only when the node exists after the other changes have been applied, as the binder defers it.
+     * @return true if the content property to set is a reference to a node not existing yet when planned
+     */
+    public boolean isDeferred() {
+        return deferred;
+    }
+
+    public void setDeferred(boolean deferred) {
+        this.deferred = deferred;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder().append(type).append(' ').append(path);
+
+        if (type == Type.ADD_MIXIN) {
+            sb.append(" +").append(name);
+        } else if (type == Type.REMOVE_PROPERTY) {
+            sb.append(" -@").append(name);
+        } else if (type == Type.SET_PRIMARY_TYPE) {
+            sb.append(" -> ").append(primaryType);
+        } else if (type == Type.SET_PROPERTY && property != null) {
+            sb.append(" @").append(property.getName()).append('=').append(property.getValues());
+
+            if (deferred) {
+                sb.append(" (deferred)");
+            }
+        } else if (type == Type.ORDER_BEFORE) {
+            sb.append((beforeRef != null) ? " before " + beforeRef : " to end");
+        }
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Ordered list of {@link ContentNodeChange}s which a {@link DefaultJcrContentNodeBinder} would make to bind
+ * a content node, planned without modifying the JCR session. A plan can be previewed, serialized to JSON
+ * and applied later by {@link DefaultJcrContentNodeBinder#apply(javax.jcr.Session, ContentNodeChangePlan)}
+ * in a single pass, in order, without comparing with the JCR nodes again.
+ */
+public class ContentNodeChangePlan implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String rootPath;
+
+    private List<ContentNodeChange> changes = new ArrayList<>();
+
+    /**
+     * Default constructor for deserialization.
+     */
+    public ContentNodeChangePlan() {
+        super();
+    }
+
+    /**
+     * Constructor with the path of the bound root node.
+     * @param rootPath path of the bound root node
+     */
+    public ContentNodeChangePlan(String rootPath) {
+        this.rootPath = rootPath;
+    }
+
+    /**
+     * Returns the path of the bound root node.
+     * @return the path of the bound root node
+     */
+    public String getRootPath() {
+        return rootPath;
+    }
+
+    public void setRootPath(String rootPath) {
+        this.rootPath = rootPath;
+    }
+
+    /**
+     * Returns the changes in the order they are to be applied.
+     * @return the changes in the order they are to be applied
+     */
+    public List<ContentNodeChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<ContentNodeChange> changes) {
+        this.changes = (changes != null) ? changes : new ArrayList<>();
+    }
+
+    /**
+     * Returns true if there is no change to apply.
+     * @return true if there is no change to apply
+     */
+    @JsonIgnore
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * Returns the number of changes of the given {@code type}.
+     * @param type change type
+     * @return the number of changes of the given {@code type}
+     */
+    public int getChangeCount(ContentNodeChange.Type type) {
+        int count = 0;
+
+        for (ContentNodeChange change : changes) {
+            if (change.getType() == type) {
+                ++count;
+            }
+        }
+
+        return count;
+    }
+
+    void addChange(ContentNodeChange change) {
+        changes.add(change);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("Change plan for ").append(rootPath).append(": ")
+                .append(changes.size()).append(" change(s)");
+
+        for (ContentNodeChange change : changes) {
+            sb.append("\n  ").append(change);
+        }
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of a bulk import, reporting the number of imported documents and their estimated bytes,
+ * the number of saved and retried batches, the failed documents and the throughput of the import.
+ */
+public class ContentNodeImportResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long startMillis = System.currentTimeMillis();
+
+    private long documentCount;
+
+    private long byteCount;
+
+    private long batchCount;
+
+    private long retriedBatchCount;
+
+    private long unresolvedReferenceCount;
+
+    private long elapsedMillis;
+
+    private final List<String> failedPaths = new ArrayList<>();
+
+    /**
+     * Default constructor.
+     */
+    public ContentNodeImportResult() {
+        super();
+    }
+
+    /**
+     * Returns the number of imported and saved documents.
+     * @return the number of imported and saved documents
+     */
+    public long getDocumentCount() {
+        return documentCount;
+    }
+
+    /**
+     * Returns the estimated number of bytes of the imported documents.
+     * @return the estimated number of bytes of the imported documents
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Returns the number of successful saves.
+     * @return the number of successful saves
+     */
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * Returns the number of batches which failed and were retried document by document.
+     * @return the number of batches which failed and were retried document by document
+     */
+    public long getRetriedBatchCount() {
+        return retriedBatchCount;
+    }
+
+    /**
+     * Returns the number of references to nodes which did not exist at the end of the import.
+     * @return the number of references to nodes which did not exist at the end of the import
+     */
+    public long getUnresolvedReferenceCount() {
+        return unresolvedReferenceCount;
+    }
+
+    /**
+     * Returns the elapsed time of the import in milliseconds, until the last saved batch or the end.
+     * @return the elapsed time of the import in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Returns the target paths of the documents which failed to be imported.
+     * @return the target paths of the documents which failed to be imported
+     */
+    public List<String> getFailedPaths() {
+        return Collections.unmodifiableList(failedPaths);
+    }
+
+    /**
+     * Returns the number of imported documents per second.
+     * @return the number of imported documents per second
+     */
+    public double getDocumentsPerSecond() {
+        return perSecond(documentCount);
+    }
+
+    /**
+     * Returns the estimated number of imported bytes per second.
+     * @return the estimated number of imported bytes per second
+     */
+    public double getBytesPerSecond() {
+        return perSecond(byteCount);
+    }
+
+    void batchSaved(int batchDocumentCount, long batchByteCount) {
+        ++batchCount;
+        documentCount += batchDocumentCount;
+        byteCount += batchByteCount;
+        finished();
+    }
+
+    void batchRetried() {
+        ++retriedBatchCount;
+    }
+
+    void referencesUnresolved(long count) {
+        unresolvedReferenceCount = count;
+    }
+
+    void documentFailed(String path) {
+        failedPaths.add(path);
+    }
+
+    void finished() {
+        elapsedMillis = System.currentTimeMillis() - startMillis;
+    }
+
+    private double perSecond(long count) {
+        return (elapsedMillis > 0) ? count * 1000.0 / elapsedMillis : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%d document(s), %d byte(s) in %d batch(es) in %d ms (%.1f docs/s, %.1f bytes/s), "
+                        + "%d retried batch(es), %d failure(s), %d unresolved reference(s)",
+                documentCount, byteCount, batchCount, elapsedMillis, getDocumentsPerSecond(), getBytesPerSecond(),
+                retriedBatchCount, failedPaths.size(), unresolvedReferenceCount);
+    }
+}
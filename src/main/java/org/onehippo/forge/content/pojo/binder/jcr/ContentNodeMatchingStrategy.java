@@ -0,0 +1,79 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import java.util.Map;
+
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+
+import org.onehippo.forge.content.pojo.model.ContentNode;
+
+/**
+ * Strategy pairing child content nodes with existing JCR child nodes of the same name and primary type by a key,
+ * used by {@link DefaultJcrContentNodeBinder} when merging sub nodes or binding them in place in change detection
+ * mode. A child content node is paired with an existing JCR child node having the same key, and the child nodes
+ * left unpaired are paired by position as without a strategy. Keys are only used among same-name siblings, where
+ * pairing by key may differ from pairing by position.
+ */
+public interface ContentNodeMatchingStrategy {
+
+    /**
+     * Returns the key of the child {@code contentNode}, or null if it has no key.
+     * @param contentNode child content node
+     * @return the key of the child {@code contentNode}, or null if it has no key
+     */
+    String getContentNodeKey(ContentNode contentNode);
+
+    /**
+     * Returns the key of the child {@code contentNode} as {@link #getContentNodeKey(ContentNode)} does, reusing
+     * the {@code keys} computed earlier in the same binding and adding the computed one. A strategy may also add
+     * the keys of the descendants computed along, e.g, the digests of the subtrees. By default, only the key of
+     * the {@code contentNode} is cached.
+     * @param contentNode child content node
+     * @param keys keys computed earlier in the same binding by content node identity
+     * @return the key of the child {@code contentNode}, or null if it has no key
+     */
+    default String getContentNodeKey(ContentNode contentNode, Map<ContentNode, String> keys) {
+        return keys.computeIfAbsent(contentNode, this::getContentNodeKey);
+    }
+
+    /**
+     * Returns the key of the existing JCR child {@code node}, or null if it has no key.
+     * @param node JCR child node
+     * @return the key of the existing JCR child {@code node}, or null if it has no key
+     * @throws RepositoryException if repository exception occurs
+     */
+    String getJcrNodeKey(Node node) throws RepositoryException;
+
+    /**
+     * Returns the name of the property in which the binder stores the key of each bound child content node
+     * on the JCR child node, or null if the key is bound from the content node itself. Null by default.
+     * @return the name of the property storing the key of each bound child content node, or null
+     */
+    default String getKeyPropertyName() {
+        return null;
+    }
+
+    /**
+     * Returns true if equal keys imply equal content, e.g, for a content digest, in which case the JCR child nodes
+     * paired by key are left untouched instead of being bound again. False by default.
+     * @return true if equal keys imply equal content
+     */
+    default boolean isContentKey() {
+        return false;
+    }
+}
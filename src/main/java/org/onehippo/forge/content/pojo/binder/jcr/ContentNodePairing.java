@@ -0,0 +1,151 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+
+import org.onehippo.forge.content.pojo.model.ContentNode;
+
+/**
+ * Pairing of child content nodes with existing JCR child nodes of the same name and primary type, by the keys of
+ * a {@link ContentNodeMatchingStrategy} first if any, and by position for the ones left unpaired.
+ * Keys are only computed for the child nodes having same-name siblings in the content or in JCR, as a single
+ * content node and a single JCR node would be paired by position anyway.
+ * Used internally by {@link DefaultJcrContentNodeBinder} and its change planner.
+ */
+class ContentNodePairing {
+
+    private final ContentNodeMatchingStrategy strategy;
+
+    /**
+     * Keys of the content nodes computed in the same binding, by content node identity.
+     */
+    private final Map<ContentNode, String> keys;
+
+    private final Map<ContentNode, Node> targets = new IdentityHashMap<>();
+
+    private final Map<ContentNode, String> contentKeys = new IdentityHashMap<>();
+
+    private final Set<ContentNode> keyMatched = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final Set<Node> pairedNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    ContentNodePairing(ContentNodeMatchingStrategy strategy, Map<ContentNode, String> keys) {
+        this.strategy = strategy;
+        this.keys = keys;
+    }
+
+    /**
+     * Pairs the {@code sources} content nodes with the {@code candidates} JCR nodes, all having the same name
+     * and primary type.
+     * @param sources child content nodes in order
+     * @param candidates existing JCR child nodes in order
+     * @throws RepositoryException if repository exception occurs
+     */
+    void pair(List<ContentNode> sources, List<Node> candidates) throws RepositoryException {
+        List<ContentNode> unpairedSources = sources;
+
+        if (strategy != null && (sources.size() > 1 || candidates.size() > 1)) {
+            Map<String, Deque<Node>> candidatesByKey = new HashMap<>();
+
+            for (Node candidate : candidates) {
+                String key = strategy.getJcrNodeKey(candidate);
+                if (key != null) {
+                    candidatesByKey.computeIfAbsent(key, k -> new ArrayDeque<>()).add(candidate);
+                }
+            }
+
+            unpairedSources = new ArrayList<>();
+
+            for (ContentNode source : sources) {
+                String key = strategy.getContentNodeKey(source, keys);
+                Deque<Node> matches = (key != null) ? candidatesByKey.get(key) : null;
+
+                if (key != null) {
+                    contentKeys.put(source, key);
+                }
+
+                if (matches != null && !matches.isEmpty()) {
+                    Node target = matches.poll();
+                    targets.put(source, target);
+                    pairedNodes.add(target);
+                    keyMatched.add(source);
+                } else {
+                    unpairedSources.add(source);
+                }
+            }
+        }
+
+        int index = 0;
+
+        for (Node candidate : candidates) {
+            if (index >= unpairedSources.size()) {
+                break;
+            }
+            if (!pairedNodes.contains(candidate)) {
+                targets.put(unpairedSources.get(index++), candidate);
+                pairedNodes.add(candidate);
+            }
+        }
+    }
+
+    /**
+     * Returns the JCR node paired with the {@code source} content node, or null if it is to be added.
+     */
+    Node getTarget(ContentNode source) {
+        return targets.get(source);
+    }
+
+    /**
+     * Returns true if the {@code node} has been paired with a content node.
+     */
+    boolean isPaired(Node node) {
+        return pairedNodes.contains(node);
+    }
+
+    /**
+     * Returns true if the {@code source} content node has been paired by a content key, so that its paired
+     * JCR node already holds the same content.
+     */
+    boolean isUnchanged(ContentNode source) {
+        return strategy != null && strategy.isContentKey() && keyMatched.contains(source);
+    }
+
+    /**
+     * Returns the name of the property in which to store the content node keys, or null if not stored.
+     */
+    String getKeyPropertyName() {
+        return (strategy != null) ? strategy.getKeyPropertyName() : null;
+    }
+
+    /**
+     * Returns the key of the {@code source} content node, or null if it has no key.
+     */
+    String getContentKey(ContentNode source) {
+        return contentKeys.get(source);
+    }
+}
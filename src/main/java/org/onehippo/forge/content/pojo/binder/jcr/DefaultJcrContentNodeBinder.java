@@ -15,47 +15,121 @@
  */
 package org.onehippo.forge.content.pojo.binder.jcr;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
+import javax.jcr.Binary;
 import javax.jcr.Node;
 import javax.jcr.NodeIterator;
 import javax.jcr.Property;
+import javax.jcr.PropertyIterator;
+import javax.jcr.PropertyType;
 import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.UnsupportedRepositoryOperationException;
 import javax.jcr.Value;
 import javax.jcr.ValueFormatException;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.hippoecm.repository.HippoStdNodeType;
 import org.hippoecm.repository.api.HippoNodeType;
 import org.onehippo.forge.content.pojo.binder.ContentNodeBinder;
 import org.onehippo.forge.content.pojo.binder.ContentNodeBindingException;
 import org.onehippo.forge.content.pojo.binder.ContentNodeBindingItemFilter;
+import org.onehippo.forge.content.pojo.common.ContentNodeMetrics;
 import org.onehippo.forge.content.pojo.common.ContentValueConverter;
 import org.onehippo.forge.content.pojo.common.jcr.DefaultJcrContentValueConverter;
+import org.onehippo.forge.content.pojo.common.jfr.BinaryConversionEvent;
+import org.onehippo.forge.content.pojo.common.jfr.ContentNodeBindEvent;
+import org.onehippo.forge.content.pojo.common.jfr.ReferenceResolutionEvent;
+import org.onehippo.forge.content.pojo.common.util.ContentNodeDigestUtils;
 import org.onehippo.forge.content.pojo.model.BinaryValue;
 import org.onehippo.forge.content.pojo.model.ContentItem;
 import org.onehippo.forge.content.pojo.model.ContentNode;
 import org.onehippo.forge.content.pojo.model.ContentProperty;
 import org.onehippo.forge.content.pojo.model.ContentPropertyType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Default {@link ContentNodeBinder} implementation for JCR.
+ * <P>
+ * In change detection mode, the converted values are compared with the existing JCR property values and written
+ * only when they differ, and existing child nodes are bound in place instead of being removed and added again,
+ * so that re-binding unchanged content leaves the JCR nodes unmodified. The numbers of written and skipped nodes
+ * and properties are reported in any mode by the {@link ContentNodeBindingContext#getBindingStatistics() statistics}
+ * of the binding context, and returned by {@link #bindAll(List, ContentNode)}, {@link #patch(Node, ContentNode,
+ * Collection)} and {@link #apply(Session, ContentNodeChangePlan)}.
+ * </P>
+ * <P>
+ * If a fingerprint property name is set, a digest of the whole content node subtree is stored in the property
+ * of the bound node, and binding a content node subtree having the same digest as the stored one is skipped
+ * without reading the existing JCR subtree. The digest covers the content only, so the stored fingerprints
+ * should be removed when the binding modes, the item filter or the value converter are changed.
+ * </P>
+ * <P>
+ * The values of {@link ContentPropertyType#PATH} properties are resolved through a {@link ContentNodeBindingContext},
+ * which caches the resolved nodes and defers the references to nodes which do not exist yet. A binding without
+ * an explicit context resolves the deferred references at its end, so that references to nodes bound later
+ * in the same content node tree are kept, while a context shared by the bindings of a batch can defer
+ * the references until the whole batch has been bound.
+ * </P>
+ * <P>
+ * When merging sub nodes or binding them in place in change detection mode, child content nodes are paired with
+ * the existing JCR child nodes of the same name and primary type by position, or by the keys of
+ * a {@link ContentNodeMatchingStrategy} if set, e.g, by a stable identifier or by a content digest, so that
+ * reordering a list of compound child nodes moves the existing JCR child nodes instead of rewriting all of them,
+ * with the minimal number of moves. In the default mode, the JCR child nodes of the same name and primary type
+ * as the child content nodes are removed and the child content nodes are added again in their order instead.
+ * </P>
  */
 public class DefaultJcrContentNodeBinder implements ContentNodeBinder<Node, ContentItem, Value> {
 
     private static final long serialVersionUID = 1L;
 
+    private static Logger log = LoggerFactory.getLogger(DefaultJcrContentNodeBinder.class);
+
     private static final String NT_COMPOUND = "hippo:compound";
     private static final String NT_IMAGE_LINK = "hippogallerypicker:imagelink";
 
+    private static final Set<String> COMPOUND_TYPES = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(
+            NT_COMPOUND, HippoNodeType.NT_MIRROR, HippoStdNodeType.NT_HTML, NT_IMAGE_LINK)));
+
     private boolean subNodesMergingOnly;
     private boolean fullOverwriteMode;
+    private boolean changeDetectionMode;
+    private String fingerprintPropertyName;
+    private String fingerprintMixinType;
+    private ContentNodeMatchingStrategy subNodeMatchingStrategy;
+    private transient ContentNodeMetrics metrics;
+
+    /**
+     * State of the binding in progress on the current thread, for the protected hooks to reach it, while the state
+     * is passed down explicitly otherwise, including to the package-private variants of the hooks. A hook invoked
+     * outside a binding on the current thread, e.g, on another thread, runs as a binding of its own.
+     * A binder keeps no state of its own, so that it can be shared by threads.
+     */
+    private static final ThreadLocal<BindState> CURRENT_STATE = new ThreadLocal<>();
+
+    /**
+     * Node type metadata caches per session, shared by all the bindings on the same session.
+     */
+    private transient Map<Session, NodeTypeMetadataCache> nodeTypeMetadataCaches = createNodeTypeMetadataCaches();
 
     public boolean isSubNodesMergingOnly() {
         return subNodesMergingOnly;
@@ -73,6 +147,77 @@ public class DefaultJcrContentNodeBinder implements ContentNodeBinder<Node, Cont
         this.fullOverwriteMode = fullOverwriteMode;
     }
 
+    public boolean isChangeDetectionMode() {
+        return changeDetectionMode;
+    }
+
+    public void setChangeDetectionMode(boolean changeDetectionMode) {
+        this.changeDetectionMode = changeDetectionMode;
+    }
+
+    public String getFingerprintPropertyName() {
+        return fingerprintPropertyName;
+    }
+
+    /**
+     * Sets the name of the property storing the digest of the bound content node subtree on the bound node,
+     * or null to disable fingerprinting.
+     * @param fingerprintPropertyName fingerprint property name, or null to disable fingerprinting
+     */
+    public void setFingerprintPropertyName(String fingerprintPropertyName) {
+        this.fingerprintPropertyName = fingerprintPropertyName;
+    }
+
+    public String getFingerprintMixinType() {
+        return fingerprintMixinType;
+    }
+
+    /**
+     * Sets the mixin type to add to the bound node before setting the fingerprint property, if the property
+     * is defined by a mixin type, or null if no mixin type is needed.
+     * @param fingerprintMixinType fingerprint mixin type, or null
+     */
+    public void setFingerprintMixinType(String fingerprintMixinType) {
+        this.fingerprintMixinType = fingerprintMixinType;
+    }
+
+    public ContentNodeMatchingStrategy getSubNodeMatchingStrategy() {
+        return subNodeMatchingStrategy;
+    }
+
+    /**
+     * Sets the strategy pairing child content nodes with existing JCR child nodes by key when merging sub nodes
+     * or binding them in place in change detection mode, or null to pair them by position.
+     * @param subNodeMatchingStrategy sub node matching strategy, or null to pair child nodes by position
+     */
+    public void setSubNodeMatchingStrategy(ContentNodeMatchingStrategy subNodeMatchingStrategy) {
+        this.subNodeMatchingStrategy = subNodeMatchingStrategy;
+    }
+
+    /**
+     * Returns the metrics receiving the counters and timings of the bindings, {@link ContentNodeMetrics#NOOP}
+     * by default.
+     * @return the metrics receiving the counters and timings of the bindings
+     */
+    public ContentNodeMetrics getMetrics() {
+        return (metrics != null) ? metrics : ContentNodeMetrics.NOOP;
+    }
+
+    /**
+     * Sets the metrics receiving the counters and timings of the bindings, or null to report nothing.
+     * @param metrics metrics, or null to report nothing
+     */
+    public void setMetrics(ContentNodeMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Clears the node type metadata cached per session, e.g, after node types have been (re)registered.
+     */
+    public void clearNodeTypeMetadataCache() {
+        nodeTypeMetadataCaches.clear();
+    }
+
     @Override
     public void bind(Node jcrDataNode, ContentNode contentNode) throws ContentNodeBindingException {
         bind(jcrDataNode, contentNode, null);
@@ -87,75 +232,813 @@ public class DefaultJcrContentNodeBinder implements ContentNodeBinder<Node, Cont
     @Override
     public void bind(Node jcrDataNode, ContentNode contentNode, ContentNodeBindingItemFilter<ContentItem> itemFilter,
                      ContentValueConverter<Value> valueConverter) throws ContentNodeBindingException {
+        runBinding(null, state -> bindInState(state, jcrDataNode, contentNode, itemFilter, valueConverter));
+    }
+
+    /**
+     * Binds only the items of the {@code contentNode} at the relative {@code itemPaths} to the {@code jcrDataNode},
+     * without reading or writing any other item, e.g, to update a few properties of many documents.
+     * @param jcrDataNode JCR node to bind to
+     * @param contentNode content node to bind
+     * @param itemPaths relative paths of the properties or child nodes to bind, such as {@code myns:title}
+     *                  or {@code myns:items[2]/myns:field}
+     * @return the counts of written and skipped nodes and properties
+     * @throws ContentNodeBindingException if binding fails
+     * @see #patch(Node, ContentNode, Collection, ContentNodeBindingItemFilter, ContentValueConverter)
+     */
+    public ContentNodeBindingStatistics patch(Node jcrDataNode, ContentNode contentNode, Collection<String> itemPaths)
+            throws ContentNodeBindingException {
+        return patch(jcrDataNode, contentNode, itemPaths, null, null);
+    }
+
+    /**
+     * Binds only the items of the {@code contentNode} at the relative {@code itemPaths} to the {@code jcrDataNode},
+     * touching only those items and their ancestors in JCR.
+     * <P>
+     * A property is bound as by a full binding, and a child node subtree is bound in the current modes.
+     * The items missing in the {@code contentNode} are removed from JCR if existing, and the missing ancestor
+     * nodes are added with their primary and mixin types only. The fingerprint of the {@code jcrDataNode},
+     * if any, is removed as it no longer covers the JCR subtree.
+     * </P>
+     * @param jcrDataNode JCR node to bind to
+     * @param contentNode content node to bind
+     * @param itemPaths relative paths of the properties or child nodes to bind, such as {@code myns:title}
+     *                  or {@code myns:items[2]/myns:field}
+     * @param itemFilter content item filter
+     * @param valueConverter value converter
+     * @return the counts of written and skipped nodes and properties, including those of the enclosing binding
+     *         if invoked during a binding, e.g, by a subclass hook
+     * @throws ContentNodeBindingException if binding fails
+     * @throws IllegalArgumentException if an item path is not a valid relative path, or denotes a missing same-name
+     *         sibling node that cannot be added at its index, in which case no item is bound
+     */
+    public ContentNodeBindingStatistics patch(Node jcrDataNode, ContentNode contentNode, Collection<String> itemPaths,
+                                              ContentNodeBindingItemFilter<ContentItem> itemFilter,
+                                              ContentValueConverter<Value> valueConverter)
+            throws ContentNodeBindingException {
+        return runBinding(null, state -> {
+            final boolean root = (state.depth == 0);
+            final long start = root ? startTimer() : 0L;
+            final long nodeCount = state.nodeCount;
+            final ContentNodeBindEvent event = root ? beginBindEvent() : null;
+            ++state.depth;
+
+            try {
+                ContentNodeBindingItemFilter<ContentItem> filter = resolveFilter(itemFilter);
+                ContentValueConverter<Value> converter = resolveConverter(jcrDataNode, valueConverter);
+                new JcrContentNodePatcher(this, state, filter, converter).patch(jcrDataNode, contentNode, itemPaths);
+
+                if (fingerprintPropertyName != null && jcrDataNode.hasProperty(fingerprintPropertyName)) {
+                    jcrDataNode.getProperty(fingerprintPropertyName).remove();
+                    propertyWritten(state);
+                }
+            } finally {
+                if (--state.depth == 0) {
+                    stopTimer(ContentNodeMetrics.Timer.BIND, start);
+                    commitBindEvent(state, event, jcrDataNode, nodeCount);
+                }
+            }
+        });
+    }
+
+    /**
+     * Binds the {@code contentNode} to each of the {@code jcrDataNodes}, e.g, to the draft, unpublished and
+     * published variants of a document under a {@code hippo:handle}, converting each content property to JCR values
+     * only once. The converted values, including binary values uploaded once, are shared by all the target nodes
+     * if the target nodes belong to the same session, and converted again for each target node otherwise.
+     * @param jcrDataNodes JCR nodes to bind to
+     * @param contentNode content node to bind
+     * @return the counts of written and skipped nodes and properties
+     * @throws ContentNodeBindingException if binding fails
+     */
+    public ContentNodeBindingStatistics bindAll(List<Node> jcrDataNodes, ContentNode contentNode)
+            throws ContentNodeBindingException {
+        return bindAll(jcrDataNodes, contentNode, null, null);
+    }
+
+    /**
+     * Binds the {@code contentNode} to each of the {@code jcrDataNodes}, converting each content property
+     * to JCR values only once.
+     * @param jcrDataNodes JCR nodes to bind to
+     * @param contentNode content node to bind
+     * @param itemFilter content item filter
+     * @param valueConverter value converter
+     * @return the counts of written and skipped nodes and properties, including those of the enclosing binding
+     *         if invoked during a binding, e.g, by a subclass hook
+     * @throws ContentNodeBindingException if binding fails
+     * @see #bindAll(List, ContentNode)
+     */
+    public ContentNodeBindingStatistics bindAll(List<Node> jcrDataNodes, ContentNode contentNode,
+                                                ContentNodeBindingItemFilter<ContentItem> itemFilter,
+                                                ContentValueConverter<Value> valueConverter)
+            throws ContentNodeBindingException {
+        return runBinding(null, state -> {
+            if (jcrDataNodes.isEmpty()) {
+                return;
+            }
+
+            Map<ContentProperty, Value[]> previousJcrValues = state.sharedJcrValues;
+
+            try {
+                Node firstNode = jcrDataNodes.get(0);
+                ContentValueConverter<Value> converter = resolveConverter(firstNode, valueConverter);
+
+                state.sharedJcrValues =
+                        isSameSession(jcrDataNodes, firstNode.getSession()) ? new IdentityHashMap<>() : null;
+
+                for (Node jcrDataNode : jcrDataNodes) {
+                    bind(jcrDataNode, contentNode, itemFilter, converter);
+                }
+            } finally {
+                state.sharedJcrValues = previousJcrValues;
+            }
+        });
+    }
+
+    private static boolean isSameSession(List<Node> jcrDataNodes, Session session) throws RepositoryException {
+        for (Node jcrDataNode : jcrDataNodes) {
+            if (jcrDataNode.getSession() != session) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Binds the {@code contentNode} to the {@code jcrDataNode} in the binding {@code context}, resolving
+     * the references through the cache of the context and deferring the references to nodes not existing yet
+     * in the context, for the caller to invoke {@link ContentNodeBindingContext#resolveDeferredReferences()}
+     * after binding all the content nodes of a batch. The counts of written and skipped nodes and properties
+     * are added to the {@link ContentNodeBindingContext#getBindingStatistics() statistics} of the context.
+     * @param jcrDataNode JCR node to bind to
+     * @param contentNode content node to bind
+     * @param itemFilter content item filter
+     * @param valueConverter value converter
+     * @param context binding context, or null to resolve the deferred references at the end of the binding
+     * @throws ContentNodeBindingException if binding fails
+     */
+    public void bind(Node jcrDataNode, ContentNode contentNode, ContentNodeBindingItemFilter<ContentItem> itemFilter,
+                     ContentValueConverter<Value> valueConverter, ContentNodeBindingContext context)
+            throws ContentNodeBindingException {
+        // joins the binding state set up for the context.
+        runBinding(context, state -> bind(jcrDataNode, contentNode, itemFilter, valueConverter));
+    }
+
+    /**
+     * Runs the {@code binding} in the state of the binding in progress by this binder on the current thread if any,
+     * i.e, if invoked by a subclass hook during a binding, in the same {@code context}, or in a new state otherwise.
+     * The deferred references are resolved at the end if the {@code context} is null.
+     * @return the statistics of the binding state
+     */
+    private ContentNodeBindingStatistics runBinding(ContentNodeBindingContext context, Binding binding)
+            throws ContentNodeBindingException {
+        try {
+            return runInState(context, binding);
+        } catch (RepositoryException e) {
+            throw new ContentNodeBindingException(e.toString(), e);
+        }
+    }
+
+    /**
+     * Runs a protected hook in the state of the binding in progress by this binder on the current thread, or as
+     * a binding of its own if invoked outside a binding, e.g, by a subclass or on another thread, in which case
+     * the deferred references are resolved at the end of the hook as by a binding instead of being dropped.
+     */
+    private void runHook(Binding hook) throws RepositoryException {
+        runInState(null, hook);
+    }
+
+    private ContentNodeBindingStatistics runInState(ContentNodeBindingContext context, Binding binding)
+            throws RepositoryException {
+        BindState state = currentState();
+
+        if (state != null && (context == null || context == state.context)) {
+            binding.bind(state);
+            return state.statistics;
+        }
+
+        BindState previousState = CURRENT_STATE.get();
+        state = new BindState(this, (context != null) ? context : new ContentNodeBindingContext());
+        CURRENT_STATE.set(state);
+
+        try {
+            binding.bind(state);
+
+            if (context == null) {
+                state.context.resolveDeferredReferences();
+
+                if (state.context.getDeferredReferenceCount() > 0) {
+                    log.debug("Unresolved references: {}", state.context.getDeferredReferences());
+                }
+            }
+        } finally {
+            if (previousState != null) {
+                CURRENT_STATE.set(previousState);
+            } else {
+                CURRENT_STATE.remove();
+            }
+        }
+
+        return state.statistics;
+    }
+
+    /**
+     * Returns the state of the binding in progress by this binder on the current thread, or null if none.
+     */
+    private BindState currentState() {
+        BindState state = CURRENT_STATE.get();
+        return (state != null && state.binder == this) ? state : null;
+    }
+
+    /**
+     * Binds the {@code contentNode} to the {@code jcrDataNode} in the binding {@code state}, as the root
+     * of the binding or as a descendant of the node being bound.
+     */
+    void bindInState(BindState state, Node jcrDataNode, ContentNode contentNode,
+                     ContentNodeBindingItemFilter<ContentItem> itemFilter,
+                     ContentValueConverter<Value> valueConverter) throws ContentNodeBindingException {
+        final boolean root = (state.depth == 0);
+        final long start = root ? startTimer() : 0L;
+        final long nodeCount = state.nodeCount;
+        final ContentNodeBindEvent event = root ? beginBindEvent() : null;
+
         try {
             ContentNodeBindingItemFilter<ContentItem> filter = resolveFilter(itemFilter);
             ContentValueConverter<Value> converter = resolveConverter(jcrDataNode, valueConverter);
 
-            syncPrimaryType(jcrDataNode, contentNode);
-            syncMixinTypes(jcrDataNode, contentNode);
-            bindProperties(jcrDataNode, contentNode, filter, converter);
-            bindSubNodes(jcrDataNode, contentNode, filter, converter);
+            final boolean added = state.addedNodes.remove(jcrDataNode);
+            final boolean rebound = state.reboundNodes.remove(jcrDataNode);
+
+            String fingerprint = null;
+
+            if (root && fingerprintPropertyName != null) {
+                fingerprint = state.fingerprints.computeIfAbsent(contentNode,
+                        n -> ContentNodeDigestUtils.digest(n, fingerprintPropertyName));
+
+                if (hasFingerprint(jcrDataNode, fingerprint)) {
+                    state.statistics.subtreeSkipped();
+                    return;
+                }
+            }
+
+            ++state.depth;
+
+            try {
+                bindNode(state, jcrDataNode, contentNode, filter, converter, added, rebound);
+            } finally {
+                --state.depth;
+            }
+
+            if (fingerprint != null) {
+                setFingerprint(state, jcrDataNode, fingerprint);
+            }
 
         } catch (RepositoryException e) {
             throw new ContentNodeBindingException(e.toString(), e);
+        } finally {
+            if (root) {
+                stopTimer(ContentNodeMetrics.Timer.BIND, start);
+                commitBindEvent(state, event, jcrDataNode, nodeCount);
+            }
+        }
+    }
+
+    private void bindNode(BindState state, Node jcrDataNode, ContentNode contentNode,
+                          ContentNodeBindingItemFilter<ContentItem> filter, ContentValueConverter<Value> converter,
+                          boolean added, boolean rebound) throws RepositoryException {
+
+        final long writtenPropertyCount = state.statistics.getWrittenPropertyCount();
+        getMetrics().increment(ContentNodeMetrics.Counter.NODES_VISITED, 1);
+        ++state.nodeCount;
+
+        boolean typesChanged = syncPrimaryType(jcrDataNode, contentNode);
+        typesChanged |= syncMixinTypes(jcrDataNode, contentNode);
+        bindProperties(jcrDataNode, contentNode, filter, converter);
+
+        if (rebound) {
+            removeStaleProperties(state, jcrDataNode, contentNode, filter);
+        }
+
+        if (!added) {
+            if (typesChanged || state.statistics.getWrittenPropertyCount() > writtenPropertyCount) {
+                state.statistics.nodeWritten();
+            } else {
+                state.statistics.nodeSkipped();
+            }
         }
+
+        bindSubNodes(jcrDataNode, contentNode, filter, converter);
+    }
+
+    private boolean hasFingerprint(Node jcrDataNode, String fingerprint) throws RepositoryException {
+        if (!jcrDataNode.hasProperty(fingerprintPropertyName)) {
+            return false;
+        }
+
+        Property property = jcrDataNode.getProperty(fingerprintPropertyName);
+        return !property.isMultiple() && fingerprint.equals(property.getString());
+    }
+
+    private void setFingerprint(BindState state, Node jcrDataNode, String fingerprint) throws RepositoryException {
+        if (StringUtils.isNotBlank(fingerprintMixinType) && !isNodeType(jcrDataNode, fingerprintMixinType)) {
+            jcrDataNode.addMixin(fingerprintMixinType);
+        }
+
+        jcrDataNode.setProperty(fingerprintPropertyName, fingerprint);
+        propertyWritten(state);
+    }
+
+    /**
+     * Plans the changes which {@link #bind(Node, ContentNode)} would make in the current modes, without modifying
+     * the JCR session.
+     * @param jcrDataNode JCR node to bind to
+     * @param contentNode content node to bind
+     * @return the planned changes
+     * @throws ContentNodeBindingException if the changes cannot be planned
+     */
+    public ContentNodeChangePlan plan(Node jcrDataNode, ContentNode contentNode) throws ContentNodeBindingException {
+        return plan(jcrDataNode, contentNode, null);
+    }
+
+    /**
+     * Plans the changes which {@link #bind(Node, ContentNode, ContentNodeBindingItemFilter)} would make
+     * in the current modes, without modifying the JCR session.
+     * @param jcrDataNode JCR node to bind to
+     * @param contentNode content node to bind
+     * @param itemFilter content item filter
+     * @return the planned changes
+     * @throws ContentNodeBindingException if the changes cannot be planned
+     */
+    public ContentNodeChangePlan plan(Node jcrDataNode, ContentNode contentNode,
+                                      ContentNodeBindingItemFilter<ContentItem> itemFilter)
+            throws ContentNodeBindingException {
+        return plan(jcrDataNode, contentNode, itemFilter, null);
+    }
+
+    /**
+     * Plans the changes which {@link #bind(Node, ContentNode, ContentNodeBindingItemFilter, ContentValueConverter)}
+     * would make in the current modes, without modifying the JCR session. The value converter is used only
+     * to compare values in change detection mode.
+     * @param jcrDataNode JCR node to bind to
+     * @param contentNode content node to bind
+     * @param itemFilter content item filter
+     * @param valueConverter value converter
+     * @return the planned changes
+     * @throws ContentNodeBindingException if the changes cannot be planned
+     */
+    public ContentNodeChangePlan plan(Node jcrDataNode, ContentNode contentNode,
+                                      ContentNodeBindingItemFilter<ContentItem> itemFilter,
+                                      ContentValueConverter<Value> valueConverter) throws ContentNodeBindingException {
+        try {
+            ContentNodeBindingItemFilter<ContentItem> filter = resolveFilter(itemFilter);
+            ContentValueConverter<Value> converter = resolveConverter(jcrDataNode, valueConverter);
+
+            if (fingerprintPropertyName == null) {
+                return new JcrContentNodeChangePlanner(this, filter, converter).plan(jcrDataNode, contentNode);
+            }
+
+            String fingerprint = ContentNodeDigestUtils.digest(contentNode, fingerprintPropertyName);
+
+            if (hasFingerprint(jcrDataNode, fingerprint)) {
+                return new ContentNodeChangePlan(jcrDataNode.getPath());
+            }
+
+            ContentNodeChangePlan plan =
+                    new JcrContentNodeChangePlanner(this, filter, converter).plan(jcrDataNode, contentNode);
+            String nodeRef = jcrDataNode.getIdentifier();
+
+            if (StringUtils.isNotBlank(fingerprintMixinType) && !isNodeType(jcrDataNode, fingerprintMixinType)) {
+                ContentNodeChange change =
+                        new ContentNodeChange(ContentNodeChange.Type.ADD_MIXIN, nodeRef, plan.getRootPath());
+                change.setName(fingerprintMixinType);
+                plan.addChange(change);
+            }
+
+            ContentNodeChange change =
+                    new ContentNodeChange(ContentNodeChange.Type.SET_PROPERTY, nodeRef, plan.getRootPath());
+            ContentProperty fingerprintProp = new ContentProperty(fingerprintPropertyName, ContentPropertyType.STRING);
+            fingerprintProp.setValue(fingerprint);
+            change.setProperty(fingerprintProp);
+            plan.addChange(change);
+
+            return plan;
+        } catch (RepositoryException e) {
+            throw new ContentNodeBindingException(e.toString(), e);
+        }
+    }
+
+    /**
+     * Applies the changes of the {@code plan} in order, without saving the session.
+     * @param session JCR session
+     * @param plan change plan
+     * @return the counts of written and skipped nodes and properties
+     * @throws ContentNodeBindingException if any change cannot be applied
+     */
+    public ContentNodeBindingStatistics apply(Session session, ContentNodeChangePlan plan)
+            throws ContentNodeBindingException {
+        return apply(session, plan, null);
+    }
+
+    /**
+     * Applies the changes of the {@code plan} in order, without saving the session.
+     * @param session JCR session
+     * @param plan change plan
+     * @param valueConverter value converter
+     * @return the counts of written and skipped nodes and properties, including those of the enclosing binding
+     *         if invoked during a binding, e.g, by a subclass hook
+     * @throws ContentNodeBindingException if any change cannot be applied
+     */
+    public ContentNodeBindingStatistics apply(Session session, ContentNodeChangePlan plan,
+                                              ContentValueConverter<Value> valueConverter)
+            throws ContentNodeBindingException {
+        return apply(session, plan, valueConverter, null);
+    }
+
+    /**
+     * Applies the changes of the {@code plan} in order, without saving the session, deferring the references
+     * to nodes which do not exist yet in the {@code context}, as
+     * {@link #bind(Node, ContentNode, ContentNodeBindingItemFilter, ContentValueConverter, ContentNodeBindingContext)}
+     * does.
+     * @param session JCR session
+     * @param plan change plan
+     * @param valueConverter value converter
+     * @param context reference binding context shared by the bindings of a batch, or null to resolve the deferred
+     *        references after applying the plan
+     * @return the counts of written and skipped nodes and properties accumulated in the context
+     * @throws ContentNodeBindingException if any change cannot be applied
+     */
+    public ContentNodeBindingStatistics apply(Session session, ContentNodeChangePlan plan,
+                                              ContentValueConverter<Value> valueConverter,
+                                              ContentNodeBindingContext context)
+            throws ContentNodeBindingException {
+        return runBinding(context, state -> {
+            ContentValueConverter<Value> converter =
+                    (valueConverter != null) ? valueConverter : new DefaultJcrContentValueConverter(session);
+            Map<String, Node> nodes = new HashMap<>();
+
+            for (ContentNodeChange change : plan.getChanges()) {
+                applyChange(state, session, change, nodes, converter);
+            }
+        });
+    }
+
+    private void applyChange(BindState state, Session session, ContentNodeChange change, Map<String, Node> nodes,
+                             ContentValueConverter<Value> valueConverter) throws RepositoryException {
+
+        switch (change.getType()) {
+        case SET_PRIMARY_TYPE:
+            getNodeByRef(session, change.getNodeRef(), nodes).setPrimaryType(change.getPrimaryType());
+            break;
+        case ADD_MIXIN:
+            getNodeByRef(session, change.getNodeRef(), nodes).addMixin(change.getName());
+            break;
+        case SET_PROPERTY:
+            applyProperty(state, getNodeByRef(session, change.getNodeRef(), nodes), change.getProperty(),
+                    valueConverter);
+            break;
+        case REMOVE_PROPERTY:
+            Node node = getNodeByRef(session, change.getNodeRef(), nodes);
+            if (node.hasProperty(change.getName())) {
+                node.getProperty(change.getName()).remove();
+                propertyWritten(state);
+            }
+            break;
+        case REMOVE_NODE:
+            removeNode(state, getNodeByRef(session, change.getNodeRef(), nodes));
+            break;
+        case ADD_NODE:
+            Node parent = getNodeByRef(session, change.getParentRef(), nodes);
+            nodes.put(change.getNodeRef(), parent.addNode(change.getName(), change.getPrimaryType()));
+            state.statistics.nodeWritten();
+            getMetrics().increment(ContentNodeMetrics.Counter.NODES_ADDED, 1);
+            break;
+        case ORDER_BEFORE:
+            try {
+                String beforeRef = change.getBeforeRef();
+                getNodeByRef(session, change.getParentRef(), nodes).orderBefore(
+                        relativePath(getNodeByRef(session, change.getNodeRef(), nodes)),
+                        (beforeRef != null) ? relativePath(getNodeByRef(session, beforeRef, nodes)) : null);
+            } catch (UnsupportedRepositoryOperationException ignore) {
+                // the child nodes are not orderable.
+            }
+            break;
+        default:
+            throw new RepositoryException("Unknown change type: " + change.getType());
+        }
+    }
+
+    private void applyProperty(BindState state, Node jcrDataNode, ContentProperty contentProp,
+                               ContentValueConverter<Value> valueConverter) throws RepositoryException {
+
+        if (ContentPropertyType.PATH.equals(contentProp.getType())) {
+            String pathValue = contentProp.getValue();
+            if (StringUtils.isBlank(pathValue)) {
+                return;
+            }
+            Node targetNode = state.context.resolveNode(jcrDataNode.getSession(), pathValue);
+            if (targetNode == null) {
+                state.context.deferReference(jcrDataNode, contentProp.getName(), pathValue);
+                return;
+            }
+            state.context.referenceBound(jcrDataNode, contentProp.getName());
+            jcrDataNode.setProperty(contentProp.getName(), targetNode);
+            propertyWritten(state);
+        } else {
+            Value[] jcrValues = createJcrValues(state, contentProp, valueConverter);
+            if (jcrValues.length > 0 || contentProp.isMultiple()) {
+                setValueProperty(state, jcrDataNode, contentProp, jcrValues);
+            }
+        }
+    }
+
+    private static Node getNodeByRef(Session session, String nodeRef, Map<String, Node> nodes)
+            throws RepositoryException {
+
+        Node node = nodes.get(nodeRef);
+
+        if (node == null) {
+            if (StringUtils.startsWith(nodeRef, ContentNodeChange.ADDED_NODE_REF_PREFIX)) {
+                throw new RepositoryException("Node not added by the plan: " + nodeRef);
+            }
+
+            node = session.getNodeByIdentifier(nodeRef);
+            nodes.put(nodeRef, node);
+        }
+
+        return node;
     }
 
 
     protected void bindProperties(Node jcrDataNode, ContentNode contentNode,
                                   ContentNodeBindingItemFilter<ContentItem> itemFilter,
                                   ContentValueConverter<Value> valueConverter) throws RepositoryException {
+        runHook(state -> bindProperties(state, jcrDataNode, contentNode, itemFilter, valueConverter));
+    }
+
+    void bindProperties(BindState state, Node jcrDataNode, ContentNode contentNode,
+                        ContentNodeBindingItemFilter<ContentItem> itemFilter,
+                        ContentValueConverter<Value> valueConverter) throws RepositoryException {
+
+        // resolved once per node, after the node types have been synchronized.
+        final NodeTypeMetadataCache.NodeTypeMetadata metadata = getNodeTypeMetadata(jcrDataNode);
 
         for (ContentProperty contentProp : contentNode.getProperties()) {
             if (!itemFilter.accept(contentProp)) {
                 continue;
             }
-            if (isProtectedProperty(jcrDataNode, contentProp.getName())) {
+            if (isProtectedProperty(jcrDataNode, metadata, contentProp.getName())) {
                 continue;
             }
-            bindProperty(jcrDataNode, contentProp, valueConverter);
+            bindProperty(state, jcrDataNode, contentProp, valueConverter);
+        }
+    }
+
+    /**
+     * Removes the properties of the {@code jcrDataNode} bound in place which the {@code contentNode} does not have,
+     * as removing and adding the node again would.
+     */
+    private void removeStaleProperties(BindState state, Node jcrDataNode, ContentNode contentNode,
+                                       ContentNodeBindingItemFilter<ContentItem> itemFilter)
+            throws RepositoryException {
+
+        List<Property> staleProps = new ArrayList<>();
+
+        for (PropertyIterator it = jcrDataNode.getProperties(); it.hasNext(); ) {
+            Property property = it.nextProperty();
+
+            if (isStaleProperty(property, contentNode, itemFilter)) {
+                staleProps.add(property);
+            }
+        }
+
+        for (Property property : staleProps) {
+            final long start = startTimer();
+            property.remove();
+            stopTimer(ContentNodeMetrics.Timer.JCR_WRITE, start);
+            propertyWritten(state);
+        }
+    }
+
+    /**
+     * Returns true if the {@code property} of a JCR node bound in place is to be removed as missing
+     * in the {@code contentNode}, unless protected, not accepted by the {@code itemFilter} or stored by the binder
+     * itself, i.e, the fingerprint or the key of the sub node matching strategy.
+     */
+    boolean isStaleProperty(Property property, ContentNode contentNode,
+                            ContentNodeBindingItemFilter<ContentItem> itemFilter) throws RepositoryException {
+
+        final String propName = property.getName();
+
+        if (contentNode.hasProperty(propName) || propName.equals(fingerprintPropertyName)
+                || (subNodeMatchingStrategy != null && propName.equals(subNodeMatchingStrategy.getKeyPropertyName()))
+                || isProtectedProperty(property)) {
+            return false;
         }
+
+        return itemFilter.accept(new ContentProperty(propName,
+                ContentPropertyType.fromJcrPropertyType(property.getType()), property.isMultiple()));
     }
 
-    private void bindProperty(Node jcrDataNode, ContentProperty contentProp,
-                              ContentValueConverter<Value> valueConverter) throws RepositoryException {
+    void bindProperty(BindState state, Node jcrDataNode, ContentProperty contentProp,
+                      ContentValueConverter<Value> valueConverter) throws RepositoryException {
 
         if (ContentPropertyType.PATH.equals(contentProp.getType())) {
-            bindPathProperty(jcrDataNode, contentProp);
+            bindPathProperty(state, jcrDataNode, contentProp);
         } else {
-            bindValueProperty(jcrDataNode, contentProp, valueConverter);
+            bindValueProperty(state, jcrDataNode, contentProp, valueConverter);
         }
     }
 
-    private void bindPathProperty(Node jcrDataNode, ContentProperty contentProp) throws RepositoryException {
+    private void bindPathProperty(BindState state, Node jcrDataNode, ContentProperty contentProp)
+            throws RepositoryException {
         String pathValue = contentProp.getValue();
         if (StringUtils.isBlank(pathValue)) {
             return;
         }
-        if (!jcrDataNode.getSession().nodeExists(pathValue)) {
+        getMetrics().increment(ContentNodeMetrics.Counter.REFERENCE_LOOKUPS, 1);
+        ReferenceResolutionEvent event = new ReferenceResolutionEvent();
+        event.begin();
+        Node targetNode = state.context.resolveNode(jcrDataNode.getSession(), pathValue);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setPath(jcrDataNode.getPath());
+            event.setPropertyName(contentProp.getName());
+            event.setReferencePath(pathValue);
+            event.setResolved(targetNode != null);
+            event.commit();
+        }
+        if (targetNode == null) {
+            state.context.deferReference(jcrDataNode, contentProp.getName(), pathValue);
+            return;
+        }
+        state.context.referenceBound(jcrDataNode, contentProp.getName());
+        if (isChangeDetectionMode() && hasSameReference(jcrDataNode, contentProp.getName(), targetNode)) {
+            propertySkipped(state);
             return;
         }
-        jcrDataNode.setProperty(contentProp.getName(), jcrDataNode.getSession().getNode(pathValue));
+        final long start = startTimer();
+        jcrDataNode.setProperty(contentProp.getName(), targetNode);
+        stopTimer(ContentNodeMetrics.Timer.JCR_WRITE, start);
+        propertyWritten(state);
     }
 
-    private void bindValueProperty(Node jcrDataNode, ContentProperty contentProp,
+    private void bindValueProperty(BindState state, Node jcrDataNode, ContentProperty contentProp,
                                    ContentValueConverter<Value> valueConverter) throws RepositoryException {
 
-        Value[] jcrValues = createJcrValues(contentProp, valueConverter);
-        if (jcrValues.length == 0) {
-            if (contentProp.isMultiple()) {
-                int jcrType = ContentPropertyType.toJcrPropertyType(contentProp.getType());
-                jcrDataNode.setProperty(contentProp.getName(), new Value[0], jcrType);
-            }
+        Value[] jcrValues = createJcrValues(state, contentProp, valueConverter);
+        String propName = contentProp.getName();
+
+        if (jcrValues.length == 0 && !contentProp.isMultiple()) {
             return;
         }
 
+        if (isChangeDetectionMode() && hasSameValues(jcrDataNode, propName, contentProp.isMultiple(), jcrValues)) {
+            propertySkipped(state);
+            return;
+        }
+
+        setValueProperty(state, jcrDataNode, contentProp, jcrValues);
+    }
+
+    private void setValueProperty(BindState state, Node jcrDataNode, ContentProperty contentProp, Value[] jcrValues)
+            throws RepositoryException {
+
         String propName = contentProp.getName();
-        if (contentProp.isMultiple()) {
+        final long start = startTimer();
+
+        if (jcrValues.length == 0) {
+            int jcrType = ContentPropertyType.toJcrPropertyType(contentProp.getType());
+            jcrDataNode.setProperty(propName, new Value[0], jcrType);
+        } else if (contentProp.isMultiple()) {
             setMultipleProperty(jcrDataNode, propName, jcrValues);
         } else {
             setSingleProperty(jcrDataNode, propName, jcrValues);
         }
+
+        stopTimer(ContentNodeMetrics.Timer.JCR_WRITE, start);
+        propertyWritten(state);
+
+        if (getMetrics().isEnabled() && ContentPropertyType.BINARY.equals(contentProp.getType())) {
+            // sized from the lengths of the property set, not to read a Binary of each value.
+            getMetrics().increment(ContentNodeMetrics.Counter.BINARY_BYTES_WRITTEN,
+                    getBinaryLength(jcrDataNode.getProperty(propName)));
+        }
+    }
+
+    private static long getBinaryLength(BinaryValue binaryValue) {
+        try {
+            return Math.max(0L, binaryValue.getLength());
+        } catch (IOException e) {
+            log.debug("Cannot read the length of a binary value: {}", e.toString());
+            return 0L;
+        }
+    }
+
+    private static long getBinaryLength(Property property) throws RepositoryException {
+        if (!property.isMultiple()) {
+            return Math.max(0L, property.getLength());
+        }
+
+        long length = 0L;
+
+        for (long valueLength : property.getLengths()) {
+            length += Math.max(0L, valueLength);
+        }
+
+        return length;
+    }
+
+    /**
+     * Returns true if the {@code jcrDataNode} already has the {@code propName} property with the same multiplicity
+     * and the same values as the converted {@code jcrValues}, in which case setting the property can be skipped.
+     * A single-valued property is compared with the first converted value only as that is the only value set.
+     */
+    boolean hasSameValues(Node jcrDataNode, String propName, boolean multiple, Value[] jcrValues)
+            throws RepositoryException {
+
+        if (!jcrDataNode.hasProperty(propName)) {
+            return false;
+        }
+
+        Property property = jcrDataNode.getProperty(propName);
+
+        if (property.isMultiple() != multiple) {
+            return false;
+        }
+
+        if (!multiple) {
+            return isSameValue(property.getValue(), jcrValues[0]);
+        }
+
+        Value[] existingValues = property.getValues();
+
+        if (existingValues.length != jcrValues.length) {
+            return false;
+        }
+
+        for (int i = 0; i < jcrValues.length; i++) {
+            if (!isSameValue(existingValues[i], jcrValues[i])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Compares an existing JCR value with a converted value. A string value is considered equal to an existing value
+     * of any other non-binary type having the same string representation, as the repository converts it to the type
+     * required by the property definition when set. Binary values are compared by size first and by content next.
+     * Only the existing binary read from the repository is disposed, as the converted one is still to be set.
+     */
+    private boolean isSameValue(Value existingValue, Value jcrValue) throws RepositoryException {
+        final int existingType = existingValue.getType();
+        final int type = jcrValue.getType();
+
+        if (existingType == PropertyType.BINARY || type == PropertyType.BINARY) {
+            return existingType == type && isSameBinary(existingValue.getBinary(), jcrValue.getBinary());
+        }
+
+        if (existingType != type && type != PropertyType.STRING) {
+            return false;
+        }
+
+        return StringUtils.equals(existingValue.getString(), jcrValue.getString());
+    }
+
+    private boolean isSameBinary(Binary existingBinary, Binary binary) throws RepositoryException {
+        try {
+            if (existingBinary.getSize() != binary.getSize()) {
+                return false;
+            }
+
+            try (InputStream existingInput = existingBinary.getStream(); InputStream input = binary.getStream()) {
+                return IOUtils.contentEquals(existingInput, input);
+            }
+        } catch (IOException e) {
+            throw new RepositoryException("Failed to compare binary values.", e);
+        } finally {
+            existingBinary.dispose();
+        }
+    }
+
+    boolean hasSameReference(Node jcrDataNode, String propName, Node targetNode) throws RepositoryException {
+        if (!jcrDataNode.hasProperty(propName)) {
+            return false;
+        }
+
+        Property property = jcrDataNode.getProperty(propName);
+
+        if (property.isMultiple()) {
+            return false;
+        }
+
+        try {
+            return property.getNode().isSame(targetNode);
+        } catch (ValueFormatException e) {
+            return false;
+        }
     }
 
     private void setMultipleProperty(Node jcrDataNode, String propName, Value[] jcrValues) throws RepositoryException {
@@ -181,10 +1064,16 @@ public class DefaultJcrContentNodeBinder implements ContentNodeBinder<Node, Cont
                                 ContentValueConverter<Value> valueConverter) throws RepositoryException {
 
         if (isFullOverwriteMode()) {
-            removeAllSubNodes(jcrDataNode);
-            addSubNodes(jcrDataNode, contentNode, itemFilter, valueConverter);
+            if (isChangeDetectionMode()) {
+                rebindSubNodes(jcrDataNode, contentNode, itemFilter, valueConverter, true);
+            } else {
+                removeAllSubNodes(jcrDataNode);
+                addSubNodes(jcrDataNode, contentNode, itemFilter, valueConverter);
+            }
         } else if (isSubNodesMergingOnly()) {
             mergeSubNodes(jcrDataNode, contentNode, itemFilter, valueConverter);
+        } else if (isChangeDetectionMode()) {
+            rebindSubNodes(jcrDataNode, contentNode, itemFilter, valueConverter, false);
         } else {
             removeSubNodes(jcrDataNode, contentNode, itemFilter);
             addSubNodes(jcrDataNode, contentNode, itemFilter, valueConverter);
@@ -192,19 +1081,28 @@ public class DefaultJcrContentNodeBinder implements ContentNodeBinder<Node, Cont
     }
 
     protected void removeAllSubNodes(Node jcrDataNode) throws RepositoryException {
+        runHook(state -> removeAllSubNodes(state, jcrDataNode));
+    }
+
+    void removeAllSubNodes(BindState state, Node jcrDataNode) throws RepositoryException {
         NodeIterator children = jcrDataNode.getNodes();
         while (children.hasNext()) {
-            children.nextNode().remove();
+            removeNode(state, children.nextNode());
         }
     }
 
     protected void removeSubNodes(Node jcrDataNode, ContentNode contentNode,
                                   ContentNodeBindingItemFilter<ContentItem> itemFilter) throws RepositoryException {
+        runHook(state -> removeSubNodes(state, jcrDataNode, contentNode, itemFilter));
+    }
+
+    void removeSubNodes(BindState state, Node jcrDataNode, ContentNode contentNode,
+                        ContentNodeBindingItemFilter<ContentItem> itemFilter) throws RepositoryException {
 
         NodeIndex<Node> index = indexJcrChildren(jcrDataNode);
 
         for (Node node : index.getCompounds()) {
-            node.remove();
+            removeNode(state, node);
         }
 
         for (ContentNode child : contentNode.getNodes()) {
@@ -212,7 +1110,7 @@ public class DefaultJcrContentNodeBinder implements ContentNodeBinder<Node, Cont
                 continue;
             }
             for (Node node : index.get(child.getName(), child.getPrimaryType())) {
-                node.remove();
+                removeNode(state, node);
             }
         }
     }
@@ -220,57 +1118,403 @@ public class DefaultJcrContentNodeBinder implements ContentNodeBinder<Node, Cont
     protected void addSubNodes(Node jcrDataNode, ContentNode contentNode,
                                ContentNodeBindingItemFilter<ContentItem> itemFilter,
                                ContentValueConverter<Value> valueConverter) throws RepositoryException {
+        runHook(state -> addSubNodes(state, jcrDataNode, contentNode, itemFilter, valueConverter));
+    }
+
+    void addSubNodes(BindState state, Node jcrDataNode, ContentNode contentNode,
+                     ContentNodeBindingItemFilter<ContentItem> itemFilter,
+                     ContentValueConverter<Value> valueConverter) throws RepositoryException {
 
         for (ContentNode child : contentNode.getNodes()) {
             if (!itemFilter.accept(child)) {
                 continue;
             }
-            Node childJcrNode = jcrDataNode.addNode(child.getName(), child.getPrimaryType());
+            Node childJcrNode = addSubNode(state, jcrDataNode, child);
+            // joins the binding state, through a possibly overridden method.
             bind(childJcrNode, child, itemFilter, valueConverter);
         }
     }
 
+    /**
+     * Binds the child content nodes to the existing JCR child nodes in place, matching them by name and primary type
+     * in order or by the keys of the sub node matching strategy, removes the replaceable JCR child nodes left
+     * unmatched, adds the missing ones and reorders the JCR child nodes only if their order differs. The properties
+     * of the JCR child nodes bound in place which the content nodes do not have are removed, except the protected
+     * ones and the ones not accepted by the item filter, so that the result is the same as removing and adding
+     * the child nodes again, without rewriting the unchanged ones, as long as the JCR child nodes are changed
+     * by the binder only. The JCR child nodes left untouched as holding the same content already by a content key,
+     * e.g, by a {@link ContentDigestMatchingStrategy}, keep any item changed in JCR after they were bound.
+     * @param replaceAll whether all the JCR child nodes are replaceable as in full overwrite mode, or only the
+     *                   compound ones and the ones having the name and primary type of a child content node
+     */
+    protected void rebindSubNodes(Node jcrDataNode, ContentNode contentNode,
+                                  ContentNodeBindingItemFilter<ContentItem> itemFilter,
+                                  ContentValueConverter<Value> valueConverter,
+                                  boolean replaceAll) throws RepositoryException {
+        runHook(state -> rebindSubNodes(state, jcrDataNode, contentNode, itemFilter, valueConverter, replaceAll));
+    }
+
+    void rebindSubNodes(BindState state, Node jcrDataNode, ContentNode contentNode,
+                        ContentNodeBindingItemFilter<ContentItem> itemFilter,
+                        ContentValueConverter<Value> valueConverter,
+                        boolean replaceAll) throws RepositoryException {
+
+        List<ContentNode> contentChildren = new ArrayList<>();
+        Set<String> contentKeys = new LinkedHashSet<>();
+
+        for (ContentNode child : contentNode.getNodes()) {
+            if (itemFilter.accept(child)) {
+                contentChildren.add(child);
+                contentKeys.add(nameTypeKey(child.getName(), child.getPrimaryType()));
+            }
+        }
+
+        List<Node> keptNodes = new ArrayList<>();
+        NodeIndex<Node> replaceableIndex = new NodeIndex<>();
+
+        for (NodeIterator it = jcrDataNode.getNodes(); it.hasNext(); ) {
+            Node child = it.nextNode();
+            String name = child.getName();
+            String type = child.getPrimaryNodeType().getName();
+
+            if (replaceAll || isCompoundType(child) || contentKeys.contains(nameTypeKey(name, type))) {
+                replaceableIndex.add(name, type, child);
+            } else {
+                keptNodes.add(child);
+            }
+        }
+
+        ContentNodePairing pairing = pairSubNodes(contentChildren, replaceableIndex, state.contentKeys);
+        List<Node> boundNodes = new ArrayList<>(contentChildren.size());
+
+        for (ContentNode child : contentChildren) {
+            boundNodes.add(bindPairedSubNode(state, jcrDataNode, child, pairing, itemFilter, valueConverter, true));
+        }
+
+        for (String name : replaceableIndex.getNames()) {
+            for (List<Node> candidates : replaceableIndex.getByName(name).values()) {
+                for (Node candidate : candidates) {
+                    if (!pairing.isPaired(candidate)) {
+                        removeNode(state, candidate);
+                    }
+                }
+            }
+        }
+
+        List<Node> orderedNodes = new ArrayList<>(keptNodes.size() + boundNodes.size());
+        orderedNodes.addAll(keptNodes);
+        orderedNodes.addAll(boundNodes);
+        orderSubNodes(jcrDataNode, orderedNodes);
+    }
+
+    /**
+     * Reorders the JCR child nodes into the {@code orderedNodes} order with the minimal number of moves, keeping
+     * a longest common subsequence of the current and desired orders in place. Nothing is done if the order
+     * is already the same or if the child nodes are not orderable.
+     * <P>
+     * Only called when the child nodes are bound in place, i.e, in change detection mode or when merging sub nodes.
+     * The default and full overwrite modes without change detection are unchanged: they remove the matching JCR
+     * child nodes and add them again in the content order, which needs no {@code orderBefore} at all. Keeping
+     * the nodes in place there would leave the properties and sub nodes dropped from the content on the reused
+     * nodes and keep their identifiers, which is what change detection mode is for.
+     * </P>
+     */
+    private void orderSubNodes(Node jcrDataNode, List<Node> orderedNodes) throws RepositoryException {
+        List<String> currentIds = new ArrayList<>(orderedNodes.size());
+
+        for (NodeIterator it = jcrDataNode.getNodes(); it.hasNext(); ) {
+            currentIds.add(it.nextNode().getIdentifier());
+        }
+
+        List<String> orderedIds = new ArrayList<>(orderedNodes.size());
+        Map<String, Node> nodesById = new HashMap<>();
+
+        for (Node node : orderedNodes) {
+            String id = node.getIdentifier();
+            orderedIds.add(id);
+            nodesById.put(id, node);
+        }
+
+        try {
+            for (ChildNodeOrdering.Move move : ChildNodeOrdering.moves(currentIds, orderedIds)) {
+                Node before = (move.getBeforeRef() != null) ? nodesById.get(move.getBeforeRef()) : null;
+                final long start = startTimer();
+                jcrDataNode.orderBefore(relativePath(nodesById.get(move.getRef())),
+                        (before != null) ? relativePath(before) : null);
+                stopTimer(ContentNodeMetrics.Timer.JCR_WRITE, start);
+            }
+        } catch (UnsupportedRepositoryOperationException ignore) {
+            // the child nodes are not orderable.
+        }
+    }
+
+    /**
+     * Pairs the {@code contentChildren} with the indexed JCR child nodes of the same name and primary type,
+     * reusing and adding to the {@code contentKeys} computed earlier in the same binding.
+     */
+    ContentNodePairing pairSubNodes(List<ContentNode> contentChildren, NodeIndex<Node> jcrIndex,
+                                    Map<ContentNode, String> contentKeys) throws RepositoryException {
+
+        Map<String, List<ContentNode>> contentChildrenByKey = new LinkedHashMap<>();
+
+        for (ContentNode child : contentChildren) {
+            contentChildrenByKey.computeIfAbsent(nameTypeKey(child.getName(), child.getPrimaryType()),
+                    k -> new ArrayList<>()).add(child);
+        }
+
+        ContentNodePairing pairing = new ContentNodePairing(subNodeMatchingStrategy, contentKeys);
+
+        for (List<ContentNode> sources : contentChildrenByKey.values()) {
+            ContentNode first = sources.get(0);
+            pairing.pair(sources, jcrIndex.get(first.getName(), first.getPrimaryType()));
+        }
+
+        return pairing;
+    }
+
+    /**
+     * Binds the {@code child} content node to its paired JCR node, or to a new JCR node if not paired,
+     * unless the paired JCR node is known to hold the same content already.
+     * @param replace whether the paired JCR node replaces the child node, in which case its properties missing
+     *                in the content node are removed, or is merged with it
+     * @return the bound JCR node
+     */
+    private Node bindPairedSubNode(BindState state, Node jcrDataNode, ContentNode child, ContentNodePairing pairing,
+                                   ContentNodeBindingItemFilter<ContentItem> itemFilter,
+                                   ContentValueConverter<Value> valueConverter, boolean replace)
+            throws RepositoryException {
+
+        Node childJcrNode = pairing.getTarget(child);
+
+        if (childJcrNode != null && pairing.isUnchanged(child)) {
+            state.statistics.subtreeSkipped();
+            return childJcrNode;
+        }
+
+        if (childJcrNode == null) {
+            childJcrNode = addSubNode(state, jcrDataNode, child);
+        } else if (replace) {
+            // to remove the stale properties when bound, through a possibly overridden method.
+            state.reboundNodes.add(childJcrNode);
+        }
+
+        bind(childJcrNode, child, itemFilter, valueConverter);
+
+        String keyPropertyName = pairing.getKeyPropertyName();
+        String key = pairing.getContentKey(child);
+
+        if (keyPropertyName != null && key != null) {
+            if (hasSameString(childJcrNode, keyPropertyName, key)) {
+                propertySkipped(state);
+            } else {
+                childJcrNode.setProperty(keyPropertyName, key);
+                propertyWritten(state);
+            }
+        }
+
+        return childJcrNode;
+    }
+
+    static boolean hasSameString(Node jcrDataNode, String propName, String value) throws RepositoryException {
+        if (jcrDataNode == null || !jcrDataNode.hasProperty(propName)) {
+            return false;
+        }
+
+        Property property = jcrDataNode.getProperty(propName);
+        return !property.isMultiple() && value.equals(property.getString());
+    }
+
+    /**
+     * Returns true if the child content nodes are paired with existing JCR child nodes in the current modes,
+     * i.e, when merging sub nodes or binding them in place in change detection mode.
+     */
+    boolean isSubNodePairingMode() {
+        return isFullOverwriteMode() ? isChangeDetectionMode() : (isSubNodesMergingOnly() || isChangeDetectionMode());
+    }
+
+    /**
+     * Adds the JCR child node for the {@code child} content node, about to be bound in the binding {@code state}.
+     */
+    Node addSubNode(BindState state, Node jcrDataNode, ContentNode child) throws RepositoryException {
+        final long start = startTimer();
+        Node childJcrNode = jcrDataNode.addNode(child.getName(), child.getPrimaryType());
+        stopTimer(ContentNodeMetrics.Timer.JCR_WRITE, start);
+        state.statistics.nodeWritten();
+        getMetrics().increment(ContentNodeMetrics.Counter.NODES_ADDED, 1);
+        // not to count the added node twice when bound.
+        state.addedNodes.add(childJcrNode);
+        return childJcrNode;
+    }
+
+    void removeNode(BindState state, Node node) throws RepositoryException {
+        final long start = startTimer();
+        node.remove();
+        stopTimer(ContentNodeMetrics.Timer.JCR_WRITE, start);
+        state.statistics.nodeRemoved();
+        getMetrics().increment(ContentNodeMetrics.Counter.NODES_REMOVED, 1);
+    }
+
+    void propertyWritten(BindState state) {
+        state.statistics.propertyWritten();
+        getMetrics().increment(ContentNodeMetrics.Counter.PROPERTIES_SET, 1);
+    }
+
+    private void propertySkipped(BindState state) {
+        state.statistics.propertySkipped();
+        getMetrics().increment(ContentNodeMetrics.Counter.PROPERTIES_SKIPPED, 1);
+    }
+
+    private static ContentNodeBindEvent beginBindEvent() {
+        ContentNodeBindEvent event = new ContentNodeBindEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits the JFR event of a binding, if enabled, with the number of JCR nodes bound since
+     * {@code nodeCount} nodes had been bound.
+     */
+    private static void commitBindEvent(BindState state, ContentNodeBindEvent event, Node jcrDataNode,
+                                        long nodeCount) {
+        event.end();
+
+        if (event.shouldCommit()) {
+            try {
+                event.setPath(jcrDataNode.getPath());
+            } catch (RepositoryException e) {
+                log.debug("Cannot read the path of the bound node: {}", e.toString());
+            }
+
+            event.setNodeCount(state.nodeCount - nodeCount);
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns the current time in nanoseconds if the metrics are enabled, or 0 without even reading the time.
+     */
+    private long startTimer() {
+        return getMetrics().isEnabled() ? System.nanoTime() : 0L;
+    }
+
+    private void stopTimer(ContentNodeMetrics.Timer timer, long start) {
+        ContentNodeMetrics metrics = getMetrics();
+
+        if (metrics.isEnabled()) {
+            metrics.record(timer, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Adds the JCR child node for the {@code child} content node with its primary and mixin types only,
+     * as an ancestor of the items bound by a patch.
+     */
+    Node addAncestorNode(BindState state, Node jcrDataNode, ContentNode child) throws RepositoryException {
+        Node childJcrNode = addSubNode(state, jcrDataNode, child);
+        state.addedNodes.remove(childJcrNode);
+        syncMixinTypes(childJcrNode, child);
+        return childJcrNode;
+    }
+
+    static String relativePath(Node node) throws RepositoryException {
+        return node.getName() + "[" + node.getIndex() + "]";
+    }
+
+    static String nameTypeKey(String name, String type) {
+        // '|' is not allowed in a JCR name.
+        return name + "|" + type;
+    }
+
     protected void mergeSubNodes(Node jcrDataNode, ContentNode contentNode,
                                  ContentNodeBindingItemFilter<ContentItem> itemFilter,
                                  ContentValueConverter<Value> valueConverter) throws RepositoryException {
+        runHook(state -> mergeSubNodes(state, jcrDataNode, contentNode, itemFilter, valueConverter));
+    }
+
+    void mergeSubNodes(BindState state, Node jcrDataNode, ContentNode contentNode,
+                       ContentNodeBindingItemFilter<ContentItem> itemFilter,
+                       ContentValueConverter<Value> valueConverter) throws RepositoryException {
 
         Map<String, Map<String, List<ContentNode>>> contentIndex = indexContentChildren(contentNode, itemFilter);
         Set<String> contentNames = contentIndex.keySet();
 
         NodeIndex<Node> jcrIndex = indexMergeableJcrChildren(jcrDataNode, contentNames);
 
-        Set<String> mergeableNames = new LinkedHashSet<>(jcrIndex.getNames());
-        mergeableNames.addAll(contentNames);
+        List<ContentNode> sourceNodes = mergeableContentChildren(contentNode, contentIndex, jcrIndex, itemFilter);
+        ContentNodePairing pairing = pairSubNodes(sourceNodes, jcrIndex, state.contentKeys);
+        Map<ContentNode, Node> boundNodes = new IdentityHashMap<>();
 
-        for (String name : mergeableNames) {
-            Map<String, List<Node>> jcrByType = jcrIndex.getByName(name);
-            Map<String, List<ContentNode>> contentByType = contentIndex.getOrDefault(name, Collections.emptyMap());
-            bindMatchingNodesByType(jcrDataNode, jcrByType, contentByType, itemFilter, valueConverter);
+        for (ContentNode source : sourceNodes) {
+            boundNodes.put(source, bindPairedSubNode(state, jcrDataNode, source, pairing, itemFilter,
+                    valueConverter, false));
         }
-    }
 
-    private void bindMatchingNodesByType(Node jcrParent,
-                                         Map<String, List<Node>> jcrNodesByType,
-                                         Map<String, List<ContentNode>> contentNodesByType,
-                                         ContentNodeBindingItemFilter<ContentItem> itemFilter,
-                                         ContentValueConverter<Value> valueConverter) throws RepositoryException {
+        if (subNodeMatchingStrategy != null) {
+            List<Node> orderedBoundNodes = new ArrayList<>(boundNodes.size());
+            Set<String> boundIds = new HashSet<>();
 
-        for (Map.Entry<String, List<ContentNode>> entry : contentNodesByType.entrySet()) {
-            String nodeType = entry.getKey();
-            List<ContentNode> sourceNodes = entry.getValue();
-            List<Node> targetNodes = jcrNodesByType.getOrDefault(nodeType, Collections.emptyList());
+            for (ContentNode child : contentNode.getNodes()) {
+                Node boundNode = boundNodes.get(child);
+                if (boundNode != null) {
+                    orderedBoundNodes.add(boundNode);
+                    boundIds.add(boundNode.getIdentifier());
+                }
+            }
 
-            for (int i = 0; i < sourceNodes.size(); i++) {
-                ContentNode source = sourceNodes.get(i);
-                Node target = (i < targetNodes.size())
-                        ? targetNodes.get(i)
-                        : jcrParent.addNode(source.getName(), source.getPrimaryType());
-                bind(target, source, itemFilter, valueConverter);
+            orderSubNodes(jcrDataNode, mergedOrder(jcrDataNode, orderedBoundNodes, boundIds));
+        }
+    }
+
+    /**
+     * Returns the child content nodes to merge, in content order if the child nodes are paired by key
+     * or grouped by name and primary type otherwise.
+     */
+    List<ContentNode> mergeableContentChildren(ContentNode contentNode,
+                                               Map<String, Map<String, List<ContentNode>>> contentIndex,
+                                               NodeIndex<Node> jcrIndex,
+                                               ContentNodeBindingItemFilter<ContentItem> itemFilter) {
+
+        List<ContentNode> sourceNodes = new ArrayList<>();
+
+        if (subNodeMatchingStrategy != null) {
+            for (ContentNode child : contentNode.getNodes()) {
+                if (itemFilter.accept(child)) {
+                    sourceNodes.add(child);
+                }
             }
+        } else {
+            Set<String> mergeableNames = new LinkedHashSet<>(jcrIndex.getNames());
+            mergeableNames.addAll(contentIndex.keySet());
+
+            for (String name : mergeableNames) {
+                for (List<ContentNode> children : contentIndex.getOrDefault(name, Collections.emptyMap()).values()) {
+                    sourceNodes.addAll(children);
+                }
+            }
+        }
+
+        return sourceNodes;
+    }
+
+    /**
+     * Returns the JCR child nodes in their current order, except that the bound ones take the positions
+     * of the bound ones in the {@code orderedBoundNodes} order.
+     */
+    private List<Node> mergedOrder(Node jcrDataNode, List<Node> orderedBoundNodes, Set<String> boundIds)
+            throws RepositoryException {
+
+        List<Node> orderedNodes = new ArrayList<>();
+        int boundIndex = 0;
+
+        for (NodeIterator it = jcrDataNode.getNodes(); it.hasNext(); ) {
+            Node child = it.nextNode();
+            orderedNodes.add(boundIds.contains(child.getIdentifier()) ? orderedBoundNodes.get(boundIndex++) : child);
         }
+
+        return orderedNodes;
     }
 
-    private NodeIndex<Node> indexJcrChildren(Node jcrDataNode) throws RepositoryException {
+    NodeIndex<Node> indexJcrChildren(Node jcrDataNode) throws RepositoryException {
         NodeIndex<Node> index = new NodeIndex<>();
 
         for (NodeIterator it = jcrDataNode.getNodes(); it.hasNext(); ) {
@@ -287,7 +1531,7 @@ public class DefaultJcrContentNodeBinder implements ContentNodeBinder<Node, Cont
         return index;
     }
 
-    private NodeIndex<Node> indexMergeableJcrChildren(Node jcrDataNode, Set<String> contentNames)
+    NodeIndex<Node> indexMergeableJcrChildren(Node jcrDataNode, Set<String> contentNames)
             throws RepositoryException {
 
         NodeIndex<Node> index = new NodeIndex<>();
@@ -304,7 +1548,7 @@ public class DefaultJcrContentNodeBinder implements ContentNodeBinder<Node, Cont
         return index;
     }
 
-    private Map<String, Map<String, List<ContentNode>>> indexContentChildren(
+    Map<String, Map<String, List<ContentNode>>> indexContentChildren(
             ContentNode contentNode, ContentNodeBindingItemFilter<ContentItem> itemFilter) {
 
         Map<String, Map<String, List<ContentNode>>> index = new LinkedHashMap<>();
@@ -321,18 +1565,55 @@ public class DefaultJcrContentNodeBinder implements ContentNodeBinder<Node, Cont
     }
 
 
-    private Value[] createJcrValues(ContentProperty contentProp,
+    private Value[] createJcrValues(BindState state, ContentProperty contentProp,
                                     ContentValueConverter<Value> valueConverter) throws RepositoryException {
 
+        if (state.sharedJcrValues != null) {
+            Value[] jcrValues = state.sharedJcrValues.get(contentProp);
+
+            if (jcrValues == null) {
+                jcrValues = convertJcrValues(contentProp, valueConverter);
+                state.sharedJcrValues.put(contentProp, jcrValues);
+            }
+
+            return jcrValues;
+        }
+
+        return convertJcrValues(contentProp, valueConverter);
+    }
+
+    Value[] convertJcrValues(ContentProperty contentProp, ContentValueConverter<Value> valueConverter)
+            throws RepositoryException {
+
+        final long start = startTimer();
         List<Value> jcrValues = new ArrayList<>();
 
         if (ContentPropertyType.BINARY.equals(contentProp.getType())) {
+            BinaryConversionEvent event = new BinaryConversionEvent();
+            // sized from the binary values converted, not to read a Binary of each JCR value.
+            final boolean sized = event.isEnabled();
+            long size = 0;
+            event.begin();
+
             for (Object binaryValue : contentProp.getValuesAsObject()) {
                 Value jcrValue = valueConverter.toJcrValue((BinaryValue) binaryValue);
                 if (jcrValue != null) {
                     jcrValues.add(jcrValue);
+
+                    if (sized) {
+                        size += getBinaryLength((BinaryValue) binaryValue);
+                    }
                 }
             }
+
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.setPropertyName(contentProp.getName());
+                event.setSize(size);
+                event.setToJcr(true);
+                event.commit();
+            }
         } else {
             for (String stringValue : contentProp.getValues()) {
                 Value jcrValue = valueConverter.toJcrValue(contentProp.getType().toString(), stringValue);
@@ -342,17 +1623,34 @@ public class DefaultJcrContentNodeBinder implements ContentNodeBinder<Node, Cont
             }
         }
 
+        stopTimer(ContentNodeMetrics.Timer.VALUE_CONVERSION, start);
         return jcrValues.toArray(new Value[0]);
     }
 
     protected boolean isCompoundType(Node node) throws RepositoryException {
+        NodeTypeMetadataCache.NodeTypeMetadata metadata = getNodeTypeMetadata(node);
+
+        if (metadata != null) {
+            return metadata.isCompound();
+        }
+
         return node.isNodeType(NT_COMPOUND)
                 || node.isNodeType(HippoNodeType.NT_MIRROR)
                 || node.isNodeType(HippoStdNodeType.NT_HTML)
                 || node.isNodeType(NT_IMAGE_LINK);
     }
 
+    /**
+     * Returns true if the existing {@code property} is protected, told by the cached node type metadata
+     * of its node, or by its definition if the node types cannot be resolved.
+     */
     protected boolean isProtectedProperty(Property property) throws RepositoryException {
+        NodeTypeMetadataCache.NodeTypeMetadata metadata = getNodeTypeMetadata(property.getParent());
+
+        if (metadata != null) {
+            return metadata.isProtectedProperty(property.getName());
+        }
+
         try {
             return property.getDefinition().isProtected();
         } catch (UnsupportedOperationException ignore) {
@@ -360,39 +1658,147 @@ public class DefaultJcrContentNodeBinder implements ContentNodeBinder<Node, Cont
         }
     }
 
-    private boolean isProtectedProperty(Node jcrDataNode, String propName) throws RepositoryException {
-        if (!jcrDataNode.hasProperty(propName)) {
-            return false;
+    boolean isProtectedProperty(Node jcrDataNode, String propName) throws RepositoryException {
+        return isProtectedProperty(jcrDataNode, getNodeTypeMetadata(jcrDataNode), propName);
+    }
+
+    /**
+     * Returns true if the {@code propName} property is protected, told by {@link #isProtectedProperty(Property)}
+     * if existing, or by the node type {@code metadata} of the {@code jcrDataNode}, if not null, otherwise.
+     */
+    boolean isProtectedProperty(Node jcrDataNode, NodeTypeMetadataCache.NodeTypeMetadata metadata,
+            String propName) throws RepositoryException {
+        if (jcrDataNode.hasProperty(propName)) {
+            return isProtectedProperty(jcrDataNode.getProperty(propName));
         }
-        return isProtectedProperty(jcrDataNode.getProperty(propName));
+
+        return metadata != null && metadata.isProtectedProperty(propName);
     }
 
-    private ContentNodeBindingItemFilter<ContentItem> resolveFilter(ContentNodeBindingItemFilter<ContentItem> filter) {
+    /**
+     * Returns true if the {@code node} is of the {@code nodeTypeName} type, looked up in the cached node type metadata.
+     */
+    boolean isNodeType(Node node, String nodeTypeName) throws RepositoryException {
+        NodeTypeMetadataCache.NodeTypeMetadata metadata = getNodeTypeMetadata(node);
+        return (metadata != null) ? metadata.isNodeType(nodeTypeName) : node.isNodeType(nodeTypeName);
+    }
+
+    /**
+     * Returns the cached metadata of the node types of the {@code node}, or null if unresolvable.
+     */
+    NodeTypeMetadataCache.NodeTypeMetadata getNodeTypeMetadata(Node node) throws RepositoryException {
+        Session session = node.getSession();
+        return nodeTypeMetadataCaches.computeIfAbsent(session, s -> new NodeTypeMetadataCache(COMPOUND_TYPES))
+                .getMetadata(node);
+    }
+
+    private static Map<Session, NodeTypeMetadataCache> createNodeTypeMetadataCaches() {
+        return Collections.synchronizedMap(new WeakHashMap<>());
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        nodeTypeMetadataCaches = createNodeTypeMetadataCaches();
+    }
+
+    ContentNodeBindingItemFilter<ContentItem> resolveFilter(ContentNodeBindingItemFilter<ContentItem> filter) {
         return (filter != null) ? filter : new DefaultContentNodeJcrBindingItemFilter();
     }
 
-    private ContentValueConverter<Value> resolveConverter(Node jcrDataNode, ContentValueConverter<Value> converter)
+    ContentValueConverter<Value> resolveConverter(Node jcrDataNode, ContentValueConverter<Value> converter)
             throws RepositoryException {
         return (converter != null) ? converter : new DefaultJcrContentValueConverter(jcrDataNode.getSession());
     }
 
-    private void syncPrimaryType(Node jcrDataNode, ContentNode contentNode) throws RepositoryException {
+    private boolean syncPrimaryType(Node jcrDataNode, ContentNode contentNode) throws RepositoryException {
         String targetType = contentNode.getPrimaryType();
         if (StringUtils.isBlank(targetType)) {
-            return;
+            return false;
         }
         if (jcrDataNode.getPrimaryNodeType().getName().equals(targetType)) {
-            return;
+            return false;
         }
         jcrDataNode.setPrimaryType(targetType);
+        return true;
     }
 
-    private void syncMixinTypes(Node jcrDataNode, ContentNode contentNode) throws RepositoryException {
+    private boolean syncMixinTypes(Node jcrDataNode, ContentNode contentNode) throws RepositoryException {
+        boolean changed = false;
         for (String mixinType : contentNode.getMixinTypes()) {
-            if (!jcrDataNode.isNodeType(mixinType)) {
+            if (!isNodeType(jcrDataNode, mixinType)) {
                 jcrDataNode.addMixin(mixinType);
+                changed = true;
             }
         }
+        return changed;
+    }
+
+    /**
+     * A binding run in a {@link BindState}.
+     */
+    @FunctionalInterface
+    private interface Binding {
+        void bind(BindState state) throws RepositoryException;
     }
 
+    /**
+     * State of a binding, from its root node down to the bound descendants, passed down the binding instead of
+     * being kept by the binder, so that concurrent or nested bindings do not share any state.
+     */
+    static final class BindState {
+
+        private final DefaultJcrContentNodeBinder binder;
+
+        /**
+         * Reference binding context of the binding.
+         */
+        final ContentNodeBindingContext context;
+
+        /**
+         * Counts of the written and skipped items, held by the reference binding context.
+         */
+        final ContentNodeBindingStatistics statistics;
+
+        /**
+         * The nodes just added and about to be bound, so that their bindings are not counted twice.
+         */
+        final Set<Node> addedNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        /**
+         * The existing nodes about to be bound in place of the child nodes, so that their properties missing
+         * in the content are removed.
+         */
+        final Set<Node> reboundNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        /**
+         * Fingerprints of the bound content nodes, computed once per binding, e.g, for the targets of a fan-out binding.
+         */
+        final Map<ContentNode, String> fingerprints = new IdentityHashMap<>();
+
+        /**
+         * Keys of the child content nodes by the sub node matching strategy, computed once per binding at any depth.
+         */
+        final Map<ContentNode, String> contentKeys = new IdentityHashMap<>();
+
+        /**
+         * JCR values converted from the content properties, shared by the bindings of a fan-out binding.
+         */
+        Map<ContentProperty, Value[]> sharedJcrValues;
+
+        /**
+         * Depth of the node being bound, to handle the fingerprint of the bound root node only.
+         */
+        int depth;
+
+        /**
+         * Number of bound JCR nodes, to report the node count of a binding in its JFR event.
+         */
+        long nodeCount;
+
+        private BindState(DefaultJcrContentNodeBinder binder, ContentNodeBindingContext context) {
+            this.binder = binder;
+            this.context = context;
+            this.statistics = context.getBindingStatistics();
+        }
+    }
 }
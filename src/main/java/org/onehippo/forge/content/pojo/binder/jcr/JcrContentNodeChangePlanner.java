@@ -0,0 +1,489 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.Property;
+import javax.jcr.PropertyIterator;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.Value;
+
+import org.apache.commons.lang3.StringUtils;
+import org.onehippo.forge.content.pojo.binder.ContentNodeBindingItemFilter;
+import org.onehippo.forge.content.pojo.common.ContentValueConverter;
+import org.onehippo.forge.content.pojo.model.ContentItem;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.onehippo.forge.content.pojo.model.ContentProperty;
+import org.onehippo.forge.content.pojo.model.ContentPropertyType;
+
+/**
+ * Plans the changes which a {@link DefaultJcrContentNodeBinder} would make in its current modes, following the same
+ * decisions as the binder but recording them in a {@link ContentNodeChangePlan} instead of modifying the JCR nodes.
+ * The content nodes to be added are planned against no JCR node, as new nodes having no properties or children yet.
+ */
+class JcrContentNodeChangePlanner {
+
+    private final DefaultJcrContentNodeBinder binder;
+
+    private final ContentNodeBindingItemFilter<ContentItem> itemFilter;
+
+    private final ContentValueConverter<Value> valueConverter;
+
+    private Session session;
+
+    private ContentNodeChangePlan plan;
+
+    private int addedNodeCount;
+
+    private final Map<ContentNode, String> matchingKeys = new IdentityHashMap<>();
+
+    JcrContentNodeChangePlanner(DefaultJcrContentNodeBinder binder,
+                                ContentNodeBindingItemFilter<ContentItem> itemFilter,
+                                ContentValueConverter<Value> valueConverter) {
+        this.binder = binder;
+        this.itemFilter = itemFilter;
+        this.valueConverter = valueConverter;
+    }
+
+    ContentNodeChangePlan plan(Node jcrDataNode, ContentNode contentNode) throws RepositoryException {
+        session = jcrDataNode.getSession();
+        plan = new ContentNodeChangePlan(jcrDataNode.getPath());
+        addedNodeCount = 0;
+        matchingKeys.clear();
+        planNode(jcrDataNode, jcrDataNode.getIdentifier(), jcrDataNode.getPath(), contentNode);
+        return plan;
+    }
+
+    /**
+     * Plans the binding of the {@code contentNode} to the {@code jcrDataNode}, or to the node to be added
+     * by the plan if {@code jcrDataNode} is null.
+     */
+    private void planNode(Node jcrDataNode, String nodeRef, String path, ContentNode contentNode)
+            throws RepositoryException {
+        planNode(jcrDataNode, nodeRef, path, contentNode, false);
+    }
+
+    /**
+     * Plans the binding of the {@code contentNode} to the {@code jcrDataNode}, or to the node to be added
+     * by the plan if {@code jcrDataNode} is null, removing the properties missing in the {@code contentNode}
+     * if the {@code jcrDataNode} is {@code rebound} in place of a child node.
+     */
+    private void planNode(Node jcrDataNode, String nodeRef, String path, ContentNode contentNode, boolean rebound)
+            throws RepositoryException {
+
+        planTypes(jcrDataNode, nodeRef, path, contentNode);
+        planProperties(jcrDataNode, nodeRef, path, contentNode);
+
+        if (rebound && jcrDataNode != null) {
+            planStaleProperties(jcrDataNode, nodeRef, path, contentNode);
+        }
+
+        if (jcrDataNode == null) {
+            planAddedSubNodes(nodeRef, path, contentNode, binder.isSubNodePairingMode());
+        } else if (binder.isFullOverwriteMode()) {
+            if (binder.isChangeDetectionMode()) {
+                planRebindSubNodes(jcrDataNode, nodeRef, path, contentNode, true);
+            } else {
+                planRemoveAllSubNodes(jcrDataNode);
+                planAddedSubNodes(nodeRef, path, contentNode, false);
+            }
+        } else if (binder.isSubNodesMergingOnly()) {
+            planMergeSubNodes(jcrDataNode, nodeRef, path, contentNode);
+        } else if (binder.isChangeDetectionMode()) {
+            planRebindSubNodes(jcrDataNode, nodeRef, path, contentNode, false);
+        } else {
+            planRemoveSubNodes(jcrDataNode, contentNode);
+            planAddedSubNodes(nodeRef, path, contentNode, false);
+        }
+    }
+
+    private void planTypes(Node jcrDataNode, String nodeRef, String path, ContentNode contentNode)
+            throws RepositoryException {
+
+        String primaryType = contentNode.getPrimaryType();
+
+        if (jcrDataNode != null && StringUtils.isNotBlank(primaryType)
+                && !jcrDataNode.getPrimaryNodeType().getName().equals(primaryType)) {
+            ContentNodeChange change = new ContentNodeChange(ContentNodeChange.Type.SET_PRIMARY_TYPE, nodeRef, path);
+            change.setPrimaryType(primaryType);
+            plan.addChange(change);
+        }
+
+        for (String mixinType : contentNode.getMixinTypes()) {
+            if (jcrDataNode == null || !binder.isNodeType(jcrDataNode, mixinType)) {
+                ContentNodeChange change = new ContentNodeChange(ContentNodeChange.Type.ADD_MIXIN, nodeRef, path);
+                change.setName(mixinType);
+                plan.addChange(change);
+            }
+        }
+    }
+
+    private void planProperties(Node jcrDataNode, String nodeRef, String path, ContentNode contentNode)
+            throws RepositoryException {
+
+        final NodeTypeMetadataCache.NodeTypeMetadata metadata =
+                (jcrDataNode != null) ? binder.getNodeTypeMetadata(jcrDataNode) : null;
+
+        for (ContentProperty contentProp : contentNode.getProperties()) {
+            if (!itemFilter.accept(contentProp)) {
+                continue;
+            }
+            if (jcrDataNode != null && binder.isProtectedProperty(jcrDataNode, metadata, contentProp.getName())) {
+                continue;
+            }
+            if (isPropertyToSet(jcrDataNode, contentProp)) {
+                ContentNodeChange change = new ContentNodeChange(ContentNodeChange.Type.SET_PROPERTY, nodeRef, path);
+                change.setProperty(contentProp);
+                change.setDeferred(isDeferredReference(contentProp));
+                plan.addChange(change);
+            }
+        }
+    }
+
+    private void planStaleProperties(Node jcrDataNode, String nodeRef, String path, ContentNode contentNode)
+            throws RepositoryException {
+
+        for (PropertyIterator it = jcrDataNode.getProperties(); it.hasNext(); ) {
+            Property property = it.nextProperty();
+
+            if (binder.isStaleProperty(property, contentNode, itemFilter)) {
+                ContentNodeChange change =
+                        new ContentNodeChange(ContentNodeChange.Type.REMOVE_PROPERTY, nodeRef, path);
+                change.setName(property.getName());
+                plan.addChange(change);
+            }
+        }
+    }
+
+    private boolean isPropertyToSet(Node jcrDataNode, ContentProperty contentProp) throws RepositoryException {
+        final String propName = contentProp.getName();
+
+        if (ContentPropertyType.PATH.equals(contentProp.getType())) {
+            String pathValue = contentProp.getValue();
+
+            if (StringUtils.isBlank(pathValue)) {
+                return false;
+            }
+
+            if (!session.nodeExists(pathValue)) {
+                // deferred like the binder does, as the node may be added by the plan or exist by then.
+                return true;
+            }
+
+            return jcrDataNode == null || !binder.isChangeDetectionMode()
+                    || !binder.hasSameReference(jcrDataNode, propName, session.getNode(pathValue));
+        }
+
+        if (jcrDataNode == null || !binder.isChangeDetectionMode()) {
+            return contentProp.isMultiple() || contentProp.getValueCount() > 0;
+        }
+
+        Value[] jcrValues = binder.convertJcrValues(contentProp, valueConverter);
+
+        if (jcrValues.length == 0 && !contentProp.isMultiple()) {
+            return false;
+        }
+
+        return !binder.hasSameValues(jcrDataNode, propName, contentProp.isMultiple(), jcrValues);
+    }
+
+    private boolean isDeferredReference(ContentProperty contentProp) throws RepositoryException {
+        return ContentPropertyType.PATH.equals(contentProp.getType()) && !session.nodeExists(contentProp.getValue());
+    }
+
+    private void planRemoveAllSubNodes(Node jcrDataNode) throws RepositoryException {
+        for (NodeIterator it = jcrDataNode.getNodes(); it.hasNext(); ) {
+            planRemovedNode(it.nextNode());
+        }
+    }
+
+    private void planRemoveSubNodes(Node jcrDataNode, ContentNode contentNode) throws RepositoryException {
+        NodeIndex<Node> index = binder.indexJcrChildren(jcrDataNode);
+        Set<Node> removedNodes = Collections.newSetFromMap(new HashMap<>());
+
+        for (Node node : index.getCompounds()) {
+            if (removedNodes.add(node)) {
+                planRemovedNode(node);
+            }
+        }
+
+        for (ContentNode child : contentNode.getNodes()) {
+            if (!itemFilter.accept(child)) {
+                continue;
+            }
+            for (Node node : index.get(child.getName(), child.getPrimaryType())) {
+                if (removedNodes.add(node)) {
+                    planRemovedNode(node);
+                }
+            }
+        }
+    }
+
+    /**
+     * Plans the addition of the child content nodes, storing their matching keys if the child nodes
+     * are {@code paired} in the current modes.
+     */
+    private void planAddedSubNodes(String parentRef, String parentPath, ContentNode contentNode, boolean paired)
+            throws RepositoryException {
+
+        List<ContentNode> children = new ArrayList<>();
+
+        for (ContentNode child : contentNode.getNodes()) {
+            if (itemFilter.accept(child)) {
+                children.add(child);
+            }
+        }
+
+        // paired with no JCR node, to store the same keys as the binder does.
+        ContentNodePairing pairing = paired ? binder.pairSubNodes(children, new NodeIndex<>(), matchingKeys) : null;
+
+        for (ContentNode child : children) {
+            String childRef = planAddedNode(parentRef, parentPath, child);
+
+            if (pairing != null) {
+                planMatchingKey(null, childRef, childPath(parentPath, child.getName()),
+                        pairing.getKeyPropertyName(), pairing.getContentKey(child));
+            }
+        }
+    }
+
+    private void planMergeSubNodes(Node jcrDataNode, String nodeRef, String path, ContentNode contentNode)
+            throws RepositoryException {
+
+        Map<String, Map<String, List<ContentNode>>> contentIndex = binder.indexContentChildren(contentNode, itemFilter);
+        Set<String> contentNames = contentIndex.keySet();
+
+        NodeIndex<Node> jcrIndex = binder.indexMergeableJcrChildren(jcrDataNode, contentNames);
+
+        List<ContentNode> sourceNodes = binder.mergeableContentChildren(contentNode, contentIndex, jcrIndex,
+                itemFilter);
+        ContentNodePairing pairing = binder.pairSubNodes(sourceNodes, jcrIndex, matchingKeys);
+        Map<ContentNode, String> boundRefs = new IdentityHashMap<>();
+        List<String> currentRefs = new ArrayList<>();
+        Map<String, String> pathsByRef = new HashMap<>();
+
+        for (NodeIterator it = jcrDataNode.getNodes(); it.hasNext(); ) {
+            Node child = it.nextNode();
+            currentRefs.add(child.getIdentifier());
+            pathsByRef.put(child.getIdentifier(), child.getPath());
+        }
+
+        for (ContentNode source : sourceNodes) {
+            String childRef = planPairedSubNode(nodeRef, path, source, pairing, pathsByRef, false);
+            boundRefs.put(source, childRef);
+
+            if (pairing.getTarget(source) == null) {
+                currentRefs.add(childRef);
+            }
+        }
+
+        if (binder.getSubNodeMatchingStrategy() != null) {
+            List<String> orderedBoundRefs = new ArrayList<>(boundRefs.size());
+
+            for (ContentNode child : contentNode.getNodes()) {
+                String childRef = boundRefs.get(child);
+                if (childRef != null) {
+                    orderedBoundRefs.add(childRef);
+                }
+            }
+
+            Set<String> boundRefSet = new HashSet<>(orderedBoundRefs);
+            List<String> orderedRefs = new ArrayList<>(currentRefs.size());
+            int boundIndex = 0;
+
+            for (String ref : currentRefs) {
+                orderedRefs.add(boundRefSet.contains(ref) ? orderedBoundRefs.get(boundIndex++) : ref);
+            }
+
+            planOrderBefore(nodeRef, currentRefs, orderedRefs, pathsByRef);
+        }
+    }
+
+    /**
+     * Plans the same binding of the {@code child} content node to its paired JCR node, or to a new JCR node,
+     * as {@link DefaultJcrContentNodeBinder} does.
+     * @param replace whether the paired JCR node replaces the child node, or is merged with it
+     * @return the reference to the bound node
+     */
+    private String planPairedSubNode(String nodeRef, String path, ContentNode child, ContentNodePairing pairing,
+                                     Map<String, String> pathsByRef, boolean replace) throws RepositoryException {
+
+        Node target = pairing.getTarget(child);
+        String childRef;
+        String childPath;
+
+        if (target != null) {
+            childRef = target.getIdentifier();
+
+            if (pairing.isUnchanged(child)) {
+                return childRef;
+            }
+
+            childPath = target.getPath();
+            planNode(target, childRef, childPath, child, replace);
+        } else {
+            childRef = planAddedNode(nodeRef, path, child);
+            childPath = childPath(path, child.getName());
+            pathsByRef.put(childRef, childPath);
+        }
+
+        planMatchingKey(target, childRef, childPath, pairing.getKeyPropertyName(), pairing.getContentKey(child));
+        return childRef;
+    }
+
+    private void planMatchingKey(Node jcrDataNode, String nodeRef, String path, String keyPropertyName, String key)
+            throws RepositoryException {
+
+        if (keyPropertyName == null || key == null
+                || DefaultJcrContentNodeBinder.hasSameString(jcrDataNode, keyPropertyName, key)) {
+            return;
+        }
+
+        ContentProperty keyProp = new ContentProperty(keyPropertyName, ContentPropertyType.STRING);
+        keyProp.setValue(key);
+
+        ContentNodeChange change = new ContentNodeChange(ContentNodeChange.Type.SET_PROPERTY, nodeRef, path);
+        change.setProperty(keyProp);
+        plan.addChange(change);
+    }
+
+    /**
+     * Plans the same in place binding as {@link DefaultJcrContentNodeBinder#rebindSubNodes}, simulating
+     * the reordering on the node references.
+     */
+    private void planRebindSubNodes(Node jcrDataNode, String nodeRef, String path, ContentNode contentNode,
+                                    boolean replaceAll) throws RepositoryException {
+
+        List<ContentNode> contentChildren = new ArrayList<>();
+        Set<String> contentKeys = new HashSet<>();
+
+        for (ContentNode child : contentNode.getNodes()) {
+            if (itemFilter.accept(child)) {
+                contentChildren.add(child);
+                contentKeys.add(DefaultJcrContentNodeBinder.nameTypeKey(child.getName(), child.getPrimaryType()));
+            }
+        }
+
+        List<Node> currentNodes = new ArrayList<>();
+        List<String> keptRefs = new ArrayList<>();
+        NodeIndex<Node> replaceableIndex = new NodeIndex<>();
+        Map<String, String> pathsByRef = new HashMap<>();
+
+        for (NodeIterator it = jcrDataNode.getNodes(); it.hasNext(); ) {
+            Node child = it.nextNode();
+            String name = child.getName();
+            String type = child.getPrimaryNodeType().getName();
+
+            currentNodes.add(child);
+            pathsByRef.put(child.getIdentifier(), child.getPath());
+
+            if (replaceAll || binder.isCompoundType(child)
+                    || contentKeys.contains(DefaultJcrContentNodeBinder.nameTypeKey(name, type))) {
+                replaceableIndex.add(name, type, child);
+            } else {
+                keptRefs.add(child.getIdentifier());
+            }
+        }
+
+        ContentNodePairing pairing = binder.pairSubNodes(contentChildren, replaceableIndex, matchingKeys);
+        List<String> boundRefs = new ArrayList<>(contentChildren.size());
+        List<String> addedRefs = new ArrayList<>();
+
+        for (ContentNode child : contentChildren) {
+            String childRef = planPairedSubNode(nodeRef, path, child, pairing, pathsByRef, true);
+            boundRefs.add(childRef);
+
+            if (pairing.getTarget(child) == null) {
+                addedRefs.add(childRef);
+            }
+        }
+
+        Set<Node> removedNodes = Collections.newSetFromMap(new HashMap<>());
+
+        for (String name : replaceableIndex.getNames()) {
+            for (List<Node> candidates : replaceableIndex.getByName(name).values()) {
+                for (Node candidate : candidates) {
+                    if (!pairing.isPaired(candidate)) {
+                        planRemovedNode(candidate);
+                        removedNodes.add(candidate);
+                    }
+                }
+            }
+        }
+
+        List<String> currentRefs = new ArrayList<>();
+
+        for (Node child : currentNodes) {
+            if (!removedNodes.contains(child)) {
+                currentRefs.add(child.getIdentifier());
+            }
+        }
+
+        currentRefs.addAll(addedRefs);
+
+        List<String> orderedRefs = new ArrayList<>(keptRefs);
+        orderedRefs.addAll(boundRefs);
+        planOrderBefore(nodeRef, currentRefs, orderedRefs, pathsByRef);
+    }
+
+    private void planOrderBefore(String parentRef, List<String> currentRefs, List<String> orderedRefs,
+                                 Map<String, String> pathsByRef) {
+
+        for (ChildNodeOrdering.Move move : ChildNodeOrdering.moves(currentRefs, orderedRefs)) {
+            ContentNodeChange change = new ContentNodeChange(ContentNodeChange.Type.ORDER_BEFORE, move.getRef(),
+                    pathsByRef.get(move.getRef()));
+            change.setParentRef(parentRef);
+            change.setBeforeRef(move.getBeforeRef());
+            plan.addChange(change);
+        }
+    }
+
+    private void planRemovedNode(Node node) throws RepositoryException {
+        plan.addChange(new ContentNodeChange(ContentNodeChange.Type.REMOVE_NODE, node.getIdentifier(),
+                node.getPath()));
+    }
+
+    private String planAddedNode(String parentRef, String parentPath, ContentNode child)
+            throws RepositoryException {
+
+        String childRef = ContentNodeChange.ADDED_NODE_REF_PREFIX + (++addedNodeCount);
+        String childPath = childPath(parentPath, child.getName());
+
+        ContentNodeChange change = new ContentNodeChange(ContentNodeChange.Type.ADD_NODE, childRef, childPath);
+        change.setParentRef(parentRef);
+        change.setName(child.getName());
+        change.setPrimaryType(child.getPrimaryType());
+        plan.addChange(change);
+
+        planNode(null, childRef, childPath, child);
+        return childRef;
+    }
+
+    private static String childPath(String parentPath, String name) {
+        return ("/".equals(parentPath) ? "" : parentPath) + "/" + name;
+    }
+}
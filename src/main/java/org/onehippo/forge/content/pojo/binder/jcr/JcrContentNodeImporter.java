@@ -0,0 +1,434 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.Value;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.VFS;
+import org.onehippo.forge.content.pojo.binder.ContentNodeBinder;
+import org.onehippo.forge.content.pojo.binder.ContentNodeBindingException;
+import org.onehippo.forge.content.pojo.binder.ContentNodeBindingItemFilter;
+import org.onehippo.forge.content.pojo.binder.ContentNodeBindingTargetPathResolver;
+import org.onehippo.forge.content.pojo.common.ContentNodeException;
+import org.onehippo.forge.content.pojo.common.ContentValueConverter;
+import org.onehippo.forge.content.pojo.common.jcr.DefaultJcrContentValueConverter;
+import org.onehippo.forge.content.pojo.model.ContentItem;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.onehippo.forge.content.pojo.model.ContentProperty;
+import org.onehippo.forge.content.pojo.model.ContentPropertyType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bulk importer binding documents from an {@link Iterator} of {@link ContentNode}s to the JCR nodes at the paths
+ * resolved by a {@link ContentNodeBindingTargetPathResolver}, saving the session in batches to keep the transient
+ * space bounded.
+ * <P>
+ * A batch is saved every {@link #getBatchSize()} documents, or as soon as the estimated size of the documents
+ * in the batch reaches {@link #getBatchByteSize()}. If binding or saving a batch fails, the pending changes are
+ * discarded by <code>session.refresh(false)</code> and the documents of the batch are imported again one by one,
+ * so that only the failing documents are skipped and reported in {@link ContentNodeImportResult#getFailedPaths()}.
+ * The documents of the current batch are kept in memory for that purpose until the batch is saved.
+ * </P>
+ * <P>
+ * With a {@link DefaultJcrContentNodeBinder}, the documents are bound in a {@link ContentNodeBindingContext} shared by
+ * the whole import, so that the resolved reference paths are cached and the references to nodes which do not
+ * exist yet are resolved before saving each batch, including the references to documents of the same batch.
+ * References to documents of a later batch are resolved before saving that batch, and the references still
+ * unresolved at the end are reported in {@link ContentNodeImportResult#getUnresolvedReferenceCount()}.
+ * </P>
+ * <P>
+ * A target node which does not exist yet is added to its parent node. If its parent node does not exist either,
+ * the import of the document fails unless {@link #getFolderNodeType()} is set to create missing ancestors.
+ * </P>
+ */
+public class JcrContentNodeImporter {
+
+    private static Logger log = LoggerFactory.getLogger(JcrContentNodeImporter.class);
+
+    /**
+     * Default maximum number of documents saved in a batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    /**
+     * Default maximum estimated number of bytes of documents saved in a batch.
+     */
+    public static final long DEFAULT_BATCH_BYTE_SIZE = 8L * 1024 * 1024;
+
+    private static final String DATA_URI_SCHEME = "data:";
+
+    private ContentNodeBinder<Node, ContentItem, Value> contentNodeBinder;
+
+    private ContentNodeBindingItemFilter<ContentItem> itemFilter;
+
+    private ContentValueConverter<Value> valueConverter;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    private long batchByteSize = DEFAULT_BATCH_BYTE_SIZE;
+
+    private String folderNodeType;
+
+    /**
+     * Default constructor.
+     */
+    public JcrContentNodeImporter() {
+        this(null, null);
+    }
+
+    /**
+     * Constructs an importer binding each document by the {@code contentNodeBinder} with the {@code itemFilter}.
+     * @param contentNodeBinder content node binder, or null to use a {@link DefaultJcrContentNodeBinder}
+     * @param itemFilter content node binding item filter, or null to use the default filter of the binder
+     */
+    public JcrContentNodeImporter(final ContentNodeBinder<Node, ContentItem, Value> contentNodeBinder,
+            final ContentNodeBindingItemFilter<ContentItem> itemFilter) {
+        this.contentNodeBinder = (contentNodeBinder != null) ? contentNodeBinder : new DefaultJcrContentNodeBinder();
+        this.itemFilter = itemFilter;
+    }
+
+    public ContentNodeBinder<Node, ContentItem, Value> getContentNodeBinder() {
+        return contentNodeBinder;
+    }
+
+    public ContentNodeBindingItemFilter<ContentItem> getItemFilter() {
+        return itemFilter;
+    }
+
+    public ContentValueConverter<Value> getValueConverter() {
+        return valueConverter;
+    }
+
+    /**
+     * Sets the value converter used to bind documents. If null, a {@link DefaultJcrContentValueConverter}
+     * is created for the session of each import.
+     * @param valueConverter value converter
+     */
+    public void setValueConverter(ContentValueConverter<Value> valueConverter) {
+        this.valueConverter = valueConverter;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the maximum number of documents saved in a batch.
+     * @param batchSize the maximum number of documents saved in a batch
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+
+        this.batchSize = batchSize;
+    }
+
+    public long getBatchByteSize() {
+        return batchByteSize;
+    }
+
+    /**
+     * Sets the maximum estimated number of bytes of documents saved in a batch.
+     * @param batchByteSize the maximum estimated number of bytes of documents saved in a batch
+     */
+    public void setBatchByteSize(long batchByteSize) {
+        if (batchByteSize < 1) {
+            throw new IllegalArgumentException("batchByteSize must be positive: " + batchByteSize);
+        }
+
+        this.batchByteSize = batchByteSize;
+    }
+
+    public String getFolderNodeType() {
+        return folderNodeType;
+    }
+
+    /**
+     * Sets the node type of missing ancestor nodes of target nodes to create, e.g, <code>hippostd:folder</code>,
+     * or null not to create missing ancestor nodes.
+     * @param folderNodeType the node type of missing ancestor nodes of target nodes to create
+     */
+    public void setFolderNodeType(String folderNodeType) {
+        this.folderNodeType = folderNodeType;
+    }
+
+    /**
+     * Imports the {@code contentNodes} to the JCR nodes at the paths resolved by the {@code targetPathResolver},
+     * saving the {@code session} in batches.
+     * @param session JCR session
+     * @param contentNodes content nodes of documents to import
+     * @param targetPathResolver target path resolver
+     * @return import result
+     * @throws ContentNodeBindingException if the session cannot be refreshed after a failure
+     */
+    public ContentNodeImportResult importNodes(final Session session, final Iterator<ContentNode> contentNodes,
+            final ContentNodeBindingTargetPathResolver targetPathResolver) throws ContentNodeBindingException {
+        final ContentNodeImportResult result = new ContentNodeImportResult();
+        importNodes(session, contentNodes, targetPathResolver, result);
+        return result;
+    }
+
+    /**
+     * Imports the {@code contentNodes} to the JCR nodes at the paths resolved by the {@code targetPathResolver},
+     * saving the {@code session} in batches and recording the progress in the {@code result}.
+     * @param session JCR session
+     * @param contentNodes content nodes of documents to import
+     * @param targetPathResolver target path resolver
+     * @param result import result
+     * @throws ContentNodeBindingException if the session cannot be refreshed after a failure
+     */
+    protected void importNodes(final Session session, final Iterator<ContentNode> contentNodes,
+            final ContentNodeBindingTargetPathResolver targetPathResolver, final ContentNodeImportResult result)
+            throws ContentNodeBindingException {
+        final ContentValueConverter<Value> converter = (getValueConverter() != null) ? getValueConverter()
+                : new DefaultJcrContentValueConverter(session);
+        final ContentNodeBindingContext bindingContext = new ContentNodeBindingContext();
+        final List<PendingDocument> batch = new ArrayList<>(batchSize);
+        long batchBytes = 0;
+        boolean batchFailed = false;
+
+        while (contentNodes.hasNext()) {
+            final ContentNode contentNode = contentNodes.next();
+            final String targetPath;
+
+            try {
+                targetPath = targetPathResolver.resolveTargetPath(contentNode);
+            } catch (ContentNodeBindingException e) {
+                log.error("Failed to resolve the target path of {}.", contentNode.getName(), e);
+                result.documentFailed(contentNode.getName());
+                continue;
+            }
+
+            final PendingDocument document = new PendingDocument(targetPath, contentNode);
+            batch.add(document);
+            batchBytes += document.byteCount;
+
+            if (!batchFailed) {
+                try {
+                    bindDocument(session, document, converter, bindingContext);
+                } catch (RepositoryException | ContentNodeException e) {
+                    log.warn("Failed to bind document at {}. The batch will be retried document by document.",
+                            targetPath, e);
+                    batchFailed = true;
+                }
+            }
+
+            if (batch.size() >= batchSize || batchBytes >= batchByteSize) {
+                saveBatch(session, batch, batchBytes, batchFailed, converter, bindingContext, result);
+                batchCompleted(toContentNodes(batch));
+                batch.clear();
+                batchBytes = 0;
+                batchFailed = false;
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            saveBatch(session, batch, batchBytes, batchFailed, converter, bindingContext, result);
+            batchCompleted(toContentNodes(batch));
+        }
+
+        if (bindingContext.getDeferredReferenceCount() > 0) {
+            result.referencesUnresolved(bindingContext.getDeferredReferenceCount());
+            log.warn("{} reference(s) could not be resolved: {}", bindingContext.getDeferredReferenceCount(),
+                    bindingContext.getDeferredReferences());
+        }
+
+        result.finished();
+        log.info("Imported {}", result);
+    }
+
+    /**
+     * Returns the JCR node at the {@code targetPath} to bind the {@code contentNode} to, adding it if not existing.
+     * @param session JCR session
+     * @param targetPath absolute target node path
+     * @param contentNode content node of a document
+     * @return the JCR node at the {@code targetPath}
+     * @throws RepositoryException if repository exception occurs
+     */
+    protected Node getOrAddTargetNode(final Session session, final String targetPath, final ContentNode contentNode)
+            throws RepositoryException {
+        if (session.nodeExists(targetPath)) {
+            return session.getNode(targetPath);
+        }
+
+        final Node parentNode = getOrAddFolderNode(session, StringUtils.substringBeforeLast(targetPath, "/"));
+        final String name = StringUtils.substringAfterLast(targetPath, "/");
+
+        if (StringUtils.isBlank(contentNode.getPrimaryType())) {
+            return parentNode.addNode(name);
+        }
+
+        return parentNode.addNode(name, contentNode.getPrimaryType());
+    }
+
+    /**
+     * Returns the estimated number of bytes of the {@code contentNode} tree, counting the characters of names and
+     * values, and the size of binary values stored externally.
+     * @param contentNode content node
+     * @return the estimated number of bytes of the {@code contentNode} tree
+     */
+    protected long estimateByteCount(final ContentNode contentNode) {
+        long count = StringUtils.length(contentNode.getName()) + StringUtils.length(contentNode.getPrimaryType());
+
+        for (ContentProperty property : contentNode.getProperties()) {
+            count += StringUtils.length(property.getName());
+
+            for (String value : property.getValues()) {
+                if (ContentPropertyType.BINARY.equals(property.getType()) && value != null
+                        && !StringUtils.startsWith(value, DATA_URI_SCHEME)) {
+                    count += getExternalBinaryByteCount(value);
+                } else {
+                    count += StringUtils.length(value);
+                }
+            }
+        }
+
+        for (ContentNode childNode : contentNode.getNodes()) {
+            count += estimateByteCount(childNode);
+        }
+
+        return count;
+    }
+
+    /**
+     * Invoked after the documents of a batch have been either saved or reported as failed,
+     * when the {@code contentNodes} of the batch are not needed any more. Does nothing by default.
+     * @param contentNodes content nodes of the documents of the batch
+     */
+    protected void batchCompleted(final List<ContentNode> contentNodes) {
+    }
+
+    private Node getOrAddFolderNode(final Session session, final String folderPath) throws RepositoryException {
+        if (folderPath.isEmpty()) {
+            return session.getRootNode();
+        }
+
+        if (session.nodeExists(folderPath) || StringUtils.isBlank(folderNodeType)) {
+            return session.getNode(folderPath);
+        }
+
+        final Node parentNode = getOrAddFolderNode(session, StringUtils.substringBeforeLast(folderPath, "/"));
+        return parentNode.addNode(StringUtils.substringAfterLast(folderPath, "/"), folderNodeType);
+    }
+
+    private void bindDocument(final Session session, final PendingDocument document,
+            final ContentValueConverter<Value> converter, final ContentNodeBindingContext bindingContext)
+            throws RepositoryException {
+        final Node targetNode = getOrAddTargetNode(session, document.targetPath, document.contentNode);
+
+        if (contentNodeBinder instanceof DefaultJcrContentNodeBinder) {
+            ((DefaultJcrContentNodeBinder) contentNodeBinder).bind(targetNode, document.contentNode, itemFilter,
+                    converter, bindingContext);
+        } else {
+            contentNodeBinder.bind(targetNode, document.contentNode, itemFilter, converter);
+        }
+    }
+
+    private void saveBatch(final Session session, final List<PendingDocument> batch, final long batchBytes,
+            final boolean batchFailed, final ContentValueConverter<Value> converter,
+            final ContentNodeBindingContext bindingContext, final ContentNodeImportResult result)
+            throws ContentNodeBindingException {
+        if (!batchFailed) {
+            try {
+                bindingContext.resolveDeferredReferences();
+                session.save();
+                bindingContext.saved();
+                result.batchSaved(batch.size(), batchBytes);
+                log.debug("Importing... {}", result);
+                return;
+            } catch (RepositoryException e) {
+                log.warn("Failed to save a batch of {} document(s). The batch will be retried document by document.",
+                        batch.size(), e);
+            }
+        }
+
+        result.batchRetried();
+        refresh(session, bindingContext);
+
+        for (PendingDocument document : batch) {
+            try {
+                bindDocument(session, document, converter, bindingContext);
+                bindingContext.resolveDeferredReferences();
+                session.save();
+                bindingContext.saved();
+                result.batchSaved(1, document.byteCount);
+            } catch (RepositoryException | ContentNodeException e) {
+                log.error("Failed to import document at {}.", document.targetPath, e);
+                result.documentFailed(document.targetPath);
+                refresh(session, bindingContext);
+            }
+        }
+    }
+
+    private List<ContentNode> toContentNodes(final List<PendingDocument> batch) {
+        final List<ContentNode> contentNodes = new ArrayList<>(batch.size());
+
+        for (PendingDocument document : batch) {
+            contentNodes.add(document.contentNode);
+        }
+
+        return contentNodes;
+    }
+
+    private void refresh(final Session session, final ContentNodeBindingContext bindingContext)
+            throws ContentNodeBindingException {
+        try {
+            session.refresh(false);
+            bindingContext.discarded();
+        } catch (RepositoryException e) {
+            throw new ContentNodeBindingException(e.toString(), e);
+        }
+    }
+
+    private long getExternalBinaryByteCount(final String url) {
+        try (FileObject fileObject = VFS.getManager().resolveFile(url)) {
+            return fileObject.getContent().getSize();
+        } catch (IOException e) {
+            log.debug("Failed to get the size of the binary at {}.", url, e);
+            return url.length();
+        }
+    }
+
+    /**
+     * A document bound in the current batch, kept until the batch is saved to be able to retry it.
+     */
+    private class PendingDocument {
+
+        private final String targetPath;
+
+        private final ContentNode contentNode;
+
+        private final long byteCount;
+
+        private PendingDocument(final String targetPath, final ContentNode contentNode) {
+            this.targetPath = targetPath;
+            this.contentNode = contentNode;
+            byteCount = estimateByteCount(contentNode);
+        }
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.Property;
+import javax.jcr.RepositoryException;
+import javax.jcr.Value;
+
+import org.apache.commons.lang3.StringUtils;
+import org.onehippo.forge.content.pojo.binder.ContentNodeBindingItemFilter;
+import org.onehippo.forge.content.pojo.common.ContentValueConverter;
+import org.onehippo.forge.content.pojo.model.ContentItem;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.onehippo.forge.content.pojo.model.ContentProperty;
+
+/**
+ * Binds only the items at the given relative paths of a content node, for {@link DefaultJcrContentNodeBinder},
+ * touching only those items and their ancestors in JCR.
+ * <P>
+ * A relative item path consists of node names, optionally with a same-name sibling index such as
+ * {@code myns:items[2]}, separated by slashes, e.g, {@code myns:title} or {@code myns:items[2]/myns:field}.
+ * The last step denotes a property, or a child node if the content node has no property having the name.
+ * </P>
+ * <UL>
+ * <LI>A property is bound as by a full binding.</LI>
+ * <LI>A child node subtree is bound to the existing JCR child node, or to a new one, in the current binder modes.</LI>
+ * <LI>An item missing in the content node is removed from JCR if existing.</LI>
+ * <LI>The missing JCR ancestor nodes are added with their primary and mixin types only.</LI>
+ * </UL>
+ * <P>
+ * All the item paths are resolved before any of them is applied, so that an invalid item path fails the patch
+ * without any change. As a missing JCR node is added after its existing same-name siblings, an item path denoting
+ * a missing same-name sibling node at any other index than the next one, e.g, {@code myns:items[3]} when only one
+ * {@code myns:items} node exists, is invalid rather than bound to a node at another index.
+ * </P>
+ */
+class JcrContentNodePatcher {
+
+    private final DefaultJcrContentNodeBinder binder;
+
+    private final DefaultJcrContentNodeBinder.BindState state;
+
+    private final ContentNodeBindingItemFilter<ContentItem> itemFilter;
+
+    private final ContentValueConverter<Value> valueConverter;
+
+    JcrContentNodePatcher(DefaultJcrContentNodeBinder binder, DefaultJcrContentNodeBinder.BindState state,
+                          ContentNodeBindingItemFilter<ContentItem> itemFilter,
+                          ContentValueConverter<Value> valueConverter) {
+        this.binder = binder;
+        this.state = state;
+        this.itemFilter = itemFilter;
+        this.valueConverter = valueConverter;
+    }
+
+    /**
+     * Resolves all the {@code itemPaths} before applying any of them, so that an invalid path leaves the JCR node
+     * untouched, and so that the JCR items are resolved before any of them is added or removed.
+     * @throws IllegalArgumentException if an item path is not a valid relative path, or denotes a same-name sibling
+     *         node that cannot be added at its index
+     */
+    void patch(Node jcrDataNode, ContentNode contentNode, Collection<String> itemPaths) throws RepositoryException {
+        PatchNode root = new PatchNode(null, contentNode, jcrDataNode);
+        List<PatchItem> items = new ArrayList<>(itemPaths.size());
+
+        for (String itemPath : itemPaths) {
+            PatchItem item = resolve(root, itemPath);
+
+            if (item != null) {
+                items.add(item);
+            }
+        }
+
+        for (PatchItem item : items) {
+            item.apply();
+        }
+    }
+
+    /**
+     * Resolves the {@code itemPath}, returning the change to apply or null if none.
+     */
+    private PatchItem resolve(PatchNode root, String itemPath) throws RepositoryException {
+        String[] steps = StringUtils.split(itemPath, '/');
+
+        if (steps == null || steps.length == 0 || itemPath.startsWith("/")) {
+            throw new IllegalArgumentException("Invalid relative item path: " + itemPath);
+        }
+
+        for (String step : steps) {
+            stepIndex(step);
+        }
+
+        PatchNode node = root;
+
+        for (int i = 0; i < steps.length - 1; i++) {
+            ContentNode childContent = getChildNode(node.content, steps[i]);
+
+            if (childContent == null) {
+                // the item is missing in the content.
+                return resolveRemoval(node, StringUtils.join(steps, '/', i, steps.length));
+            }
+
+            if (!itemFilter.accept(childContent)) {
+                return null;
+            }
+
+            node = node.getChild(steps[i], childContent);
+        }
+
+        return resolveItem(node, steps[steps.length - 1]);
+    }
+
+    private PatchItem resolveItem(PatchNode node, String step) throws RepositoryException {
+        ContentProperty contentProp = (step.indexOf('[') == -1) ? node.content.getProperty(step) : null;
+
+        if (contentProp != null) {
+            if (!itemFilter.accept(contentProp)) {
+                return null;
+            }
+
+            return () -> {
+                Node jcrNode = node.getJcrNode();
+
+                if (!binder.isProtectedProperty(jcrNode, contentProp.getName())) {
+                    binder.bindProperty(state, jcrNode, contentProp, valueConverter);
+                }
+            };
+        }
+
+        ContentNode childContent = getChildNode(node.content, step);
+
+        if (childContent == null) {
+            return resolveRemoval(node, step);
+        }
+
+        if (!itemFilter.accept(childContent)) {
+            return null;
+        }
+
+        PatchNode child = node.getChild(step, childContent);
+        // the whole subtree is bound, so the node is added as a sub node if missing.
+        child.subtree = true;
+        return () -> binder.bindInState(state, child.getJcrNode(), childContent, itemFilter, valueConverter);
+    }
+
+    private PatchItem resolveRemoval(PatchNode node, String relPath) throws RepositoryException {
+        Node jcrNode = node.jcrNode;
+
+        if (jcrNode == null) {
+            // nothing to remove under an ancestor still to be added.
+            return null;
+        }
+
+        int offset = relPath.lastIndexOf('/');
+
+        if (relPath.indexOf('[', offset + 1) == -1 && jcrNode.hasProperty(relPath)) {
+            Node parent = (offset == -1) ? jcrNode : jcrNode.getNode(relPath.substring(0, offset));
+
+            if (binder.isProtectedProperty(parent, relPath.substring(offset + 1))) {
+                return null;
+            }
+
+            Property property = jcrNode.getProperty(relPath);
+            return () -> {
+                property.remove();
+                binder.propertyWritten(state);
+            };
+        } else if (jcrNode.hasNode(relPath)) {
+            Node childJcrNode = jcrNode.getNode(relPath);
+            return () -> binder.removeNode(state, childJcrNode);
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the child content node denoted by the {@code step}, i.e, the nth same-name sibling child content node
+     * having the name, or null if not found.
+     */
+    private static ContentNode getChildNode(ContentNode content, String step) {
+        String name = stepName(step);
+        int index = stepIndex(step);
+        int count = 0;
+
+        for (ContentNode child : content.getNodes()) {
+            if (name.equals(child.getName()) && ++count == index) {
+                return child;
+            }
+        }
+
+        return null;
+    }
+
+    private static int countChildNodes(Node jcrNode, String name) throws RepositoryException {
+        int count = 0;
+
+        for (NodeIterator it = jcrNode.getNodes(name); it.hasNext(); it.nextNode()) {
+            ++count;
+        }
+
+        return count;
+    }
+
+    private static String stepName(String step) {
+        int offset = step.indexOf('[');
+        return (offset == -1) ? step : step.substring(0, offset);
+    }
+
+    private static int stepIndex(String step) {
+        int offset = step.indexOf('[');
+
+        if (offset == -1) {
+            return 1;
+        }
+
+        if (!step.endsWith("]")) {
+            throw new IllegalArgumentException("Invalid item path step: " + step);
+        }
+
+        int index;
+
+        try {
+            index = Integer.parseInt(step.substring(offset + 1, step.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid item path step: " + step, e);
+        }
+
+        if (index < 1) {
+            throw new IllegalArgumentException("Invalid item path step: " + step);
+        }
+
+        return index;
+    }
+
+    /**
+     * A change of a patch, resolved before any change is applied.
+     */
+    @FunctionalInterface
+    private interface PatchItem {
+        void apply() throws RepositoryException;
+    }
+
+    /**
+     * A node on the item paths of a patch, either an existing JCR node or one to be added when a change
+     * under it is applied.
+     */
+    private final class PatchNode {
+
+        private final PatchNode parent;
+
+        private final ContentNode content;
+
+        private Node jcrNode;
+
+        /**
+         * Whether the node is bound as a whole, to be added as a sub node instead of an ancestor node if missing.
+         */
+        private boolean subtree;
+
+        /**
+         * Resolved child nodes by their name with same-name sibling index.
+         */
+        private final Map<String, PatchNode> children = new HashMap<>();
+
+        /**
+         * Numbers of the child nodes to be added by their name.
+         */
+        private final Map<String, Integer> addedCounts = new HashMap<>();
+
+        private PatchNode(PatchNode parent, ContentNode content, Node jcrNode) {
+            this.parent = parent;
+            this.content = content;
+            this.jcrNode = jcrNode;
+        }
+
+        /**
+         * Returns the child node denoted by the {@code step}, resolving the existing JCR child node, or the one to
+         * be added if missing. As a new node is added after its existing same-name siblings, a missing node can
+         * only be added at the index next to the last existing or to be added same-name sibling.
+         * @throws IllegalArgumentException if the node is missing and cannot be added at its same-name sibling index
+         */
+        private PatchNode getChild(String step, ContentNode childContent) throws RepositoryException {
+            String name = stepName(step);
+            int index = stepIndex(step);
+            String relPath = name + "[" + index + "]";
+            PatchNode child = children.get(relPath);
+
+            if (child == null) {
+                Node childJcrNode = (jcrNode != null && jcrNode.hasNode(relPath)) ? jcrNode.getNode(relPath) : null;
+
+                if (childJcrNode == null) {
+                    int count = ((jcrNode != null) ? countChildNodes(jcrNode, name) : 0)
+                            + addedCounts.getOrDefault(name, 0);
+
+                    if (index != count + 1) {
+                        throw new IllegalArgumentException("Cannot add the node at item path step " + step
+                                + " after " + count + " same-name sibling node(s)");
+                    }
+
+                    addedCounts.merge(name, 1, Integer::sum);
+                }
+
+                child = new PatchNode(this, childContent, childJcrNode);
+                children.put(relPath, child);
+            }
+
+            return child;
+        }
+
+        /**
+         * Returns the JCR node, adding it and its missing ancestors first if missing.
+         */
+        private Node getJcrNode() throws RepositoryException {
+            if (jcrNode == null) {
+                Node parentJcrNode = parent.getJcrNode();
+                jcrNode = subtree ? binder.addSubNode(state, parentJcrNode, content)
+                        : binder.addAncestorNode(state, parentJcrNode, content);
+            }
+
+            return jcrNode;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import javax.jcr.nodetype.NodeType;
+import javax.jcr.nodetype.NodeTypeManager;
+import javax.jcr.nodetype.PropertyDefinition;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of node type metadata of a session, per combination of primary type and mixin types, resolved once
+ * from the {@link NodeTypeManager}: the effective node type names including all the supertypes, the protected
+ * property names and whether the node is a compound node.
+ * Used internally by {@link DefaultJcrContentNodeBinder} to avoid {@code isNodeType} calls and property definition
+ * lookups per node and per property.
+ * <P>
+ * Node types which cannot be resolved (e.g, in a repository not supporting node type management) are cached
+ * as unresolvable, for which {@link #getMetadata(Node)} returns null so that the caller falls back to the node.
+ * </P>
+ * <P>
+ * It keeps no reference to the session nor to its node type manager, so that a cache held per session
+ * in a weak map does not keep the session reachable.
+ * </P>
+ */
+class NodeTypeMetadataCache {
+
+    private static Logger log = LoggerFactory.getLogger(NodeTypeMetadataCache.class);
+
+    /**
+     * Sentinel for node type combinations which cannot be resolved.
+     */
+    private static final NodeTypeMetadata UNRESOLVABLE =
+            new NodeTypeMetadata(Collections.emptySet(), Collections.emptySet(), false);
+
+    private final Set<String> compoundTypeNames;
+
+    private final Map<String, NodeTypeMetadata> metadataByKey = new HashMap<>();
+
+    NodeTypeMetadataCache(Set<String> compoundTypeNames) {
+        this.compoundTypeNames = compoundTypeNames;
+    }
+
+    /**
+     * Returns the metadata of the primary type and the mixin types of the {@code node}, or null if unresolvable.
+     * @param node JCR node
+     * @return the metadata of the primary type and the mixin types of the {@code node}, or null if unresolvable
+     * @throws RepositoryException if the node types of the node cannot be read
+     */
+    synchronized NodeTypeMetadata getMetadata(Node node) throws RepositoryException {
+        final String primaryType = node.getPrimaryNodeType().getName();
+        final NodeType[] mixinTypes = node.getMixinNodeTypes();
+        final String[] typeNames = new String[mixinTypes.length + 1];
+        typeNames[0] = primaryType;
+
+        for (int i = 0; i < mixinTypes.length; i++) {
+            typeNames[i + 1] = mixinTypes[i].getName();
+        }
+
+        // the primary type comes first, followed by the mixin types in name order.
+        Arrays.sort(typeNames, 1, typeNames.length);
+        final String key = String.join(",", typeNames);
+
+        NodeTypeMetadata metadata = metadataByKey.get(key);
+
+        if (metadata == null) {
+            metadata = resolveMetadata(node, typeNames);
+            metadataByKey.put(key, metadata);
+        }
+
+        return (metadata != UNRESOLVABLE) ? metadata : null;
+    }
+
+    private NodeTypeMetadata resolveMetadata(Node node, String[] typeNames) {
+        try {
+            final NodeTypeManager nodeTypeManager = getNodeTypeManager(node);
+
+            Set<String> nodeTypeNames = new HashSet<>();
+            Set<String> protectedPropertyNames = new HashSet<>();
+
+            for (String typeName : typeNames) {
+                NodeType nodeType = nodeTypeManager.getNodeType(typeName);
+                nodeTypeNames.add(nodeType.getName());
+
+                for (NodeType supertype : nodeType.getSupertypes()) {
+                    nodeTypeNames.add(supertype.getName());
+                }
+
+                for (PropertyDefinition propDef : nodeType.getPropertyDefinitions()) {
+                    if (propDef.isProtected() && !"*".equals(propDef.getName())) {
+                        protectedPropertyNames.add(propDef.getName());
+                    }
+                }
+            }
+
+            boolean compound = !Collections.disjoint(nodeTypeNames, compoundTypeNames);
+            return new NodeTypeMetadata(nodeTypeNames, protectedPropertyNames, compound);
+        } catch (RepositoryException | UnsupportedOperationException e) {
+            log.debug("Cannot resolve node type metadata of {}: {}", Arrays.toString(typeNames), e.toString());
+            return UNRESOLVABLE;
+        }
+    }
+
+    /**
+     * Returns the node type manager of the session of the {@code node}, looked up on each resolution
+     * instead of kept by this cache.
+     */
+    NodeTypeManager getNodeTypeManager(Node node) throws RepositoryException {
+        return node.getSession().getWorkspace().getNodeTypeManager();
+    }
+
+    /**
+     * Node type metadata of a combination of primary type and mixin types.
+     */
+    static class NodeTypeMetadata {
+
+        private final Set<String> nodeTypeNames;
+
+        private final Set<String> protectedPropertyNames;
+
+        private final boolean compound;
+
+        NodeTypeMetadata(Set<String> nodeTypeNames, Set<String> protectedPropertyNames, boolean compound) {
+            this.nodeTypeNames = nodeTypeNames;
+            this.protectedPropertyNames = protectedPropertyNames;
+            this.compound = compound;
+        }
+
+        /**
+         * Returns true if the node type or any of its supertypes is {@code nodeTypeName},
+         * like {@link Node#isNodeType(String)}.
+         */
+        boolean isNodeType(String nodeTypeName) {
+            return nodeTypeNames.contains(nodeTypeName);
+        }
+
+        boolean isProtectedProperty(String propName) {
+            return protectedPropertyNames.contains(propName);
+        }
+
+        boolean isCompound() {
+            return compound;
+        }
+    }
+}
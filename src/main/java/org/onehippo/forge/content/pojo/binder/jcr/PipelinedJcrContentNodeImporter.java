@@ -0,0 +1,574 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jcr.Node;
+import javax.jcr.Session;
+import javax.jcr.Value;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.vfs2.FileObject;
+import org.onehippo.forge.content.pojo.binder.ContentNodeBinder;
+import org.onehippo.forge.content.pojo.binder.ContentNodeBindingException;
+import org.onehippo.forge.content.pojo.binder.ContentNodeBindingItemFilter;
+import org.onehippo.forge.content.pojo.binder.ContentNodeBindingTargetPathResolver;
+import org.onehippo.forge.content.pojo.common.json.BinaryValueSink;
+import org.onehippo.forge.content.pojo.common.json.ContentNodeJsonReader;
+import org.onehippo.forge.content.pojo.common.json.DefaultBinaryValueSink;
+import org.onehippo.forge.content.pojo.model.ContentItem;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.onehippo.forge.content.pojo.model.ContentProperty;
+import org.onehippo.forge.content.pojo.model.ContentPropertyType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link JcrContentNodeImporter} extension decoupling parsing from JCR writes in a producer/consumer pipeline.
+ * <P>
+ * A source reader thread reads the sources, e.g, the lines of an NDJSON stream, and hands each of them over to
+ * a pool of {@link #getParserThreadCount()} parser threads, which parse the source into a {@link ContentNode} and
+ * pre-decode its large <code>data:</code> URL binary values into files created by the {@link #getBinaryValueSink()}.
+ * Meanwhile, the calling thread binds the parsed documents in source order and saves them in batches with the
+ * session, as {@link JcrContentNodeImporter} does.
+ * </P>
+ * <P>
+ * At most {@link #getQueueCapacity()} documents are parsed ahead of the binding thread: the source reader thread
+ * blocks when the queue is full, which bounds the memory used by parsed documents waiting to be bound.
+ * Files of pre-decoded binary values are deleted as soon as the batch of their document has been completed.
+ * </P>
+ */
+public class PipelinedJcrContentNodeImporter extends JcrContentNodeImporter {
+
+    private static Logger log = LoggerFactory.getLogger(PipelinedJcrContentNodeImporter.class);
+
+    /**
+     * Default number of documents parsed ahead per parser thread.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY_PER_PARSER_THREAD = 16;
+
+    /**
+     * Default minimum length of a <code>data:</code> URL binary value to pre-decode into a file.
+     */
+    public static final long DEFAULT_BINARY_VALUE_SINK_THRESHOLD = ContentNodeJsonReader.DEFAULT_BINARY_VALUE_SINK_THRESHOLD;
+
+    private static final String DATA_URI_SCHEME = "data:";
+
+    private static final Object END_OF_SOURCES = new Object();
+
+    /**
+     * Map of the content nodes being bound to the files of their pre-decoded binary values in the current run
+     * on the binding thread, so that concurrent runs on the same importer do not share any state.
+     */
+    private static final ThreadLocal<Map<ContentNode, List<FileObject>>> CURRENT_BINARY_VALUE_FILES =
+            new ThreadLocal<>();
+
+    private final int parserThreadCount;
+
+    private int queueCapacity;
+
+    private BinaryValueSink binaryValueSink = new DefaultBinaryValueSink();
+
+    private long binaryValueSinkThreshold = DEFAULT_BINARY_VALUE_SINK_THRESHOLD;
+
+    /**
+     * Constructs an importer parsing sources on {@code parserThreadCount} parser threads.
+     * @param parserThreadCount the number of parser threads
+     */
+    public PipelinedJcrContentNodeImporter(final int parserThreadCount) {
+        this(parserThreadCount, null, null);
+    }
+
+    /**
+     * Constructs an importer parsing sources on {@code parserThreadCount} parser threads and binding each document
+     * by the {@code contentNodeBinder} with the {@code itemFilter}.
+     * @param parserThreadCount the number of parser threads
+     * @param contentNodeBinder content node binder, or null to use a {@link DefaultJcrContentNodeBinder}
+     * @param itemFilter content node binding item filter, or null to use the default filter of the binder
+     */
+    public PipelinedJcrContentNodeImporter(final int parserThreadCount,
+            final ContentNodeBinder<Node, ContentItem, Value> contentNodeBinder,
+            final ContentNodeBindingItemFilter<ContentItem> itemFilter) {
+        super(contentNodeBinder, itemFilter);
+
+        if (parserThreadCount < 1) {
+            throw new IllegalArgumentException("parserThreadCount must be positive: " + parserThreadCount);
+        }
+
+        this.parserThreadCount = parserThreadCount;
+        queueCapacity = parserThreadCount * DEFAULT_QUEUE_CAPACITY_PER_PARSER_THREAD;
+    }
+
+    public int getParserThreadCount() {
+        return parserThreadCount;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Sets the maximum number of documents parsed ahead of the binding thread.
+     * @param queueCapacity the maximum number of documents parsed ahead of the binding thread
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be positive: " + queueCapacity);
+        }
+
+        this.queueCapacity = queueCapacity;
+    }
+
+    public BinaryValueSink getBinaryValueSink() {
+        return binaryValueSink;
+    }
+
+    public void setBinaryValueSink(BinaryValueSink binaryValueSink) {
+        this.binaryValueSink = binaryValueSink;
+    }
+
+    public long getBinaryValueSinkThreshold() {
+        return binaryValueSinkThreshold;
+    }
+
+    /**
+     * Sets the minimum length of a <code>data:</code> URL binary value to pre-decode into a file.
+     * @param binaryValueSinkThreshold the minimum length of a <code>data:</code> URL binary value to pre-decode
+     */
+    public void setBinaryValueSinkThreshold(long binaryValueSinkThreshold) {
+        this.binaryValueSinkThreshold = binaryValueSinkThreshold;
+    }
+
+    /**
+     * Imports the {@code contentNodes}, iterated by the source reader thread and pre-decoded by the parser threads,
+     * to the JCR nodes at the paths resolved by the {@code targetPathResolver}.
+     * <P>
+     * The binary values are pre-decoded in a clone of each content node, leaving the {@code contentNodes} intact.
+     * </P>
+     * @param session JCR session
+     * @param contentNodes content nodes of documents to import
+     * @param targetPathResolver target path resolver
+     * @return import result
+     * @throws ContentNodeBindingException if reading the sources fails or the session cannot be refreshed
+     */
+    @Override
+    public ContentNodeImportResult importNodes(final Session session, final Iterator<ContentNode> contentNodes,
+            final ContentNodeBindingTargetPathResolver targetPathResolver) throws ContentNodeBindingException {
+        return importSources(session, contentNodes, (contentNode, sink) -> (ContentNode) contentNode.clone(),
+                targetPathResolver);
+    }
+
+    /**
+     * Imports the documents of the NDJSON {@code input}, one content node per line, to the JCR nodes at the paths
+     * resolved by the {@code targetPathResolver}. The {@code input} is not closed.
+     * @param session JCR session
+     * @param input UTF-8 encoded NDJSON input
+     * @param targetPathResolver target path resolver
+     * @return import result
+     * @throws ContentNodeBindingException if reading the input fails or the session cannot be refreshed
+     */
+    public ContentNodeImportResult importNdjson(final Session session, final InputStream input,
+            final ContentNodeBindingTargetPathResolver targetPathResolver) throws ContentNodeBindingException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        final Iterator<String> lines = new Iterator<String>() {
+            private String line;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    while (line == null) {
+                        line = reader.readLine();
+
+                        if (line == null) {
+                            return false;
+                        } else if (StringUtils.isBlank(line)) {
+                            line = null;
+                        }
+                    }
+
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                final String next = line;
+                line = null;
+                return next;
+            }
+        };
+
+        return importSources(session, lines, (line, sink) -> {
+            try (ContentNodeJsonReader jsonReader = new ContentNodeJsonReader(new StringReader(line))) {
+                jsonReader.setBinaryValueSink(sink);
+                jsonReader.setBinaryValueSinkThreshold(getBinaryValueSinkThreshold());
+                return jsonReader.readNode();
+            }
+        }, targetPathResolver);
+    }
+
+    /**
+     * Imports the documents parsed from the {@code sources} by the {@code parser} on the parser threads
+     * to the JCR nodes at the paths resolved by the {@code targetPathResolver}.
+     * A source failing to be parsed is reported as <code>source #&lt;index&gt;</code> in the failed paths.
+     * @param session JCR session
+     * @param sources sources of documents, iterated by the source reader thread
+     * @param parser source parser, invoked by the parser threads
+     * @param targetPathResolver target path resolver
+     * @param <S> source type
+     * @return import result
+     * @throws ContentNodeBindingException if reading the sources fails or the session cannot be refreshed
+     */
+    public <S> ContentNodeImportResult importSources(final Session session, final Iterator<S> sources,
+            final SourceParser<S> parser, final ContentNodeBindingTargetPathResolver targetPathResolver)
+            throws ContentNodeBindingException {
+        final ContentNodeImportResult result = new ContentNodeImportResult();
+        final Map<ContentNode, List<FileObject>> binaryValueFiles = new IdentityHashMap<>();
+        final Map<ContentNode, List<FileObject>> previousBinaryValueFiles = CURRENT_BINARY_VALUE_FILES.get();
+        final BlockingQueue<Future<Object>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        final ExecutorService parserExecutor = Executors.newFixedThreadPool(parserThreadCount,
+                createThreadFactory("content-node-parser-"));
+        final ExecutorService readerExecutor = Executors.newSingleThreadExecutor(
+                createThreadFactory("content-node-source-reader-"));
+
+        readerExecutor.execute(() -> readSources(sources, parser, queue, parserExecutor));
+        CURRENT_BINARY_VALUE_FILES.set(binaryValueFiles);
+
+        try {
+            importNodes(session, new ParsedDocumentIterator(queue, binaryValueFiles, result), targetPathResolver,
+                    result);
+        } finally {
+            if (previousBinaryValueFiles != null) {
+                CURRENT_BINARY_VALUE_FILES.set(previousBinaryValueFiles);
+            } else {
+                CURRENT_BINARY_VALUE_FILES.remove();
+            }
+
+            readerExecutor.shutdownNow();
+            parserExecutor.shutdownNow();
+            awaitTermination(readerExecutor);
+            awaitTermination(parserExecutor);
+
+            for (Future<Object> future : queue) {
+                deleteBinaryValueFiles(getParsedDocumentQuietly(future));
+            }
+
+            for (List<FileObject> files : binaryValueFiles.values()) {
+                deleteFiles(files);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    protected void batchCompleted(final List<ContentNode> contentNodes) {
+        final Map<ContentNode, List<FileObject>> binaryValueFiles = CURRENT_BINARY_VALUE_FILES.get();
+
+        if (binaryValueFiles == null) {
+            return;
+        }
+
+        for (ContentNode contentNode : contentNodes) {
+            final List<FileObject> files = binaryValueFiles.remove(contentNode);
+
+            if (files != null) {
+                deleteFiles(files);
+            }
+        }
+    }
+
+    /**
+     * Pre-decodes the large <code>data:</code> URL binary values of the {@code contentNode} tree into files
+     * created by the {@code sink}.
+     * @param contentNode content node
+     * @param sink binary value sink
+     * @throws IOException if IO exception occurs
+     */
+    protected void decodeBinaryValues(final ContentNode contentNode, final BinaryValueSink sink) throws IOException {
+        for (ContentProperty property : contentNode.getProperties()) {
+            if (!ContentPropertyType.BINARY.equals(property.getType())) {
+                continue;
+            }
+
+            for (ListIterator<String> it = property.getValues().listIterator(); it.hasNext();) {
+                final String value = it.next();
+
+                if (StringUtils.startsWith(value, DATA_URI_SCHEME) && value.length() >= binaryValueSinkThreshold) {
+                    it.set(sink.storeDataUri(value));
+                }
+            }
+        }
+
+        for (ContentNode childNode : contentNode.getNodes()) {
+            decodeBinaryValues(childNode, sink);
+        }
+    }
+
+    private <S> void readSources(final Iterator<S> sources, final SourceParser<S> parser,
+            final BlockingQueue<Future<Object>> queue, final ExecutorService parserExecutor) {
+        int index = 0;
+
+        try {
+            while (sources.hasNext()) {
+                final S source = sources.next();
+                final int sourceIndex = index++;
+
+                queue.put(parserExecutor.submit(() -> parseSource(source, sourceIndex, parser)));
+            }
+
+            queue.put(CompletableFuture.completedFuture(END_OF_SOURCES));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            try {
+                queue.put(CompletableFuture.failedFuture(e));
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private <S> ParsedDocument parseSource(final S source, final int sourceIndex, final SourceParser<S> parser) {
+        final TrackingBinaryValueSink sink = new TrackingBinaryValueSink(binaryValueSink);
+
+        try {
+            final ContentNode contentNode = parser.parse(source, sink);
+
+            if (contentNode != null) {
+                decodeBinaryValues(contentNode, sink);
+            }
+
+            return new ParsedDocument(sourceIndex, contentNode, null, sink.files);
+        } catch (IOException | RuntimeException e) {
+            deleteFiles(sink.files);
+            return new ParsedDocument(sourceIndex, null, e, null);
+        }
+    }
+
+    private void deleteBinaryValueFiles(final ParsedDocument document) {
+        if (document != null && document.files != null) {
+            deleteFiles(document.files);
+        }
+    }
+
+    private ParsedDocument getParsedDocumentQuietly(final Future<Object> future) {
+        try {
+            if (future.isDone() && !future.isCancelled()) {
+                final Object value = future.get();
+                return (value instanceof ParsedDocument) ? (ParsedDocument) value : null;
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            log.debug("Ignoring a failed parser task.", e);
+        }
+
+        return null;
+    }
+
+    private void deleteFiles(final List<FileObject> files) {
+        for (FileObject file : files) {
+            try {
+                file.delete();
+            } catch (IOException e) {
+                log.warn("Failed to delete binary value file, {}.", file, e);
+            }
+        }
+    }
+
+    private void awaitTermination(final ExecutorService executor) {
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("Waiting for content node parser threads to terminate...");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ThreadFactory createThreadFactory(final String namePrefix) {
+        final AtomicInteger threadCount = new AtomicInteger();
+
+        return runnable -> {
+            final Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Parser of a source of a document into a {@link ContentNode}, invoked by the parser threads.
+     * @param <S> source type
+     */
+    @FunctionalInterface
+    public interface SourceParser<S> {
+
+        /**
+         * Parses the {@code source} into a {@link ContentNode}.
+         * @param source source of a document
+         * @param sink binary value sink to store decoded binary values in, deleting the files
+         *        after the document is imported
+         * @return the parsed content node, or null to skip the source
+         * @throws IOException if IO exception occurs
+         */
+        ContentNode parse(S source, BinaryValueSink sink) throws IOException;
+
+    }
+
+    /**
+     * Document parsed by a parser thread, with the files of its pre-decoded binary values.
+     */
+    private static class ParsedDocument {
+
+        private final int sourceIndex;
+
+        private final ContentNode contentNode;
+
+        private final Exception failure;
+
+        private final List<FileObject> files;
+
+        private ParsedDocument(final int sourceIndex, final ContentNode contentNode, final Exception failure,
+                final List<FileObject> files) {
+            this.sourceIndex = sourceIndex;
+            this.contentNode = contentNode;
+            this.failure = failure;
+            this.files = files;
+        }
+    }
+
+    /**
+     * {@link BinaryValueSink} keeping track of the files created for a document.
+     */
+    private static class TrackingBinaryValueSink implements BinaryValueSink {
+
+        private final BinaryValueSink delegate;
+
+        private final List<FileObject> files = new ArrayList<>();
+
+        private TrackingBinaryValueSink(final BinaryValueSink delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public FileObject createFile(final String mediaType, final String charset) throws IOException {
+            final FileObject file = delegate.createFile(mediaType, charset);
+            files.add(file);
+            return file;
+        }
+    }
+
+    /**
+     * Iterator of the parsed documents in source order, taken from the queue by the binding thread.
+     */
+    private static class ParsedDocumentIterator implements Iterator<ContentNode> {
+
+        private final BlockingQueue<Future<Object>> queue;
+
+        private final Map<ContentNode, List<FileObject>> binaryValueFiles;
+
+        private final ContentNodeImportResult result;
+
+        private ContentNode next;
+
+        private boolean ended;
+
+        private ParsedDocumentIterator(final BlockingQueue<Future<Object>> queue,
+                final Map<ContentNode, List<FileObject>> binaryValueFiles, final ContentNodeImportResult result) {
+            this.queue = queue;
+            this.binaryValueFiles = binaryValueFiles;
+            this.result = result;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !ended) {
+                final Object value = take();
+
+                if (value == END_OF_SOURCES) {
+                    ended = true;
+                } else {
+                    final ParsedDocument document = (ParsedDocument) value;
+
+                    if (document.failure != null) {
+                        log.error("Failed to parse source #{}.", document.sourceIndex, document.failure);
+                        result.documentFailed("source #" + document.sourceIndex);
+                    } else if (document.contentNode != null) {
+                        if (!document.files.isEmpty()) {
+                            binaryValueFiles.put(document.contentNode, document.files);
+                        }
+
+                        next = document.contentNode;
+                    }
+                }
+            }
+
+            return next != null;
+        }
+
+        @Override
+        public ContentNode next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final ContentNode contentNode = next;
+            next = null;
+            return contentNode;
+        }
+
+        private Object take() {
+            try {
+                return queue.take().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ContentNodeBindingException("Interrupted while waiting for parsed documents.", e);
+            } catch (ExecutionException e) {
+                throw new ContentNodeBindingException("Failed to read sources: " + e.getCause(), e.getCause());
+            }
+        }
+    }
+}
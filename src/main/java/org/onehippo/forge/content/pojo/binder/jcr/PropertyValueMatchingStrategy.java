@@ -0,0 +1,65 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import javax.jcr.Node;
+import javax.jcr.Property;
+import javax.jcr.RepositoryException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.onehippo.forge.content.pojo.model.ContentProperty;
+
+/**
+ * {@link ContentNodeMatchingStrategy} pairing child nodes by the value of a key property, e.g, a stable identifier
+ * of the items of a compound list, bound from the content nodes like any other property.
+ */
+public class PropertyValueMatchingStrategy implements ContentNodeMatchingStrategy {
+
+    private final String propertyName;
+
+    /**
+     * Constructs a strategy pairing child nodes by the value of the {@code propertyName} property.
+     * @param propertyName key property name
+     */
+    public PropertyValueMatchingStrategy(final String propertyName) {
+        if (StringUtils.isBlank(propertyName)) {
+            throw new IllegalArgumentException("propertyName must not be blank.");
+        }
+
+        this.propertyName = propertyName;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    @Override
+    public String getContentNodeKey(ContentNode contentNode) {
+        ContentProperty property = contentNode.getProperty(propertyName);
+        return (property != null && !property.isMultiple()) ? property.getValue() : null;
+    }
+
+    @Override
+    public String getJcrNodeKey(Node node) throws RepositoryException {
+        if (!node.hasProperty(propertyName)) {
+            return null;
+        }
+
+        Property property = node.getProperty(propertyName);
+        return property.isMultiple() ? null : property.getString();
+    }
+}
@@ -39,10 +39,14 @@ public class BasePathBasedContentNodeItemFilter {
     private List<String> nodePathIncludes;
     private List<String> nodePathExcludes;
 
-    private List<Pattern> propertyPathIncludePatterns;
-    private List<Pattern> propertyPathExcludePatterns;
-    private List<Pattern> nodePathIncludePatterns;
-    private List<Pattern> nodePathExcludePatterns;
+    /*
+     * Compiled patterns, lazily built into a local list and published as a whole,
+     * so that a filter shared by concurrent mappings never iterates a half-filled list.
+     */
+    private volatile List<Pattern> propertyPathIncludePatterns;
+    private volatile List<Pattern> propertyPathExcludePatterns;
+    private volatile List<Pattern> nodePathIncludePatterns;
+    private volatile List<Pattern> nodePathExcludePatterns;
 
     public Set<String> getPropertyTypeNameIncludes() {
         return propertyTypeNameIncludes;
@@ -183,55 +187,58 @@ public class BasePathBasedContentNodeItemFilter {
     }
 
     protected List<Pattern> getPropertyIncludePatterns() {
-        if (mismatchPatternsFromSources(propertyPathIncludePatterns, propertyPathIncludes)) {
-            propertyPathIncludePatterns = new ArrayList<>();
-            GlobPattern glob = new GlobPattern();
+        List<Pattern> patterns = propertyPathIncludePatterns;
 
-            for (String include : propertyPathIncludes) {
-                propertyPathIncludePatterns.add(glob.compile(include));
-            }
+        if (mismatchPatternsFromSources(patterns, propertyPathIncludes)) {
+            patterns = compilePatterns(propertyPathIncludes);
+            propertyPathIncludePatterns = patterns;
         }
 
-        return propertyPathIncludePatterns;
+        return patterns;
     }
 
     protected List<Pattern> getPropertyExcludePatterns() {
-        if (mismatchPatternsFromSources(propertyPathExcludePatterns, propertyPathExcludes)) {
-            propertyPathExcludePatterns = new ArrayList<>();
-            GlobPattern glob = new GlobPattern();
+        List<Pattern> patterns = propertyPathExcludePatterns;
 
-            for (String include : propertyPathExcludes) {
-                propertyPathExcludePatterns.add(glob.compile(include));
-            }
+        if (mismatchPatternsFromSources(patterns, propertyPathExcludes)) {
+            patterns = compilePatterns(propertyPathExcludes);
+            propertyPathExcludePatterns = patterns;
         }
 
-        return propertyPathExcludePatterns;
+        return patterns;
     }
 
     protected List<Pattern> getNodeIncludePatterns() {
-        if (mismatchPatternsFromSources(nodePathIncludePatterns, nodePathIncludes)) {
-            nodePathIncludePatterns = new ArrayList<>();
-            GlobPattern glob = new GlobPattern();
+        List<Pattern> patterns = nodePathIncludePatterns;
 
-            for (String include : nodePathIncludes) {
-                nodePathIncludePatterns.add(glob.compile(include));
-            }
+        if (mismatchPatternsFromSources(patterns, nodePathIncludes)) {
+            patterns = compilePatterns(nodePathIncludes);
+            nodePathIncludePatterns = patterns;
         }
 
-        return nodePathIncludePatterns;
+        return patterns;
     }
 
     protected List<Pattern> getNodeExcludePatterns() {
-        if (mismatchPatternsFromSources(nodePathExcludePatterns, nodePathExcludes)) {
-            nodePathExcludePatterns = new ArrayList<>();
-            GlobPattern glob = new GlobPattern();
+        List<Pattern> patterns = nodePathExcludePatterns;
 
-            for (String include : nodePathExcludes) {
-                nodePathExcludePatterns.add(glob.compile(include));
-            }
+        if (mismatchPatternsFromSources(patterns, nodePathExcludes)) {
+            patterns = compilePatterns(nodePathExcludes);
+            nodePathExcludePatterns = patterns;
+        }
+
+        return patterns;
+    }
+
+    private static List<Pattern> compilePatterns(List<String> patternSources) {
+        List<Pattern> patterns = new ArrayList<>(patternSources.size());
+        GlobPattern glob = new GlobPattern();
+
+        for (String patternSource : patternSources) {
+            patterns.add(glob.compile(patternSource));
         }
 
-        return nodePathExcludePatterns;
+        return patterns;
     }
 
     protected boolean mismatchPatternsFromSources(List<Pattern> patterns, List<String> patternSources) {
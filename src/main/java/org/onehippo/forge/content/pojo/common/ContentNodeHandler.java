@@ -0,0 +1,71 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.common;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.onehippo.forge.content.pojo.model.ContentNodeTruncation;
+import org.onehippo.forge.content.pojo.model.ContentProperty;
+
+/**
+ * Push-style handler of a content node tree, receiving the content nodes and content properties incrementally
+ * in document order instead of a fully materialized {@link ContentNode} tree.
+ * <P>
+ * For each content node, {@link #startNode(String, String, Set)} is invoked first, followed by
+ * {@link #property(ContentProperty)} for each content property, followed by the events of each child content node,
+ * followed by {@link #truncation(ContentNodeTruncation)} if the content node was truncated, and finally
+ * {@link #endNode()}.
+ * </P>
+ */
+public interface ContentNodeHandler {
+
+    /**
+     * Invoked when a content node starts.
+     * @param name content node name
+     * @param primaryType primary node type name
+     * @param mixinTypes mixin node type names
+     * @throws IOException if IO exception occurs
+     */
+    void startNode(String name, String primaryType, Set<String> mixinTypes) throws IOException;
+
+    /**
+     * Invoked for each content property of the current content node, before any child content node starts.
+     * @param property content property
+     * @throws IOException if IO exception occurs
+     */
+    void property(ContentProperty property) throws IOException;
+
+    /**
+     * Invoked when some child content nodes or properties of the current content node were left out, after its
+     * child content nodes and before it ends.
+     * <P>
+     * By default, nothing happens.
+     * </P>
+     * @param truncation the reason why some child content nodes or properties were left out
+     * @throws IOException if IO exception occurs
+     */
+    default void truncation(ContentNodeTruncation truncation) throws IOException {
+    }
+
+    /**
+     * Invoked when the current content node ends.
+     * @throws IOException if IO exception occurs
+     */
+    void endNode() throws IOException;
+
+}
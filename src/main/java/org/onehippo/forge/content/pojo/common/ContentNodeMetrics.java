@@ -0,0 +1,141 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.common;
+
+/**
+ * Metrics SPI receiving the counters and timings of content node bindings and mappings, e.g, from
+ * {@code DefaultJcrContentNodeBinder} and {@code DefaultJcrContentNodeMapper}, to be exported to a monitoring system.
+ * <P>
+ * Implementations must be thread-safe if shared by concurrent bindings or mappings. {@link #NOOP}, the default,
+ * reports nothing and is not {@link #isEnabled() enabled}, so that no timing is even measured.
+ * </P>
+ */
+public interface ContentNodeMetrics {
+
+    /**
+     * Counted events.
+     */
+    enum Counter {
+
+        /**
+         * JCR nodes bound or mapped.
+         */
+        NODES_VISITED,
+
+        /**
+         * JCR nodes added.
+         */
+        NODES_ADDED,
+
+        /**
+         * JCR nodes removed.
+         */
+        NODES_REMOVED,
+
+        /**
+         * JCR properties set or removed, or mapped to content properties.
+         */
+        PROPERTIES_SET,
+
+        /**
+         * JCR properties left unchanged as already having the same values.
+         */
+        PROPERTIES_SKIPPED,
+
+        /**
+         * Bytes of the binary values written to JCR properties.
+         */
+        BINARY_BYTES_WRITTEN,
+
+        /**
+         * Bytes of the binary values read from JCR properties.
+         */
+        BINARY_BYTES_READ,
+
+        /**
+         * Lookups of referenced JCR nodes.
+         */
+        REFERENCE_LOOKUPS
+    }
+
+    /**
+     * Timed operations.
+     */
+    enum Timer {
+
+        /**
+         * Whole binding of a content node tree.
+         */
+        BIND,
+
+        /**
+         * Whole mapping of a JCR node tree.
+         */
+        MAP,
+
+        /**
+         * Conversions by the value converter, between content values and JCR values.
+         */
+        VALUE_CONVERSION,
+
+        /**
+         * JCR write calls, i.e, setting or removing properties and adding, removing or ordering nodes.
+         */
+        JCR_WRITE
+    }
+
+    /**
+     * No-op metrics, reporting nothing.
+     */
+    ContentNodeMetrics NOOP = new ContentNodeMetrics() {
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void increment(Counter counter, long delta) {
+        }
+
+        @Override
+        public void record(Timer timer, long nanos) {
+        }
+    };
+
+    /**
+     * Returns true if the counters and timings are to be reported. True by default.
+     * @return true if the counters and timings are to be reported
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Adds the {@code delta} to the {@code counter}.
+     * @param counter counter
+     * @param delta number of events
+     */
+    void increment(Counter counter, long delta);
+
+    /**
+     * Records a duration of the {@code timer} operation.
+     * @param timer timed operation
+     * @param nanos duration in nanoseconds
+     */
+    void record(Timer timer, long nanos);
+
+}
@@ -0,0 +1,109 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.common;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.onehippo.forge.content.pojo.model.ContentNodeTruncation;
+import org.onehippo.forge.content.pojo.model.ContentProperty;
+
+/**
+ * {@link ContentNodeHandler} building a {@link ContentNode} tree from the events.
+ */
+public class ContentNodeTreeBuilder implements ContentNodeHandler {
+
+    private final Deque<ContentNode> stack = new ArrayDeque<>();
+
+    private ContentNode rootNode;
+
+    @Override
+    public void startNode(String name, String primaryType, Set<String> mixinTypes) {
+        final ContentNode node = new ContentNode(name, primaryType);
+
+        // materialize the collections like data-binding does, so the built content node equals a data-bound one.
+        node.getMixinTypes();
+        node.getProperties();
+        node.getNodes();
+
+        if (mixinTypes != null) {
+            for (String mixinType : mixinTypes) {
+                node.addMixinType(mixinType);
+            }
+        }
+
+        if (stack.isEmpty()) {
+            rootNode = node;
+        } else {
+            stack.peek().addNode(node);
+        }
+
+        stack.push(node);
+    }
+
+    @Override
+    public void property(ContentProperty property) {
+        if (stack.isEmpty()) {
+            throw new IllegalStateException("No current content node.");
+        }
+
+        stack.peek().getProperties().add(property);
+    }
+
+    @Override
+    public void truncation(ContentNodeTruncation truncation) {
+        if (stack.isEmpty()) {
+            throw new IllegalStateException("No current content node.");
+        }
+
+        stack.peek().setTruncation(truncation);
+    }
+
+    @Override
+    public void endNode() {
+        if (stack.isEmpty()) {
+            throw new IllegalStateException("No current content node.");
+        }
+
+        stack.pop();
+    }
+
+    /**
+     * Returns the root content node built from the events, or null if no content node started yet.
+     * @return the root content node built from the events
+     */
+    public ContentNode getRootNode() {
+        return rootNode;
+    }
+
+    /**
+     * Returns true if the root content node has ended.
+     * @return true if the root content node has ended
+     */
+    public boolean isComplete() {
+        return rootNode != null && stack.isEmpty();
+    }
+
+    /**
+     * Clears the state to build another content node tree.
+     */
+    public void reset() {
+        stack.clear();
+        rootNode = null;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.common;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe, in-memory {@link ContentNodeMetrics} implementation accumulating the counters and a histogram
+ * of the durations of each timer, to be scraped by a monitoring system.
+ */
+public class InMemoryContentNodeMetrics implements ContentNodeMetrics {
+
+    private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+
+    private final Map<Timer, Histogram> histograms = new EnumMap<>(Timer.class);
+
+    public InMemoryContentNodeMetrics() {
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+
+        for (Timer timer : Timer.values()) {
+            histograms.put(timer, new Histogram());
+        }
+    }
+
+    @Override
+    public void increment(Counter counter, long delta) {
+        counters.get(counter).add(delta);
+    }
+
+    @Override
+    public void record(Timer timer, long nanos) {
+        histograms.get(timer).record(nanos);
+    }
+
+    /**
+     * Returns the current value of the {@code counter}.
+     * @param counter counter
+     * @return the current value of the {@code counter}
+     */
+    public long getCount(Counter counter) {
+        return counters.get(counter).sum();
+    }
+
+    /**
+     * Returns the histogram of the durations of the {@code timer} operation.
+     * @param timer timed operation
+     * @return the histogram of the durations of the {@code timer} operation
+     */
+    public Histogram getHistogram(Timer timer) {
+        return histograms.get(timer);
+    }
+
+    /**
+     * Resets all the counters and histograms.
+     */
+    public void reset() {
+        for (LongAdder counter : counters.values()) {
+            counter.reset();
+        }
+
+        for (Histogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Returns one line per counter and per timer, e.g, {@code NODES_VISITED 42}
+     * or {@code BIND count=3 totalMs=12.500 p50Ms=4.194 p99Ms=5.120 maxMs=5.120}.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        for (Map.Entry<Counter, LongAdder> entry : counters.entrySet()) {
+            sb.append(entry.getKey()).append(' ').append(entry.getValue().sum()).append('\n');
+        }
+
+        for (Map.Entry<Timer, Histogram> entry : histograms.entrySet()) {
+            sb.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Histogram of durations in exponential buckets, bucket {@code i} counting the durations
+     * from {@code 2^i} (inclusive) to {@code 2^(i+1)} (exclusive) nanoseconds, with bucket 0 also counting
+     * the durations below 1 nanosecond.
+     */
+    public static class Histogram {
+
+        private static final int BUCKET_COUNT = 64;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            final int bucket = (nanos <= 0) ? 0 : (BUCKET_COUNT - 1 - Long.numberOfLeadingZeros(nanos));
+            buckets.incrementAndGet(bucket);
+            count.increment();
+            totalNanos.add(Math.max(nanos, 0));
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets.set(i, 0);
+            }
+
+            count.reset();
+            totalNanos.reset();
+            maxNanos.set(0);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * Returns the number of durations counted in the {@code bucket}.
+         * @param bucket bucket index, from 0 to 63
+         * @return the number of durations counted in the {@code bucket}
+         */
+        public long getBucketCount(int bucket) {
+            return buckets.get(bucket);
+        }
+
+        /**
+         * Returns an upper bound of the {@code percentile} of the durations, i.e, the upper bound of the bucket
+         * reaching the percentile, capped by the maximum duration, or 0 if nothing has been recorded.
+         * @param percentile percentile between 0 and 100
+         * @return an upper bound of the {@code percentile} of the durations in nanoseconds
+         */
+        public long getPercentileNanos(double percentile) {
+            long total = 0;
+
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                total += buckets.get(i);
+            }
+
+            if (total == 0) {
+                return 0;
+            }
+
+            final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+            long cumulative = 0;
+
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                cumulative += buckets.get(i);
+
+                if (cumulative >= rank) {
+                    final long upperBound = (i >= BUCKET_COUNT - 2) ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+                    return Math.min(upperBound, getMaxNanos());
+                }
+            }
+
+            return getMaxNanos();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d totalMs=%.3f p50Ms=%.3f p99Ms=%.3f maxMs=%.3f", getCount(),
+                    toMillis(getTotalNanos()), toMillis(getPercentileNanos(50)), toMillis(getPercentileNanos(99)),
+                    toMillis(getMaxNanos()));
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.common.jcr;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+/**
+ * Factory of JCR sessions, used by components working with multiple sessions, e.g, one session per worker thread,
+ * as a JCR {@link Session} may not be used by multiple threads concurrently.
+ */
+public interface JcrSessionFactory {
+
+    /**
+     * Creates a new JCR session.
+     * @return a new JCR session
+     * @throws RepositoryException if repository exception occurs
+     */
+    Session createSession() throws RepositoryException;
+
+    /**
+     * Releases the {@code session} created by {@link #createSession()} when it is not used any more.
+     * Logs out the {@code session} by default.
+     * @param session JCR session
+     */
+    default void releaseSession(Session session) {
+        session.logout();
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event of the conversion of binary property values between content and JCR values.
+ * Disabled unless enabled in the recording settings.
+ */
+@Name(BinaryConversionEvent.NAME)
+@Label("Binary Conversion")
+@Category({ "Content POJO" })
+@Description("Conversion of binary property values between content values and JCR values")
+@Enabled(false)
+@StackTrace(false)
+public class BinaryConversionEvent extends Event {
+
+    public static final String NAME = "org.onehippo.forge.content.pojo.BinaryConversion";
+
+    @Label("Path")
+    @Description("Path of the JCR property, if known")
+    private String path;
+
+    @Label("Property Name")
+    private String propertyName;
+
+    @Label("Size")
+    @DataAmount
+    private long size;
+
+    @Label("To JCR")
+    @Description("Whether content values are converted to JCR values, or JCR values to content values")
+    private boolean toJcr;
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public void setPropertyName(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public void setToJcr(boolean toJcr) {
+        this.toJcr = toJcr;
+    }
+}
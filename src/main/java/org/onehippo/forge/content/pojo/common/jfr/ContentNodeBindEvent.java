@@ -0,0 +1,55 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event of the binding of a content node tree to a JCR node, e.g, of a document.
+ * Disabled unless enabled in the recording settings.
+ */
+@Name(ContentNodeBindEvent.NAME)
+@Label("Content Node Bind")
+@Category({ "Content POJO" })
+@Description("Binding of a content node tree to a JCR node")
+@Enabled(false)
+@StackTrace(false)
+public class ContentNodeBindEvent extends Event {
+
+    public static final String NAME = "org.onehippo.forge.content.pojo.Bind";
+
+    @Label("Path")
+    @Description("Path of the bound JCR node")
+    private String path;
+
+    @Label("Node Count")
+    @Description("Number of JCR nodes bound")
+    private long nodeCount;
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public void setNodeCount(long nodeCount) {
+        this.nodeCount = nodeCount;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event of the resolution of a referenced JCR node, by path when binding
+ * or by identifier when mapping. Disabled unless enabled in the recording settings.
+ */
+@Name(ReferenceResolutionEvent.NAME)
+@Label("Reference Resolution")
+@Category({ "Content POJO" })
+@Description("Resolution of a referenced JCR node")
+@Enabled(false)
+@StackTrace(false)
+public class ReferenceResolutionEvent extends Event {
+
+    public static final String NAME = "org.onehippo.forge.content.pojo.ReferenceResolution";
+
+    @Label("Path")
+    @Description("Path of the JCR node having the reference property")
+    private String path;
+
+    @Label("Property Name")
+    private String propertyName;
+
+    @Label("Reference Path")
+    @Description("Path of the referenced JCR node")
+    private String referencePath;
+
+    @Label("Resolved")
+    @Description("Whether the referenced JCR node exists")
+    private boolean resolved;
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public void setPropertyName(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    public void setReferencePath(String referencePath) {
+        this.referencePath = referencePath;
+    }
+
+    public void setResolved(boolean resolved) {
+        this.resolved = resolved;
+    }
+}
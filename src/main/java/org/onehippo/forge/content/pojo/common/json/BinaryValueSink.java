@@ -0,0 +1,56 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.common.json;
+
+import java.io.IOException;
+
+import org.apache.commons.vfs2.FileObject;
+
+/**
+ * Sink of the binary data decoded from <code>data:</code> URLs while reading a content node tree, storing the data
+ * in an external {@link FileObject} so that the content property keeps the file URL instead of the whole data.
+ */
+public interface BinaryValueSink {
+
+    /**
+     * Creates a new file to store the binary data of {@code mediaType} and {@code charset}.
+     * @param mediaType media type, or null if unknown
+     * @param charset character set, or null if unknown
+     * @return a new file to store the binary data
+     * @throws IOException if IO exception occurs
+     */
+    FileObject createFile(String mediaType, String charset) throws IOException;
+
+    /**
+     * Stores the binary data of the base64 {@code dataUri} in a new file created by {@link #createFile(String, String)},
+     * decoding it chunk by chunk.
+     * @param dataUri a base64 <code>data:</code> URL
+     * @return the URL of the new file, or the {@code dataUri} itself if it is not a base64 <code>data:</code> URL
+     * @throws IOException if IO exception occurs
+     */
+    default String storeDataUri(String dataUri) throws IOException {
+        final DataUriDecodingWriter writer = new DataUriDecodingWriter(this);
+
+        try {
+            writer.write(dataUri);
+        } finally {
+            writer.close();
+        }
+
+        return writer.getValue();
+    }
+
+}
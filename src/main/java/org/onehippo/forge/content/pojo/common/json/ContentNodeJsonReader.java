@@ -0,0 +1,318 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.common.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.onehippo.forge.content.pojo.common.ContentNodeHandler;
+import org.onehippo.forge.content.pojo.common.ContentNodeTreeBuilder;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.onehippo.forge.content.pojo.model.ContentNodeTruncation;
+import org.onehippo.forge.content.pojo.model.ContentProperty;
+import org.onehippo.forge.content.pojo.model.ContentPropertyType;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+
+import static org.onehippo.forge.content.pojo.common.json.ContentNodeJsonWriter.MIXIN_TYPES;
+import static org.onehippo.forge.content.pojo.common.json.ContentNodeJsonWriter.MULTIPLE;
+import static org.onehippo.forge.content.pojo.common.json.ContentNodeJsonWriter.NAME;
+import static org.onehippo.forge.content.pojo.common.json.ContentNodeJsonWriter.NODES;
+import static org.onehippo.forge.content.pojo.common.json.ContentNodeJsonWriter.PRIMARY_TYPE;
+import static org.onehippo.forge.content.pojo.common.json.ContentNodeJsonWriter.PROPERTIES;
+import static org.onehippo.forge.content.pojo.common.json.ContentNodeJsonWriter.TRUNCATION;
+import static org.onehippo.forge.content.pojo.common.json.ContentNodeJsonWriter.TYPE;
+import static org.onehippo.forge.content.pojo.common.json.ContentNodeJsonWriter.VALUES;
+
+/**
+ * Streaming JSON reader of content node trees on a Jackson {@link JsonParser}, reading the format produced by
+ * Jackson data-binding of {@link ContentNode} and {@link ContentNodeJsonWriter}, and emitting
+ * {@link ContentNodeHandler} events incrementally as the content nodes are parsed.
+ * <P>
+ * The name and types of a content node are expected before its properties and child nodes, as written by Jackson
+ * data-binding and {@link ContentNodeJsonWriter}. Unknown fields are skipped.
+ * </P>
+ * <P>
+ * If a {@link BinaryValueSink} is set, binary values in <code>data:</code> URLs not shorter than
+ * {@link #getBinaryValueSinkThreshold()} are decoded chunk by chunk into a file of the sink, and the content
+ * property keeps the file URL instead of the whole data.
+ * </P>
+ * <P>
+ * Multiple root content nodes in sequence, such as in newline-delimited JSON, are read one by one.
+ * </P>
+ */
+public class ContentNodeJsonReader implements Closeable {
+
+    /**
+     * Default minimum length of a <code>data:</code> URL to be stored in the binary value sink.
+     */
+    public static final long DEFAULT_BINARY_VALUE_SINK_THRESHOLD = 20 * 1024; // 20KB
+
+    /**
+     * Default JSON factory, not limiting the length of a string value as a binary value can be large.
+     */
+    private static final JsonFactory DEFAULT_JSON_FACTORY = JsonFactory.builder()
+            .streamReadConstraints(StreamReadConstraints.builder().maxStringLength(Integer.MAX_VALUE).build())
+            .build();
+
+    private final JsonParser parser;
+
+    private BinaryValueSink binaryValueSink;
+
+    private long binaryValueSinkThreshold = DEFAULT_BINARY_VALUE_SINK_THRESHOLD;
+
+    /**
+     * Constructs a reader reading JSON from the {@code input}.
+     * @param input input stream
+     * @throws IOException if IO exception occurs
+     */
+    public ContentNodeJsonReader(final InputStream input) throws IOException {
+        this(DEFAULT_JSON_FACTORY.createParser(input));
+    }
+
+    /**
+     * Constructs a reader reading JSON from the character {@code input}.
+     * @param input character input
+     * @throws IOException if IO exception occurs
+     */
+    public ContentNodeJsonReader(final Reader input) throws IOException {
+        this(DEFAULT_JSON_FACTORY.createParser(input));
+    }
+
+    /**
+     * Constructs a reader reading from the {@code parser}.
+     * @param parser JSON parser
+     */
+    public ContentNodeJsonReader(final JsonParser parser) {
+        this.parser = parser;
+    }
+
+    public JsonParser getParser() {
+        return parser;
+    }
+
+    public BinaryValueSink getBinaryValueSink() {
+        return binaryValueSink;
+    }
+
+    public void setBinaryValueSink(BinaryValueSink binaryValueSink) {
+        this.binaryValueSink = binaryValueSink;
+    }
+
+    public long getBinaryValueSinkThreshold() {
+        return binaryValueSinkThreshold;
+    }
+
+    public void setBinaryValueSinkThreshold(long binaryValueSinkThreshold) {
+        this.binaryValueSinkThreshold = binaryValueSinkThreshold;
+    }
+
+    /**
+     * Reads the next root content node tree, emitting the events to the {@code handler}.
+     * @param handler content node handler
+     * @return false if there's no more content node to read
+     * @throws IOException if IO exception occurs
+     */
+    public boolean read(final ContentNodeHandler handler) throws IOException {
+        final JsonToken token = parser.nextToken();
+
+        if (token == null) {
+            return false;
+        }
+
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a content node object, but was " + token + ".");
+        }
+
+        readNode(handler);
+        return true;
+    }
+
+    /**
+     * Reads the next root content node tree.
+     * @return the next root content node, or null if there's no more content node to read
+     * @throws IOException if IO exception occurs
+     */
+    public ContentNode readNode() throws IOException {
+        final ContentNodeTreeBuilder builder = new ContentNodeTreeBuilder();
+        return read(builder) ? builder.getRootNode() : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private void readNode(final ContentNodeHandler handler) throws IOException {
+        String name = null;
+        String primaryType = null;
+        Set<String> mixinTypes = null;
+        ContentNodeTruncation truncation = null;
+        boolean started = false;
+        boolean nodesRead = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            parser.nextToken();
+
+            switch (fieldName) {
+                case NAME, PRIMARY_TYPE, MIXIN_TYPES -> {
+                    if (started) {
+                        throw new JsonParseException(parser,
+                                "The name and types must precede the properties and child nodes of a node.");
+                    }
+
+                    if (NAME.equals(fieldName)) {
+                        name = parser.getValueAsString();
+                    } else if (PRIMARY_TYPE.equals(fieldName)) {
+                        primaryType = parser.getValueAsString();
+                    } else {
+                        mixinTypes = readMixinTypes();
+                    }
+                }
+                case PROPERTIES -> {
+                    if (nodesRead) {
+                        throw new JsonParseException(parser, "The properties must precede the child nodes of a node.");
+                    }
+
+                    if (!started) {
+                        handler.startNode(name, primaryType, mixinTypes);
+                        started = true;
+                    }
+
+                    readProperties(handler);
+                }
+                case NODES -> {
+                    if (!started) {
+                        handler.startNode(name, primaryType, mixinTypes);
+                        started = true;
+                    }
+
+                    readChildNodes(handler);
+                    nodesRead = true;
+                }
+                case TRUNCATION -> truncation = (parser.currentToken() == JsonToken.VALUE_NULL) ? null
+                        : ContentNodeTruncation.valueOf(parser.getText());
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (!started) {
+            handler.startNode(name, primaryType, mixinTypes);
+        }
+
+        if (truncation != null) {
+            handler.truncation(truncation);
+        }
+
+        handler.endNode();
+    }
+
+    private void readProperties(final ContentNodeHandler handler) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            handler.property(readProperty());
+        }
+    }
+
+    private void readChildNodes(final ContentNodeHandler handler) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            readNode(handler);
+        }
+    }
+
+    private ContentProperty readProperty() throws IOException {
+        final ContentProperty property = new ContentProperty();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            final JsonToken token = parser.nextToken();
+
+            switch (fieldName) {
+                case NAME -> property.setName(parser.getValueAsString());
+                case TYPE -> property.setType(
+                        (token == JsonToken.VALUE_NULL) ? null : ContentPropertyType.valueOf(parser.getText()));
+                case MULTIPLE -> property.setMultiple(parser.getValueAsBoolean());
+                case VALUES -> readValues(property);
+                default -> parser.skipChildren();
+            }
+        }
+
+        return property;
+    }
+
+    private void readValues(final ContentProperty property) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+
+        final List<String> values = property.getValues();
+        JsonToken token;
+
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.VALUE_NULL) {
+                values.add(null);
+            } else if (binaryValueSink != null && property.getType() == ContentPropertyType.BINARY
+                    && token == JsonToken.VALUE_STRING && parser.getTextLength() >= binaryValueSinkThreshold) {
+                final DataUriDecodingWriter writer = new DataUriDecodingWriter(binaryValueSink);
+
+                try {
+                    parser.getText(writer);
+                } finally {
+                    writer.close();
+                }
+
+                values.add(writer.getValue());
+            } else {
+                values.add(parser.getValueAsString());
+            }
+        }
+    }
+
+    private Set<String> readMixinTypes() throws IOException {
+        final Set<String> mixinTypes = new LinkedHashSet<>();
+
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return mixinTypes;
+        }
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            mixinTypes.add(parser.getValueAsString());
+        }
+
+        return mixinTypes;
+    }
+}
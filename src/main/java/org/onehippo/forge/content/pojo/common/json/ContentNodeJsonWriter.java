@@ -0,0 +1,302 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.common.json;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.VFS;
+import org.onehippo.forge.content.pojo.common.ContentNodeHandler;
+import org.onehippo.forge.content.pojo.model.BinaryValue;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.onehippo.forge.content.pojo.model.ContentNodeTruncation;
+import org.onehippo.forge.content.pojo.model.ContentProperty;
+import org.onehippo.forge.content.pojo.model.ContentPropertyType;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Streaming JSON writer of content node trees on a Jackson {@link JsonGenerator}, producing the same format
+ * as Jackson data-binding of {@link ContentNode}, but incrementally as {@link ContentNodeHandler} events arrive
+ * or while walking a {@link ContentNode} tree, without building any intermediate representation.
+ * <P>
+ * If {@link #isInlineExternalBinaries()} is true, binary values referring to an external URL are written as
+ * <code>data:</code> URLs, streaming and encoding the external data chunk by chunk.
+ * </P>
+ * <P>
+ * Multiple root content nodes may be written in sequence, separated by the root value separator of the generator.
+ * </P>
+ */
+public class ContentNodeJsonWriter implements ContentNodeHandler, Closeable, Flushable {
+
+    static final String NAME = "name";
+    static final String PRIMARY_TYPE = "primaryType";
+    static final String MIXIN_TYPES = "mixinTypes";
+    static final String PROPERTIES = "properties";
+    static final String NODES = "nodes";
+    static final String TYPE = "type";
+    static final String MULTIPLE = "multiple";
+    static final String VALUES = "values";
+    static final String TRUNCATION = "truncation";
+
+    private static final String DATA_URI_SCHEME = "data:";
+
+    /**
+     * State of a content node having written only its name and types.
+     */
+    private static final int STATE_STARTED = 0;
+
+    /**
+     * State of a content node writing its properties.
+     */
+    private static final int STATE_PROPERTIES = 1;
+
+    /**
+     * State of a content node writing its child nodes.
+     */
+    private static final int STATE_NODES = 2;
+
+    private final JsonGenerator generator;
+
+    /**
+     * States of the open content nodes, indexed by depth.
+     */
+    private int[] states = new int[16];
+
+    /**
+     * Truncations of the open content nodes, indexed by depth, written when the content node ends.
+     */
+    private ContentNodeTruncation[] truncations = new ContentNodeTruncation[16];
+
+    /**
+     * Number of the open content nodes.
+     */
+    private int depth;
+
+    private boolean inlineExternalBinaries;
+
+    /**
+     * Constructs a writer writing UTF-8 encoded JSON to the {@code output}.
+     * @param output output stream
+     * @throws IOException if IO exception occurs
+     */
+    public ContentNodeJsonWriter(final OutputStream output) throws IOException {
+        this(new JsonFactory().createGenerator(output, JsonEncoding.UTF8));
+    }
+
+    /**
+     * Constructs a writer writing to the {@code generator}.
+     * @param generator JSON generator
+     */
+    public ContentNodeJsonWriter(final JsonGenerator generator) {
+        this.generator = generator;
+    }
+
+    public JsonGenerator getGenerator() {
+        return generator;
+    }
+
+    public boolean isInlineExternalBinaries() {
+        return inlineExternalBinaries;
+    }
+
+    public void setInlineExternalBinaries(boolean inlineExternalBinaries) {
+        this.inlineExternalBinaries = inlineExternalBinaries;
+    }
+
+    /**
+     * Writes the whole {@code contentNode} tree.
+     * @param contentNode content node
+     * @throws IOException if IO exception occurs
+     */
+    public void writeNode(final ContentNode contentNode) throws IOException {
+        startNode(contentNode.getName(), contentNode.getPrimaryType(), contentNode.getMixinTypes());
+
+        for (ContentProperty property : contentNode.getProperties()) {
+            property(property);
+        }
+
+        for (ContentNode childNode : contentNode.getNodes()) {
+            writeNode(childNode);
+        }
+
+        if (contentNode.getTruncation() != null) {
+            truncation(contentNode.getTruncation());
+        }
+
+        endNode();
+    }
+
+    @Override
+    public void startNode(final String name, final String primaryType, final Set<String> mixinTypes)
+            throws IOException {
+        if (depth > 0) {
+            switch (states[depth - 1]) {
+                case STATE_STARTED -> {
+                    generator.writeArrayFieldStart(PROPERTIES);
+                    generator.writeEndArray();
+                    generator.writeArrayFieldStart(NODES);
+                }
+                case STATE_PROPERTIES -> {
+                    generator.writeEndArray();
+                    generator.writeArrayFieldStart(NODES);
+                }
+                default -> {
+                }
+            }
+
+            states[depth - 1] = STATE_NODES;
+        }
+
+        if (depth == states.length) {
+            states = Arrays.copyOf(states, depth * 2);
+            truncations = Arrays.copyOf(truncations, depth * 2);
+        }
+
+        truncations[depth] = null;
+        states[depth++] = STATE_STARTED;
+
+        generator.writeStartObject();
+        generator.writeStringField(NAME, name);
+        generator.writeStringField(PRIMARY_TYPE, primaryType);
+        generator.writeArrayFieldStart(MIXIN_TYPES);
+
+        if (mixinTypes != null) {
+            for (String mixinType : mixinTypes) {
+                generator.writeString(mixinType);
+            }
+        }
+
+        generator.writeEndArray();
+    }
+
+    @Override
+    public void property(final ContentProperty property) throws IOException {
+        if (depth == 0) {
+            throw new IllegalStateException("No current content node.");
+        }
+
+        switch (states[depth - 1]) {
+            case STATE_STARTED -> {
+                generator.writeArrayFieldStart(PROPERTIES);
+                states[depth - 1] = STATE_PROPERTIES;
+            }
+            case STATE_NODES -> throw new IllegalStateException("Properties must be written before child nodes.");
+            default -> {
+            }
+        }
+
+        final ContentPropertyType type = property.getType();
+
+        generator.writeStartObject();
+        generator.writeStringField(NAME, property.getName());
+        generator.writeStringField(TYPE, (type != null) ? type.name() : null);
+        generator.writeBooleanField(MULTIPLE, property.isMultiple());
+        generator.writeArrayFieldStart(VALUES);
+
+        final List<String> values = property.getValues();
+
+        for (int i = 0; i < values.size(); i++) {
+            final String value = values.get(i);
+
+            if (value != null && type == ContentPropertyType.BINARY && isInlineExternalBinaries()
+                    && !StringUtils.startsWith(value, DATA_URI_SCHEME)) {
+                writeExternalBinaryValue(value);
+            } else {
+                generator.writeString(value);
+            }
+        }
+
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void truncation(final ContentNodeTruncation truncation) throws IOException {
+        if (depth == 0) {
+            throw new IllegalStateException("No current content node.");
+        }
+
+        truncations[depth - 1] = truncation;
+    }
+
+    @Override
+    public void endNode() throws IOException {
+        if (depth == 0) {
+            throw new IllegalStateException("No current content node.");
+        }
+
+        switch (states[--depth]) {
+            case STATE_STARTED -> {
+                generator.writeArrayFieldStart(PROPERTIES);
+                generator.writeEndArray();
+                generator.writeArrayFieldStart(NODES);
+                generator.writeEndArray();
+            }
+            case STATE_PROPERTIES -> {
+                generator.writeEndArray();
+                generator.writeArrayFieldStart(NODES);
+                generator.writeEndArray();
+            }
+            default -> generator.writeEndArray();
+        }
+
+        final ContentNodeTruncation truncation = truncations[depth];
+
+        if (truncation != null) {
+            generator.writeStringField(TRUNCATION, truncation.name());
+            truncations[depth] = null;
+        }
+
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+
+    /**
+     * Writes the binary data at the external {@code url} as a <code>data:</code> URL, encoding it chunk by chunk.
+     * @param url external URL of the binary data
+     * @throws IOException if IO exception occurs
+     */
+    private void writeExternalBinaryValue(final String url) throws IOException {
+        final FileObject fileObject = VFS.getManager().resolveFile(url);
+        final BinaryValue binaryValue = new BinaryValue(fileObject);
+
+        try (Reader reader = new DataUriEncodingReader(binaryValue)) {
+            generator.writeString(reader, -1);
+        } finally {
+            binaryValue.dispose();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.common.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Base64;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.vfs2.FileObject;
+
+/**
+ * {@link Writer} receiving a stringified binary value, which decodes a base64 <code>data:</code> URL chunk by chunk
+ * into a file created by a {@link BinaryValueSink}, or simply collects the text if it is not a base64
+ * <code>data:</code> URL.
+ */
+class DataUriDecodingWriter extends Writer {
+
+    private static final String DATA_URI_SCHEME = "data:";
+
+    /**
+     * Maximum length of the metadata before the comma of a <code>data:</code> URL.
+     */
+    private static final int MAX_HEADER_LENGTH = 1024;
+
+    /**
+     * Number of base64 characters decoded at once.
+     */
+    private static final int CHUNK_SIZE = 4 * 1024;
+
+    private final BinaryValueSink sink;
+
+    /**
+     * The <code>data:</code> URL header while reading it, or the whole text if it is not a base64 <code>data:</code> URL.
+     */
+    private final StringBuilder text = new StringBuilder();
+
+    private boolean plainText;
+
+    private FileObject file;
+
+    private OutputStream output;
+
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+
+    private int chunkLength;
+
+    private final byte[] decoded = new byte[CHUNK_SIZE / 4 * 3];
+
+    private final Base64.Decoder decoder = Base64.getDecoder();
+
+    private boolean closed;
+
+    DataUriDecodingWriter(final BinaryValueSink sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        final int end = off + len;
+        int i = off;
+
+        if (output == null && !plainText) {
+            while (i < end) {
+                final char c = cbuf[i++];
+                text.append(c);
+
+                if (text.length() > MAX_HEADER_LENGTH
+                        || (text.length() <= DATA_URI_SCHEME.length() && c != DATA_URI_SCHEME.charAt(text.length() - 1))) {
+                    plainText = true;
+                    break;
+                }
+
+                if (c == ',') {
+                    startDecoding();
+                    break;
+                }
+            }
+        }
+
+        if (plainText) {
+            text.append(cbuf, i, end - i);
+            return;
+        }
+
+        for (; i < end; i++) {
+            final char c = cbuf[i];
+
+            if (!Character.isWhitespace(c)) {
+                chunk[chunkLength++] = (byte) c;
+
+                if (chunkLength == CHUNK_SIZE) {
+                    output.write(decoded, 0, decoder.decode(chunk, decoded));
+                    chunkLength = 0;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (output != null) {
+            output.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        if (output != null) {
+            try {
+                if (chunkLength > 0) {
+                    output.write(decoder.decode(Arrays.copyOf(chunk, chunkLength)));
+                    chunkLength = 0;
+                }
+            } catch (IllegalArgumentException e) {
+                IOUtils.closeQuietly(output);
+                throw new IOException("Invalid base64 data in data uri.", e);
+            }
+
+            output.close();
+        }
+    }
+
+    /**
+     * Returns the file URL of the decoded binary data, or the whole text if it is not a base64 <code>data:</code> URL.
+     * @return the file URL of the decoded binary data, or the whole text if it is not a base64 <code>data:</code> URL
+     * @throws IOException if IO exception occurs
+     */
+    String getValue() throws IOException {
+        if (file != null) {
+            return file.getURL().toString();
+        }
+
+        return text.toString();
+    }
+
+    private void startDecoding() throws IOException {
+        final String metadata = text.substring(DATA_URI_SCHEME.length(), text.length() - 1);
+        final String[] tokens = StringUtils.split(metadata, ";");
+
+        if (tokens == null || !Arrays.asList(tokens).contains("base64")) {
+            plainText = true;
+            return;
+        }
+
+        String mediaType = null;
+        String charset = null;
+
+        for (String token : tokens) {
+            if (token.startsWith("charset=")) {
+                charset = token.substring(8);
+            } else if (!token.equals("base64")) {
+                mediaType = token;
+            }
+        }
+
+        file = sink.createFile(mediaType, charset);
+        output = file.getContent().getOutputStream();
+    }
+}
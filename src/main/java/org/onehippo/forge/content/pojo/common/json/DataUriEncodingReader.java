@@ -0,0 +1,126 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.common.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Base64;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.onehippo.forge.content.pojo.model.BinaryValue;
+
+/**
+ * {@link Reader} producing a base64 <code>data:</code> URL from the stream of a {@link BinaryValue}, encoding
+ * the binary data chunk by chunk, in the same format as {@link BinaryValue#toUriString()}.
+ */
+class DataUriEncodingReader extends Reader {
+
+    /**
+     * Number of bytes encoded at once.
+     */
+    private static final int CHUNK_SIZE = 3 * 1024;
+
+    private final String header;
+
+    private int headerOffset;
+
+    private final InputStream input;
+
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+
+    private final byte[] encoded = new byte[CHUNK_SIZE / 3 * 4];
+
+    private int encodedOffset;
+
+    private int encodedLength;
+
+    private boolean endOfInput;
+
+    private final Base64.Encoder encoder = Base64.getEncoder();
+
+    DataUriEncodingReader(final BinaryValue binaryValue) throws IOException {
+        final StringBuilder sb = new StringBuilder(64).append("data:");
+
+        if (StringUtils.isNotBlank(binaryValue.getMediaType())) {
+            sb.append(binaryValue.getMediaType());
+        }
+
+        if (StringUtils.isNotBlank(binaryValue.getCharset())) {
+            sb.append(';').append(binaryValue.getCharset());
+        }
+
+        header = sb.append(";base64,").toString();
+        input = binaryValue.getStream();
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        int count = 0;
+
+        while (count < len) {
+            if (headerOffset < header.length()) {
+                final int n = Math.min(len - count, header.length() - headerOffset);
+                header.getChars(headerOffset, headerOffset + n, cbuf, off + count);
+                headerOffset += n;
+                count += n;
+                continue;
+            }
+
+            if (encodedOffset == encodedLength && !encodeNextChunk()) {
+                break;
+            }
+
+            final int n = Math.min(len - count, encodedLength - encodedOffset);
+
+            for (int i = 0; i < n; i++) {
+                cbuf[off + count + i] = (char) encoded[encodedOffset + i];
+            }
+
+            encodedOffset += n;
+            count += n;
+        }
+
+        return (count == 0 && len > 0) ? -1 : count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private boolean encodeNextChunk() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+
+        final int n = IOUtils.read(input, chunk);
+
+        if (n < CHUNK_SIZE) {
+            endOfInput = true;
+        }
+
+        if (n <= 0) {
+            return false;
+        }
+
+        encodedLength = encoder.encode((n == CHUNK_SIZE) ? chunk : Arrays.copyOf(chunk, n), encoded);
+        encodedOffset = 0;
+        return true;
+    }
+}
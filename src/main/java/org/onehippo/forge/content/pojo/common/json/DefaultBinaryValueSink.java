@@ -0,0 +1,85 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.common.json;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.UUID;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.VFS;
+
+/**
+ * Default {@link BinaryValueSink} implementation, storing binary data in randomly generated files under
+ * the {@link #getBinaryValueFileFolder()}, or in temporary files if the folder is not set.
+ */
+public class DefaultBinaryValueSink implements BinaryValueSink {
+
+    private static final String DEFAULT_BINARY_FILE_NAME_PREFIX = "_hipojo_bin_";
+    private static final String DEFAULT_BINARY_FILE_NAME_SUFFIX = ".dat";
+
+    private FileObject binaryValueFileFolder;
+    private String binaryFileNamePrefix = DEFAULT_BINARY_FILE_NAME_PREFIX;
+    private String binaryFileNameSuffix = DEFAULT_BINARY_FILE_NAME_SUFFIX;
+
+    public DefaultBinaryValueSink() {
+    }
+
+    public DefaultBinaryValueSink(final FileObject binaryValueFileFolder) {
+        this.binaryValueFileFolder = binaryValueFileFolder;
+    }
+
+    public FileObject getBinaryValueFileFolder() {
+        return binaryValueFileFolder;
+    }
+
+    public void setBinaryValueFileFolder(FileObject binaryValueFileFolder) {
+        this.binaryValueFileFolder = binaryValueFileFolder;
+    }
+
+    public String getBinaryFileNamePrefix() {
+        return binaryFileNamePrefix;
+    }
+
+    public void setBinaryFileNamePrefix(String binaryFileNamePrefix) {
+        if (StringUtils.isBlank(binaryFileNamePrefix)) {
+            throw new IllegalArgumentException("Invalid binary file name prefix.");
+        }
+
+        this.binaryFileNamePrefix = binaryFileNamePrefix;
+    }
+
+    public String getBinaryFileNameSuffix() {
+        return binaryFileNameSuffix;
+    }
+
+    public void setBinaryFileNameSuffix(String binaryFileNameSuffix) {
+        this.binaryFileNameSuffix = StringUtils.defaultString(binaryFileNameSuffix);
+    }
+
+    @Override
+    public FileObject createFile(final String mediaType, final String charset) throws IOException {
+        if (getBinaryValueFileFolder() == null) {
+            File binaryFile = File.createTempFile(getBinaryFileNamePrefix(), getBinaryFileNameSuffix());
+            return VFS.getManager().toFileObject(binaryFile);
+        }
+
+        getBinaryValueFileFolder().createFolder();
+        return getBinaryValueFileFolder()
+                .resolveFile(getBinaryFileNamePrefix() + UUID.randomUUID() + getBinaryFileNameSuffix());
+    }
+}
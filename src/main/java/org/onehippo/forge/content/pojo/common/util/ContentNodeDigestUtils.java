@@ -0,0 +1,234 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.common.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.vfs2.VFS;
+import org.onehippo.forge.content.pojo.model.BinaryValue;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.onehippo.forge.content.pojo.model.ContentProperty;
+import org.onehippo.forge.content.pojo.model.ContentPropertyType;
+
+/**
+ * {@link ContentNode} digest utilities, computing a stable fingerprint of a content node subtree.
+ * <P>
+ * The digest covers the name, the primary type, the mixin types, the properties (name, type, multiplicity and
+ * stringified values) and the digests of the child nodes in order, recursively. Mixin types and properties are
+ * digested in name order as their order is not significant, while the order of child nodes is. As the digest of
+ * a content node is made of the digests of its child nodes, the digests of all the subtrees of a content node tree
+ * can be computed at the cost of digesting the whole tree once, by {@link #digest(ContentNode, Map, String...)}.
+ * Binary values are covered by their content, i.e, the <code>data:</code> URI embedding it, or the content read
+ * from the URL of an external binary, so that the digest neither changes with the URL of a temporary file nor
+ * stays the same when the content at a reused URL changes.
+ * </P>
+ */
+public class ContentNodeDigestUtils {
+
+    /**
+     * Digest algorithm.
+     */
+    public static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static final Comparator<ContentProperty> PROPERTY_NAME_COMPARATOR =
+            Comparator.comparing(ContentProperty::getName, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private ContentNodeDigestUtils() {
+    }
+
+    /**
+     * Returns the hex encoded digest of the {@code contentNode} subtree.
+     * @param contentNode content node
+     * @param excludedPropertyNames names of the properties to leave out of the digest, at any depth
+     * @return the hex encoded digest of the {@code contentNode} subtree
+     * @throws UncheckedIOException if the content of an external binary value cannot be read
+     */
+    public static String digest(final ContentNode contentNode, final String ... excludedPropertyNames) {
+        return digest(contentNode, new IdentityHashMap<>(), excludedPropertyNames);
+    }
+
+    /**
+     * Returns the hex encoded digest of the {@code contentNode} subtree, reusing the digests of the subtrees already
+     * in {@code digests} and adding the ones computed, so that the digests of the descendants are computed only once.
+     * The {@code digests} are to be keyed by identity, computed with the same {@code excludedPropertyNames}, and
+     * dropped when the content nodes are modified.
+     * @param contentNode content node
+     * @param digests digests of content node subtrees by content node identity
+     * @param excludedPropertyNames names of the properties to leave out of the digest, at any depth
+     * @return the hex encoded digest of the {@code contentNode} subtree
+     * @throws UncheckedIOException if the content of an external binary value cannot be read
+     */
+    public static String digest(final ContentNode contentNode, final Map<ContentNode, String> digests,
+            final String ... excludedPropertyNames) {
+        final Set<String> excludedNames = (excludedPropertyNames == null || excludedPropertyNames.length == 0)
+                ? Collections.emptySet() : new HashSet<>(Arrays.asList(excludedPropertyNames));
+        return digest(contentNode, excludedNames, digests);
+    }
+
+    private static String digest(final ContentNode contentNode, final Set<String> excludedNames,
+            final Map<ContentNode, String> digests) {
+        String digest = digests.get(contentNode);
+
+        if (digest == null) {
+            final MessageDigest messageDigest = createMessageDigest();
+            update(messageDigest, contentNode, excludedNames, digests);
+            digest = HexFormat.of().formatHex(messageDigest.digest());
+            digests.put(contentNode, digest);
+        }
+
+        return digest;
+    }
+
+    private static void update(final MessageDigest md, final ContentNode contentNode, final Set<String> excludedNames,
+            final Map<ContentNode, String> digests) {
+        update(md, contentNode.getName());
+        update(md, contentNode.getPrimaryType());
+
+        final List<String> mixinTypes = new ArrayList<>(contentNode.getMixinTypes());
+        Collections.sort(mixinTypes);
+        update(md, mixinTypes);
+
+        final List<ContentProperty> properties = new ArrayList<>(contentNode.getProperties().size());
+
+        for (ContentProperty property : contentNode.getProperties()) {
+            if (!excludedNames.contains(property.getName())) {
+                properties.add(property);
+            }
+        }
+
+        properties.sort(PROPERTY_NAME_COMPARATOR);
+        update(md, properties.size());
+
+        for (ContentProperty property : properties) {
+            update(md, property.getName());
+            update(md, String.valueOf(property.getType()));
+            md.update((byte) (property.isMultiple() ? 1 : 0));
+
+            if (ContentPropertyType.BINARY.equals(property.getType())) {
+                updateBinaries(md, property.getValues());
+            } else {
+                update(md, property.getValues());
+            }
+        }
+
+        final List<ContentNode> childNodes = contentNode.getNodes();
+        update(md, childNodes.size());
+
+        for (ContentNode childNode : childNodes) {
+            update(md, digest(childNode, excludedNames, digests));
+        }
+    }
+
+    private static void update(final MessageDigest md, final Collection<String> values) {
+        update(md, values.size());
+
+        for (String value : values) {
+            update(md, value);
+        }
+    }
+
+    /**
+     * Digests the binary values, a <code>data:</code> URI as is and an external binary by the digest of its content.
+     */
+    private static void updateBinaries(final MessageDigest md, final Collection<String> values) {
+        update(md, values.size());
+
+        for (String value : values) {
+            if (value == null || StringUtils.startsWith(value, "data:")) {
+                md.update((byte) 0);
+                update(md, value);
+            } else {
+                md.update((byte) 1);
+                md.update(digestContent(value));
+            }
+        }
+    }
+
+    private static byte[] digestContent(final String url) {
+        final MessageDigest contentDigest = createMessageDigest();
+        BinaryValue binaryValue = null;
+
+        try {
+            binaryValue = new BinaryValue(VFS.getManager().resolveFile(url));
+
+            try (InputStream input = binaryValue.getStream()) {
+                final byte[] buffer = new byte[8192];
+                int length;
+
+                while ((length = input.read(buffer)) != -1) {
+                    contentDigest.update(buffer, 0, length);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the binary value at " + url, e);
+        } finally {
+            if (binaryValue != null) {
+                try {
+                    binaryValue.dispose();
+                } catch (IOException ignore) {
+                }
+            }
+        }
+
+        return contentDigest.digest();
+    }
+
+    /**
+     * Digests a length prefixed string, so that adjacent strings cannot be confused, with -1 length for null.
+     */
+    private static void update(final MessageDigest md, final String value) {
+        if (value == null) {
+            update(md, -1);
+        } else {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            update(md, bytes.length);
+            md.update(bytes);
+        }
+    }
+
+    private static void update(final MessageDigest md, final int value) {
+        md.update((byte) (value >>> 24));
+        md.update((byte) (value >>> 16));
+        md.update((byte) (value >>> 8));
+        md.update((byte) value);
+    }
+
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.mapper.jcr;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of a bulk export, reporting the number of exported documents, the number of written bytes
+ * and the throughput of the export.
+ */
+public class ContentNodeExportResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long documentCount;
+
+    private long byteCount;
+
+    private final long startMillis = System.currentTimeMillis();
+
+    private long elapsedMillis;
+
+    private final List<String> failedPaths = new ArrayList<>();
+
+    /**
+     * Default constructor.
+     */
+    public ContentNodeExportResult() {
+        super();
+    }
+
+    /**
+     * Returns the number of exported documents.
+     * @return the number of exported documents
+     */
+    public long getDocumentCount() {
+        return documentCount;
+    }
+
+    /**
+     * Returns the number of bytes written to the output.
+     * @return the number of bytes written to the output
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Returns the elapsed time of the export in milliseconds, until the last exported document or the end.
+     * @return the elapsed time of the export in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Returns the paths of the document nodes which failed to be mapped and were skipped.
+     * @return the paths of the document nodes which failed to be mapped and were skipped
+     */
+    public List<String> getFailedPaths() {
+        return Collections.unmodifiableList(failedPaths);
+    }
+
+    /**
+     * Returns the number of exported documents per second.
+     * @return the number of exported documents per second
+     */
+    public double getDocumentsPerSecond() {
+        return perSecond(documentCount);
+    }
+
+    /**
+     * Returns the number of written bytes per second.
+     * @return the number of written bytes per second
+     */
+    public double getBytesPerSecond() {
+        return perSecond(byteCount);
+    }
+
+    void documentExported(long totalByteCount) {
+        ++documentCount;
+        finished(totalByteCount);
+    }
+
+    void documentFailed(String path) {
+        failedPaths.add(path);
+    }
+
+    void finished(long totalByteCount) {
+        byteCount = totalByteCount;
+        elapsedMillis = System.currentTimeMillis() - startMillis;
+    }
+
+    private double perSecond(long count) {
+        return (elapsedMillis > 0) ? count * 1000.0 / elapsedMillis : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d document(s), %d byte(s) in %d ms (%.1f docs/s, %.1f bytes/s), %d failure(s)",
+                documentCount, byteCount, elapsedMillis, getDocumentsPerSecond(), getBytesPerSecond(),
+                failedPaths.size());
+    }
+}
@@ -15,6 +15,10 @@
  */
 package org.onehippo.forge.content.pojo.mapper.jcr;
 
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 import javax.jcr.Item;
 import javax.jcr.Node;
 import javax.jcr.NodeIterator;
@@ -26,15 +30,23 @@ import javax.jcr.Value;
 import javax.jcr.nodetype.NodeType;
 
 import org.apache.commons.lang3.StringUtils;
+import org.onehippo.forge.content.pojo.common.ContentNodeHandler;
+import org.onehippo.forge.content.pojo.common.ContentNodeMetrics;
 import org.onehippo.forge.content.pojo.common.ContentValueConverter;
 import org.onehippo.forge.content.pojo.common.jcr.DefaultJcrContentValueConverter;
+import org.onehippo.forge.content.pojo.common.jfr.BinaryConversionEvent;
+import org.onehippo.forge.content.pojo.common.jfr.ContentNodeMapEvent;
+import org.onehippo.forge.content.pojo.common.jfr.ReferenceResolutionEvent;
 import org.onehippo.forge.content.pojo.mapper.ContentNodeMapper;
 import org.onehippo.forge.content.pojo.mapper.ContentNodeMappingException;
 import org.onehippo.forge.content.pojo.mapper.ContentNodeMappingItemFilter;
 import org.onehippo.forge.content.pojo.mapper.jcr.hippo.DefaultHippoJcrItemMappingFilter;
 import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.onehippo.forge.content.pojo.model.ContentNodeTruncation;
 import org.onehippo.forge.content.pojo.model.ContentProperty;
 import org.onehippo.forge.content.pojo.model.ContentPropertyType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Default {@link ContentNodeMapper} implementation for JCR.
@@ -43,6 +55,23 @@ public class DefaultJcrContentNodeMapper implements ContentNodeMapper<Node, Item
 
     private static final long serialVersionUID = 1L;
 
+    private static Logger log = LoggerFactory.getLogger(DefaultJcrContentNodeMapper.class);
+
+    /**
+     * Value of a mapping limit meaning no limit.
+     */
+    public static final int UNLIMITED = -1;
+
+    private transient ContentNodeMetrics metrics;
+
+    private int maxDepth = UNLIMITED;
+
+    private int maxChildNodes = UNLIMITED;
+
+    private long maxNodes = UNLIMITED;
+
+    private long maxBinaryBytes = UNLIMITED;
+
     /**
      * Default constructor.
      */
@@ -50,6 +79,95 @@ public class DefaultJcrContentNodeMapper implements ContentNodeMapper<Node, Item
         super();
     }
 
+    /**
+     * Returns the metrics receiving the counters and timings of the mappings, {@link ContentNodeMetrics#NOOP}
+     * by default.
+     * @return the metrics receiving the counters and timings of the mappings
+     */
+    public ContentNodeMetrics getMetrics() {
+        return (metrics != null) ? metrics : ContentNodeMetrics.NOOP;
+    }
+
+    /**
+     * Sets the metrics receiving the counters and timings of the mappings, or null to report nothing.
+     * @param metrics metrics, or null to report nothing
+     */
+    public void setMetrics(ContentNodeMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the maximum depth of the mapped content nodes below the mapped root node, or {@link #UNLIMITED}.
+     * @return the maximum depth of the mapped content nodes below the mapped root node, or {@link #UNLIMITED}
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Sets the maximum depth of the mapped content nodes below the mapped root node, or {@link #UNLIMITED}.
+     * The child nodes of a node at the maximum depth are left out, marking the node
+     * {@link ContentNodeTruncation#DEPTH truncated}. For example, only the root node is mapped with zero.
+     * @param maxDepth the maximum depth, or a negative value for no limit
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Returns the maximum number of child nodes mapped per node, or {@link #UNLIMITED}.
+     * @return the maximum number of child nodes mapped per node, or {@link #UNLIMITED}
+     */
+    public int getMaxChildNodes() {
+        return maxChildNodes;
+    }
+
+    /**
+     * Sets the maximum number of child nodes mapped per node, or {@link #UNLIMITED}. The child nodes after
+     * the maximum number of accepted child nodes are left out, marking the parent node
+     * {@link ContentNodeTruncation#CHILD_NODES truncated}, so that they can be mapped separately later.
+     * @param maxChildNodes the maximum number of child nodes per node, or a negative value for no limit
+     */
+    public void setMaxChildNodes(int maxChildNodes) {
+        this.maxChildNodes = maxChildNodes;
+    }
+
+    /**
+     * Returns the maximum total number of nodes mapped by a mapping, or {@link #UNLIMITED}.
+     * @return the maximum total number of nodes mapped by a mapping, or {@link #UNLIMITED}
+     */
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    /**
+     * Sets the maximum total number of nodes mapped by a mapping, including the root node, or {@link #UNLIMITED}.
+     * Once reached, the remaining child nodes of each node are left out, marking the node
+     * {@link ContentNodeTruncation#NODES truncated}.
+     * @param maxNodes the maximum total number of nodes, or a negative value for no limit
+     */
+    public void setMaxNodes(long maxNodes) {
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Returns the maximum total number of binary bytes mapped by a mapping, or {@link #UNLIMITED}.
+     * @return the maximum total number of binary bytes mapped by a mapping, or {@link #UNLIMITED}
+     */
+    public long getMaxBinaryBytes() {
+        return maxBinaryBytes;
+    }
+
+    /**
+     * Sets the maximum total number of binary bytes mapped by a mapping, or {@link #UNLIMITED}. A binary property
+     * which would exceed it is left out, marking its node {@link ContentNodeTruncation#BINARY_BYTES truncated}.
+     * The binary length is read from the repository, without reading the binary data.
+     * @param maxBinaryBytes the maximum total number of binary bytes, or a negative value for no limit
+     */
+    public void setMaxBinaryBytes(long maxBinaryBytes) {
+        this.maxBinaryBytes = maxBinaryBytes;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -73,7 +191,11 @@ public class DefaultJcrContentNodeMapper implements ContentNodeMapper<Node, Item
     @Override
     public ContentNode map(Node jcrDataNode, ContentNodeMappingItemFilter<Item> itemFilter,
             ContentValueConverter<Value> valueConverter) throws ContentNodeMappingException {
-        ContentNode contentNode = null;
+        final ContentNodeMetrics metrics = getMetrics();
+        final long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        final MappingContext context = new MappingContext();
+        final ContentNodeMapEvent event = new ContentNodeMapEvent();
+        event.begin();
 
         try {
             if (itemFilter == null) {
@@ -84,42 +206,375 @@ public class DefaultJcrContentNodeMapper implements ContentNodeMapper<Node, Item
                 valueConverter = new DefaultJcrContentValueConverter(jcrDataNode.getSession());
             }
 
-            contentNode = createContentNodeByJcrNodeTypes(jcrDataNode);
-
-            Property prop;
-            ContentProperty contentProp;
+            return mapNode(jcrDataNode, itemFilter, valueConverter, context);
+        } catch (RepositoryException e) {
+            throw new ContentNodeMappingException(e.toString(), e);
+        } finally {
+            if (metrics.isEnabled()) {
+                metrics.record(ContentNodeMetrics.Timer.MAP, System.nanoTime() - start);
+            }
 
-            for (PropertyIterator propIt = jcrDataNode.getProperties(); propIt.hasNext();) {
-                prop = propIt.nextProperty();
+            event.end();
 
-                if (itemFilter != null && !itemFilter.accept(prop)) {
-                    continue;
+            if (event.shouldCommit()) {
+                try {
+                    event.setPath(jcrDataNode.getPath());
+                } catch (RepositoryException e) {
+                    log.debug("Cannot read the path of the mapped node: {}", e.toString());
                 }
 
-                contentProp = createContentPropertyFromJcrProperty(prop, valueConverter);
-                contentNode.setProperty(contentProp);
+                event.setNodeCount(context.nodeCount);
+                event.commit();
             }
+        }
+    }
 
-            Node childJcrNode;
-            ContentNode childContentNode;
+    /**
+     * Maps {@code jcrDataNode} subtree to the {@code handler} events in document order, without building
+     * a {@link ContentNode} tree, e.g, to write it directly by a {@code ContentNodeJsonWriter} with a memory footprint
+     * independent of the subtree size.
+     * @param jcrDataNode JCR node to map
+     * @param handler content node handler receiving the events
+     * @throws ContentNodeMappingException if mapping fails
+     * @throws IOException if the handler fails
+     */
+    public void mapTo(Node jcrDataNode, ContentNodeHandler handler) throws ContentNodeMappingException, IOException {
+        mapTo(jcrDataNode, null, null, handler);
+    }
+
+    /**
+     * Maps {@code jcrDataNode} subtree to the {@code handler} events in document order using {@code itemFilter},
+     * without building a {@link ContentNode} tree.
+     * @param jcrDataNode JCR node to map
+     * @param itemFilter item filter
+     * @param handler content node handler receiving the events
+     * @throws ContentNodeMappingException if mapping fails
+     * @throws IOException if the handler fails
+     */
+    public void mapTo(Node jcrDataNode, ContentNodeMappingItemFilter<Item> itemFilter, ContentNodeHandler handler)
+            throws ContentNodeMappingException, IOException {
+        mapTo(jcrDataNode, itemFilter, null, handler);
+    }
 
-            for (NodeIterator nodeIt = jcrDataNode.getNodes(); nodeIt.hasNext();) {
-                childJcrNode = nodeIt.nextNode();
+    /**
+     * Maps {@code jcrDataNode} subtree to the {@code handler} events in document order using {@code itemFilter}
+     * and {@code valueConverter}, without building a {@link ContentNode} tree.
+     * <P>
+     * Each content property is passed to the {@code handler} as soon as it is mapped, and is not retained afterwards.
+     * The mapping limits do not apply, as nothing is retained.
+     * </P>
+     * @param jcrDataNode JCR node to map
+     * @param itemFilter item filter
+     * @param valueConverter value converter
+     * @param handler content node handler receiving the events
+     * @throws ContentNodeMappingException if mapping fails
+     * @throws IOException if the handler fails
+     */
+    public void mapTo(Node jcrDataNode, ContentNodeMappingItemFilter<Item> itemFilter,
+            ContentValueConverter<Value> valueConverter, ContentNodeHandler handler)
+            throws ContentNodeMappingException, IOException {
+        final ContentNodeMetrics metrics = getMetrics();
+        final long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        final MappingContext context = new MappingContext();
+        final ContentNodeMapEvent event = new ContentNodeMapEvent();
+        event.begin();
 
-                if (itemFilter != null && !itemFilter.accept(childJcrNode)) {
-                    continue;
+        try {
+            if (itemFilter == null) {
+                itemFilter = new DefaultHippoJcrItemMappingFilter();
+            }
+
+            if (valueConverter == null) {
+                valueConverter = new DefaultJcrContentValueConverter(jcrDataNode.getSession());
+            }
+
+            mapNode(jcrDataNode, itemFilter, valueConverter, handler, context);
+        } catch (RepositoryException e) {
+            throw new ContentNodeMappingException(e.toString(), e);
+        } finally {
+            if (metrics.isEnabled()) {
+                metrics.record(ContentNodeMetrics.Timer.MAP, System.nanoTime() - start);
+            }
+
+            event.end();
+
+            if (event.shouldCommit()) {
+                try {
+                    event.setPath(jcrDataNode.getPath());
+                } catch (RepositoryException e) {
+                    log.debug("Cannot read the path of the mapped node: {}", e.toString());
                 }
 
-                childContentNode = map(childJcrNode, itemFilter, valueConverter);
-                contentNode.addNode(childContentNode);
+                event.setNodeCount(context.nodeCount);
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Maps {@code jcrDataNode} to a {@link LazyJcrContentNode}, mapping its content properties and child content nodes
+     * only when first accessed.
+     * @param jcrDataNode JCR node to map
+     * @return a lazy content node backed by the {@code jcrDataNode}
+     * @throws ContentNodeMappingException if mapping fails
+     */
+    public LazyJcrContentNode mapLazily(Node jcrDataNode) throws ContentNodeMappingException {
+        return mapLazily(jcrDataNode, null, null);
+    }
+
+    /**
+     * Maps {@code jcrDataNode} to a {@link LazyJcrContentNode} using {@code itemFilter}, mapping its content
+     * properties and child content nodes only when first accessed.
+     * @param jcrDataNode JCR node to map
+     * @param itemFilter item filter
+     * @return a lazy content node backed by the {@code jcrDataNode}
+     * @throws ContentNodeMappingException if mapping fails
+     */
+    public LazyJcrContentNode mapLazily(Node jcrDataNode, ContentNodeMappingItemFilter<Item> itemFilter)
+            throws ContentNodeMappingException {
+        return mapLazily(jcrDataNode, itemFilter, null);
+    }
+
+    /**
+     * Maps {@code jcrDataNode} to a {@link LazyJcrContentNode} using {@code itemFilter} and {@code valueConverter},
+     * mapping its content properties and child content nodes only when first accessed.
+     * @param jcrDataNode JCR node to map
+     * @param itemFilter item filter
+     * @param valueConverter value converter
+     * @return a lazy content node backed by the {@code jcrDataNode}
+     * @throws ContentNodeMappingException if mapping fails
+     */
+    public LazyJcrContentNode mapLazily(Node jcrDataNode, ContentNodeMappingItemFilter<Item> itemFilter,
+            ContentValueConverter<Value> valueConverter) throws ContentNodeMappingException {
+        try {
+            if (itemFilter == null) {
+                itemFilter = new DefaultHippoJcrItemMappingFilter();
             }
+
+            if (valueConverter == null) {
+                valueConverter = new DefaultJcrContentValueConverter(jcrDataNode.getSession());
+            }
+
+            return new LazyJcrContentNode(this, jcrDataNode, itemFilter, valueConverter);
         } catch (RepositoryException e) {
             throw new ContentNodeMappingException(e.toString(), e);
         }
+    }
+
+    /**
+     * Maps the {@code jcrDataNode} subtree recursively, with the resolved item filter and value converter.
+     * <P>
+     * If the {@code itemFilter} is a {@link DefaultJcrItemMappingFilter} with literal or {@code *} glob includes,
+     * they are pushed down as JCR name globs to {@link Node#getProperties(String[])} and
+     * {@link Node#getNodes(String[])}, so that items not included are not even loaded.
+     * </P>
+     * @param jcrDataNode JCR node to map
+     * @param itemFilter item filter
+     * @param valueConverter value converter
+     * @return the mapped content node
+     * @throws RepositoryException if repository exception occurs
+     */
+    protected ContentNode mapNode(Node jcrDataNode, ContentNodeMappingItemFilter<Item> itemFilter,
+            ContentValueConverter<Value> valueConverter) throws RepositoryException {
+        return mapNode(jcrDataNode, itemFilter, valueConverter, new MappingContext());
+    }
+
+    private ContentNode mapNode(Node jcrDataNode, ContentNodeMappingItemFilter<Item> itemFilter,
+            ContentValueConverter<Value> valueConverter, MappingContext context) throws RepositoryException {
+        ContentNode contentNode = createContentNodeByJcrNodeTypes(jcrDataNode);
+        getMetrics().increment(ContentNodeMetrics.Counter.NODES_VISITED, 1);
+        ++context.nodeCount;
+
+        mapProperties(jcrDataNode, contentNode, itemFilter, valueConverter, context);
+
+        Node childJcrNode;
+        ContentNode childContentNode;
+        int childCount = 0;
+
+        for (NodeIterator nodeIt = getChildNodes(jcrDataNode, itemFilter); nodeIt.hasNext();) {
+            childJcrNode = nodeIt.nextNode();
+
+            if (itemFilter != null && !itemFilter.accept(childJcrNode)) {
+                continue;
+            }
+
+            final ContentNodeTruncation truncation = getChildNodeTruncation(context, childCount);
+
+            if (truncation != null) {
+                truncate(jcrDataNode, contentNode, truncation);
+                break;
+            }
+
+            ++context.depth;
+
+            try {
+                childContentNode = mapNode(childJcrNode, itemFilter, valueConverter, context);
+            } finally {
+                --context.depth;
+            }
+
+            contentNode.addNode(childContentNode);
+            ++childCount;
+        }
 
         return contentNode;
     }
 
+    private void mapNode(Node jcrDataNode, ContentNodeMappingItemFilter<Item> itemFilter,
+            ContentValueConverter<Value> valueConverter, ContentNodeHandler handler, MappingContext context)
+            throws RepositoryException, IOException {
+        final Set<String> mixinTypes = new LinkedHashSet<>();
+
+        for (NodeType mixinType : jcrDataNode.getMixinNodeTypes()) {
+            mixinTypes.add(mixinType.getName());
+        }
+
+        handler.startNode(jcrDataNode.getName(), jcrDataNode.getPrimaryNodeType().getName(), mixinTypes);
+        getMetrics().increment(ContentNodeMetrics.Counter.NODES_VISITED, 1);
+        ++context.nodeCount;
+
+        Property prop;
+
+        for (PropertyIterator propIt = getProperties(jcrDataNode, itemFilter); propIt.hasNext();) {
+            prop = propIt.nextProperty();
+
+            if (itemFilter != null && !itemFilter.accept(prop)) {
+                continue;
+            }
+
+            handler.property(createContentPropertyFromJcrProperty(prop, valueConverter));
+            getMetrics().increment(ContentNodeMetrics.Counter.PROPERTIES_SET, 1);
+        }
+
+        Node childJcrNode;
+
+        for (NodeIterator nodeIt = getChildNodes(jcrDataNode, itemFilter); nodeIt.hasNext();) {
+            childJcrNode = nodeIt.nextNode();
+
+            if (itemFilter != null && !itemFilter.accept(childJcrNode)) {
+                continue;
+            }
+
+            mapNode(childJcrNode, itemFilter, valueConverter, handler, context);
+        }
+
+        handler.endNode();
+    }
+
+    /**
+     * Maps the properties of the {@code jcrDataNode} accepted by the {@code itemFilter} to the {@code contentNode},
+     * within the binary byte limit of the mapping {@code context}, if any.
+     */
+    void mapProperties(Node jcrDataNode, ContentNode contentNode, ContentNodeMappingItemFilter<Item> itemFilter,
+            ContentValueConverter<Value> valueConverter, MappingContext context) throws RepositoryException {
+        Property prop;
+        ContentProperty contentProp;
+
+        for (PropertyIterator propIt = getProperties(jcrDataNode, itemFilter); propIt.hasNext();) {
+            prop = propIt.nextProperty();
+
+            if (itemFilter != null && !itemFilter.accept(prop)) {
+                continue;
+            }
+
+            if (context != null && maxBinaryBytes >= 0 && prop.getType() == PropertyType.BINARY) {
+                final long length = getBinaryLength(prop);
+
+                if (context.binaryBytes + length > maxBinaryBytes) {
+                    truncate(jcrDataNode, contentNode, ContentNodeTruncation.BINARY_BYTES);
+                    continue;
+                }
+
+                context.binaryBytes += length;
+            }
+
+            contentProp = createContentPropertyFromJcrProperty(prop, valueConverter);
+            contentNode.setProperty(contentProp);
+            getMetrics().increment(ContentNodeMetrics.Counter.PROPERTIES_SET, 1);
+        }
+    }
+
+    /**
+     * Returns the properties of the {@code jcrDataNode}, only the ones matching the includes of the
+     * {@code itemFilter} if they can be pushed down as JCR name globs.
+     */
+    static PropertyIterator getProperties(Node jcrDataNode, ContentNodeMappingItemFilter<Item> itemFilter)
+            throws RepositoryException {
+        if (itemFilter instanceof DefaultJcrItemMappingFilter) {
+            final String[] nameGlobs = ((DefaultJcrItemMappingFilter) itemFilter).getPropertyNameGlobs();
+
+            if (nameGlobs != null) {
+                return jcrDataNode.getProperties(nameGlobs);
+            }
+        }
+
+        return jcrDataNode.getProperties();
+    }
+
+    /**
+     * Returns the child nodes of the {@code jcrDataNode}, only the ones matching the includes of the
+     * {@code itemFilter} if they can be pushed down as JCR name globs.
+     */
+    static NodeIterator getChildNodes(Node jcrDataNode, ContentNodeMappingItemFilter<Item> itemFilter)
+            throws RepositoryException {
+        if (itemFilter instanceof DefaultJcrItemMappingFilter) {
+            final String[] nameGlobs = ((DefaultJcrItemMappingFilter) itemFilter).getNodeNameGlobs();
+
+            if (nameGlobs != null) {
+                return jcrDataNode.getNodes(nameGlobs);
+            }
+        }
+
+        return jcrDataNode.getNodes();
+    }
+
+    /**
+     * Returns the limit hit by mapping one more child node after {@code childCount} child nodes, or null if none.
+     */
+    private ContentNodeTruncation getChildNodeTruncation(MappingContext context, int childCount) {
+        if (maxDepth >= 0 && context.depth >= maxDepth) {
+            return ContentNodeTruncation.DEPTH;
+        }
+
+        if (maxChildNodes >= 0 && childCount >= maxChildNodes) {
+            return ContentNodeTruncation.CHILD_NODES;
+        }
+
+        if (maxNodes >= 0 && context.nodeCount >= maxNodes) {
+            return ContentNodeTruncation.NODES;
+        }
+
+        return null;
+    }
+
+    /**
+     * Marks the {@code contentNode} truncated by the {@code truncation}, unless already truncated by another limit.
+     */
+    private void truncate(Node jcrDataNode, ContentNode contentNode, ContentNodeTruncation truncation)
+            throws RepositoryException {
+        if (contentNode.getTruncation() == null) {
+            contentNode.setTruncation(truncation);
+
+            if (log.isDebugEnabled()) {
+                log.debug("Mapping of {} truncated by {} limit.", jcrDataNode.getPath(), truncation);
+            }
+        }
+    }
+
+    private static long getBinaryLength(Property jcrProp) throws RepositoryException {
+        if (!jcrProp.isMultiple()) {
+            return Math.max(0L, jcrProp.getLength());
+        }
+
+        long length = 0L;
+
+        for (long valueLength : jcrProp.getLengths()) {
+            length += Math.max(0L, valueLength);
+        }
+
+        return length;
+    }
+
     protected ContentProperty createContentPropertyFromJcrProperty(final Property jcrProp, final ContentValueConverter<Value> valueConverter) throws RepositoryException {
         ContentProperty contentProp = null;
 
@@ -171,9 +626,29 @@ public class DefaultJcrContentNodeMapper implements ContentNodeMapper<Node, Item
 
         contentProp = new ContentProperty(jcrProp.getName(), type, jcrProp.isMultiple());
 
+        final ContentNodeMetrics metrics = getMetrics();
+
         if (ContentPropertyType.PATH.equals(type)) {
-            Node referenceNode = jcrProp.getNode();
-            String referenceNodePath = referenceNode.getPath();
+            metrics.increment(ContentNodeMetrics.Counter.REFERENCE_LOOKUPS, 1);
+            ReferenceResolutionEvent event = new ReferenceResolutionEvent();
+            event.begin();
+            String referenceNodePath = null;
+
+            try {
+                Node referenceNode = jcrProp.getNode();
+                referenceNodePath = referenceNode.getPath();
+            } finally {
+                event.end();
+
+                if (event.shouldCommit()) {
+                    event.setPath(jcrNode.getPath());
+                    event.setPropertyName(jcrProp.getName());
+                    event.setReferencePath(referenceNodePath);
+                    event.setResolved(referenceNodePath != null);
+                    event.commit();
+                }
+            }
+
             contentProp.setValue(referenceNodePath);
         } else if (ContentPropertyType.BINARY.equals(type)) {
             String mimeType = null;
@@ -182,14 +657,34 @@ public class DefaultJcrContentNodeMapper implements ContentNodeMapper<Node, Item
                 mimeType = StringUtils.trim(jcrNode.getProperty("jcr:mimeType").getString());
             }
 
-            if (jcrProp.isMultiple()) {
-                for (Value jcrValue : jcrProp.getValues()) {
-                    contentProp.addValue(valueConverter.toBinaryValue(jcrValue, mimeType));
-                }
-            } else {
-                contentProp.addValue(valueConverter.toBinaryValue(jcrProp.getValue(), mimeType));
+            final long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+            final BinaryConversionEvent event = new BinaryConversionEvent();
+            event.begin();
+            final Value[] jcrValues = jcrProp.isMultiple() ? jcrProp.getValues() : new Value[] { jcrProp.getValue() };
+
+            for (Value jcrValue : jcrValues) {
+                contentProp.addValue(valueConverter.toBinaryValue(jcrValue, mimeType));
+            }
+
+            event.end();
+
+            final boolean commitEvent = event.shouldCommit();
+            final long size = (commitEvent || metrics.isEnabled()) ? getBinaryLength(jcrProp) : 0L;
+
+            if (commitEvent) {
+                event.setPath(jcrProp.getPath());
+                event.setPropertyName(jcrProp.getName());
+                event.setSize(size);
+                event.commit();
+            }
+
+            if (metrics.isEnabled()) {
+                metrics.record(ContentNodeMetrics.Timer.VALUE_CONVERSION, System.nanoTime() - start);
+                metrics.increment(ContentNodeMetrics.Counter.BINARY_BYTES_READ, size);
             }
         } else {
+            final long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+
             if (jcrProp.isMultiple()) {
                 for (Value jcrValue : jcrProp.getValues()) {
                     contentProp.addValue(valueConverter.toString(jcrValue));
@@ -197,6 +692,10 @@ public class DefaultJcrContentNodeMapper implements ContentNodeMapper<Node, Item
             } else {
                 contentProp.addValue(valueConverter.toString(jcrProp.getValue()));
             }
+
+            if (metrics.isEnabled()) {
+                metrics.record(ContentNodeMetrics.Timer.VALUE_CONVERSION, System.nanoTime() - start);
+            }
         }
 
         return contentProp;
@@ -212,4 +711,24 @@ public class DefaultJcrContentNodeMapper implements ContentNodeMapper<Node, Item
         return contentNode;
     }
 
+    /**
+     * State of an ongoing mapping, not kept in the mapper as it may be shared by concurrent mappings.
+     */
+    static class MappingContext {
+
+        /**
+         * Depth of the node being mapped below the mapped root node.
+         */
+        private int depth;
+
+        /**
+         * Number of nodes mapped so far.
+         */
+        private long nodeCount;
+
+        /**
+         * Number of binary bytes mapped so far, only counted if limited.
+         */
+        private long binaryBytes;
+    }
 }
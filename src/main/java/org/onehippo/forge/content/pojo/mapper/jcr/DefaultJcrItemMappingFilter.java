@@ -15,12 +15,15 @@
  */
 package org.onehippo.forge.content.pojo.mapper.jcr;
 
+import java.util.List;
+
 import javax.jcr.Item;
 import javax.jcr.Node;
 import javax.jcr.Property;
 import javax.jcr.PropertyType;
 import javax.jcr.RepositoryException;
 
+import org.apache.commons.lang3.StringUtils;
 import org.onehippo.forge.content.pojo.common.BasePathBasedContentNodeItemFilter;
 import org.onehippo.forge.content.pojo.mapper.ContentNodeMappingException;
 import org.onehippo.forge.content.pojo.mapper.ContentNodeMappingItemFilter;
@@ -45,6 +48,32 @@ public class DefaultJcrItemMappingFilter extends BasePathBasedContentNodeItemFil
         this.protectedPropertyExcluded = protectedPropertyExcluded;
     }
 
+    /**
+     * Returns the property path includes as JCR name globs to pass to {@link Node#getProperties(String[])},
+     * so that only the properties possibly accepted by this filter are loaded, or null if there is no property path
+     * include or if any include uses a glob syntax other than {@code *}.
+     * <P>
+     * A subclass accepting properties not matching the property path includes must override this to return null.
+     * </P>
+     * @return the property path includes as JCR name globs, or null if they cannot be pushed down
+     */
+    public String[] getPropertyNameGlobs() {
+        return toJcrNameGlobs(getPropertyPathIncludes());
+    }
+
+    /**
+     * Returns the node path includes as JCR name globs to pass to {@link Node#getNodes(String[])},
+     * so that only the child nodes possibly accepted by this filter are loaded, or null if there is no node path
+     * include or if any include uses a glob syntax other than {@code *}.
+     * <P>
+     * A subclass accepting nodes not matching the node path includes must override this to return null.
+     * </P>
+     * @return the node path includes as JCR name globs, or null if they cannot be pushed down
+     */
+    public String[] getNodeNameGlobs() {
+        return toJcrNameGlobs(getNodePathIncludes());
+    }
+
     @Override
     public boolean accept(Item item) throws ContentNodeMappingException {
         if (item.isNode()) {
@@ -86,6 +115,31 @@ public class DefaultJcrItemMappingFilter extends BasePathBasedContentNodeItemFil
         }
     }
 
+    /**
+     * Returns the {@code includes} as JCR name globs, or null if empty or if any include has a character
+     * which is either a glob meta character other than {@code *} or not allowed in a JCR name glob.
+     */
+    static String[] toJcrNameGlobs(List<String> includes) {
+        if (includes == null || includes.isEmpty()) {
+            return null;
+        }
+
+        String[] globs = new String[includes.size()];
+
+        for (int i = 0; i < globs.length; i++) {
+            String include = includes.get(i);
+
+            if (StringUtils.isBlank(include) || !include.equals(include.trim())
+                    || StringUtils.containsAny(include, "?[]\\|/")) {
+                return null;
+            }
+
+            globs[i] = include;
+        }
+
+        return globs;
+    }
+
     private boolean isProtectedProperty(final Property property) throws RepositoryException {
         try {
             return property.getDefinition().isProtected();
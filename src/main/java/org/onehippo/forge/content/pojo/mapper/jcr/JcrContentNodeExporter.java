@@ -0,0 +1,293 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.mapper.jcr;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.jcr.Item;
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.RepositoryException;
+import javax.jcr.Value;
+
+import org.apache.commons.io.output.CountingOutputStream;
+import org.hippoecm.repository.api.HippoNodeType;
+import org.onehippo.forge.content.pojo.common.ContentValueConverter;
+import org.onehippo.forge.content.pojo.common.jcr.DefaultJcrContentValueConverter;
+import org.onehippo.forge.content.pojo.common.json.ContentNodeJsonWriter;
+import org.onehippo.forge.content.pojo.mapper.ContentNodeMapper;
+import org.onehippo.forge.content.pojo.mapper.ContentNodeMappingException;
+import org.onehippo.forge.content.pojo.mapper.ContentNodeMappingItemFilter;
+import org.onehippo.forge.content.pojo.mapper.jcr.hippo.DefaultHippoJcrItemMappingFilter;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Bulk exporter walking a JCR subtree and writing each document node found in it
+ * as a line of NDJSON (newline delimited JSON) to an {@link OutputStream}.
+ * <P>
+ * Document nodes are the nodes of {@link #getDocumentNodeType()} ({@link HippoNodeType#NT_HANDLE} by default).
+ * Each document node is mapped by the {@link ContentNodeMapper} with the item filter, e.g, a
+ * {@link org.onehippo.forge.content.pojo.mapper.jcr.hippo.DocumentVariantNodeMappingFilter} to select only
+ * specific variants under each handle, and written right away, so that at most one document is kept in memory.
+ * Other nodes accepted by the item filter are traversed to find document nodes in descendants.
+ * </P>
+ */
+public class JcrContentNodeExporter {
+
+    private static Logger log = LoggerFactory.getLogger(JcrContentNodeExporter.class);
+
+    /**
+     * Default number of exported documents between progress logs.
+     */
+    public static final int DEFAULT_PROGRESS_LOG_INTERVAL = 1000;
+
+    private ContentNodeMapper<Node, Item, Value> contentNodeMapper;
+
+    private ContentNodeMappingItemFilter<Item> itemFilter;
+
+    private ContentValueConverter<Value> valueConverter;
+
+    private String documentNodeType = HippoNodeType.NT_HANDLE;
+
+    private boolean inlineExternalBinaries;
+
+    private int progressLogInterval = DEFAULT_PROGRESS_LOG_INTERVAL;
+
+    /**
+     * Default constructor.
+     */
+    public JcrContentNodeExporter() {
+        this(null, null);
+    }
+
+    /**
+     * Constructs an exporter mapping each document with the {@code itemFilter}.
+     * @param itemFilter content node mapping item filter, or null to use a {@link DefaultHippoJcrItemMappingFilter}
+     */
+    public JcrContentNodeExporter(final ContentNodeMappingItemFilter<Item> itemFilter) {
+        this(null, itemFilter);
+    }
+
+    /**
+     * Constructs an exporter mapping each document by the {@code contentNodeMapper} with the {@code itemFilter}.
+     * @param contentNodeMapper content node mapper, or null to use a {@link DefaultJcrContentNodeMapper}
+     * @param itemFilter content node mapping item filter, or null to use a {@link DefaultHippoJcrItemMappingFilter}
+     */
+    public JcrContentNodeExporter(final ContentNodeMapper<Node, Item, Value> contentNodeMapper,
+            final ContentNodeMappingItemFilter<Item> itemFilter) {
+        this.contentNodeMapper = (contentNodeMapper != null) ? contentNodeMapper : new DefaultJcrContentNodeMapper();
+        this.itemFilter = (itemFilter != null) ? itemFilter : new DefaultHippoJcrItemMappingFilter();
+    }
+
+    public ContentNodeMapper<Node, Item, Value> getContentNodeMapper() {
+        return contentNodeMapper;
+    }
+
+    public ContentNodeMappingItemFilter<Item> getItemFilter() {
+        return itemFilter;
+    }
+
+    public ContentValueConverter<Value> getValueConverter() {
+        return valueConverter;
+    }
+
+    /**
+     * Sets the value converter used to map documents. If null, a {@link DefaultJcrContentValueConverter}
+     * is created for the session of each export.
+     * @param valueConverter value converter
+     */
+    public void setValueConverter(ContentValueConverter<Value> valueConverter) {
+        this.valueConverter = valueConverter;
+    }
+
+    public String getDocumentNodeType() {
+        return documentNodeType;
+    }
+
+    public void setDocumentNodeType(String documentNodeType) {
+        this.documentNodeType = documentNodeType;
+    }
+
+    public boolean isInlineExternalBinaries() {
+        return inlineExternalBinaries;
+    }
+
+    /**
+     * Sets whether binary values stored externally by the value converter should be inlined as <code>data:</code>
+     * URLs in the output, to make each line self-contained.
+     * @param inlineExternalBinaries whether binary values stored externally should be inlined
+     */
+    public void setInlineExternalBinaries(boolean inlineExternalBinaries) {
+        this.inlineExternalBinaries = inlineExternalBinaries;
+    }
+
+    public int getProgressLogInterval() {
+        return progressLogInterval;
+    }
+
+    /**
+     * Sets the number of exported documents between progress logs, or zero to disable progress logs.
+     * @param progressLogInterval the number of exported documents between progress logs
+     */
+    public void setProgressLogInterval(int progressLogInterval) {
+        this.progressLogInterval = progressLogInterval;
+    }
+
+    /**
+     * Exports each document node found in the subtree of {@code rootNode}, including {@code rootNode} itself,
+     * as a line of NDJSON to the {@code output}. The {@code output} is flushed, but not closed.
+     * <P>
+     * A document node failing to be mapped is skipped and reported in {@link ContentNodeExportResult#getFailedPaths()}.
+     * </P>
+     * @param rootNode root node of the subtree to export
+     * @param output output stream
+     * @return export result
+     * @throws ContentNodeMappingException if the subtree cannot be traversed
+     * @throws IOException if IO exception occurs while writing
+     */
+    public ContentNodeExportResult export(final Node rootNode, final OutputStream output)
+            throws ContentNodeMappingException, IOException {
+        final ContentNodeExportResult result = new ContentNodeExportResult();
+        final CountingOutputStream countingOutput = new CountingOutputStream(output);
+        final ContentNodeJsonWriter writer = createNdjsonWriter(countingOutput);
+
+        try {
+            final ContentValueConverter<Value> converter = (getValueConverter() != null) ? getValueConverter()
+                    : new DefaultJcrContentValueConverter(rootNode.getSession());
+
+            visitDocumentNodes(rootNode, documentNode -> {
+                final ContentNode contentNode;
+
+                try {
+                    contentNode = getContentNodeMapper().map(documentNode, getItemFilter(), converter);
+                } catch (ContentNodeMappingException e) {
+                    final String path = documentNode.getPath();
+                    log.error("Failed to map document at {}.", path, e);
+                    result.documentFailed(path);
+                    return;
+                }
+
+                writeDocument(writer, contentNode, countingOutput, result);
+            });
+        } catch (RepositoryException e) {
+            throw new ContentNodeMappingException(e.toString(), e);
+        } finally {
+            writer.close();
+            output.flush();
+            result.finished(countingOutput.getByteCount());
+        }
+
+        log.info("Exported {}", result);
+
+        return result;
+    }
+
+    /**
+     * Returns true if the {@code jcrNode} is a document node to export as a whole.
+     * @param jcrNode JCR node
+     * @return true if the {@code jcrNode} is a document node to export as a whole
+     * @throws RepositoryException if repository exception occurs
+     */
+    protected boolean isDocumentNode(final Node jcrNode) throws RepositoryException {
+        return jcrNode.isNodeType(getDocumentNodeType());
+    }
+
+    /**
+     * Visits each document node found in the subtree of {@code jcrNode} in document order,
+     * without descending into document nodes.
+     * @param jcrNode JCR node
+     * @param visitor document node visitor
+     * @throws RepositoryException if repository exception occurs
+     * @throws IOException if IO exception occurs
+     */
+    protected void visitDocumentNodes(final Node jcrNode, final DocumentNodeVisitor visitor)
+            throws RepositoryException, IOException {
+        if (isDocumentNode(jcrNode)) {
+            visitor.visit(jcrNode);
+            return;
+        }
+
+        for (NodeIterator nodeIt = jcrNode.getNodes(); nodeIt.hasNext();) {
+            final Node childJcrNode = nodeIt.nextNode();
+
+            if (childJcrNode != null && getItemFilter().accept(childJcrNode)) {
+                visitDocumentNodes(childJcrNode, visitor);
+            }
+        }
+    }
+
+    /**
+     * Creates a content node JSON writer writing root content nodes as lines of NDJSON to the {@code output},
+     * flushing to, but not closing the {@code output}.
+     * @param output output stream
+     * @return content node JSON writer
+     * @throws IOException if IO exception occurs
+     */
+    protected ContentNodeJsonWriter createNdjsonWriter(final OutputStream output) throws IOException {
+        final JsonGenerator generator = new JsonFactory().createGenerator(output, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        generator.setRootValueSeparator(null);
+
+        final ContentNodeJsonWriter writer = new ContentNodeJsonWriter(generator);
+        writer.setInlineExternalBinaries(isInlineExternalBinaries());
+        return writer;
+    }
+
+    /**
+     * Writes the {@code contentNode} of a document as a line of NDJSON and records it in the {@code result}.
+     * @param writer content node JSON writer created by {@link #createNdjsonWriter(OutputStream)}
+     * @param contentNode content node of a document
+     * @param countingOutput output stream counting the bytes written by the {@code writer}
+     * @param result export result
+     * @throws IOException if IO exception occurs
+     */
+    protected void writeDocument(final ContentNodeJsonWriter writer, final ContentNode contentNode,
+            final CountingOutputStream countingOutput, final ContentNodeExportResult result) throws IOException {
+        final JsonGenerator generator = writer.getGenerator();
+        writer.writeNode(contentNode);
+        generator.writeRaw('\n');
+        generator.flush();
+        result.documentExported(countingOutput.getByteCount());
+
+        if (progressLogInterval > 0 && result.getDocumentCount() % progressLogInterval == 0) {
+            log.info("Exporting... {}", result);
+        }
+    }
+
+    /**
+     * Visitor of document nodes.
+     */
+    @FunctionalInterface
+    protected interface DocumentNodeVisitor {
+
+        /**
+         * Visits the {@code documentNode}.
+         * @param documentNode document node
+         * @throws RepositoryException if repository exception occurs
+         * @throws IOException if IO exception occurs
+         */
+        void visit(Node documentNode) throws RepositoryException, IOException;
+
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.mapper.jcr;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+
+import javax.jcr.Item;
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.RepositoryException;
+import javax.jcr.Value;
+import javax.jcr.nodetype.NodeType;
+
+import jakarta.xml.bind.annotation.XmlTransient;
+
+import org.onehippo.forge.content.pojo.common.ContentNodeMetrics;
+import org.onehippo.forge.content.pojo.common.ContentValueConverter;
+import org.onehippo.forge.content.pojo.mapper.ContentNodeMappingException;
+import org.onehippo.forge.content.pojo.mapper.ContentNodeMappingItemFilter;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * {@link ContentNode} backed by a live JCR node, mapping its content properties and its child content nodes
+ * from the JCR node only when first accessed, e.g, through {@link #getProperty(String)}, {@link #getNodes()}
+ * or a JXPath query. Returned by {@link DefaultJcrContentNodeMapper#mapLazily(Node)}.
+ * <P>
+ * Until {@link #detach() detached}, it may only be used while the JCR session of the backing node is alive,
+ * by the thread owning the session. The mapping limits of the mapper do not apply, as nothing is mapped
+ * until accessed.
+ * </P>
+ */
+public class LazyJcrContentNode extends ContentNode {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Backing JCR node, or null once both the content properties and the child content nodes have been mapped.
+     */
+    private transient Node jcrNode;
+
+    private transient DefaultJcrContentNodeMapper mapper;
+
+    private transient ContentNodeMappingItemFilter<Item> itemFilter;
+
+    private transient ContentValueConverter<Value> valueConverter;
+
+    private transient boolean propertiesLoaded;
+
+    private transient boolean nodesLoaded;
+
+    LazyJcrContentNode(DefaultJcrContentNodeMapper mapper, Node jcrNode, ContentNodeMappingItemFilter<Item> itemFilter,
+            ContentValueConverter<Value> valueConverter) throws RepositoryException {
+        super(jcrNode.getName(), jcrNode.getPrimaryNodeType().getName());
+
+        for (NodeType mixinType : jcrNode.getMixinNodeTypes()) {
+            addMixinType(mixinType.getName());
+        }
+
+        this.mapper = mapper;
+        this.jcrNode = jcrNode;
+        this.itemFilter = itemFilter;
+        this.valueConverter = valueConverter;
+
+        mapper.getMetrics().increment(ContentNodeMetrics.Counter.NODES_VISITED, 1);
+    }
+
+    /**
+     * Maps the whole content node tree from the backing JCR nodes, and releases the JCR nodes,
+     * so that this content node can be used after the JCR session is closed, or be serialized.
+     * @throws ContentNodeMappingException if mapping fails
+     */
+    public void detach() throws ContentNodeMappingException {
+        loadProperties();
+        loadNodes();
+
+        if (!hasAnyNode()) {
+            return;
+        }
+
+        for (ContentNode child : getNodes()) {
+            if (child instanceof LazyJcrContentNode) {
+                ((LazyJcrContentNode) child).detach();
+            }
+        }
+    }
+
+    /**
+     * Returns true if both the content properties and the child content nodes of this content node have been mapped,
+     * without checking the descendant content nodes.
+     * @return true if both the content properties and the child content nodes of this content node have been mapped
+     */
+    @JsonIgnore
+    @XmlTransient
+    public boolean isLoaded() {
+        return jcrNode == null;
+    }
+
+    @Override
+    protected void loadProperties() {
+        if (jcrNode == null || propertiesLoaded) {
+            return;
+        }
+
+        // set first as mapping the properties sets them back to this content node.
+        propertiesLoaded = true;
+
+        try {
+            mapper.mapProperties(jcrNode, this, itemFilter, valueConverter, null);
+        } catch (RepositoryException e) {
+            propertiesLoaded = false;
+            throw new ContentNodeMappingException(e.toString(), e);
+        }
+
+        releaseIfLoaded();
+    }
+
+    @Override
+    protected void loadNodes() {
+        if (jcrNode == null || nodesLoaded) {
+            return;
+        }
+
+        // set first as mapping the child nodes adds them back to this content node.
+        nodesLoaded = true;
+
+        try {
+            NodeIterator nodeIt = DefaultJcrContentNodeMapper.getChildNodes(jcrNode, itemFilter);
+            Node childJcrNode;
+
+            while (nodeIt.hasNext()) {
+                childJcrNode = nodeIt.nextNode();
+
+                if (itemFilter != null && !itemFilter.accept(childJcrNode)) {
+                    continue;
+                }
+
+                addNode(new LazyJcrContentNode(mapper, childJcrNode, itemFilter, valueConverter));
+            }
+        } catch (RepositoryException e) {
+            getNodes().clear();
+            nodesLoaded = false;
+            throw new ContentNodeMappingException(e.toString(), e);
+        }
+
+        releaseIfLoaded();
+    }
+
+    private void releaseIfLoaded() {
+        if (propertiesLoaded && nodesLoaded) {
+            jcrNode = null;
+            mapper = null;
+            itemFilter = null;
+            valueConverter = null;
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        try {
+            detach();
+        } catch (ContentNodeMappingException e) {
+            throw new IOException(e.toString(), e);
+        }
+
+        out.defaultWriteObject();
+    }
+}
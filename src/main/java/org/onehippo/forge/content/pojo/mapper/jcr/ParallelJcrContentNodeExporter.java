@@ -0,0 +1,357 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.mapper.jcr;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jcr.Item;
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.Value;
+
+import org.apache.commons.io.output.CountingOutputStream;
+import org.onehippo.forge.content.pojo.common.ContentValueConverter;
+import org.onehippo.forge.content.pojo.common.jcr.DefaultJcrContentValueConverter;
+import org.onehippo.forge.content.pojo.common.jcr.JcrSessionFactory;
+import org.onehippo.forge.content.pojo.common.json.ContentNodeJsonWriter;
+import org.onehippo.forge.content.pojo.mapper.ContentNodeMapper;
+import org.onehippo.forge.content.pojo.mapper.ContentNodeMappingException;
+import org.onehippo.forge.content.pojo.mapper.ContentNodeMappingItemFilter;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link JcrContentNodeExporter} extension mapping document nodes on a pool of worker threads,
+ * each worker thread using its own JCR session created by a {@link JcrSessionFactory}.
+ * <P>
+ * The subtree is first traversed in a separate session to find the paths of the document nodes, which are the
+ * work units mapped by the worker threads. Mapped documents are delivered in document order regardless of the
+ * worker count, while at most {@link #getMaxPendingDocuments()} documents are being mapped or waiting for
+ * delivery at any time.
+ * </P>
+ * <P>
+ * As value converters are bound to a session, a value converter is created for each worker session by
+ * {@link #createValueConverter(Session)} instead of using {@link #getValueConverter()}.
+ * </P>
+ */
+public class ParallelJcrContentNodeExporter extends JcrContentNodeExporter {
+
+    private static Logger log = LoggerFactory.getLogger(ParallelJcrContentNodeExporter.class);
+
+    /**
+     * Default number of pending documents per worker thread.
+     */
+    public static final int DEFAULT_PENDING_DOCUMENTS_PER_WORKER = 4;
+
+    private final JcrSessionFactory sessionFactory;
+
+    private final int workerCount;
+
+    private int maxPendingDocuments;
+
+    /**
+     * Constructs an exporter mapping documents on {@code workerCount} worker threads.
+     * @param sessionFactory JCR session factory
+     * @param workerCount the number of worker threads
+     */
+    public ParallelJcrContentNodeExporter(final JcrSessionFactory sessionFactory, final int workerCount) {
+        this(sessionFactory, workerCount, null, null);
+    }
+
+    /**
+     * Constructs an exporter mapping documents on {@code workerCount} worker threads with the {@code itemFilter}.
+     * @param sessionFactory JCR session factory
+     * @param workerCount the number of worker threads
+     * @param itemFilter content node mapping item filter, or null to use a default filter
+     */
+    public ParallelJcrContentNodeExporter(final JcrSessionFactory sessionFactory, final int workerCount,
+            final ContentNodeMappingItemFilter<Item> itemFilter) {
+        this(sessionFactory, workerCount, null, itemFilter);
+    }
+
+    /**
+     * Constructs an exporter mapping documents on {@code workerCount} worker threads by the
+     * {@code contentNodeMapper} with the {@code itemFilter}.
+     * @param sessionFactory JCR session factory
+     * @param workerCount the number of worker threads
+     * @param contentNodeMapper content node mapper, or null to use a {@link DefaultJcrContentNodeMapper}
+     * @param itemFilter content node mapping item filter, or null to use a default filter
+     */
+    public ParallelJcrContentNodeExporter(final JcrSessionFactory sessionFactory, final int workerCount,
+            final ContentNodeMapper<Node, Item, Value> contentNodeMapper,
+            final ContentNodeMappingItemFilter<Item> itemFilter) {
+        super(contentNodeMapper, itemFilter);
+
+        if (sessionFactory == null) {
+            throw new IllegalArgumentException("sessionFactory must not be null.");
+        }
+
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("workerCount must be positive: " + workerCount);
+        }
+
+        this.sessionFactory = sessionFactory;
+        this.workerCount = workerCount;
+        maxPendingDocuments = workerCount * DEFAULT_PENDING_DOCUMENTS_PER_WORKER;
+    }
+
+    public JcrSessionFactory getSessionFactory() {
+        return sessionFactory;
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    public int getMaxPendingDocuments() {
+        return maxPendingDocuments;
+    }
+
+    /**
+     * Sets the maximum number of documents being mapped or waiting for delivery in document order,
+     * which bounds the number of mapped documents kept in memory.
+     * @param maxPendingDocuments the maximum number of pending documents
+     */
+    public void setMaxPendingDocuments(int maxPendingDocuments) {
+        if (maxPendingDocuments < 1) {
+            throw new IllegalArgumentException("maxPendingDocuments must be positive: " + maxPendingDocuments);
+        }
+
+        this.maxPendingDocuments = maxPendingDocuments;
+    }
+
+    /**
+     * Maps each document node found in the subtree at {@code rootPath} and returns the mapped documents
+     * in document order. A document node failing to be mapped is logged and skipped.
+     * @param rootPath absolute path of the root node of the subtree
+     * @return the mapped documents in document order
+     * @throws ContentNodeMappingException if the subtree cannot be traversed or a worker session cannot be created
+     */
+    public List<ContentNode> mapDocuments(final String rootPath) throws ContentNodeMappingException {
+        final List<ContentNode> contentNodes = new ArrayList<>();
+
+        try {
+            mapDocuments(rootPath, (path, contentNode, failure) -> {
+                if (contentNode != null) {
+                    contentNodes.add(contentNode);
+                } else {
+                    log.error("Failed to map document at {}.", path, failure);
+                }
+            });
+        } catch (IOException e) {
+            throw new ContentNodeMappingException(e.toString(), e);
+        }
+
+        return contentNodes;
+    }
+
+    /**
+     * Exports each document node found in the subtree at {@code rootPath} as a line of NDJSON to the
+     * {@code output} in document order. The {@code output} is flushed, but not closed.
+     * <P>
+     * A document node failing to be mapped is skipped and reported in {@link ContentNodeExportResult#getFailedPaths()}.
+     * </P>
+     * @param rootPath absolute path of the root node of the subtree
+     * @param output output stream
+     * @return export result
+     * @throws ContentNodeMappingException if the subtree cannot be traversed or a worker session cannot be created
+     * @throws IOException if IO exception occurs while writing
+     */
+    public ContentNodeExportResult export(final String rootPath, final OutputStream output)
+            throws ContentNodeMappingException, IOException {
+        final ContentNodeExportResult result = new ContentNodeExportResult();
+        final CountingOutputStream countingOutput = new CountingOutputStream(output);
+        final ContentNodeJsonWriter writer = createNdjsonWriter(countingOutput);
+
+        try {
+            mapDocuments(rootPath, (path, contentNode, failure) -> {
+                if (contentNode != null) {
+                    writeDocument(writer, contentNode, countingOutput, result);
+                } else {
+                    log.error("Failed to map document at {}.", path, failure);
+                    result.documentFailed(path);
+                }
+            });
+        } finally {
+            writer.close();
+            output.flush();
+            result.finished(countingOutput.getByteCount());
+        }
+
+        log.info("Exported {} on {} worker(s)", result, workerCount);
+
+        return result;
+    }
+
+    /**
+     * Creates a value converter for the {@code session} of a worker thread.
+     * @param session JCR session of a worker thread
+     * @return value converter for the {@code session}
+     */
+    protected ContentValueConverter<Value> createValueConverter(final Session session) {
+        return new DefaultJcrContentValueConverter(session);
+    }
+
+    private void mapDocuments(final String rootPath, final MappedDocumentCallback callback)
+            throws ContentNodeMappingException, IOException {
+        final List<String> documentPaths = findDocumentPaths(rootPath);
+        final List<Worker> workers = Collections.synchronizedList(new ArrayList<>());
+        final ThreadLocal<Worker> workerLocal = new ThreadLocal<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(workerCount, createThreadFactory());
+        final Deque<Future<ContentNode>> pendingDocuments = new ArrayDeque<>(maxPendingDocuments);
+
+        try {
+            int deliveredCount = 0;
+
+            for (String documentPath : documentPaths) {
+                if (pendingDocuments.size() >= maxPendingDocuments) {
+                    deliver(documentPaths.get(deliveredCount++), pendingDocuments.removeFirst(), callback);
+                }
+
+                pendingDocuments.addLast(executor.submit(() -> {
+                    Worker worker = workerLocal.get();
+
+                    if (worker == null) {
+                        worker = new Worker(sessionFactory.createSession());
+                        workerLocal.set(worker);
+                        workers.add(worker);
+                    }
+
+                    return worker.map(documentPath);
+                }));
+            }
+
+            while (!pendingDocuments.isEmpty()) {
+                deliver(documentPaths.get(deliveredCount++), pendingDocuments.removeFirst(), callback);
+            }
+        } finally {
+            for (Future<ContentNode> future : pendingDocuments) {
+                future.cancel(true);
+            }
+
+            executor.shutdownNow();
+            awaitTermination(executor);
+
+            for (Worker worker : workers) {
+                sessionFactory.releaseSession(worker.session);
+            }
+        }
+    }
+
+    private List<String> findDocumentPaths(final String rootPath) throws ContentNodeMappingException, IOException {
+        final List<String> documentPaths = new ArrayList<>();
+        Session session = null;
+
+        try {
+            session = sessionFactory.createSession();
+            visitDocumentNodes(session.getNode(rootPath), documentNode -> documentPaths.add(documentNode.getPath()));
+        } catch (RepositoryException e) {
+            throw new ContentNodeMappingException(e.toString(), e);
+        } finally {
+            if (session != null) {
+                sessionFactory.releaseSession(session);
+            }
+        }
+
+        return documentPaths;
+    }
+
+    private void deliver(final String documentPath, final Future<ContentNode> future,
+            final MappedDocumentCallback callback) throws ContentNodeMappingException, IOException {
+        try {
+            callback.mapped(documentPath, future.get(), null);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+
+            if (cause instanceof ContentNodeMappingException) {
+                callback.mapped(documentPath, null, (ContentNodeMappingException) cause);
+            } else {
+                throw new ContentNodeMappingException(cause.toString(), cause);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ContentNodeMappingException("Interrupted while mapping " + documentPath, e);
+        }
+    }
+
+    private void awaitTermination(final ExecutorService executor) {
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("Waiting for content node mapper worker threads to terminate...");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ThreadFactory createThreadFactory() {
+        final AtomicInteger threadCount = new AtomicInteger();
+
+        return runnable -> {
+            final Thread thread = new Thread(runnable, "content-node-mapper-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Worker thread state, holding the session of the worker thread and its value converter.
+     */
+    private class Worker {
+
+        private final Session session;
+
+        private final ContentValueConverter<Value> valueConverter;
+
+        private Worker(final Session session) {
+            this.session = session;
+            valueConverter = createValueConverter(session);
+        }
+
+        private ContentNode map(final String documentPath) throws ContentNodeMappingException {
+            try {
+                return getContentNodeMapper().map(session.getNode(documentPath), getItemFilter(), valueConverter);
+            } catch (RepositoryException e) {
+                throw new ContentNodeMappingException(e.toString(), e);
+            }
+        }
+    }
+
+    /**
+     * Callback of a document mapped by a worker thread, invoked in document order in the calling thread.
+     */
+    @FunctionalInterface
+    private interface MappedDocumentCallback {
+
+        void mapped(String path, ContentNode contentNode, ContentNodeMappingException failure) throws IOException;
+
+    }
+}
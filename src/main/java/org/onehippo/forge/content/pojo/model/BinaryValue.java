@@ -144,6 +144,21 @@ public class BinaryValue {
         throw new IOException("No data nor fileObject set.");
     }
 
+    /**
+     * Returns the length of the underlying data in bytes, without reading the data.
+     * @return the length of the underlying data in bytes
+     * @throws IOException if no data nor fileObject is set, or if the size of the file object cannot be read
+     */
+    public long getLength() throws IOException {
+        if (data != null) {
+            return data.length;
+        } else if (fileObject != null) {
+            return fileObject.getContent().getSize();
+        }
+
+        throw new IOException("No data nor fileObject set.");
+    }
+
     /**
      * Returns a URI representation of the underlying data.
      * Either a <code>data:</code> URL or an external URL based on an internal {@link FileObject}.
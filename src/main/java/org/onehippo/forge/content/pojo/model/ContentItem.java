@@ -70,7 +70,18 @@ abstract public class ContentItem implements Serializable, Cloneable {
      * @param name item (either {@link ContentNode} or {@link ContentProperty}) name
      */
     public void setName(String name) {
+        final String oldName = this.name;
         this.name = name;
+
+        if (oldName != null && !oldName.equals(name)) {
+            nameChanged();
+        }
+    }
+
+    /**
+     * Invoked when the item has been renamed, for subclasses to keep any name based lookup in sync.
+     */
+    void nameChanged() {
     }
 
     /**
@@ -0,0 +1,237 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.model;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Compact, array-backed list of {@link ContentItem}s with a lazily built name index, used internally by
+ * {@link ContentNode} to look up content properties and child content nodes by name in constant time.
+ * <P>
+ * The name index maps an item name to the position of the first item having the name. It is built on the first
+ * lookup, kept up to date when items are appended or replaced by a same-name item, and simply dropped on any other
+ * structural modification so that it is rebuilt by the next lookup.
+ * </P>
+ * <P>
+ * A renamed item drops the name index of the list owning it, through its parent content node. An item renamed
+ * in another list containing it too is detected when looked up by its former name.
+ * </P>
+ *
+ * @param <E> content item type
+ */
+class ContentItemList<E extends ContentItem> extends AbstractList<E> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Object[] EMPTY_ELEMENTS = {};
+
+    /**
+     * Initial capacity when the first item is added.
+     */
+    private static final int DEFAULT_CAPACITY = 4;
+
+    /**
+     * Content items in order, followed by unused slots.
+     */
+    private Object[] elements;
+
+    /**
+     * Number of content items.
+     */
+    private int size;
+
+    /**
+     * Lazily built index from item name to the position of the first item having the name.
+     */
+    private transient Map<String, Integer> nameIndex;
+
+    ContentItemList() {
+        elements = EMPTY_ELEMENTS;
+    }
+
+    ContentItemList(Collection<? extends E> initialItems) {
+        if (initialItems == null || initialItems.isEmpty()) {
+            elements = EMPTY_ELEMENTS;
+        } else {
+            elements = initialItems.toArray(new Object[initialItems.size()]);
+            size = elements.length;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return (E) elements[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public E set(int index, E item) {
+        final E old = get(index);
+        elements[index] = item;
+        itemReplaced(index, old, item);
+        return old;
+    }
+
+    @Override
+    public void add(int index, E item) {
+        Objects.checkIndex(index, size + 1);
+
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, newCapacity(elements.length));
+        }
+
+        if (index < size) {
+            System.arraycopy(elements, index, elements, index + 1, size - index);
+        }
+
+        elements[index] = item;
+        ++size;
+        ++modCount;
+        itemAdded(index, item);
+    }
+
+    @Override
+    public E remove(int index) {
+        final E old = get(index);
+        final int tail = size - index - 1;
+
+        if (tail > 0) {
+            System.arraycopy(elements, index + 1, elements, index, tail);
+        }
+
+        elements[--size] = null;
+        ++modCount;
+        itemsChanged();
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+        ++modCount;
+        itemsChanged();
+    }
+
+    /**
+     * Returns the first item having the {@code name}, or null if not found.
+     * @param name item name
+     * @return the first item having the {@code name}, or null if not found
+     */
+    E getByName(String name) {
+        final int index = indexOfName(name);
+        return (index != -1) ? get(index) : null;
+    }
+
+    /**
+     * Returns the position of the first item having the {@code name}, or -1 if not found.
+     * @param name item name
+     * @return the position of the first item having the {@code name}, or -1 if not found
+     */
+    int indexOfName(String name) {
+        if (nameIndex == null) {
+            buildNameIndex();
+        }
+
+        Integer index = nameIndex.get(name);
+
+        if (index != null && !StringUtils.equals(name, get(index).getName())) {
+            // the item was renamed after having been indexed.
+            buildNameIndex();
+            index = nameIndex.get(name);
+        }
+
+        return (index != null) ? index : -1;
+    }
+
+    /**
+     * Invoked after the {@code item} has been inserted at the {@code index}.
+     * @param index item position
+     * @param item the added item
+     */
+    void itemAdded(int index, E item) {
+        if (index == size - 1) {
+            if (nameIndex != null) {
+                nameIndex.putIfAbsent(item.getName(), index);
+            }
+        } else {
+            itemsChanged();
+        }
+    }
+
+    /**
+     * Invoked after the {@code old} item at the {@code index} has been replaced by the {@code item}.
+     * @param index item position
+     * @param old the replaced item
+     * @param item the new item
+     */
+    void itemReplaced(int index, E old, E item) {
+        if (!StringUtils.equals(old.getName(), item.getName())) {
+            itemsChanged();
+        }
+    }
+
+    /**
+     * Invoked when items have been removed, inserted in between or renamed, to drop the name index
+     * and to rebuild it on the next lookup.
+     */
+    void itemsChanged() {
+        nameIndex = null;
+    }
+
+    /**
+     * Shrinks the internal array to the number of items.
+     */
+    void trimToSize() {
+        if (size < elements.length) {
+            elements = (size == 0) ? EMPTY_ELEMENTS : Arrays.copyOf(elements, size);
+        }
+    }
+
+    private void buildNameIndex() {
+        nameIndex = new HashMap<>(Math.max(16, (int) (size / 0.75f) + 1));
+
+        for (int i = 0; i < size; i++) {
+            nameIndex.putIfAbsent(get(i).getName(), i);
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        trimToSize();
+        out.defaultWriteObject();
+    }
+
+    static int newCapacity(int capacity) {
+        return (capacity == 0) ? DEFAULT_CAPACITY : capacity + (capacity >> 1) + 1;
+    }
+}
@@ -16,7 +16,6 @@
 package org.onehippo.forge.content.pojo.model;
 
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
@@ -29,18 +28,18 @@ import jakarta.xml.bind.annotation.XmlType;
 
 import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.collections4.SetUtils;
-import org.apache.commons.jxpath.JXPathContext;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 /**
  * Serializable POJO abstraction for content node (e.g, {@link javax.jcr.Node}).
  */
 @XmlRootElement(name = "node")
-@XmlType(propOrder={"primaryType", "mixinTypes", "properties", "nodes"})
+@XmlType(propOrder={"primaryType", "mixinTypes", "properties", "nodes", "truncation"})
 public class ContentNode extends ContentItem {
 
     private static final long serialVersionUID = 1L;
@@ -63,13 +62,28 @@ public class ContentNode extends ContentItem {
     /**
      * Parent content node embdding this content node.
      */
-    private ContentNode parent;
+    ContentNode parent;
 
     /**
      * Child content nodes embedded in this content node.
      */
     private List<ContentNode> nodes;
 
+    /**
+     * Reason why some child content nodes or properties were left out when mapping, or null if none was left out.
+     */
+    private ContentNodeTruncation truncation;
+
+    /**
+     * Index of this content node within its same-name siblings, maintained by the parent's {@link ContentNodeList}.
+     */
+    transient int siblingIndex;
+
+    /**
+     * Epoch of the parent's {@link ContentNodeList} in which {@link #siblingIndex} was assigned. Zero if unknown.
+     */
+    transient int siblingIndexEpoch;
+
     /**
      * Default constructor for deserialization.
      */
@@ -96,6 +110,16 @@ public class ContentNode extends ContentItem {
         return true;
     }
 
+    /**
+     * Drops the name index of the parent content node when this content node is renamed.
+     */
+    @Override
+    void nameChanged() {
+        if (parent != null && parent.nodes instanceof ContentNodeList) {
+            ((ContentNodeList) parent.nodes).itemsChanged();
+        }
+    }
+
     /**
      * Returns content node primary type name.
      * @return content node primary type name
@@ -135,6 +159,15 @@ public class ContentNode extends ContentItem {
         getMixinTypes().add(mixinType);
     }
 
+    /**
+     * Returns true if this content node has the {@code mixinType}, without creating the mixin type set if not set.
+     * @param mixinType mixin content node type name
+     * @return true if this content node has the {@code mixinType}
+     */
+    boolean hasMixinType(String mixinType) {
+        return mixinTypes != null && mixinTypes.contains(mixinType);
+    }
+
     /**
      * Removes a mixin content node type name from this content node.
      * @param mixinType a mixin content node type name
@@ -152,11 +185,7 @@ public class ContentNode extends ContentItem {
     @XmlElementWrapper(name = "properties")
     @XmlElements(@XmlElement(name = "property"))
     public List<ContentProperty> getProperties() {
-        if (properties == null) {
-            properties = new LinkedList<>();
-        }
-
-        return properties;
+        return getPropertyList();
     }
 
     /**
@@ -174,15 +203,13 @@ public class ContentNode extends ContentItem {
      * @return the content property by the {@code name}
      */
     public ContentProperty getProperty(String name) {
-        if (properties != null) {
-            for (ContentProperty contentProp : properties) {
-                if (contentProp.getName().equals(name)) {
-                    return contentProp;
-                }
-            }
+        loadProperties();
+
+        if (properties == null) {
+            return null;
         }
 
-        return null;
+        return getPropertyList().getByName(name);
     }
 
     /**
@@ -190,19 +217,14 @@ public class ContentNode extends ContentItem {
      * @param property content property
      */
     public void setProperty(ContentProperty property) {
-        if (!getProperties().isEmpty()) {
-            int index = 0;
-
-            for (ContentProperty contentProp : getProperties()) {
-                if (contentProp.getName().equals(property.getName())) {
-                    properties.set(index, property);
-                    return;
-                }
-                ++index;
-            }
-        }
+        final ContentItemList<ContentProperty> propertyList = getPropertyList();
+        final int index = propertyList.indexOfName(property.getName());
 
-        getProperties().add(property);
+        if (index != -1) {
+            propertyList.set(index, property);
+        } else {
+            propertyList.add(property);
+        }
     }
 
     /**
@@ -294,14 +316,11 @@ public class ContentNode extends ContentItem {
     @XmlElementWrapper(name = "nodes")
     @XmlElements(@XmlElement(name = "node"))
     public List<ContentNode> getNodes() {
-        if (nodes == null) {
-            nodes = new LinkedList<>();
-        }
-
-        return nodes;
+        return getNodeList();
     }
 
     public boolean hasAnyNode() {
+        loadNodes();
         return (nodes != null && !nodes.isEmpty());
     }
 
@@ -320,15 +339,13 @@ public class ContentNode extends ContentItem {
      * @return the child content node having the {@code name} if existing. Null otherwise.
      */
     public ContentNode getNode(String name) {
-        if (nodes != null) {
-            for (ContentNode node : nodes) {
-                if (node.getName().equals(name)) {
-                    return node;
-                }
-            }
+        loadNodes();
+
+        if (nodes == null) {
+            return null;
         }
 
-        return null;
+        return getNodeList().getByName(name);
     }
 
     /**
@@ -336,12 +353,36 @@ public class ContentNode extends ContentItem {
      * @param node child content node
      */
     public void addNode(ContentNode node) {
-        if (nodes == null) {
-            nodes = new LinkedList<>();
-        }
+        getNodeList().add(node);
+    }
 
-        nodes.add(node);
-        node.parent = this;
+    /**
+     * Returns the reason why some child content nodes or properties were left out when mapping this content node,
+     * or null if none was left out.
+     * @return the reason why some child content nodes or properties were left out, or null if none was left out
+     */
+    @XmlElement(name = "truncation")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public ContentNodeTruncation getTruncation() {
+        return truncation;
+    }
+
+    /**
+     * Sets the reason why some child content nodes or properties were left out when mapping this content node.
+     * @param truncation the reason why some child content nodes or properties were left out, or null if none
+     */
+    public void setTruncation(ContentNodeTruncation truncation) {
+        this.truncation = truncation;
+    }
+
+    /**
+     * Returns true if some child content nodes or properties were left out when mapping this content node.
+     * @return true if some child content nodes or properties were left out when mapping this content node
+     */
+    @XmlTransient
+    @JsonIgnore
+    public boolean isTruncated() {
+        return truncation != null;
     }
 
     /**
@@ -354,16 +395,8 @@ public class ContentNode extends ContentItem {
     @XmlTransient
     @JsonIgnore
     public int getIndex() {
-        if (parent != null && parent.hasAnyNode()) {
-            int index = 0;
-
-            for (ContentNode sibling : parent.getNodes()) {
-                if (sibling == this) {
-                    return ++index;
-                } else if (getName().equals(sibling.getName())) {
-                    ++index;
-                }
-            }
+        if (parent != null) {
+            return parent.getNodeList().siblingIndexOf(this);
         }
 
         return 1;
@@ -416,7 +449,7 @@ public class ContentNode extends ContentItem {
      * @return an object from this base content node from the JXPath query execution
      */
     public Object queryObjectByXPath(String jxpath) {
-        return createJXPathContext().getValue(jxpath);
+        return ContentNodeQuery.compile(jxpath).queryObject(this);
     }
 
     /**
@@ -426,17 +459,67 @@ public class ContentNode extends ContentItem {
      * @return a list of objects from this base content node from the JXPath query execution
      */
     public List<?> queryObjectsByXPath(String jxpath) {
-        return createJXPathContext().selectNodes(jxpath);
+        return ContentNodeQuery.compile(jxpath).queryObjects(this);
+    }
+
+    /**
+     * Returns the name-indexed list of the content properties, converting the list set by a deserializer if necessary.
+     * @return the name-indexed list of the content properties
+     */
+    private ContentItemList<ContentProperty> getPropertyList() {
+        loadProperties();
+
+        if (!(properties instanceof ContentItemList)) {
+            properties = new ContentPropertyList(this, properties);
+        }
+
+        return (ContentItemList<ContentProperty>) properties;
     }
 
     /**
-     * Creates and returns a {@link JXPathContext} instance used by default.
-     * @return a {@link JXPathContext} instance used by default
+     * Returns the name-indexed list of the content properties, or null if no content property list has been set.
+     * @return the name-indexed list of the content properties, or null if no content property list has been set
      */
-    private JXPathContext createJXPathContext() {
-        JXPathContext jxpathCtx = JXPathContext.newContext(this);
-        jxpathCtx.setLenient(true);
-        return jxpathCtx;
+    ContentItemList<ContentProperty> getPropertyListIfAny() {
+        loadProperties();
+        return (properties != null) ? getPropertyList() : null;
+    }
+
+    /**
+     * Returns the name-indexed list of the child content nodes, or null if no child content node list has been set.
+     * @return the name-indexed list of the child content nodes, or null if no child content node list has been set
+     */
+    ContentNodeList getNodeListIfAny() {
+        loadNodes();
+        return (nodes != null) ? getNodeList() : null;
+    }
+
+    /**
+     * Returns the name-indexed list of the child content nodes, converting the list set by a deserializer if necessary.
+     * @return the name-indexed list of the child content nodes
+     */
+    private ContentNodeList getNodeList() {
+        loadNodes();
+
+        if (!(nodes instanceof ContentNodeList)) {
+            nodes = new ContentNodeList(this, nodes);
+        }
+
+        return (ContentNodeList) nodes;
+    }
+
+    /**
+     * Invoked before the content properties are read or modified, for a subclass to load them lazily.
+     * Does nothing by default.
+     */
+    protected void loadProperties() {
+    }
+
+    /**
+     * Invoked before the child content nodes are read or modified, for a subclass to load them lazily.
+     * Does nothing by default.
+     */
+    protected void loadNodes() {
     }
 
     /**
@@ -445,7 +528,11 @@ public class ContentNode extends ContentItem {
      */
     @Override
     public Object clone() {
+        loadProperties();
+        loadNodes();
+
         ContentNode clone = new ContentNode(getName(), primaryType);
+        clone.setTruncation(truncation);
 
         if (mixinTypes != null) {
             for (String mixinType : mixinTypes) {
@@ -470,6 +557,8 @@ public class ContentNode extends ContentItem {
 
     @Override
     public int hashCode() {
+        loadProperties();
+        loadNodes();
         return new HashCodeBuilder().append(getName()).append(primaryType).append(mixinTypes).append(properties)
                 .append(nodes).toHashCode();
     }
@@ -481,6 +570,10 @@ public class ContentNode extends ContentItem {
         }
 
         ContentNode that = (ContentNode) o;
+        loadProperties();
+        loadNodes();
+        that.loadProperties();
+        that.loadNodes();
 
         if (!StringUtils.equals(getName(), that.getName())) {
             return false;
@@ -513,6 +606,8 @@ public class ContentNode extends ContentItem {
 
     @Override
     public String toString() {
+        loadProperties();
+        loadNodes();
         return new ToStringBuilder(this).append("name", getName()).append("primaryType", primaryType)
                 .append("mixinTypes", mixinTypes).append("properties", properties).append("nodes", nodes).toString();
     }
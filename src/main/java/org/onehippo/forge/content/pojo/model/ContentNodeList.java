@@ -0,0 +1,127 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.model;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * {@link ContentItemList} of child content nodes, which links the child content nodes to the parent content node
+ * and maintains the index of each child content node within its same-name siblings, so that
+ * {@link ContentNode#getIndex()} does not need to scan the siblings on every call.
+ * <P>
+ * The same-name sibling indexes are computed in one pass on the first request, kept up to date when child content
+ * nodes are appended or replaced by a same-name node, and invalidated on any other structural modification by moving
+ * to a new epoch so that they are computed again on the next request.
+ * </P>
+ */
+class ContentNodeList extends ContentItemList<ContentNode> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Parent content node owning this list.
+     */
+    private final ContentNode owner;
+
+    /**
+     * Current epoch of the same-name sibling indexes. Never zero, which marks an unknown index in a child node.
+     */
+    private int epoch = 1;
+
+    /**
+     * Number of child content nodes per name, available only while the same-name sibling indexes are up to date.
+     */
+    private transient Map<String, Integer> siblingCounts;
+
+    ContentNodeList(ContentNode owner) {
+        super();
+        this.owner = owner;
+    }
+
+    ContentNodeList(ContentNode owner, Collection<ContentNode> initialNodes) {
+        super(initialNodes);
+        this.owner = owner;
+
+        for (ContentNode node : this) {
+            node.parent = owner;
+            node.siblingIndexEpoch = 0;
+        }
+    }
+
+    /**
+     * Returns the 1-based index of the {@code node} within its same-name siblings in this list,
+     * or 1 if the {@code node} is not in this list.
+     * @param node child content node
+     * @return the 1-based index of the {@code node} within its same-name siblings in this list
+     */
+    int siblingIndexOf(ContentNode node) {
+        if (node.siblingIndexEpoch != epoch) {
+            computeSiblingIndexes();
+        }
+
+        return (node.siblingIndexEpoch == epoch) ? node.siblingIndex : 1;
+    }
+
+    @Override
+    void itemAdded(int index, ContentNode node) {
+        node.parent = owner;
+        node.siblingIndexEpoch = 0;
+        super.itemAdded(index, node);
+
+        if (siblingCounts != null) {
+            assignSiblingIndex(node);
+        }
+    }
+
+    @Override
+    void itemReplaced(int index, ContentNode old, ContentNode node) {
+        node.parent = owner;
+        node.siblingIndexEpoch = 0;
+        super.itemReplaced(index, old, node);
+
+        if (siblingCounts != null) {
+            node.siblingIndex = old.siblingIndex;
+            node.siblingIndexEpoch = epoch;
+        }
+    }
+
+    @Override
+    void itemsChanged() {
+        super.itemsChanged();
+        siblingCounts = null;
+
+        if (++epoch == 0) {
+            epoch = 1;
+        }
+    }
+
+    private void computeSiblingIndexes() {
+        siblingCounts = new HashMap<>();
+
+        for (ContentNode node : this) {
+            assignSiblingIndex(node);
+        }
+    }
+
+    private void assignSiblingIndex(ContentNode node) {
+        node.siblingIndex = siblingCounts.merge(StringUtils.defaultString(node.getName()), 1, Integer::sum);
+        node.siblingIndexEpoch = epoch;
+    }
+}
@@ -0,0 +1,358 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Natively executable form of the common subset of <a href="https://commons.apache.org/proper/commons-jxpath/">JXPath</a>
+ * expressions against {@link ContentNode}s, which walks the content items directly instead of through JXPath bean
+ * introspection pointers, and allocates nothing per step.
+ * <P>
+ * The supported subset consists of zero or more {@code nodes} steps optionally followed by one {@code properties}
+ * step, and optionally followed by a leaf. For example,
+ * {@code nodes[@itemName='myhippoproject:content']/properties[@itemName='hippostd:content']/value}.
+ * </P>
+ * <UL>
+ * <LI>Each step may have any number of predicates comparing an attribute with a string literal, followed by at most
+ *     one positional predicate such as {@code [2]}. The supported attributes are {@code @itemName} for both steps,
+ *     and {@code @primaryType} and {@code @mixinTypes} for {@code nodes} steps.</LI>
+ * <LI>The supported leaves are {@code name} and {@code itemName} for both steps, {@code primaryType} after a
+ *     {@code nodes} step and {@code value} after a {@code properties} step.</LI>
+ * </UL>
+ * <P>
+ * {@link #parse(String)} returns null for any other expression, to be executed by JXPath instead.
+ * </P>
+ */
+final class ContentNodePath {
+
+    private static final String NODES = "nodes";
+    private static final String PROPERTIES = "properties";
+
+    private static final int ATTRIBUTE_ITEM_NAME = 1;
+    private static final int ATTRIBUTE_PRIMARY_TYPE = 2;
+    private static final int ATTRIBUTE_MIXIN_TYPES = 3;
+
+    private static final int LEAF_NONE = 0;
+    private static final int LEAF_NAME = 1;
+    private static final int LEAF_PRIMARY_TYPE = 2;
+    private static final int LEAF_VALUE = 3;
+
+    /**
+     * Location steps from the base content node.
+     */
+    private final Step[] steps;
+
+    /**
+     * Leaf kind, applied to the items selected by the last step.
+     */
+    private final int leaf;
+
+    private ContentNodePath(final Step[] steps, final int leaf) {
+        this.steps = steps;
+        this.leaf = leaf;
+    }
+
+    /**
+     * Parses the JXPath {@code expression} into a natively executable path, or returns null if the expression
+     * is not in the supported subset.
+     * @param expression JXPath expression
+     * @return a natively executable path, or null if the expression is not in the supported subset
+     */
+    static ContentNodePath parse(final String expression) {
+        if (expression == null || expression.isEmpty()) {
+            return null;
+        }
+
+        final String[] segments = expression.split("/", -1);
+        int stepCount = segments.length;
+        int leaf = LEAF_NONE;
+
+        final String lastSegment = segments[segments.length - 1];
+
+        if (!lastSegment.startsWith(NODES) && !lastSegment.startsWith(PROPERTIES)) {
+            if (segments.length < 2) {
+                return null;
+            }
+
+            final boolean afterProperties = segments[segments.length - 2].startsWith(PROPERTIES);
+
+            switch (lastSegment) {
+                case "name", "itemName" -> leaf = LEAF_NAME;
+                case "primaryType" -> leaf = afterProperties ? LEAF_NONE : LEAF_PRIMARY_TYPE;
+                case "value" -> leaf = afterProperties ? LEAF_VALUE : LEAF_NONE;
+                default -> leaf = LEAF_NONE;
+            }
+
+            if (leaf == LEAF_NONE) {
+                return null;
+            }
+
+            --stepCount;
+        }
+
+        final Step[] steps = new Step[stepCount];
+
+        for (int i = 0; i < stepCount; i++) {
+            steps[i] = Step.parse(segments[i]);
+
+            if (steps[i] == null || (steps[i].properties && i != stepCount - 1)) {
+                return null;
+            }
+        }
+
+        return new ContentNodePath(steps, leaf);
+    }
+
+    /**
+     * Returns the first object selected from the {@code base} content node, or null if nothing selected.
+     * @param base base content node
+     * @return the first object selected from the {@code base} content node, or null if nothing selected
+     */
+    Object getValue(final ContentNode base) {
+        return evaluate(base, 0, null);
+    }
+
+    /**
+     * Adds all the objects selected from the {@code base} content node to {@code results}, in document order.
+     * @param base base content node
+     * @param results list to add the selected objects to
+     */
+    void collect(final ContentNode base, final List<Object> results) {
+        evaluate(base, 0, results);
+    }
+
+    /**
+     * Evaluates the step at {@code stepIndex} and the following steps against the {@code context} content node.
+     * Returns the first selected object if {@code results} is null. Otherwise, adds all the selected objects to
+     * {@code results} and returns null.
+     */
+    private Object evaluate(final ContentNode context, final int stepIndex, final List<Object> results) {
+        final Step step = steps[stepIndex];
+        final ContentItemList<? extends ContentItem> items =
+                step.properties ? context.getPropertyListIfAny() : context.getNodeListIfAny();
+
+        if (items == null) {
+            return null;
+        }
+
+        final int size = items.size();
+        int start = 0;
+
+        if (step.firstItemName != null) {
+            // no item before the first one having the name can match.
+            start = items.indexOfName(step.firstItemName);
+
+            if (start == -1) {
+                return null;
+            }
+        }
+
+        final boolean lastStep = (stepIndex == steps.length - 1);
+        int position = 0;
+
+        for (int i = start; i < size; i++) {
+            final ContentItem item = items.get(i);
+
+            if (!step.matches(item) || (step.position != 0 && ++position != step.position)) {
+                continue;
+            }
+
+            if (lastStep) {
+                final Object value = getLeafValue(item);
+
+                if (value != null) {
+                    if (results == null) {
+                        return value;
+                    }
+
+                    results.add(value);
+                }
+            } else {
+                final Object value = evaluate((ContentNode) item, stepIndex + 1, results);
+
+                if (value != null) {
+                    return value;
+                }
+            }
+
+            if (step.position != 0) {
+                break;
+            }
+        }
+
+        return null;
+    }
+
+    private Object getLeafValue(final ContentItem item) {
+        return switch (leaf) {
+            case LEAF_NAME -> item.getName();
+            case LEAF_PRIMARY_TYPE -> ((ContentNode) item).getPrimaryType();
+            case LEAF_VALUE -> ((ContentProperty) item).getValue();
+            default -> item;
+        };
+    }
+
+    /**
+     * Location step selecting either child content nodes or content properties.
+     */
+    private static final class Step {
+
+        /**
+         * Whether this step selects content properties instead of child content nodes.
+         */
+        private final boolean properties;
+
+        /**
+         * Attribute kinds of the comparison predicates.
+         */
+        private final int[] attributes;
+
+        /**
+         * String literals of the comparison predicates.
+         */
+        private final String[] literals;
+
+        /**
+         * 1-based position predicate applied after the comparison predicates, or 0 if none.
+         */
+        private final int position;
+
+        /**
+         * Item name of the first comparison predicate if it compares the item name, to skip non-matching items.
+         */
+        private final String firstItemName;
+
+        private Step(final boolean properties, final int[] attributes, final String[] literals, final int position) {
+            this.properties = properties;
+            this.attributes = attributes;
+            this.literals = literals;
+            this.position = position;
+            this.firstItemName =
+                    (attributes.length > 0 && attributes[0] == ATTRIBUTE_ITEM_NAME) ? literals[0] : null;
+        }
+
+        static Step parse(final String segment) {
+            final boolean properties;
+            int offset;
+
+            if (segment.startsWith(PROPERTIES)) {
+                properties = true;
+                offset = PROPERTIES.length();
+            } else if (segment.startsWith(NODES)) {
+                properties = false;
+                offset = NODES.length();
+            } else {
+                return null;
+            }
+
+            int predicateCount = 0;
+
+            for (int i = offset; i < segment.length(); i++) {
+                if (segment.charAt(i) == '[') {
+                    ++predicateCount;
+                }
+            }
+
+            final int[] attributes = new int[predicateCount];
+            final String[] literals = new String[predicateCount];
+            int comparisonCount = 0;
+            int position = 0;
+
+            while (offset < segment.length()) {
+                final int end = segment.indexOf(']', offset);
+
+                if (segment.charAt(offset) != '[' || end == -1 || position != 0) {
+                    return null;
+                }
+
+                final String predicate = segment.substring(offset + 1, end);
+
+                if (!predicate.isEmpty() && predicate.chars().allMatch(Character::isDigit)) {
+                    try {
+                        position = Integer.parseInt(predicate);
+                    } catch (NumberFormatException e) {
+                        // too large for an int, left to JXPath.
+                        return null;
+                    }
+
+                    if (position < 1) {
+                        return null;
+                    }
+                } else {
+                    final int eq = predicate.indexOf('=');
+
+                    if (!predicate.startsWith("@") || eq == -1) {
+                        return null;
+                    }
+
+                    final int attribute = switch (predicate.substring(1, eq)) {
+                        case "itemName" -> ATTRIBUTE_ITEM_NAME;
+                        case "primaryType" -> properties ? 0 : ATTRIBUTE_PRIMARY_TYPE;
+                        case "mixinTypes" -> properties ? 0 : ATTRIBUTE_MIXIN_TYPES;
+                        default -> 0;
+                    };
+                    final String literal = parseLiteral(predicate.substring(eq + 1));
+
+                    if (attribute == 0 || literal == null) {
+                        return null;
+                    }
+
+                    attributes[comparisonCount] = attribute;
+                    literals[comparisonCount] = literal;
+                    ++comparisonCount;
+                }
+
+                offset = end + 1;
+            }
+
+            return new Step(properties, Arrays.copyOf(attributes, comparisonCount),
+                    Arrays.copyOf(literals, comparisonCount), position);
+        }
+
+        private static String parseLiteral(final String quoted) {
+            if (quoted.length() < 2) {
+                return null;
+            }
+
+            final char quote = quoted.charAt(0);
+
+            if ((quote != '\'' && quote != '"') || quoted.indexOf(quote, 1) != quoted.length() - 1) {
+                return null;
+            }
+
+            return quoted.substring(1, quoted.length() - 1);
+        }
+
+        boolean matches(final ContentItem item) {
+            for (int i = 0; i < attributes.length; i++) {
+                final String literal = literals[i];
+                final boolean matched = switch (attributes[i]) {
+                    case ATTRIBUTE_ITEM_NAME -> literal.equals(item.getName());
+                    case ATTRIBUTE_PRIMARY_TYPE -> literal.equals(((ContentNode) item).getPrimaryType());
+                    default -> ((ContentNode) item).hasMixinType(literal);
+                };
+
+                if (!matched) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
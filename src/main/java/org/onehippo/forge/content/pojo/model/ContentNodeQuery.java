@@ -0,0 +1,194 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.jxpath.CompiledExpression;
+import org.apache.commons.jxpath.JXPathContext;
+import org.apache.commons.jxpath.Pointer;
+
+/**
+ * Reusable, compiled <a href="https://commons.apache.org/proper/commons-jxpath/">JXPath</a> query which can be
+ * executed against any base {@link ContentNode}.
+ * <P>
+ * The expression is parsed only once, so executing the same query against many content nodes avoids parsing the
+ * expression again on every execution. An instance is immutable and thread-safe.
+ * </P>
+ * <P>
+ * Expressions in the common subset of simple child steps with name, type and positional predicates, such as
+ * {@code nodes[@itemName='myhippoproject:content']/properties[@itemName='hippostd:content']/value}, are executed
+ * natively against the content items (see {@link ContentNodePath}). Any other expression is compiled into
+ * a JXPath {@link CompiledExpression}.
+ * </P>
+ * <P>
+ * Example:
+ * </P>
+ * <PRE>
+ * ContentNodeQuery titleQuery = ContentNodeQuery.compile("properties[@itemName='myhippoproject:title']/value");
+ *
+ * for (ContentNode document : documents) {
+ *     String title = (String) titleQuery.queryObject(document);
+ * }
+ * </PRE>
+ */
+public class ContentNodeQuery {
+
+    /**
+     * Shared cache of compiled queries used by {@link #compile(String)}.
+     */
+    private static final ContentNodeQueryCache DEFAULT_CACHE = new ContentNodeQueryCache();
+
+    /**
+     * JXPath expression.
+     */
+    private final String expression;
+
+    /**
+     * Natively executable path, or null if the expression is not in the natively supported subset.
+     */
+    private final ContentNodePath nativePath;
+
+    /**
+     * Compiled JXPath expression, or null if the expression is executed natively.
+     */
+    private final CompiledExpression compiledExpression;
+
+    /**
+     * Constructs by compiling the JXPath {@code expression}.
+     * @param expression <a href="https://commons.apache.org/proper/commons-jxpath/">JXPath</a> expression
+     */
+    public ContentNodeQuery(final String expression) {
+        this.expression = expression;
+        this.nativePath = ContentNodePath.parse(expression);
+        this.compiledExpression = (nativePath == null) ? JXPathContext.compile(expression) : null;
+    }
+
+    /**
+     * Returns a compiled query for the JXPath {@code expression} from the shared, bounded LRU cache,
+     * compiling and caching it if not cached yet.
+     * @param expression <a href="https://commons.apache.org/proper/commons-jxpath/">JXPath</a> expression
+     * @return a compiled query for the JXPath {@code expression}
+     */
+    public static ContentNodeQuery compile(final String expression) {
+        return DEFAULT_CACHE.getQuery(expression);
+    }
+
+    /**
+     * Returns the JXPath expression.
+     * @return the JXPath expression
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Queries and returns single content node from the {@code base} content node.
+     * @param base base content node
+     * @return single content node from the {@code base} content node from the query execution
+     */
+    public ContentNode queryNode(final ContentNode base) {
+        return (ContentNode) queryObject(base);
+    }
+
+    /**
+     * Queries and returns single content property from the {@code base} content node.
+     * @param base base content node
+     * @return single content property from the {@code base} content node from the query execution
+     */
+    public ContentProperty queryProperty(final ContentNode base) {
+        return (ContentProperty) queryObject(base);
+    }
+
+    /**
+     * Queries and returns a list of content nodes from the {@code base} content node.
+     * @param base base content node
+     * @return list of content nodes from the {@code base} content node from the query execution
+     */
+    @SuppressWarnings("unchecked")
+    public List<ContentNode> queryNodes(final ContentNode base) {
+        return (List<ContentNode>) queryObjects(base);
+    }
+
+    /**
+     * Queries and returns a list of content properties from the {@code base} content node.
+     * @param base base content node
+     * @return list of content properties from the {@code base} content node from the query execution
+     */
+    @SuppressWarnings("unchecked")
+    public List<ContentProperty> queryProperties(final ContentNode base) {
+        return (List<ContentProperty>) queryObjects(base);
+    }
+
+    /**
+     * Queries and returns an object from the {@code base} content node.
+     * @param base base content node
+     * @return an object from the {@code base} content node from the query execution
+     */
+    public Object queryObject(final ContentNode base) {
+        if (nativePath != null) {
+            return nativePath.getValue(base);
+        }
+
+        return compiledExpression.getValue(createJXPathContext(base));
+    }
+
+    /**
+     * Queries and returns a list of objects from the {@code base} content node.
+     * @param base base content node
+     * @return a list of objects from the {@code base} content node from the query execution
+     */
+    public List<?> queryObjects(final ContentNode base) {
+        final List<Object> list = new ArrayList<>();
+
+        if (nativePath != null) {
+            nativePath.collect(base, list);
+            return list;
+        }
+
+        for (Iterator<?> it = compiledExpression.iteratePointers(createJXPathContext(base)); it.hasNext(); ) {
+            list.add(((Pointer) it.next()).getNode());
+        }
+
+        return list;
+    }
+
+    /**
+     * Returns true if the expression is executed natively instead of by JXPath.
+     * @return true if the expression is executed natively instead of by JXPath
+     */
+    boolean isNative() {
+        return nativePath != null;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /**
+     * Creates and returns a {@link JXPathContext} instance used by default.
+     * @param base base content node
+     * @return a {@link JXPathContext} instance used by default
+     */
+    private static JXPathContext createJXPathContext(final ContentNode base) {
+        JXPathContext jxpathCtx = JXPathContext.newContext(base);
+        jxpathCtx.setLenient(true);
+        return jxpathCtx;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thread-safe, bounded LRU cache of {@link ContentNodeQuery}s by JXPath expression.
+ * <P>
+ * When the cache is full, the least recently used query is evicted to cache a new one.
+ * </P>
+ */
+public class ContentNodeQueryCache {
+
+    /**
+     * Default maximum number of cached queries.
+     */
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    /**
+     * Maximum number of cached queries.
+     */
+    private final int maxSize;
+
+    /**
+     * Access-ordered map of cached queries by expression.
+     */
+    private final Map<String, ContentNodeQuery> queries;
+
+    /**
+     * Constructs a cache holding up to {@link #DEFAULT_MAX_SIZE} queries.
+     */
+    public ContentNodeQueryCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructs a cache holding up to {@code maxSize} queries.
+     * @param maxSize maximum number of cached queries
+     */
+    public ContentNodeQueryCache(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Invalid max size: " + maxSize);
+        }
+
+        this.maxSize = maxSize;
+        this.queries = new LinkedHashMap<String, ContentNodeQuery>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ContentNodeQuery> eldest) {
+                return size() > ContentNodeQueryCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached query for the JXPath {@code expression}, compiling and caching it if not cached yet.
+     * @param expression <a href="https://commons.apache.org/proper/commons-jxpath/">JXPath</a> expression
+     * @return the cached query for the JXPath {@code expression}
+     */
+    public ContentNodeQuery getQuery(final String expression) {
+        ContentNodeQuery query;
+
+        synchronized (queries) {
+            query = queries.get(expression);
+        }
+
+        if (query == null) {
+            // compile outside the lock; a concurrent compilation of the same expression is harmless.
+            final ContentNodeQuery compiled = new ContentNodeQuery(expression);
+
+            synchronized (queries) {
+                query = queries.putIfAbsent(expression, compiled);
+            }
+
+            if (query == null) {
+                query = compiled;
+            }
+        }
+
+        return query;
+    }
+
+    /**
+     * Returns the maximum number of cached queries.
+     * @return the maximum number of cached queries
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of cached queries.
+     * @return the number of cached queries
+     */
+    public int size() {
+        synchronized (queries) {
+            return queries.size();
+        }
+    }
+
+    /**
+     * Removes all the cached queries.
+     */
+    public void clear() {
+        synchronized (queries) {
+            queries.clear();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.model;
+
+/**
+ * Reason why some of the child content nodes or properties of a {@link ContentNode} were left out when mapping,
+ * having hit a limit of the mapper.
+ */
+public enum ContentNodeTruncation {
+
+    /**
+     * The child content nodes were left out, the content node being at the maximum depth.
+     */
+    DEPTH,
+
+    /**
+     * The child content nodes after the maximum number of child content nodes were left out.
+     */
+    CHILD_NODES,
+
+    /**
+     * The remaining child content nodes were left out, the maximum total number of content nodes having been mapped.
+     */
+    NODES,
+
+    /**
+     * Binary properties were left out, the maximum total number of binary bytes having been mapped.
+     */
+    BINARY_BYTES
+
+}
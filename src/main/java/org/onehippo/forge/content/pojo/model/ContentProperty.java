@@ -17,8 +17,8 @@ package org.onehippo.forge.content.pojo.model;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.LinkedList;
 import java.util.List;
 
 import jakarta.xml.bind.annotation.XmlElement;
@@ -62,6 +62,11 @@ public class ContentProperty extends ContentItem {
      */
     private List<String> values;
 
+    /**
+     * Content node owning this content property.
+     */
+    ContentNode parent;
+
     /**
      * Default constructor for deserialization.
      */
@@ -90,6 +95,19 @@ public class ContentProperty extends ContentItem {
         this.multiple = multiple;
     }
 
+    /**
+     * Drops the name index of the content properties of the parent content node when this content property
+     * is renamed.
+     */
+    @Override
+    void nameChanged() {
+        final ContentItemList<ContentProperty> propertyList = (parent != null) ? parent.getPropertyListIfAny() : null;
+
+        if (propertyList != null) {
+            propertyList.itemsChanged();
+        }
+    }
+
     /**
      * Transient or ignore-able (in JSON marshaling) property, always returning false.
      */
@@ -140,8 +158,8 @@ public class ContentProperty extends ContentItem {
     @XmlElementWrapper(name = "values")
     @XmlElements(@XmlElement(name = "value"))
     public List<String> getValues() {
-        if (values == null) {
-            values = new LinkedList<>();
+        if (!(values instanceof ContentValueList)) {
+            values = new ContentValueList(values);
         }
 
         return values;
@@ -259,8 +277,8 @@ public class ContentProperty extends ContentItem {
     @JsonIgnore
     @XmlTransient
     public List<Object> getValuesAsObject() {
-        List<Object> objectValues = new LinkedList<>();
         int valueCount = getValueCount();
+        List<Object> objectValues = new ArrayList<>(valueCount);
 
         for (int i = 0; i < valueCount; i++) {
             objectValues.add(getValueAsObjectAt(i));
@@ -0,0 +1,53 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.model;
+
+import java.util.Collection;
+
+/**
+ * {@link ContentItemList} of content properties, which links the content properties to the content node owning them,
+ * so that a renamed content property drops the name index of the list containing it.
+ */
+class ContentPropertyList extends ContentItemList<ContentProperty> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Content node owning this list.
+     */
+    private final ContentNode owner;
+
+    ContentPropertyList(ContentNode owner, Collection<ContentProperty> initialProperties) {
+        super(initialProperties);
+        this.owner = owner;
+
+        for (ContentProperty property : this) {
+            property.parent = owner;
+        }
+    }
+
+    @Override
+    void itemAdded(int index, ContentProperty property) {
+        property.parent = owner;
+        super.itemAdded(index, property);
+    }
+
+    @Override
+    void itemReplaced(int index, ContentProperty old, ContentProperty property) {
+        property.parent = owner;
+        super.itemReplaced(index, old, property);
+    }
+}
@@ -50,4 +50,23 @@ public enum ContentPropertyType {
             default -> PropertyType.UNDEFINED;
         };
     }
+
+    /**
+     * Converts the JCR PropertyType constant to the corresponding ContentPropertyType, as a JCR property is mapped
+     * to a content property, i.e, the name, URI and decimal types to STRING and the reference types to PATH.
+     * @param jcrType the JCR PropertyType constant to convert
+     * @return the ContentPropertyType
+     */
+    public static ContentPropertyType fromJcrPropertyType(int jcrType) {
+        return switch (jcrType) {
+            case PropertyType.STRING, PropertyType.NAME, PropertyType.URI, PropertyType.DECIMAL -> STRING;
+            case PropertyType.BINARY -> BINARY;
+            case PropertyType.LONG -> LONG;
+            case PropertyType.DOUBLE -> DOUBLE;
+            case PropertyType.DATE -> DATE;
+            case PropertyType.BOOLEAN -> BOOLEAN;
+            case PropertyType.PATH, PropertyType.REFERENCE, PropertyType.WEAKREFERENCE -> PATH;
+            default -> UNDEFINED;
+        };
+    }
 }
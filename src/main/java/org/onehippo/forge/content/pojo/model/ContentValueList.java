@@ -0,0 +1,164 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.model;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Compact list of stringified values, used internally by {@link ContentProperty}.
+ * <P>
+ * As most content properties are single-valued, a single value is kept in a field without allocating an array.
+ * An array is allocated only when a second value is added.
+ * </P>
+ */
+class ContentValueList extends AbstractList<String> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The only value while {@link #values} is null.
+     */
+    private String singleValue;
+
+    /**
+     * Values in order, followed by unused slots, once more than one value has been added.
+     */
+    private String[] values;
+
+    /**
+     * Number of values.
+     */
+    private int size;
+
+    ContentValueList() {
+    }
+
+    ContentValueList(Collection<String> initialValues) {
+        if (initialValues != null && !initialValues.isEmpty()) {
+            if (initialValues.size() == 1) {
+                singleValue = initialValues.iterator().next();
+                size = 1;
+            } else {
+                values = initialValues.toArray(new String[initialValues.size()]);
+                size = values.length;
+            }
+        }
+    }
+
+    @Override
+    public String get(int index) {
+        Objects.checkIndex(index, size);
+        return (values != null) ? values[index] : singleValue;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String set(int index, String value) {
+        final String old = get(index);
+
+        if (values != null) {
+            values[index] = value;
+        } else {
+            singleValue = value;
+        }
+
+        return old;
+    }
+
+    @Override
+    public void add(int index, String value) {
+        Objects.checkIndex(index, size + 1);
+
+        if (values == null) {
+            if (size == 0) {
+                singleValue = value;
+                size = 1;
+                ++modCount;
+                return;
+            }
+
+            values = new String[] { singleValue, null };
+            singleValue = null;
+        } else if (size == values.length) {
+            values = Arrays.copyOf(values, ContentItemList.newCapacity(values.length));
+        }
+
+        if (index < size) {
+            System.arraycopy(values, index, values, index + 1, size - index);
+        }
+
+        values[index] = value;
+        ++size;
+        ++modCount;
+    }
+
+    @Override
+    public String remove(int index) {
+        final String old = get(index);
+
+        if (values != null) {
+            final int tail = size - index - 1;
+
+            if (tail > 0) {
+                System.arraycopy(values, index + 1, values, index, tail);
+            }
+
+            values[size - 1] = null;
+        } else {
+            singleValue = null;
+        }
+
+        --size;
+        ++modCount;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        singleValue = null;
+        values = null;
+        size = 0;
+        ++modCount;
+    }
+
+    /**
+     * Shrinks the internal storage to the number of values.
+     */
+    void trimToSize() {
+        if (values != null && size <= 1) {
+            singleValue = (size == 1) ? values[0] : null;
+            values = null;
+        } else if (values != null && size < values.length) {
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        trimToSize();
+        out.defaultWriteObject();
+    }
+}
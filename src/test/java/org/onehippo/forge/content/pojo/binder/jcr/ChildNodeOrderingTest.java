@@ -0,0 +1,89 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ChildNodeOrderingTest {
+
+    @Test
+    public void testNoMovesForSameOrder() throws Exception {
+        List<String> refs = Arrays.asList("a", "b", "c");
+        assertTrue(ChildNodeOrdering.moves(refs, refs).isEmpty());
+    }
+
+    @Test
+    public void testSingleMoveForRotatedOrder() throws Exception {
+        List<String> current = Arrays.asList("a", "b", "c", "d", "e");
+
+        assertMoves(current, Arrays.asList("b", "c", "d", "e", "a"), 1);
+        assertMoves(current, Arrays.asList("e", "a", "b", "c", "d"), 1);
+        assertMoves(current, Arrays.asList("a", "d", "b", "c", "e"), 1);
+    }
+
+    @Test
+    public void testMinimalMovesForReversedAndShuffledOrder() throws Exception {
+        List<String> current = Arrays.asList("a", "b", "c", "d", "e");
+        List<String> reversed = new ArrayList<>(current);
+        Collections.reverse(reversed);
+        assertMoves(current, reversed, 4);
+
+        Random random = new Random(17);
+        List<String> shuffled = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            shuffled.add("n" + i);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            List<String> ordered = new ArrayList<>(shuffled);
+            Collections.shuffle(ordered, random);
+            List<ChildNodeOrdering.Move> moves = ChildNodeOrdering.moves(shuffled, ordered);
+            assertEquals(ordered, apply(shuffled, moves));
+        }
+    }
+
+    private static void assertMoves(List<String> current, List<String> ordered, int expectedMoveCount) {
+        List<ChildNodeOrdering.Move> moves = ChildNodeOrdering.moves(current, ordered);
+        assertEquals(expectedMoveCount, moves.size());
+        assertEquals(ordered, apply(current, moves));
+    }
+
+    private static List<String> apply(List<String> current, List<ChildNodeOrdering.Move> moves) {
+        List<String> refs = new ArrayList<>(current);
+
+        for (ChildNodeOrdering.Move move : moves) {
+            refs.remove(move.getRef());
+
+            if (move.getBeforeRef() == null) {
+                refs.add(move.getRef());
+            } else {
+                refs.add(refs.indexOf(move.getBeforeRef()), move.getRef());
+            }
+        }
+
+        return refs;
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.Property;
+import javax.jcr.PropertyIterator;
+import javax.jcr.Value;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.onehippo.forge.content.pojo.model.ContentPropertyType;
+import org.onehippo.repository.mock.MockNode;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class ContentNodeChangePlanTest {
+
+    private MockNode root;
+
+    private ContentNode contentNode;
+
+    @Before
+    public void setUp() throws Exception {
+        root = MockNode.root();
+
+        contentNode = new ContentNode("doc", "nt:unstructured");
+        contentNode.addMixinType("mix:referenceable");
+        contentNode.setProperty("title", "Updated title");
+        contentNode.setProperty("tags", new String[] { "a", "b" });
+
+        ContentNode second = new ContentNode("second", "nt:unstructured");
+        second.setProperty("data", "2");
+        contentNode.addNode(second);
+
+        ContentNode first = new ContentNode("first", "nt:unstructured");
+        first.setProperty("data", "1");
+        contentNode.addNode(first);
+
+        ContentNode added = new ContentNode("added", "hippo:compound");
+        added.setProperty("data", "new");
+        added.addNode(new ContentNode("nested", "nt:unstructured"));
+        contentNode.addNode(added);
+    }
+
+    @Test
+    public void testPlanAndApplyInAllModes() throws Exception {
+        for (boolean changeDetectionMode : new boolean[] { false, true }) {
+            assertPlanAndApplySameAsBind(changeDetectionMode, false, false, null);
+            assertPlanAndApplySameAsBind(changeDetectionMode, true, false, null);
+            assertPlanAndApplySameAsBind(changeDetectionMode, false, true, null);
+        }
+    }
+
+    @Test
+    public void testPlanAndApplyWithMatchingStrategies() throws Exception {
+        ContentNodeMatchingStrategy[] strategies = {
+                new PropertyValueMatchingStrategy("data"), new ContentDigestMatchingStrategy("digest") };
+
+        for (ContentNodeMatchingStrategy strategy : strategies) {
+            for (boolean changeDetectionMode : new boolean[] { false, true }) {
+                assertPlanAndApplySameAsBind(changeDetectionMode, false, false, strategy);
+                assertPlanAndApplySameAsBind(changeDetectionMode, true, false, strategy);
+                assertPlanAndApplySameAsBind(changeDetectionMode, false, true, strategy);
+            }
+        }
+    }
+
+    @Test
+    public void testPlanWithoutModifyingNode() throws Exception {
+        MockNode node = createExistingNode("doc");
+        String before = dump(node);
+
+        DefaultJcrContentNodeBinder binder = new DefaultJcrContentNodeBinder();
+        ContentNodeChangePlan plan = binder.plan(node, contentNode);
+
+        assertEquals(before, dump(node));
+        assertEquals("/doc", plan.getRootPath());
+        assertEquals(1, plan.getChangeCount(ContentNodeChange.Type.ADD_MIXIN));
+        assertEquals(3, plan.getChangeCount(ContentNodeChange.Type.REMOVE_NODE));
+        assertEquals(4, plan.getChangeCount(ContentNodeChange.Type.ADD_NODE));
+    }
+
+    @Test
+    public void testApplyPlanDeserializedFromJson() throws Exception {
+        MockNode boundNode = createExistingNode("bound");
+        MockNode plannedNode = createExistingNode("planned");
+
+        DefaultJcrContentNodeBinder binder = new DefaultJcrContentNodeBinder();
+        binder.setChangeDetectionMode(true);
+        binder.bind(boundNode, contentNode);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        String json = objectMapper.writeValueAsString(binder.plan(plannedNode, contentNode));
+        ContentNodeChangePlan plan = objectMapper.readValue(json, ContentNodeChangePlan.class);
+        binder.apply(plannedNode.getSession(), plan);
+
+        assertEquals(dump(boundNode), dump(plannedNode));
+    }
+
+    @Test
+    public void testChangeDetectionPlanEmptyForUnchangedContent() throws Exception {
+        MockNode node = createExistingNode("doc");
+
+        DefaultJcrContentNodeBinder binder = new DefaultJcrContentNodeBinder();
+        binder.setChangeDetectionMode(true);
+        binder.bind(node, contentNode);
+
+        ContentNodeChangePlan plan = binder.plan(node, contentNode);
+        assertTrue(plan.toString(), plan.isEmpty());
+
+        binder.setChangeDetectionMode(false);
+        assertFalse(binder.plan(node, contentNode).isEmpty());
+    }
+
+    @Test
+    public void testPlanAndApplyForwardReferences() throws Exception {
+        MockNode node = root.addNode("linked", "nt:unstructured");
+
+        ContentNode linkedContentNode = new ContentNode("linked", "nt:unstructured");
+        ContentNode link = new ContentNode("link", "nt:unstructured");
+        link.setProperty("target", ContentPropertyType.PATH, "/linked/target");
+        link.setProperty("missing", ContentPropertyType.PATH, "/linked/missing");
+        linkedContentNode.addNode(link);
+        linkedContentNode.addNode(new ContentNode("target", "nt:unstructured"));
+
+        DefaultJcrContentNodeBinder binder = new DefaultJcrContentNodeBinder();
+        ContentNodeChangePlan plan = new ObjectMapper().readValue(
+                new ObjectMapper().writeValueAsString(binder.plan(node, linkedContentNode)), ContentNodeChangePlan.class);
+
+        int deferredCount = 0;
+
+        for (ContentNodeChange change : plan.getChanges()) {
+            if (change.isDeferred()) {
+                ++deferredCount;
+            }
+        }
+
+        assertEquals(plan.toString(), 2, deferredCount);
+
+        binder.apply(node.getSession(), plan);
+
+        assertEquals(node.getNode("target").getIdentifier(),
+                node.getNode("link").getProperty("target").getString());
+        assertFalse(node.getNode("link").hasProperty("missing"));
+
+        // with a context, the references stay deferred to be resolved after the batch as with bind.
+        MockNode otherNode = root.addNode("other", "nt:unstructured");
+        ContentNode otherContentNode = new ContentNode("other", "nt:unstructured");
+        otherContentNode.setProperty("missing", ContentPropertyType.PATH, "/linked/missing");
+
+        ContentNodeBindingContext context = new ContentNodeBindingContext();
+        binder.apply(otherNode.getSession(), binder.plan(otherNode, otherContentNode), null, context);
+
+        assertFalse(otherNode.hasProperty("missing"));
+        assertEquals(1, context.getDeferredReferenceCount());
+
+        node.addNode("missing", "nt:unstructured");
+        assertEquals(1, context.resolveDeferredReferences());
+        assertEquals(node.getNode("missing").getIdentifier(), otherNode.getProperty("missing").getString());
+    }
+
+    private void assertPlanAndApplySameAsBind(boolean changeDetectionMode, boolean subNodesMergingOnly,
+                                              boolean fullOverwriteMode,
+                                              ContentNodeMatchingStrategy strategy) throws Exception {
+        String mode = Arrays.asList(changeDetectionMode, subNodesMergingOnly, fullOverwriteMode,
+                (strategy != null) ? strategy.getClass().getSimpleName() : null).toString();
+
+        MockNode boundNode = createExistingNode("bound" + mode.hashCode());
+        MockNode plannedNode = createExistingNode("planned" + mode.hashCode());
+
+        DefaultJcrContentNodeBinder binder = new DefaultJcrContentNodeBinder();
+        binder.setChangeDetectionMode(changeDetectionMode);
+        binder.setSubNodesMergingOnly(subNodesMergingOnly);
+        binder.setFullOverwriteMode(fullOverwriteMode);
+        binder.setSubNodeMatchingStrategy(strategy);
+
+        binder.bind(boundNode, contentNode);
+        ContentNodeChangePlan plan = binder.plan(plannedNode, contentNode);
+        binder.apply(plannedNode.getSession(), plan);
+
+        assertEquals(mode + "\n" + plan, dump(boundNode), dump(plannedNode));
+    }
+
+    private MockNode createExistingNode(String name) throws Exception {
+        MockNode node = root.addNode(name, "nt:unstructured");
+        node.setProperty("title", "Original title");
+        node.addNode("kept", "nt:unstructured").setProperty("data", "kept");
+        node.addNode("first", "nt:unstructured").setProperty("data", "1");
+        node.addNode("second", "nt:unstructured").setProperty("data", "old");
+        node.addNode("compound", "hippo:compound");
+        return node;
+    }
+
+    private static String dump(Node node) throws Exception {
+        // the dump of the bound node itself starts from its types, to compare nodes having different names.
+        StringBuilder sb = new StringBuilder();
+        dump(node, "", sb);
+        return sb.substring(node.getName().length());
+    }
+
+    private static void dump(Node node, String indent, StringBuilder sb) throws Exception {
+        sb.append(indent).append(node.getName()).append(" (").append(node.getPrimaryNodeType().getName());
+
+        for (javax.jcr.nodetype.NodeType mixin : node.getMixinNodeTypes()) {
+            sb.append(", ").append(mixin.getName());
+        }
+
+        sb.append(")\n");
+
+        for (PropertyIterator it = node.getProperties(); it.hasNext(); ) {
+            Property property = it.nextProperty();
+            sb.append(indent).append("  @").append(property.getName()).append('=');
+
+            if (property.isMultiple()) {
+                for (Value value : property.getValues()) {
+                    sb.append(value.getString()).append(';');
+                }
+            } else {
+                sb.append(property.getString());
+            }
+
+            sb.append('\n');
+        }
+
+        for (NodeIterator it = node.getNodes(); it.hasNext(); ) {
+            dump(it.nextNode(), indent + "  ", sb);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import java.util.concurrent.TimeUnit;
+
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark for {@link ContentNode#getIndex()} on same-name sibling content nodes,
+ * as invoked by {@link DefaultContentNodeBindingTargetNodeSelector} for each child content node while binding.
+ *
+ * Demonstrates linear scaling of resolving the index of every same-name sibling.
+ * If scaling is linear, doubling sibling count should roughly double the time.
+ * If scaling were quadratic, doubling would quadruple the time.
+ *
+ * Run with: mvn test -Dtest=ContentNodeIndexBenchmark#runBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentNodeIndexBenchmark {
+
+    private static final String SIBLING_NAME = "myhippoproject:paragraph";
+    private static final String SIBLING_TYPE = "hippo:compound";
+
+    @Param({"1000", "2000", "5000", "10000"})
+    private int siblingCount;
+
+    private ContentNode contentNode;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contentNode = createContentNodeWithSiblings(siblingCount);
+    }
+
+    @Benchmark
+    public void benchmarkGetIndex(Blackhole blackhole) {
+        // Resolve the index of every same-name sibling, like selecting the target node of each child.
+        for (ContentNode child : contentNode.getNodes()) {
+            blackhole.consume(child.getIndex());
+        }
+    }
+
+    @Benchmark
+    public void benchmarkAddNodeAndGetIndex(Blackhole blackhole) {
+        // Interleave appending and resolving the index, like building a content node while binding it.
+        final ContentNode parent = new ContentNode("parent", "nt:unstructured");
+
+        for (int i = 0; i < siblingCount; i++) {
+            final ContentNode child = new ContentNode(SIBLING_NAME, SIBLING_TYPE);
+            parent.addNode(child);
+            blackhole.consume(child.getIndex());
+        }
+    }
+
+    private ContentNode createContentNodeWithSiblings(int count) {
+        ContentNode parent = new ContentNode("parent", "nt:unstructured");
+
+        for (int i = 0; i < count; i++) {
+            ContentNode child = new ContentNode(SIBLING_NAME, SIBLING_TYPE);
+            child.setProperty("prop1", "value" + i);
+            parent.addNode(child);
+        }
+
+        return parent;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ContentNodeIndexBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    /**
+     * JUnit entry point for running benchmark via Maven.
+     * Results are saved to ~/Documents/content-node-index-benchmark.json
+     */
+    @org.junit.Test
+    public void runBenchmark() throws RunnerException {
+        String outputPath = System.getProperty("user.home") + "/Documents/content-node-index-benchmark.json";
+
+        Options opt = new OptionsBuilder()
+                .include(ContentNodeIndexBenchmark.class.getSimpleName())
+                .result(outputPath)
+                .resultFormat(org.openjdk.jmh.results.format.ResultFormatType.JSON)
+                .build();
+
+        new Runner(opt).run();
+
+        System.out.println("\n=== Benchmark results saved to: " + outputPath + " ===\n");
+    }
+}
@@ -84,6 +84,13 @@ public class DefaultJcrContentNodeBinderBenchmark {
         binder.bind(jcrParentNode, contentNode);
     }
 
+    @Benchmark
+    public void benchmarkChangeDetectionMode() throws Exception {
+        // Change detection mode: sub nodes bound in place, equal values not written
+        binder.setChangeDetectionMode(true);
+        binder.bind(jcrParentNode, contentNode);
+    }
+
     private MockNode createJcrNodeWithChildren(int count) throws Exception {
         MockNode root = MockNode.root();
         MockNode parent = root.addNode("parent", "nt:unstructured");
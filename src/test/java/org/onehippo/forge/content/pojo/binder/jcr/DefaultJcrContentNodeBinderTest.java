@@ -17,17 +17,28 @@ package org.onehippo.forge.content.pojo.binder.jcr;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
+import javax.jcr.Binary;
 import javax.jcr.Node;
 import javax.jcr.NodeIterator;
 import javax.jcr.Property;
 import javax.jcr.PropertyType;
+import javax.jcr.RepositoryException;
 import javax.jcr.Value;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.SerializationUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jackrabbit.util.ISO8601;
 import org.hippoecm.repository.api.HippoNodeType;
@@ -36,8 +47,11 @@ import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.onehippo.forge.content.pojo.binder.ContentNodeBindingItemFilter;
+import org.onehippo.forge.content.pojo.common.ContentNodeMetrics;
 import org.onehippo.forge.content.pojo.common.ContentValueConverter;
+import org.onehippo.forge.content.pojo.common.InMemoryContentNodeMetrics;
 import org.onehippo.forge.content.pojo.common.jcr.BaseHippoJcrContentNodeTest;
+import org.onehippo.forge.content.pojo.common.jcr.DefaultJcrContentValueConverter;
 import org.onehippo.forge.content.pojo.model.BinaryValue;
 import org.onehippo.forge.content.pojo.model.ContentItem;
 import org.onehippo.forge.content.pojo.model.ContentNode;
@@ -364,6 +378,12 @@ public class DefaultJcrContentNodeBinderTest extends BaseHippoJcrContentNodeTest
         return count;
     }
 
+    private ContentNodeBindingStatistics bindAndCount(Node jcrDataNode, ContentNode contentNode) throws Exception {
+        ContentNodeBindingContext context = new ContentNodeBindingContext();
+        binder.bind(jcrDataNode, contentNode, null, null, context);
+        return context.getBindingStatistics();
+    }
+
     // ==================== Additional Coverage Tests ====================
 
     @Test
@@ -1261,6 +1281,50 @@ public class DefaultJcrContentNodeBinderTest extends BaseHippoJcrContentNodeTest
         assertEquals("newValue", parentNode.getProperty("normalProp").getString());
     }
 
+    @Test
+    public void testOverriddenProtectedPropertyHookIsAuthoritative() throws Exception {
+        MockNode parentNode = getRootNode().addNode("testProtectedHook", "nt:unstructured");
+        parentNode.setProperty("lockedProp", "oldValue");
+        parentNode.setProperty("normalProp", "oldValue");
+
+        ContentNode sourceNode = new ContentNode("testProtectedHook", "nt:unstructured");
+        sourceNode.setProperty("lockedProp", "newValue");
+        sourceNode.setProperty("normalProp", "newValue");
+
+        DefaultJcrContentNodeBinder hookBinder = new DefaultJcrContentNodeBinder() {
+            @Override
+            NodeTypeMetadataCache.NodeTypeMetadata getNodeTypeMetadata(Node node) {
+                // resolvable metadata without any protected property
+                return new NodeTypeMetadataCache.NodeTypeMetadata(Collections.singleton("nt:unstructured"),
+                        Collections.emptySet(), false);
+            }
+
+            @Override
+            protected boolean isProtectedProperty(Property property) throws RepositoryException {
+                return "lockedProp".equals(property.getName()) || super.isProtectedProperty(property);
+            }
+        };
+        hookBinder.bind(parentNode, sourceNode);
+
+        assertEquals("oldValue", parentNode.getProperty("lockedProp").getString());
+        assertEquals("newValue", parentNode.getProperty("normalProp").getString());
+    }
+
+    @Test
+    public void testDeserializedBinderCachesNodeTypeMetadata() throws Exception {
+        MockNode parentNode = getRootNode().addNode("testDeserializedBinder", "nt:unstructured");
+        ContentNode sourceNode = new ContentNode("testDeserializedBinder", "nt:unstructured");
+        sourceNode.setProperty("title", "Deserialized");
+        sourceNode.addNode(new ContentNode("child", "hippo:compound"));
+
+        DefaultJcrContentNodeBinder deserializedBinder = SerializationUtils.clone(binder);
+        deserializedBinder.bind(parentNode, sourceNode);
+
+        assertEquals("Deserialized", parentNode.getProperty("title").getString());
+        assertTrue(parentNode.hasNode("child"));
+        assertTrue(deserializedBinder.isCompoundType(parentNode.getNode("child")));
+    }
+
     @Test
     public void testCreateJcrValuesFromBinaryProperty() throws Exception {
         // Test: if (ContentPropertyType.BINARY.equals(contentProp.getType())) branch
@@ -1451,4 +1515,663 @@ public class DefaultJcrContentNodeBinderTest extends BaseHippoJcrContentNodeTest
         assertTrue(jcrProp.isMultiple());
         assertEquals(0, jcrProp.getValues().length);
     }
+
+    @Test
+    public void testChangeDetectionModeSkipsUnchangedDocument() throws Exception {
+        MockNode newsFolderNode = getRootNode().getNode(StringUtils.removeStart(NEWS_DOC_FOLDER_PATH, "/"));
+        Node handle = createHippoDocumentHandleNode(newsFolderNode, "news-harvest", "News Harvest");
+        binder.bind(handle, newsContentNode);
+        Node variant = handle.getNode("news-harvest");
+
+        binder.setChangeDetectionMode(true);
+        ContentNodeBindingStatistics statistics = bindAndCount(handle, newsContentNode);
+        assertEquals(0, statistics.getWrittenPropertyCount());
+        assertEquals(0, statistics.getWrittenNodeCount());
+        assertEquals(0, statistics.getRemovedNodeCount());
+        assertTrue(statistics.getSkippedPropertyCount() > 0);
+        assertTrue(statistics.getSkippedNodeCount() > 1);
+        assertSame(variant, handle.getNode("news-harvest"));
+        assertEquals("News Harvest", variant.getProperty("myhippoproject:title").getString());
+    }
+
+    @Test
+    public void testChangeDetectionModeWritesChangedProperty() throws Exception {
+        MockNode parentNode = getRootNode().addNode("testChangeDetection", "nt:unstructured");
+        MockNode childNode = parentNode.addNode("child", "nt:unstructured");
+        childNode.setProperty("title", "original");
+        childNode.setProperty("tags", new String[] { "a", "b" });
+
+        ContentNode sourceNode = new ContentNode("testChangeDetection", "nt:unstructured");
+        ContentNode sourceChild = new ContentNode("child", "nt:unstructured");
+        sourceChild.setProperty("title", "updated");
+        sourceChild.setProperty("tags", new String[] { "a", "b" });
+        sourceNode.addNode(sourceChild);
+
+        binder.setChangeDetectionMode(true);
+        ContentNodeBindingStatistics statistics = bindAndCount(parentNode, sourceNode);
+
+        assertEquals(1, statistics.getWrittenPropertyCount());
+        assertEquals(1, statistics.getSkippedPropertyCount());
+        assertEquals(1, statistics.getWrittenNodeCount());
+        assertEquals(1, statistics.getSkippedNodeCount());
+        assertSame(childNode, parentNode.getNode("child"));
+        assertEquals("updated", childNode.getProperty("title").getString());
+    }
+
+    @Test
+    public void testChangeDetectionModeRebindsSubNodesInPlace() throws Exception {
+        MockNode parentNode = getRootNode().addNode("testChangeDetectionOrder", "nt:unstructured");
+        MockNode kept = parentNode.addNode("kept", "nt:unstructured");
+        MockNode first = parentNode.addNode("first", "nt:unstructured");
+        first.setProperty("data", "1");
+        MockNode second = parentNode.addNode("second", "nt:unstructured");
+        second.setProperty("data", "2");
+        parentNode.addNode("compound", "hippo:compound");
+
+        ContentNode sourceNode = new ContentNode("testChangeDetectionOrder", "nt:unstructured");
+        ContentNode sourceSecond = new ContentNode("second", "nt:unstructured");
+        sourceSecond.setProperty("data", "2");
+        sourceNode.addNode(sourceSecond);
+        ContentNode sourceFirst = new ContentNode("first", "nt:unstructured");
+        sourceFirst.setProperty("data", "1");
+        sourceNode.addNode(sourceFirst);
+        sourceNode.addNode(new ContentNode("third", "nt:unstructured"));
+
+        binder.setChangeDetectionMode(true);
+        ContentNodeBindingStatistics statistics = bindAndCount(parentNode, sourceNode);
+
+        NodeIterator it = parentNode.getNodes();
+        assertSame(kept, it.nextNode());
+        assertSame(second, it.nextNode());
+        assertSame(first, it.nextNode());
+        assertEquals("third", it.nextNode().getName());
+        assertFalse(it.hasNext());
+
+        assertEquals(1, statistics.getRemovedNodeCount());
+        assertEquals(1, statistics.getWrittenNodeCount());
+        assertEquals(2, statistics.getSkippedPropertyCount());
+        assertEquals(0, statistics.getWrittenPropertyCount());
+    }
+
+    @Test
+    public void testFingerprintSkipsUnchangedSubtree() throws Exception {
+        MockNode parentNode = getRootNode().addNode("testFingerprint", "nt:unstructured");
+
+        ContentNode sourceNode = new ContentNode("testFingerprint", "nt:unstructured");
+        sourceNode.setProperty("title", "original");
+        ContentNode sourceChild = new ContentNode("child", "nt:unstructured");
+        sourceChild.setProperty("data", "1");
+        sourceNode.addNode(sourceChild);
+
+        binder.setFingerprintPropertyName("fingerprint");
+        binder.bind(parentNode, sourceNode);
+
+        String fingerprint = parentNode.getProperty("fingerprint").getString();
+        assertFalse(parentNode.getNode("child").hasProperty("fingerprint"));
+        Node child = parentNode.getNode("child");
+
+        ContentNodeBindingStatistics statistics = bindAndCount(parentNode, sourceNode);
+
+        assertEquals(1, statistics.getSkippedSubtreeCount());
+        assertEquals(0, statistics.getWrittenPropertyCount());
+        assertSame(child, parentNode.getNode("child"));
+        assertTrue(binder.plan(parentNode, sourceNode).isEmpty());
+
+        sourceChild.setProperty("data", "2");
+        statistics = bindAndCount(parentNode, sourceNode);
+
+        assertEquals(0, statistics.getSkippedSubtreeCount());
+        assertEquals("2", parentNode.getNode("child").getProperty("data").getString());
+        assertFalse(fingerprint.equals(parentNode.getProperty("fingerprint").getString()));
+    }
+
+    @Test
+    public void testMergeMatchingByKeyPropertyMovesReorderedCompounds() throws Exception {
+        MockNode parentNode = getRootNode().addNode("testMatchingByKey", "nt:unstructured");
+        ContentNode sourceNode = new ContentNode("testMatchingByKey", "nt:unstructured");
+
+        for (String id : new String[] { "a", "b", "c" }) {
+            ContentNode item = new ContentNode("item", "hippo:compound");
+            item.setProperty("id", id);
+            item.setProperty("title", "Title " + id);
+            sourceNode.addNode(item);
+        }
+
+        binder.setSubNodesMergingOnly(true);
+        binder.setChangeDetectionMode(true);
+        binder.setSubNodeMatchingStrategy(new PropertyValueMatchingStrategy("id"));
+        binder.bind(parentNode, sourceNode);
+
+        NodeIterator it = parentNode.getNodes();
+        Node itemA = it.nextNode();
+        Node itemB = it.nextNode();
+        Node itemC = it.nextNode();
+        assertEquals("a", itemA.getProperty("id").getString());
+
+        List<ContentNode> items = sourceNode.getNodes();
+        items.add(items.remove(0));
+        items.get(1).setProperty("title", "Changed title c");
+
+        ContentNodeBindingStatistics statistics = bindAndCount(parentNode, sourceNode);
+
+        it = parentNode.getNodes();
+        assertSame(itemB, it.nextNode());
+        assertSame(itemC, it.nextNode());
+        assertSame(itemA, it.nextNode());
+        assertFalse(it.hasNext());
+        assertEquals("Changed title c", itemC.getProperty("title").getString());
+
+        assertEquals(1, statistics.getWrittenPropertyCount());
+        assertEquals(1, statistics.getWrittenNodeCount());
+        assertEquals(0, statistics.getRemovedNodeCount());
+    }
+
+    @Test
+    public void testChangeDetectionMatchingByDigestSkipsUnchangedChildren() throws Exception {
+        MockNode parentNode = getRootNode().addNode("testMatchingByDigest", "nt:unstructured");
+        ContentNode sourceNode = new ContentNode("testMatchingByDigest", "nt:unstructured");
+
+        for (String data : new String[] { "1", "2", "3" }) {
+            ContentNode item = new ContentNode("item", "hippo:compound");
+            item.setProperty("data", data);
+            sourceNode.addNode(item);
+        }
+
+        binder.setChangeDetectionMode(true);
+        binder.setSubNodeMatchingStrategy(new ContentDigestMatchingStrategy("digest"));
+        binder.bind(parentNode, sourceNode);
+
+        NodeIterator it = parentNode.getNodes();
+        Node item1 = it.nextNode();
+        Node item2 = it.nextNode();
+        Node item3 = it.nextNode();
+        assertTrue(item1.hasProperty("digest"));
+
+        List<ContentNode> items = sourceNode.getNodes();
+        items.add(0, items.remove(2));
+        items.get(2).setProperty("data", "22");
+
+        ContentNodeBindingStatistics statistics = bindAndCount(parentNode, sourceNode);
+
+        it = parentNode.getNodes();
+        assertSame(item3, it.nextNode());
+        assertSame(item1, it.nextNode());
+        assertSame(item2, it.nextNode());
+        assertFalse(it.hasNext());
+        assertEquals("22", item2.getProperty("data").getString());
+
+        assertEquals(2, statistics.getSkippedSubtreeCount());
+        assertEquals(2, statistics.getWrittenPropertyCount());
+        assertEquals(0, statistics.getRemovedNodeCount());
+    }
+
+    @Test
+    public void testChangeDetectionMatchingByDigestKeysOnlySameNameSiblings() throws Exception {
+        MockNode parentNode = getRootNode().addNode("testDigestPlacement", "nt:unstructured");
+        ContentNode sourceNode = new ContentNode("testDigestPlacement", "nt:unstructured");
+
+        for (String data : new String[] { "1", "2" }) {
+            ContentNode item = new ContentNode("item", "hippo:compound");
+            item.setProperty("data", data);
+            item.addNode(new ContentNode("body", "nt:unstructured"));
+
+            for (String entryData : new String[] { "a", "b" }) {
+                ContentNode entry = new ContentNode("entry", "hippo:compound");
+                entry.setProperty("data", data + entryData);
+                item.addNode(entry);
+            }
+
+            sourceNode.addNode(item);
+        }
+
+        binder.setChangeDetectionMode(true);
+        binder.setSubNodeMatchingStrategy(new ContentDigestMatchingStrategy("digest"));
+        binder.bind(parentNode, sourceNode);
+
+        assertFalse(parentNode.hasProperty("digest"));
+
+        for (NodeIterator it = parentNode.getNodes(); it.hasNext(); ) {
+            Node item = it.nextNode();
+            assertTrue(item.hasProperty("digest"));
+            assertFalse(item.getNode("body").hasProperty("digest"));
+
+            for (NodeIterator entries = item.getNodes("entry"); entries.hasNext(); ) {
+                assertTrue(entries.nextNode().hasProperty("digest"));
+            }
+        }
+
+        ContentNodeBindingStatistics statistics = bindAndCount(parentNode, sourceNode);
+        assertEquals(2, statistics.getSkippedSubtreeCount());
+        assertEquals(0, statistics.getWrittenPropertyCount());
+    }
+
+    @Test
+    public void testChangeDetectionModeRemovesPropertiesDroppedFromSubNodes() throws Exception {
+        MockNode parentNode = getRootNode().addNode("testDroppedProps", "nt:unstructured");
+        ContentNode sourceNode = new ContentNode("testDroppedProps", "nt:unstructured");
+        ContentNode compound = new ContentNode("compound", "hippo:compound");
+        compound.setProperty("title", "Title");
+        compound.setProperty("summary", "Summary");
+        compound.setProperty("keptSummary", "Kept");
+        sourceNode.addNode(compound);
+
+        binder.setChangeDetectionMode(true);
+        binder.bind(parentNode, sourceNode);
+        Node compoundNode = parentNode.getNode("compound");
+
+        compound.getProperties().remove(compound.getProperty("summary"));
+        compound.getProperties().remove(compound.getProperty("keptSummary"));
+        ContentNodeBindingItemFilter<ContentItem> filter = item -> !item.getName().startsWith("kept");
+
+        ContentNodeChangePlan plan = binder.plan(parentNode, sourceNode, filter);
+        assertEquals(plan.toString(), 1, plan.getChangeCount(ContentNodeChange.Type.REMOVE_PROPERTY));
+
+        ContentNodeBindingContext context = new ContentNodeBindingContext();
+        binder.bind(parentNode, sourceNode, filter, null, context);
+
+        // bound in place, without the dropped property, but with the one not accepted by the filter.
+        assertSame(compoundNode, parentNode.getNode("compound"));
+        assertEquals("Title", compoundNode.getProperty("title").getString());
+        assertFalse(compoundNode.hasProperty("summary"));
+        assertTrue(compoundNode.hasProperty("keptSummary"));
+        assertEquals(1, context.getBindingStatistics().getWrittenPropertyCount());
+        assertEquals(1, context.getBindingStatistics().getWrittenNodeCount());
+    }
+
+    @Test
+    public void testChangeDetectionModeMovesOnlyOutOfPlaceSubNodes() throws Exception {
+        MockNode parentNode = getRootNode().addNode("testMinimalMoves", "nt:unstructured");
+        ContentNode sourceNode = new ContentNode("testMinimalMoves", "nt:unstructured");
+
+        for (int i = 0; i < 10; i++) {
+            ContentNode slide = new ContentNode("slide" + i, "nt:unstructured");
+            slide.setProperty("data", String.valueOf(i));
+            sourceNode.addNode(slide);
+        }
+
+        binder.setChangeDetectionMode(true);
+        binder.bind(parentNode, sourceNode);
+        Node firstSlide = parentNode.getNode("slide0");
+
+        List<ContentNode> slides = sourceNode.getNodes();
+        slides.add(slides.remove(0));
+
+        ContentNodeChangePlan plan = binder.plan(parentNode, sourceNode);
+        assertEquals(plan.toString(), 1, plan.getChangeCount(ContentNodeChange.Type.ORDER_BEFORE));
+
+        ContentNodeBindingStatistics statistics = bindAndCount(parentNode, sourceNode);
+
+        NodeIterator it = parentNode.getNodes();
+        for (int i = 1; i < 10; i++) {
+            assertEquals("slide" + i, it.nextNode().getName());
+        }
+        assertSame(firstSlide, it.nextNode());
+        assertEquals(0, statistics.getWrittenNodeCount());
+        assertEquals(0, statistics.getRemovedNodeCount());
+    }
+
+    @Test
+    public void testDefaultModeReaddsSubNodesInOrderWithoutMoves() throws Exception {
+        MockNode parentNode = getRootNode().addNode("testDefaultModeOrder", "nt:unstructured");
+        parentNode.addNode("kept", "nt:unstructured");
+        ContentNode sourceNode = new ContentNode("testDefaultModeOrder", "nt:unstructured");
+
+        for (int i = 0; i < 10; i++) {
+            ContentNode slide = new ContentNode("slide" + i, "nt:unstructured");
+            slide.setProperty("data", String.valueOf(i));
+            sourceNode.addNode(slide);
+        }
+
+        binder.bind(parentNode, sourceNode);
+        Node firstSlide = parentNode.getNode("slide0");
+
+        List<ContentNode> slides = sourceNode.getNodes();
+        slides.add(slides.remove(0));
+
+        // the matching sub nodes are removed and added again in the content order, so nothing is moved.
+        ContentNodeChangePlan plan = binder.plan(parentNode, sourceNode);
+        assertEquals(plan.toString(), 0, plan.getChangeCount(ContentNodeChange.Type.ORDER_BEFORE));
+        assertEquals(plan.toString(), 10, plan.getChangeCount(ContentNodeChange.Type.REMOVE_NODE));
+        assertEquals(plan.toString(), 10, plan.getChangeCount(ContentNodeChange.Type.ADD_NODE));
+
+        ContentNodeBindingStatistics statistics = bindAndCount(parentNode, sourceNode);
+
+        NodeIterator it = parentNode.getNodes();
+        assertEquals("kept", it.nextNode().getName());
+        for (int i = 1; i < 10; i++) {
+            assertEquals("slide" + i, it.nextNode().getName());
+        }
+        Node lastSlide = it.nextNode();
+        assertEquals("slide0", lastSlide.getName());
+        assertNotSame(firstSlide, lastSlide);
+        assertEquals(10, statistics.getWrittenNodeCount());
+        assertEquals(10, statistics.getRemovedNodeCount());
+    }
+
+    @Test
+    public void testChangeDetectionKeepsConvertedBinary() throws Exception {
+        MockNode handle = getRootNode().addNode("testKeepBinary", "hippo:handle");
+        List<Node> variants = new ArrayList<>();
+
+        for (int i = 0; i < 2; i++) {
+            Node variant = handle.addNode("testKeepBinary", "nt:unstructured");
+            variant.setProperty("binaryProp", variant.getSession().getValueFactory()
+                    .createBinary(new ByteArrayInputStream("old binary data".getBytes())));
+            variants.add(variant);
+        }
+
+        ContentNode sourceNode = new ContentNode("testKeepBinary", "nt:unstructured");
+        sourceNode.setProperty("binaryProp", new BinaryValue("new binary data!".getBytes(), "text/plain", "UTF-8"));
+
+        final boolean[] disposed = new boolean[1];
+        ContentValueConverter<Value> converter = new DefaultJcrContentValueConverter(handle.getSession()) {
+            @Override
+            public Value toJcrValue(BinaryValue binaryValue) {
+                final byte[] data = "new binary data!".getBytes();
+                final Binary binary = new Binary() {
+                    @Override
+                    public InputStream getStream() {
+                        return new ByteArrayInputStream(data);
+                    }
+
+                    @Override
+                    public int read(byte[] b, long position) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public long getSize() {
+                        return data.length;
+                    }
+
+                    @Override
+                    public void dispose() {
+                        disposed[0] = true;
+                    }
+                };
+
+                try {
+                    return getSession().getValueFactory().createValue(binary);
+                } catch (RepositoryException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+
+        binder.setChangeDetectionMode(true);
+        binder.bindAll(variants, sourceNode, null, converter);
+
+        assertFalse(disposed[0]);
+
+        for (Node variant : variants) {
+            try (InputStream input = variant.getProperty("binaryProp").getBinary().getStream()) {
+                assertEquals("new binary data!", IOUtils.toString(input, "UTF-8"));
+            }
+        }
+    }
+
+    @Test
+    public void testBindAllConvertsValuesOnce() throws Exception {
+        MockNode handle = getRootNode().addNode("testFanOut", "hippo:handle");
+        List<Node> variants = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            variants.add(handle.addNode("testFanOut", "nt:unstructured"));
+        }
+
+        ContentNode sourceNode = new ContentNode("testFanOut", "nt:unstructured");
+        sourceNode.setProperty("title", "Fan-out");
+        sourceNode.setProperty("binaryProp", new BinaryValue("test binary data".getBytes(), "text/plain", "UTF-8"));
+        ContentNode child = new ContentNode("child", "nt:unstructured");
+        child.setProperty("data", "1");
+        sourceNode.addNode(child);
+
+        final DefaultJcrContentValueConverter delegate = new DefaultJcrContentValueConverter(handle.getSession());
+        final int[] conversionCount = new int[1];
+        ContentValueConverter<Value> countingConverter = new ContentValueConverter<Value>() {
+            @Override
+            public String toString(Value value) {
+                return delegate.toString(value);
+            }
+
+            @Override
+            public BinaryValue toBinaryValue(Value value, String mimeType) {
+                return delegate.toBinaryValue(value, mimeType);
+            }
+
+            @Override
+            public Value toJcrValue(String typeName, String stringValue) {
+                conversionCount[0]++;
+                return delegate.toJcrValue(typeName, stringValue);
+            }
+
+            @Override
+            public Value toJcrValue(BinaryValue binaryValue) {
+                conversionCount[0]++;
+                return delegate.toJcrValue(binaryValue);
+            }
+        };
+
+        binder.bindAll(variants, sourceNode, null, countingConverter);
+
+        assertEquals(3, conversionCount[0]);
+
+        for (Node variant : variants) {
+            assertEquals("Fan-out", variant.getProperty("title").getString());
+            assertTrue(variant.hasProperty("binaryProp"));
+            assertEquals("1", variant.getNode("child").getProperty("data").getString());
+        }
+    }
+
+    @Test
+    public void testPatchBindsOnlyGivenItemPaths() throws Exception {
+        MockNode parentNode = getRootNode().addNode("testPatch", "nt:unstructured");
+        parentNode.setProperty("ns1:title", "Old title");
+        parentNode.setProperty("ns1:summary", "Old summary");
+        parentNode.setProperty("ns1:obsolete", "Obsolete");
+        parentNode.addNode("ns1:items", "hippo:compound").setProperty("ns1:field", "Old field 1");
+        parentNode.addNode("ns1:items", "hippo:compound").setProperty("ns1:field", "Old field 2");
+        parentNode.addNode("ns1:unrelated", "hippo:compound");
+
+        ContentNode sourceNode = new ContentNode("testPatch", "nt:unstructured");
+        sourceNode.setProperty("ns1:title", "New title");
+        sourceNode.setProperty("ns1:summary", "New summary");
+
+        for (int i = 1; i <= 2; i++) {
+            ContentNode item = new ContentNode("ns1:items", "hippo:compound");
+            item.setProperty("ns1:field", "New field " + i);
+            sourceNode.addNode(item);
+        }
+
+        ContentNode link = new ContentNode("ns1:link", "hippo:mirror");
+        link.setProperty("hippo:docbase", "cafebabe-cafe-babe-cafe-babecafebabe");
+        sourceNode.addNode(new ContentNode("ns1:group", "nt:unstructured"));
+        sourceNode.getNode("ns1:group").addNode(link);
+
+        ContentNodeBindingStatistics statistics = binder.patch(parentNode, sourceNode,
+                Arrays.asList("ns1:title", "ns1:items[2]/ns1:field", "ns1:obsolete", "ns1:group/ns1:link"));
+
+        // the added ns1:group and ns1:link nodes.
+        assertEquals(2, statistics.getWrittenNodeCount());
+        assertEquals(0, statistics.getRemovedNodeCount());
+
+        assertEquals("New title", parentNode.getProperty("ns1:title").getString());
+        assertEquals("Old summary", parentNode.getProperty("ns1:summary").getString());
+        assertFalse(parentNode.hasProperty("ns1:obsolete"));
+        assertEquals("Old field 1", parentNode.getNode("ns1:items[1]").getProperty("ns1:field").getString());
+        assertEquals("New field 2", parentNode.getNode("ns1:items[2]").getProperty("ns1:field").getString());
+        assertTrue(parentNode.hasNode("ns1:unrelated"));
+        assertEquals("cafebabe-cafe-babe-cafe-babecafebabe",
+                parentNode.getNode("ns1:group/ns1:link").getProperty("hippo:docbase").getString());
+    }
+
+    @Test
+    public void testPatchRejectsSameNameSiblingIndexesThatCannotBeAdded() throws Exception {
+        MockNode parentNode = getRootNode().addNode("testPatchIndexes", "nt:unstructured");
+        parentNode.setProperty("ns1:title", "Old title");
+        parentNode.addNode("ns1:items", "hippo:compound").setProperty("ns1:field", "Old field 1");
+
+        ContentNode sourceNode = new ContentNode("testPatchIndexes", "nt:unstructured");
+        sourceNode.setProperty("ns1:title", "New title");
+
+        for (int i = 1; i <= 3; i++) {
+            ContentNode item = new ContentNode("ns1:items", "hippo:compound");
+            item.setProperty("ns1:field", "New field " + i);
+            sourceNode.addNode(item);
+        }
+
+        try {
+            binder.patch(parentNode, sourceNode, Arrays.asList("ns1:title", "ns1:items[3]/ns1:field"));
+            fail("ns1:items[3] cannot be added after a single ns1:items node.");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        // no path is applied when any of them is invalid.
+        assertEquals("Old title", parentNode.getProperty("ns1:title").getString());
+        assertFalse(parentNode.hasNode("ns1:items[2]"));
+
+        try {
+            binder.patch(parentNode, sourceNode, Arrays.asList("ns1:title", "ns1:items[0]"));
+            fail("ns1:items[0] is not a valid item path step.");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        assertEquals("Old title", parentNode.getProperty("ns1:title").getString());
+
+        // the same-name siblings added by the preceding paths count.
+        ContentNodeBindingStatistics statistics = binder.patch(parentNode, sourceNode,
+                Arrays.asList("ns1:items[2]/ns1:field", "ns1:items[3]", "ns1:items[2]"));
+
+        assertEquals(2, statistics.getWrittenNodeCount());
+        assertEquals("Old field 1", parentNode.getNode("ns1:items[1]").getProperty("ns1:field").getString());
+        assertEquals("New field 2", parentNode.getNode("ns1:items[2]").getProperty("ns1:field").getString());
+        assertEquals("New field 3", parentNode.getNode("ns1:items[3]").getProperty("ns1:field").getString());
+    }
+
+    @Test
+    public void testBindingInvokedByHookKeepsItsOwnState() throws Exception {
+        MockNode parentNode = getRootNode().addNode("testNested", "nt:unstructured");
+        MockNode auditNode = getRootNode().addNode("testNestedAudit", "nt:unstructured");
+
+        ContentNode sourceNode = new ContentNode("testNested", "nt:unstructured");
+        sourceNode.setProperty("title", "Nested");
+        sourceNode.addNode(new ContentNode("child", "nt:unstructured"));
+
+        ContentNode auditContent = new ContentNode("testNestedAudit", "nt:unstructured");
+        auditContent.setProperty("boundBy", "hook");
+        ContentNodeBindingContext auditContext = new ContentNodeBindingContext();
+
+        DefaultJcrContentNodeBinder hookBinder = new DefaultJcrContentNodeBinder() {
+            @Override
+            protected void bindProperties(Node jcrDataNode, ContentNode contentNode,
+                                          ContentNodeBindingItemFilter<ContentItem> itemFilter,
+                                          ContentValueConverter<Value> valueConverter) throws RepositoryException {
+                super.bindProperties(jcrDataNode, contentNode, itemFilter, valueConverter);
+
+                if ("child".equals(contentNode.getName())) {
+                    bind(auditNode, auditContent, null, null, auditContext);
+                }
+            }
+        };
+        hookBinder.setFingerprintPropertyName("fingerprint");
+
+        ContentNodeBindingContext context = new ContentNodeBindingContext();
+        hookBinder.bind(parentNode, sourceNode, null, null, context);
+
+        assertTrue(parentNode.hasProperty("fingerprint"));
+        assertFalse(parentNode.getNode("child").hasProperty("fingerprint"));
+        assertEquals(2, context.getBindingStatistics().getWrittenNodeCount());
+        assertEquals(2, context.getBindingStatistics().getWrittenPropertyCount());
+
+        // the binding in its own context is a root binding, fingerprinted and counted on its own.
+        assertEquals("hook", auditNode.getProperty("boundBy").getString());
+        assertTrue(auditNode.hasProperty("fingerprint"));
+        assertEquals(1, auditContext.getBindingStatistics().getWrittenNodeCount());
+        assertEquals(2, auditContext.getBindingStatistics().getWrittenPropertyCount());
+    }
+
+    @Test
+    public void testBindReportsMetrics() throws Exception {
+        MockNode parentNode = getRootNode().addNode("testMetrics", "nt:unstructured");
+        parentNode.addNode("obsolete", "hippo:compound");
+
+        ContentNode sourceNode = new ContentNode("testMetrics", "nt:unstructured");
+        sourceNode.setProperty("title", "Metrics");
+        sourceNode.setProperty("binaryProp", new BinaryValue("test binary data".getBytes(), "text/plain", "UTF-8"));
+        sourceNode.setProperty("link", ContentPropertyType.PATH, "/testMetrics");
+        ContentNode child = new ContentNode("child", "nt:unstructured");
+        child.setProperty("data", "1");
+        sourceNode.addNode(child);
+
+        InMemoryContentNodeMetrics metrics = new InMemoryContentNodeMetrics();
+        binder.setMetrics(metrics);
+        binder.setChangeDetectionMode(true);
+        binder.bind(parentNode, sourceNode);
+
+        assertEquals(2, metrics.getCount(ContentNodeMetrics.Counter.NODES_VISITED));
+        assertEquals(1, metrics.getCount(ContentNodeMetrics.Counter.NODES_ADDED));
+        assertEquals(1, metrics.getCount(ContentNodeMetrics.Counter.NODES_REMOVED));
+        assertEquals(4, metrics.getCount(ContentNodeMetrics.Counter.PROPERTIES_SET));
+        assertEquals(16, metrics.getCount(ContentNodeMetrics.Counter.BINARY_BYTES_WRITTEN));
+        assertEquals(1, metrics.getCount(ContentNodeMetrics.Counter.REFERENCE_LOOKUPS));
+        assertEquals(1, metrics.getHistogram(ContentNodeMetrics.Timer.BIND).getCount());
+        assertEquals(3, metrics.getHistogram(ContentNodeMetrics.Timer.VALUE_CONVERSION).getCount());
+
+        metrics.reset();
+        binder.bind(parentNode, sourceNode);
+
+        assertEquals(0, metrics.getCount(ContentNodeMetrics.Counter.PROPERTIES_SET));
+        assertEquals(4, metrics.getCount(ContentNodeMetrics.Counter.PROPERTIES_SKIPPED));
+        assertEquals(0, metrics.getHistogram(ContentNodeMetrics.Timer.JCR_WRITE).getCount());
+    }
+
+    @Test
+    public void testBindForwardReferenceInSameTree() throws Exception {
+        MockNode parentNode = getRootNode().addNode("testForwardReference", "nt:unstructured");
+
+        ContentNode sourceNode = new ContentNode("testForwardReference", "nt:unstructured");
+        ContentNode linkNode = new ContentNode("link", "nt:unstructured");
+        linkNode.setProperty("target", ContentPropertyType.PATH, "/testForwardReference/target");
+        linkNode.setProperty("missing", ContentPropertyType.PATH, "/testForwardReference/missing");
+        sourceNode.addNode(linkNode);
+        sourceNode.addNode(new ContentNode("target", "nt:unstructured"));
+
+        binder.bind(parentNode, sourceNode);
+
+        Node link = parentNode.getNode("link");
+        assertEquals(parentNode.getNode("target").getIdentifier(), link.getProperty("target").getString());
+        assertFalse(link.hasProperty("missing"));
+
+        ContentNodeBindingContext context = new ContentNodeBindingContext();
+        MockNode otherNode = getRootNode().addNode("testDeferredReference", "nt:unstructured");
+        ContentNode otherSourceNode = new ContentNode("testDeferredReference", "nt:unstructured");
+        otherSourceNode.setProperty("target", ContentPropertyType.PATH, "/testForwardReference/missing");
+
+        binder.bind(otherNode, otherSourceNode, null, null, context);
+
+        assertFalse(otherNode.hasProperty("target"));
+        assertEquals(1, context.getDeferredReferenceCount());
+
+        parentNode.addNode("missing", "nt:unstructured");
+        assertEquals(1, context.resolveDeferredReferences());
+        assertEquals(0, context.getDeferredReferenceCount());
+        assertEquals(parentNode.getNode("missing").getIdentifier(), otherNode.getProperty("target").getString());
+    }
+
+    @Test
+    public void testHookOutsideBindingResolvesForwardReferences() throws Exception {
+        MockNode parentNode = getRootNode().addNode("testHookForwardReference", "nt:unstructured");
+
+        ContentNode sourceNode = new ContentNode("testHookForwardReference", "nt:unstructured");
+        ContentNode linkNode = new ContentNode("link", "nt:unstructured");
+        linkNode.setProperty("target", ContentPropertyType.PATH, "/testHookForwardReference/target");
+        sourceNode.addNode(linkNode);
+        sourceNode.addNode(new ContentNode("target", "nt:unstructured"));
+
+        binder.addSubNodes(parentNode, sourceNode, new DefaultContentNodeJcrBindingItemFilter(),
+                new DefaultJcrContentValueConverter(parentNode.getSession()));
+
+        Node link = parentNode.getNode("link");
+        assertEquals(parentNode.getNode("target").getIdentifier(), link.getProperty("target").getString());
+    }
 }
@@ -0,0 +1,178 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.jcr.Node;
+import javax.jcr.Session;
+import javax.jcr.Value;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onehippo.forge.content.pojo.binder.ContentNodeBindingException;
+import org.onehippo.forge.content.pojo.binder.ContentNodeBindingItemFilter;
+import org.onehippo.forge.content.pojo.binder.ContentNodeBindingTargetPathResolver;
+import org.onehippo.forge.content.pojo.common.ContentValueConverter;
+import org.onehippo.forge.content.pojo.model.ContentItem;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.onehippo.forge.content.pojo.model.ContentPropertyType;
+import org.onehippo.repository.mock.MockNode;
+
+public class JcrContentNodeImporterTest {
+
+    private static final String DOCUMENT_TYPE = "myhippoproject:news";
+
+    private static final ContentNodeBindingTargetPathResolver TARGET_PATH_RESOLVER =
+            contentNode -> "/content/" + contentNode.getName();
+
+    private Session session;
+
+    @Before
+    public void setUp() throws Exception {
+        MockNode root = MockNode.root();
+        root.addNode("content", "nt:unstructured");
+        session = root.getSession();
+    }
+
+    @Test
+    public void testImportInBatches() throws Exception {
+        JcrContentNodeImporter importer = new JcrContentNodeImporter();
+        importer.setBatchSize(10);
+
+        ContentNodeImportResult result = importer.importNodes(session, createDocuments(25).iterator(),
+                TARGET_PATH_RESOLVER);
+
+        assertEquals(25, result.getDocumentCount());
+        assertEquals(3, result.getBatchCount());
+        assertEquals(0, result.getRetriedBatchCount());
+        assertTrue(result.getFailedPaths().isEmpty());
+        assertTrue(result.getByteCount() > 0);
+        assertFalse(session.hasPendingChanges());
+
+        for (int i = 0; i < 25; i++) {
+            Node node = session.getNode("/content/doc" + i);
+            assertEquals(DOCUMENT_TYPE, node.getPrimaryNodeType().getName());
+            assertEquals("Document " + i, node.getProperty("myhippoproject:title").getString());
+        }
+    }
+
+    @Test
+    public void testImportInBatchesBoundedByBytes() throws Exception {
+        JcrContentNodeImporter importer = new JcrContentNodeImporter();
+        importer.setBatchByteSize(1);
+
+        ContentNodeImportResult result = importer.importNodes(session, createDocuments(5).iterator(),
+                TARGET_PATH_RESOLVER);
+
+        assertEquals(5, result.getDocumentCount());
+        assertEquals(5, result.getBatchCount());
+    }
+
+    @Test
+    public void testRetryFailedBatchDocumentByDocument() throws Exception {
+        DefaultJcrContentNodeBinder failingBinder = new DefaultJcrContentNodeBinder() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void bind(Node jcrDataNode, ContentNode contentNode,
+                    ContentNodeBindingItemFilter<ContentItem> itemFilter, ContentValueConverter<Value> valueConverter)
+                    throws ContentNodeBindingException {
+                if ("doc3".equals(contentNode.getName())) {
+                    throw new ContentNodeBindingException("Invalid document.");
+                }
+
+                super.bind(jcrDataNode, contentNode, itemFilter, valueConverter);
+            }
+        };
+
+        JcrContentNodeImporter importer = new JcrContentNodeImporter(failingBinder, null);
+        importer.setBatchSize(4);
+
+        ContentNodeImportResult result = importer.importNodes(session, createDocuments(10).iterator(),
+                TARGET_PATH_RESOLVER);
+
+        assertEquals(9, result.getDocumentCount());
+        assertEquals(1, result.getRetriedBatchCount());
+        assertEquals(Arrays.asList("/content/doc3"), result.getFailedPaths());
+        assertEquals(3 + 2, result.getBatchCount());
+        assertTrue(session.nodeExists("/content/doc9"));
+    }
+
+    @Test
+    public void testImportWithMissingFolders() throws Exception {
+        ContentNodeBindingTargetPathResolver resolver = contentNode -> "/content/news/2025/" + contentNode.getName();
+
+        JcrContentNodeImporter importer = new JcrContentNodeImporter();
+        ContentNodeImportResult result = importer.importNodes(session, createDocuments(2).iterator(), resolver);
+
+        assertEquals(0, result.getDocumentCount());
+        assertEquals(Arrays.asList("/content/news/2025/doc0", "/content/news/2025/doc1"), result.getFailedPaths());
+
+        importer.setFolderNodeType("hippostd:folder");
+        result = importer.importNodes(session, createDocuments(2).iterator(), resolver);
+
+        assertEquals(2, result.getDocumentCount());
+        assertTrue(result.getFailedPaths().isEmpty());
+        assertEquals("hippostd:folder", session.getNode("/content/news/2025").getPrimaryNodeType().getName());
+        assertTrue(session.nodeExists("/content/news/2025/doc1"));
+    }
+
+    @Test
+    public void testResolveForwardReferencesAcrossBatches() throws Exception {
+        List<ContentNode> documents = createDocuments(10);
+        documents.get(0).setProperty("myhippoproject:related", ContentPropertyType.PATH, "/content/doc2");
+        documents.get(1).setProperty("myhippoproject:related", ContentPropertyType.PATH, "/content/doc8");
+        documents.get(3).setProperty("myhippoproject:related", ContentPropertyType.PATH, "/content/missing");
+
+        JcrContentNodeImporter importer = new JcrContentNodeImporter();
+        importer.setBatchSize(5);
+
+        ContentNodeImportResult result = importer.importNodes(session, documents.iterator(), TARGET_PATH_RESOLVER);
+
+        assertEquals(10, result.getDocumentCount());
+        assertEquals(1, result.getUnresolvedReferenceCount());
+        assertFalse(session.hasPendingChanges());
+        assertEquals(session.getNode("/content/doc2").getIdentifier(),
+                session.getNode("/content/doc0").getProperty("myhippoproject:related").getString());
+        assertEquals(session.getNode("/content/doc8").getIdentifier(),
+                session.getNode("/content/doc1").getProperty("myhippoproject:related").getString());
+        assertFalse(session.getNode("/content/doc3").hasProperty("myhippoproject:related"));
+    }
+
+    private List<ContentNode> createDocuments(int count) {
+        List<ContentNode> documents = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            ContentNode document = new ContentNode("doc" + i, DOCUMENT_TYPE);
+            document.setProperty("myhippoproject:title", "Document " + i);
+
+            ContentNode body = new ContentNode("myhippoproject:body", "hippostd:html");
+            body.setProperty("hippostd:content", "<p>Body of document " + i + "</p>");
+            document.addNode(body);
+
+            documents.add(document);
+        }
+
+        return documents;
+    }
+}
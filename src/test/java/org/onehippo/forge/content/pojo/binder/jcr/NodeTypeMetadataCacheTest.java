@@ -0,0 +1,142 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jcr.Node;
+import javax.jcr.nodetype.NoSuchNodeTypeException;
+import javax.jcr.nodetype.NodeType;
+import javax.jcr.nodetype.NodeTypeManager;
+import javax.jcr.nodetype.PropertyDefinition;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onehippo.repository.mock.MockNode;
+
+public class NodeTypeMetadataCacheTest {
+
+    private final Map<String, NodeType> nodeTypes = new HashMap<>();
+
+    private final AtomicInteger nodeTypeLookupCount = new AtomicInteger();
+
+    private NodeTypeMetadataCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        NodeType compound = createNodeType("hippo:compound");
+        NodeType referenceable = createNodeType("mix:referenceable", createPropertyDefinition("jcr:uuid", true));
+        nodeTypes.put("hippo:compound", compound);
+        nodeTypes.put("mix:referenceable", referenceable);
+        nodeTypes.put("myhippoproject:imagelink", createNodeType("myhippoproject:imagelink",
+                new NodeType[] { compound }, createPropertyDefinition("title", false),
+                createPropertyDefinition("*", true)));
+
+        NodeTypeManager nodeTypeManager = proxy(NodeTypeManager.class, (method, args) -> {
+            nodeTypeLookupCount.incrementAndGet();
+            NodeType nodeType = nodeTypes.get((String) args[0]);
+            if (nodeType == null) {
+                throw new NoSuchNodeTypeException((String) args[0]);
+            }
+            return nodeType;
+        });
+        cache = new NodeTypeMetadataCache(Collections.singleton("hippo:compound")) {
+            @Override
+            NodeTypeManager getNodeTypeManager(Node node) {
+                return nodeTypeManager;
+            }
+        };
+    }
+
+    @Test
+    public void testMetadataResolvedOncePerTypes() throws Exception {
+        MockNode root = MockNode.root();
+        MockNode link1 = root.addNode("link1", "myhippoproject:imagelink");
+        link1.addMixin("mix:referenceable");
+        MockNode link2 = root.addNode("link2", "myhippoproject:imagelink");
+        link2.addMixin("mix:referenceable");
+
+        NodeTypeMetadataCache.NodeTypeMetadata metadata = cache.getMetadata(link1);
+
+        assertTrue(metadata.isCompound());
+        assertTrue(metadata.isNodeType("myhippoproject:imagelink"));
+        assertTrue(metadata.isNodeType("hippo:compound"));
+        assertTrue(metadata.isNodeType("mix:referenceable"));
+        assertFalse(metadata.isNodeType("hippostd:html"));
+        assertTrue(metadata.isProtectedProperty("jcr:uuid"));
+        assertFalse(metadata.isProtectedProperty("title"));
+        assertFalse(metadata.isProtectedProperty("*"));
+
+        assertSame(metadata, cache.getMetadata(link2));
+        assertEquals(2, nodeTypeLookupCount.get());
+
+        NodeTypeMetadataCache.NodeTypeMetadata plainMetadata = cache.getMetadata(root.addNode("link3",
+                "myhippoproject:imagelink"));
+        assertFalse(plainMetadata.isProtectedProperty("jcr:uuid"));
+        assertTrue(plainMetadata.isCompound());
+    }
+
+    @Test
+    public void testUnresolvableMetadata() throws Exception {
+        MockNode node = MockNode.root().addNode("unknown", "nt:unknown");
+
+        assertNull(cache.getMetadata(node));
+        assertNull(cache.getMetadata(node));
+        assertEquals(1, nodeTypeLookupCount.get());
+    }
+
+    private static NodeType createNodeType(String name, PropertyDefinition ... propDefs) {
+        return createNodeType(name, new NodeType[0], propDefs);
+    }
+
+    private static NodeType createNodeType(String name, NodeType[] supertypes, PropertyDefinition ... propDefs) {
+        return proxy(NodeType.class, (method, args) -> {
+            switch (method) {
+            case "getName":
+                return name;
+            case "getSupertypes":
+                return supertypes;
+            case "getPropertyDefinitions":
+                return propDefs;
+            default:
+                throw new UnsupportedOperationException(method);
+            }
+        });
+    }
+
+    private static PropertyDefinition createPropertyDefinition(String name, boolean protectedProp) {
+        return proxy(PropertyDefinition.class, (method, args) -> "isProtected".equals(method) ? protectedProp : name);
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args) throws Exception;
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(NodeTypeMetadataCacheTest.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> handler.invoke(method.getName(), args)));
+    }
+}
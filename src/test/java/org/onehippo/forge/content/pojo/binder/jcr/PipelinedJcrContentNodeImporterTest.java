@@ -0,0 +1,239 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.binder.jcr;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.Session;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.VFS;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onehippo.forge.content.pojo.binder.ContentNodeBindingTargetPathResolver;
+import org.onehippo.forge.content.pojo.common.json.DefaultBinaryValueSink;
+import org.onehippo.forge.content.pojo.model.BinaryValue;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.onehippo.forge.content.pojo.model.ContentProperty;
+import org.onehippo.forge.content.pojo.model.ContentPropertyType;
+import org.onehippo.repository.mock.MockNode;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class PipelinedJcrContentNodeImporterTest {
+
+    private static final String DOCUMENT_TYPE = "myhippoproject:news";
+
+    private static final ContentNodeBindingTargetPathResolver TARGET_PATH_RESOLVER =
+            contentNode -> "/content/" + contentNode.getName();
+
+    private Session session;
+
+    private File binaryFolder;
+
+    private PipelinedJcrContentNodeImporter importer;
+
+    @Before
+    public void setUp() throws Exception {
+        MockNode root = MockNode.root();
+        root.addNode("content", "nt:unstructured");
+        session = root.getSession();
+
+        binaryFolder = Files.createTempDirectory("pipelined-importer-test").toFile();
+
+        importer = new PipelinedJcrContentNodeImporter(3);
+        importer.setQueueCapacity(2);
+        importer.setBatchSize(4);
+        importer.setBinaryValueSink(new DefaultBinaryValueSink(VFS.getManager().toFileObject(binaryFolder)));
+        importer.setBinaryValueSinkThreshold(1024);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(binaryFolder);
+    }
+
+    @Test
+    public void testImportNdjsonInSourceOrder() throws Exception {
+        List<ContentNode> documents = createDocuments(20);
+        ContentNodeImportResult result = importer.importNdjson(session, toNdjson(documents), TARGET_PATH_RESOLVER);
+
+        assertEquals(20, result.getDocumentCount());
+        assertEquals(5, result.getBatchCount());
+        assertTrue(result.getFailedPaths().isEmpty());
+        assertImportedDocuments(20);
+        assertEquals(0, binaryFolder.list().length);
+    }
+
+    @Test
+    public void testImportNodesPreDecodingBinaries() throws Exception {
+        AtomicInteger createdFileCount = new AtomicInteger();
+        importer.setBinaryValueSink(new DefaultBinaryValueSink(VFS.getManager().toFileObject(binaryFolder)) {
+            @Override
+            public FileObject createFile(String mediaType, String charset) throws IOException {
+                createdFileCount.incrementAndGet();
+                return super.createFile(mediaType, charset);
+            }
+        });
+
+        List<ContentNode> documents = createDocuments(9);
+        ContentNodeImportResult result = importer.importNodes(session, documents.iterator(), TARGET_PATH_RESOLVER);
+
+        assertEquals(9, result.getDocumentCount());
+        assertImportedDocuments(9);
+        assertEquals(5, createdFileCount.get());
+        assertEquals(0, binaryFolder.list().length);
+
+        // the given content nodes are left intact, the binary values having been pre-decoded in clones.
+        assertEquals(createDocuments(9), documents);
+    }
+
+    @Test
+    public void testConcurrentImportsBySameImporter() throws Exception {
+        int importCount = 4;
+        List<Session> sessions = new ArrayList<>();
+        List<Future<ContentNodeImportResult>> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(importCount);
+
+        try {
+            for (int i = 0; i < importCount; i++) {
+                MockNode root = MockNode.root();
+                root.addNode("content", "nt:unstructured");
+                Session importSession = root.getSession();
+                sessions.add(importSession);
+                results.add(executor.submit(() -> importer.importNdjson(importSession, toNdjson(createDocuments(20)),
+                        TARGET_PATH_RESOLVER)));
+            }
+
+            for (int i = 0; i < importCount; i++) {
+                ContentNodeImportResult result = results.get(i).get();
+                assertEquals(20, result.getDocumentCount());
+                assertTrue(result.getFailedPaths().isEmpty());
+                session = sessions.get(i);
+                assertImportedDocuments(20);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, binaryFolder.list().length);
+    }
+
+    @Test
+    public void testImportNdjsonWithInvalidLine() throws Exception {
+        List<ContentNode> documents = createDocuments(3);
+        ObjectMapper objectMapper = new ObjectMapper();
+        String ndjson = objectMapper.writeValueAsString(documents.get(0)) + "\n"
+                + "{\"name\":\"broken\"," + "\n"
+                + objectMapper.writeValueAsString(documents.get(1)) + "\n\n"
+                + objectMapper.writeValueAsString(documents.get(2)) + "\n";
+
+        ContentNodeImportResult result = importer.importNdjson(session,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), TARGET_PATH_RESOLVER);
+
+        assertEquals(3, result.getDocumentCount());
+        assertEquals(Arrays.asList("source #1"), result.getFailedPaths());
+        assertImportedDocuments(3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParserThreadCount() throws Exception {
+        new PipelinedJcrContentNodeImporter(0);
+    }
+
+    private void assertImportedDocuments(int count) throws Exception {
+        List<String> names = new ArrayList<>();
+
+        for (NodeIterator it = session.getNode("/content").getNodes(); it.hasNext();) {
+            names.add(it.nextNode().getName());
+        }
+
+        assertEquals(count, names.size());
+
+        for (int i = 0; i < count; i++) {
+            assertEquals("doc" + i, names.get(i));
+
+            Node node = session.getNode("/content/doc" + i);
+            assertEquals("Document " + i, node.getProperty("myhippoproject:title").getString());
+            assertArrayEquals(createBinaryData(i),
+                    IOUtils.toByteArray(node.getNode("myhippoproject:attachment").getProperty("jcr:data")
+                            .getBinary().getStream()));
+        }
+    }
+
+    private List<ContentNode> createDocuments(int count) {
+        List<ContentNode> documents = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            ContentNode document = new ContentNode("doc" + i, DOCUMENT_TYPE);
+            document.setProperty("myhippoproject:title", "Document " + i);
+
+            ContentNode attachment = new ContentNode("myhippoproject:attachment", "hippo:resource");
+            attachment.setProperty("jcr:mimeType", "application/octet-stream");
+            ContentProperty data = new ContentProperty("jcr:data", ContentPropertyType.BINARY);
+            data.setValue(BinaryValue.toDataURI(createBinaryData(i), "application/octet-stream", null));
+            attachment.setProperty(data);
+            document.addNode(attachment);
+
+            documents.add(document);
+        }
+
+        return documents;
+    }
+
+    private byte[] createBinaryData(int index) {
+        byte[] data = new byte[(index % 2 == 0) ? 4096 + index : 100 + index];
+
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31 + index);
+        }
+
+        return data;
+    }
+
+    private ByteArrayInputStream toNdjson(List<ContentNode> documents) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        for (ContentNode document : documents) {
+            output.write(objectMapper.writeValueAsBytes(document));
+            output.write('\n');
+        }
+
+        return new ByteArrayInputStream(output.toByteArray());
+    }
+}
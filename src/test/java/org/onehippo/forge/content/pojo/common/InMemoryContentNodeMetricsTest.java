@@ -0,0 +1,57 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class InMemoryContentNodeMetricsTest {
+
+    @Test
+    public void testCountersAndHistograms() throws Exception {
+        InMemoryContentNodeMetrics metrics = new InMemoryContentNodeMetrics();
+        assertTrue(metrics.isEnabled());
+        assertFalse(ContentNodeMetrics.NOOP.isEnabled());
+
+        metrics.increment(ContentNodeMetrics.Counter.NODES_ADDED, 2);
+        metrics.increment(ContentNodeMetrics.Counter.NODES_ADDED, 3);
+        assertEquals(5, metrics.getCount(ContentNodeMetrics.Counter.NODES_ADDED));
+        assertEquals(0, metrics.getCount(ContentNodeMetrics.Counter.NODES_REMOVED));
+
+        for (int i = 0; i < 99; i++) {
+            metrics.record(ContentNodeMetrics.Timer.BIND, 1000);
+        }
+        metrics.record(ContentNodeMetrics.Timer.BIND, 1000000);
+
+        InMemoryContentNodeMetrics.Histogram histogram = metrics.getHistogram(ContentNodeMetrics.Timer.BIND);
+        assertEquals(100, histogram.getCount());
+        assertEquals(99 * 1000 + 1000000, histogram.getTotalNanos());
+        assertEquals(1000000, histogram.getMaxNanos());
+        assertEquals(99, histogram.getBucketCount(9));
+        assertEquals(1023, histogram.getPercentileNanos(50));
+        assertEquals(1023, histogram.getPercentileNanos(99));
+        assertEquals(1000000, histogram.getPercentileNanos(100));
+        assertTrue(metrics.toString(), metrics.toString().contains("NODES_ADDED 5\n"));
+
+        metrics.reset();
+        assertEquals(0, metrics.getCount(ContentNodeMetrics.Counter.NODES_ADDED));
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(50));
+    }
+}
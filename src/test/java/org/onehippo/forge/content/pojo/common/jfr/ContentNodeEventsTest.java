@@ -0,0 +1,131 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.common.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onehippo.forge.content.pojo.binder.jcr.DefaultJcrContentNodeBinder;
+import org.onehippo.forge.content.pojo.common.jcr.BaseHippoJcrContentNodeTest;
+import org.onehippo.forge.content.pojo.mapper.jcr.DefaultJcrContentNodeMapper;
+import org.onehippo.forge.content.pojo.model.BinaryValue;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.onehippo.forge.content.pojo.model.ContentPropertyType;
+import org.onehippo.repository.mock.MockNode;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class ContentNodeEventsTest extends BaseHippoJcrContentNodeTest {
+
+    private DefaultJcrContentNodeBinder binder;
+    private DefaultJcrContentNodeMapper mapper;
+
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        binder = new DefaultJcrContentNodeBinder();
+        mapper = new DefaultJcrContentNodeMapper();
+    }
+
+    @Test
+    public void testEventsDisabledByDefault() throws Exception {
+        List<RecordedEvent> events = record(false);
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void testBindAndMapEvents() throws Exception {
+        List<RecordedEvent> events = record(true);
+
+        List<RecordedEvent> bindEvents = filter(events, ContentNodeBindEvent.NAME);
+        assertEquals(1, bindEvents.size());
+        assertEquals("/testEvents", bindEvents.get(0).getString("path"));
+        assertEquals(2, bindEvents.get(0).getLong("nodeCount"));
+        assertFalse(bindEvents.get(0).getDuration().isNegative());
+
+        List<RecordedEvent> mapEvents = filter(events, ContentNodeMapEvent.NAME);
+        assertEquals(1, mapEvents.size());
+        assertEquals("/testEvents", mapEvents.get(0).getString("path"));
+        assertEquals(2, mapEvents.get(0).getLong("nodeCount"));
+
+        List<RecordedEvent> binaryEvents = filter(events, BinaryConversionEvent.NAME);
+        assertEquals(2, binaryEvents.size());
+        assertTrue(binaryEvents.get(0).getBoolean("toJcr"));
+        assertEquals("binaryProp", binaryEvents.get(0).getString("propertyName"));
+        assertEquals(16, binaryEvents.get(0).getLong("size"));
+        assertFalse(binaryEvents.get(1).getBoolean("toJcr"));
+        assertEquals("/testEvents/binaryProp", binaryEvents.get(1).getString("path"));
+        assertEquals(16, binaryEvents.get(1).getLong("size"));
+
+        List<RecordedEvent> referenceEvents = filter(events, ReferenceResolutionEvent.NAME);
+        assertEquals(2, referenceEvents.size());
+
+        for (RecordedEvent referenceEvent : referenceEvents) {
+            assertEquals("/testEvents", referenceEvent.getString("path"));
+            assertEquals("link", referenceEvent.getString("propertyName"));
+            assertEquals("/testEventsTarget", referenceEvent.getString("referencePath"));
+            assertTrue(referenceEvent.getBoolean("resolved"));
+        }
+    }
+
+    private List<RecordedEvent> record(boolean enabled) throws Exception {
+        getRootNode().addNode("testEventsTarget", "nt:unstructured");
+        MockNode parentNode = getRootNode().addNode("testEvents", "nt:unstructured");
+
+        ContentNode sourceNode = new ContentNode("testEvents", "nt:unstructured");
+        sourceNode.setProperty("binaryProp", new BinaryValue("test binary data".getBytes(), "text/plain", "UTF-8"));
+        sourceNode.setProperty("link", ContentPropertyType.PATH, "/testEventsTarget");
+        sourceNode.addNode(new ContentNode("child", "nt:unstructured"));
+
+        Path file = Files.createTempFile("content-node-events", ".jfr");
+
+        try (Recording recording = new Recording()) {
+            if (enabled) {
+                recording.enable(ContentNodeBindEvent.NAME);
+                recording.enable(ContentNodeMapEvent.NAME);
+                recording.enable(BinaryConversionEvent.NAME);
+                recording.enable(ReferenceResolutionEvent.NAME);
+            }
+
+            recording.start();
+            binder.bind(parentNode, sourceNode);
+            mapper.map(parentNode);
+            recording.stop();
+            recording.dump(file);
+
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().startsWith("org.onehippo.forge.content.pojo."))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> filter(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> name.equals(event.getEventType().getName()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.common.json;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.onehippo.forge.content.pojo.model.BinaryValue;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.onehippo.forge.content.pojo.model.ContentNodeTruncation;
+import org.onehippo.forge.content.pojo.model.ContentProperty;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class ContentNodeJsonReaderWriterTest {
+
+    private static final String NEWS_CONTENT_JSON_RESOURCE = "/org/onehippo/forge/content/pojo/binder/jcr/news-harvest.json";
+    private static final String IMAGE_SET_CONTENT_JSON_RESOURCE = "/org/onehippo/forge/content/pojo/binder/jcr/animal-2883_640.json";
+
+    private ObjectMapper objectMapper;
+    private ContentNode newsContentNode;
+    private ContentNode imageSetContentNode;
+
+    @Before
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper();
+
+        try (InputStream input = ContentNodeJsonReaderWriterTest.class.getResourceAsStream(NEWS_CONTENT_JSON_RESOURCE)) {
+            newsContentNode = objectMapper.readValue(input, ContentNode.class);
+        }
+
+        try (InputStream input = ContentNodeJsonReaderWriterTest.class.getResourceAsStream(IMAGE_SET_CONTENT_JSON_RESOURCE)) {
+            imageSetContentNode = objectMapper.readValue(input, ContentNode.class);
+        }
+    }
+
+    @Test
+    public void testWriteInSameFormatAsJackson() throws Exception {
+        assertEquals(objectMapper.writeValueAsString(newsContentNode), writeToString(newsContentNode));
+        assertEquals(objectMapper.writeValueAsString(imageSetContentNode), writeToString(imageSetContentNode));
+
+        ContentNode emptyNode = new ContentNode("empty", null);
+        emptyNode.setProperty(new ContentProperty("noValue", null));
+        emptyNode.addNode(new ContentNode("child", "nt:unstructured"));
+        assertEquals(objectMapper.writeValueAsString(emptyNode), writeToString(emptyNode));
+
+        ContentNode truncatedNode = (ContentNode) newsContentNode.clone();
+        truncatedNode.setTruncation(ContentNodeTruncation.NODES);
+        truncatedNode.getNodes().get(0).setTruncation(ContentNodeTruncation.DEPTH);
+        assertEquals(objectMapper.writeValueAsString(truncatedNode), writeToString(truncatedNode));
+    }
+
+    @Test
+    public void testReadAndWriteTruncatedNodes() throws Exception {
+        ContentNode truncatedNode = (ContentNode) newsContentNode.clone();
+        truncatedNode.setTruncation(ContentNodeTruncation.CHILD_NODES);
+        ContentNode truncatedChildNode = truncatedNode.getNodes().get(0);
+        truncatedChildNode.setTruncation(ContentNodeTruncation.BINARY_BYTES);
+
+        String json = writeToString(truncatedNode);
+        ContentNode contentNode;
+
+        try (ContentNodeJsonReader reader = new ContentNodeJsonReader(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))) {
+            contentNode = reader.readNode();
+        }
+
+        assertEquals(truncatedNode, contentNode);
+        assertEquals(ContentNodeTruncation.CHILD_NODES, contentNode.getTruncation());
+        assertEquals(ContentNodeTruncation.BINARY_BYTES, contentNode.getNodes().get(0).getTruncation());
+        assertEquals(json, writeToString(contentNode));
+        assertEquals(ContentNodeTruncation.CHILD_NODES,
+                objectMapper.readValue(json, ContentNode.class).getTruncation());
+    }
+
+    @Test
+    public void testReadSameAsJackson() throws Exception {
+        try (ContentNodeJsonReader reader = new ContentNodeJsonReader(
+                ContentNodeJsonReaderWriterTest.class.getResourceAsStream(NEWS_CONTENT_JSON_RESOURCE))) {
+            ContentNode contentNode = reader.readNode();
+            assertEquals(newsContentNode, contentNode);
+            assertEquals(newsContentNode.getNodes().get(0).getIndex(), contentNode.getNodes().get(0).getIndex());
+            assertNull(reader.readNode());
+        }
+    }
+
+    @Test
+    public void testStreamingMultipleRootNodes() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (ContentNodeJsonWriter writer = new ContentNodeJsonWriter(output)) {
+            writer.getGenerator().setRootValueSeparator(new SerializedString("\n"));
+            writer.writeNode(newsContentNode);
+            writer.writeNode(imageSetContentNode);
+        }
+
+        String ndjson = output.toString(StandardCharsets.UTF_8);
+        assertEquals(objectMapper.writeValueAsString(newsContentNode) + "\n"
+                + objectMapper.writeValueAsString(imageSetContentNode), ndjson);
+
+        // pipe the events from the reader straight to another writer.
+        ByteArrayOutputStream pipedOutput = new ByteArrayOutputStream();
+
+        try (ContentNodeJsonReader reader = new ContentNodeJsonReader(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+                ContentNodeJsonWriter writer = new ContentNodeJsonWriter(pipedOutput)) {
+            writer.getGenerator().setRootValueSeparator(new SerializedString("\n"));
+            assertTrue(reader.read(writer));
+            assertTrue(reader.read(writer));
+            assertFalse(reader.read(writer));
+        }
+
+        assertEquals(ndjson, pipedOutput.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testStreamingBinaryValuesThroughSink() throws Exception {
+        ContentProperty dataProp = imageSetContentNode.getNode("animal-2883_640.jpg")
+                .getNode("hippogallery:thumbnail").getProperty("jcr:data");
+        final String dataUri = dataProp.getValue();
+        final byte [] data = IOUtils.toByteArray(BinaryValue.fromDataURI(dataUri).getStream());
+
+        ContentNode binaryContentNode;
+
+        try (ContentNodeJsonReader reader = new ContentNodeJsonReader(
+                ContentNodeJsonReaderWriterTest.class.getResourceAsStream(IMAGE_SET_CONTENT_JSON_RESOURCE))) {
+            reader.setBinaryValueSink(new DefaultBinaryValueSink());
+            reader.setBinaryValueSinkThreshold(1024);
+            binaryContentNode = reader.readNode();
+        }
+
+        ContentProperty storedDataProp = binaryContentNode.getNode("animal-2883_640.jpg")
+                .getNode("hippogallery:thumbnail").getProperty("jcr:data");
+        assertFalse(storedDataProp.getValue().startsWith("data:"));
+
+        BinaryValue storedBinaryValue = (BinaryValue) storedDataProp.getValueAsObject();
+
+        try {
+            assertArrayEquals(data, IOUtils.toByteArray(storedBinaryValue.getStream()));
+        } finally {
+            storedBinaryValue.dispose();
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (ContentNodeJsonWriter writer = new ContentNodeJsonWriter(output)) {
+            writer.setInlineExternalBinaries(true);
+            writer.writeNode(binaryContentNode.getNode("animal-2883_640.jpg").getNode("hippogallery:thumbnail"));
+        }
+
+        ContentNode inlinedContentNode = objectMapper.readValue(output.toByteArray(), ContentNode.class);
+        assertEquals(dataUri, inlinedContentNode.getProperty("jcr:data").getValue());
+    }
+
+    private String writeToString(final ContentNode contentNode) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (ContentNodeJsonWriter writer = new ContentNodeJsonWriter(output)) {
+            writer.writeNode(contentNode);
+        }
+
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
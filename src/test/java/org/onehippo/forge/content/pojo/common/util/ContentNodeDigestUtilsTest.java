@@ -0,0 +1,148 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.common.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.onehippo.forge.content.pojo.model.ContentPropertyType;
+
+public class ContentNodeDigestUtilsTest {
+
+    private File tempFolder;
+
+    @Before
+    public void setUp() throws Exception {
+        tempFolder = Files.createTempDirectory("content-node-digest-test").toFile();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(tempFolder);
+    }
+
+    @Test
+    public void testDigestIsStable() throws Exception {
+        ContentNode node1 = createContentNode();
+        ContentNode node2 = createContentNode();
+
+        assertEquals(64, ContentNodeDigestUtils.digest(node1).length());
+        assertEquals(ContentNodeDigestUtils.digest(node1), ContentNodeDigestUtils.digest(node2));
+
+        // property order is not significant.
+        ContentNode reordered = new ContentNode("doc", "myhippoproject:news");
+        reordered.addMixinType("mix:referenceable");
+        reordered.setProperty("myhippoproject:date", ContentPropertyType.DATE, "2015-11-25T00:00:00.000-05:00");
+        reordered.setProperty("myhippoproject:title", "Title");
+        reordered.addNode(new ContentNode("first", "hippo:compound"));
+        reordered.addNode(new ContentNode("second", "hippo:compound"));
+        assertEquals(ContentNodeDigestUtils.digest(node1), ContentNodeDigestUtils.digest(reordered));
+
+        node2.setProperty("fingerprint", "abc");
+        assertNotEquals(ContentNodeDigestUtils.digest(node1), ContentNodeDigestUtils.digest(node2));
+        assertEquals(ContentNodeDigestUtils.digest(node1), ContentNodeDigestUtils.digest(node2, "fingerprint"));
+    }
+
+    @Test
+    public void testDigestCoversValuesAndChildOrder() throws Exception {
+        String digest = ContentNodeDigestUtils.digest(createContentNode());
+
+        ContentNode changedValue = createContentNode();
+        changedValue.setProperty("myhippoproject:title", "Title!");
+        assertNotEquals(digest, ContentNodeDigestUtils.digest(changedValue));
+
+        ContentNode changedType = createContentNode();
+        changedType.getProperty("myhippoproject:title").setType(ContentPropertyType.UNDEFINED);
+        assertNotEquals(digest, ContentNodeDigestUtils.digest(changedType));
+
+        ContentNode changedChildOrder = createContentNode();
+        changedChildOrder.addNode(changedChildOrder.getNodes().remove(0));
+        assertNotEquals(digest, ContentNodeDigestUtils.digest(changedChildOrder));
+
+        ContentNode changedChild = createContentNode();
+        changedChild.getNodes().get(1).setProperty("data", "x");
+        assertNotEquals(digest, ContentNodeDigestUtils.digest(changedChild));
+    }
+
+    @Test
+    public void testDigestReusesSubtreeDigests() throws Exception {
+        ContentNode contentNode = createContentNode();
+        ContentNode first = contentNode.getNodes().get(0);
+        Map<ContentNode, String> digests = new IdentityHashMap<>();
+
+        String digest = ContentNodeDigestUtils.digest(contentNode, digests, "fingerprint");
+        assertEquals(ContentNodeDigestUtils.digest(contentNode, "fingerprint"), digest);
+        assertEquals(3, digests.size());
+        assertEquals(ContentNodeDigestUtils.digest(first, "fingerprint"), digests.get(first));
+
+        // the digests of the subtrees already computed are not computed again.
+        digests.remove(contentNode);
+        digests.put(first, "0");
+        assertNotEquals(digest, ContentNodeDigestUtils.digest(contentNode, digests, "fingerprint"));
+    }
+
+    @Test
+    public void testDigestCoversExternalBinaryContentNotUrl() throws Exception {
+        File tempFile1 = writeFile("binary1.tmp", "image data");
+        File tempFile2 = writeFile("binary2.tmp", "image data");
+
+        // the same content at different temporary file URLs.
+        assertEquals(ContentNodeDigestUtils.digest(createBinaryContentNode(tempFile1)),
+                ContentNodeDigestUtils.digest(createBinaryContentNode(tempFile2)));
+    }
+
+    @Test
+    public void testDigestChangesWithContentAtReusedUrl() throws Exception {
+        File file = writeFile("img.png", "image data");
+        String digest = ContentNodeDigestUtils.digest(createBinaryContentNode(file));
+
+        writeFile("img.png", "changed image data");
+        assertNotEquals(digest, ContentNodeDigestUtils.digest(createBinaryContentNode(file)));
+    }
+
+    private File writeFile(String name, String content) throws Exception {
+        File file = new File(tempFolder, name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private ContentNode createBinaryContentNode(File file) throws Exception {
+        ContentNode contentNode = new ContentNode("image", "hippogallery:image");
+        contentNode.setProperty("jcr:data", ContentPropertyType.BINARY, file.toURI().toURL().toString());
+        return contentNode;
+    }
+
+    private ContentNode createContentNode() {
+        ContentNode contentNode = new ContentNode("doc", "myhippoproject:news");
+        contentNode.addMixinType("mix:referenceable");
+        contentNode.setProperty("myhippoproject:title", "Title");
+        contentNode.setProperty("myhippoproject:date", ContentPropertyType.DATE, "2015-11-25T00:00:00.000-05:00");
+        contentNode.addNode(new ContentNode("first", "hippo:compound"));
+        contentNode.addNode(new ContentNode("second", "hippo:compound"));
+        return contentNode;
+    }
+}
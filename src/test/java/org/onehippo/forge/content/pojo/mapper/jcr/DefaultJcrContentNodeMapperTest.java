@@ -15,11 +15,15 @@
  */
 package org.onehippo.forge.content.pojo.mapper.jcr;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.List;
 
 import javax.jcr.Item;
@@ -32,10 +36,15 @@ import org.hippoecm.repository.HippoStdNodeType;
 import org.hippoecm.repository.api.HippoNodeType;
 import org.junit.Before;
 import org.junit.Test;
+import org.onehippo.forge.content.pojo.common.ContentNodeMetrics;
+import org.onehippo.forge.content.pojo.common.ContentNodeTreeBuilder;
+import org.onehippo.forge.content.pojo.common.InMemoryContentNodeMetrics;
 import org.onehippo.forge.content.pojo.common.jcr.BaseHippoJcrContentNodeTest;
+import org.onehippo.forge.content.pojo.common.json.ContentNodeJsonWriter;
 import org.onehippo.forge.content.pojo.mapper.ContentNodeMappingItemFilter;
 import org.onehippo.forge.content.pojo.mapper.jcr.hippo.DocumentVariantNodeMappingFilter;
 import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.onehippo.forge.content.pojo.model.ContentNodeTruncation;
 import org.onehippo.forge.content.pojo.model.ContentProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,6 +76,176 @@ public class DefaultJcrContentNodeMapperTest extends BaseHippoJcrContentNodeTest
         assertDocumentVariantContentNode(previewContentNode, HippoStdNodeType.UNPUBLISHED);
     }
 
+    @Test
+    public void testMapReportsMetrics() throws Exception {
+        Node liveVariantNode = getRootNode().getNode(StringUtils.removeStart(NEWS1_DOC_HANDLE_PATH + "/news1", "/"));
+
+        InMemoryContentNodeMetrics metrics = new InMemoryContentNodeMetrics();
+        mapper.setMetrics(metrics);
+        ContentNode liveContentNode = mapper.map(liveVariantNode);
+
+        assertEquals(1, metrics.getHistogram(ContentNodeMetrics.Timer.MAP).getCount());
+        assertTrue(metrics.getCount(ContentNodeMetrics.Counter.NODES_VISITED) > 1);
+        assertTrue(metrics.getCount(ContentNodeMetrics.Counter.PROPERTIES_SET)
+                >= liveContentNode.getProperties().size());
+        // every property but the references is converted by the value converter.
+        assertEquals(metrics.getCount(ContentNodeMetrics.Counter.PROPERTIES_SET)
+                - metrics.getCount(ContentNodeMetrics.Counter.REFERENCE_LOOKUPS),
+                metrics.getHistogram(ContentNodeMetrics.Timer.VALUE_CONVERSION).getCount());
+    }
+
+    @Test
+    public void testMapReportsBinaryBytesRead() throws Exception {
+        Node node = getRootNode().addNode("testBinaryBytes", "nt:unstructured");
+        node.setProperty("data", node.getSession().getValueFactory()
+                .createBinary(new ByteArrayInputStream("0123456789".getBytes())));
+        node.addNode("item", "nt:unstructured").setProperty("data", node.getSession().getValueFactory()
+                .createBinary(new ByteArrayInputStream("01234".getBytes())));
+
+        InMemoryContentNodeMetrics metrics = new InMemoryContentNodeMetrics();
+        mapper.setMetrics(metrics);
+        mapper.map(node, new DefaultJcrItemMappingFilter());
+
+        assertEquals(15, metrics.getCount(ContentNodeMetrics.Counter.BINARY_BYTES_READ));
+    }
+
+    @Test
+    public void testMapWithIncludesPushedDown() throws Exception {
+        Node node = getRootNode().addNode("testPushdown", "nt:unstructured");
+        node.setProperty("myns:title", "Title");
+        node.setProperty("myns:summary", "Summary");
+        node.setProperty("other", "Other");
+        node.addNode("myns:body", "nt:unstructured").setProperty("myns:content", "Content");
+        node.addNode("other", "nt:unstructured");
+
+        DefaultJcrItemMappingFilter filter = new DefaultJcrItemMappingFilter();
+        filter.addPropertyPathInclude("myns:*");
+        filter.addPropertyPathExclude("myns:summary");
+        filter.addNodePathInclude("myns:body");
+        assertArrayEquals(new String[] { "myns:*" }, filter.getPropertyNameGlobs());
+        assertArrayEquals(new String[] { "myns:body" }, filter.getNodeNameGlobs());
+
+        ContentNode contentNode = mapper.map(node, filter);
+        assertEquals(1, contentNode.getProperties().size());
+        assertEquals("Title", contentNode.getProperty("myns:title").getValue());
+        assertEquals(1, contentNode.getNodes().size());
+        assertEquals("Content", contentNode.getNode("myns:body").getProperty("myns:content").getValue());
+
+        filter.addNodePathInclude("o?her");
+        assertNull(filter.getNodeNameGlobs());
+        assertEquals(2, mapper.map(node, filter).getNodes().size());
+    }
+
+    @Test
+    public void testMapWithLimits() throws Exception {
+        Node node = getRootNode().addNode("testLimits", "nt:unstructured");
+
+        for (int i = 0; i < 5; i++) {
+            Node item = node.addNode("item" + i, "nt:unstructured");
+            item.setProperty("data", item.getSession().getValueFactory()
+                    .createBinary(new ByteArrayInputStream("0123456789".getBytes())));
+            item.addNode("sub", "nt:unstructured");
+        }
+
+        DefaultJcrItemMappingFilter filter = new DefaultJcrItemMappingFilter();
+
+        mapper.setMaxDepth(1);
+        ContentNode contentNode = mapper.map(node, filter);
+        assertNull(contentNode.getTruncation());
+        assertEquals(5, contentNode.getNodes().size());
+        assertEquals(ContentNodeTruncation.DEPTH, contentNode.getNode("item0").getTruncation());
+        assertTrue(contentNode.getNode("item0").getNodes().isEmpty());
+
+        mapper.setMaxDepth(DefaultJcrContentNodeMapper.UNLIMITED);
+        mapper.setMaxChildNodes(3);
+        contentNode = mapper.map(node, filter);
+        assertEquals(ContentNodeTruncation.CHILD_NODES, contentNode.getTruncation());
+        assertEquals(3, contentNode.getNodes().size());
+        assertFalse(contentNode.getNode("item0").isTruncated());
+        assertEquals(1, contentNode.getNode("item0").getNodes().size());
+
+        mapper.setMaxChildNodes(DefaultJcrContentNodeMapper.UNLIMITED);
+        mapper.setMaxNodes(4);
+        contentNode = mapper.map(node, filter);
+        assertEquals(ContentNodeTruncation.NODES, contentNode.getTruncation());
+        assertEquals(2, contentNode.getNodes().size());
+        assertEquals(1, contentNode.getNode("item0").getNodes().size());
+        assertEquals(ContentNodeTruncation.NODES, contentNode.getNode("item1").getTruncation());
+
+        mapper.setMaxNodes(DefaultJcrContentNodeMapper.UNLIMITED);
+        mapper.setMaxBinaryBytes(25);
+        contentNode = mapper.map(node, filter);
+        assertNull(contentNode.getTruncation());
+        assertTrue(contentNode.getNode("item1").hasProperty("data"));
+        assertEquals(ContentNodeTruncation.BINARY_BYTES, contentNode.getNode("item2").getTruncation());
+        assertFalse(contentNode.getNode("item2").hasProperty("data"));
+        assertEquals(1, contentNode.getNode("item2").getNodes().size());
+    }
+
+    @Test
+    public void testMapLazily() throws Exception {
+        Node node = getRootNode().addNode("testLazy", "nt:unstructured");
+        node.setProperty("title", "Title");
+        node.setProperty("summary", "Summary");
+
+        for (int i = 0; i < 2; i++) {
+            node.addNode("child" + i, "nt:unstructured").setProperty("data", "Data " + i);
+        }
+
+        DefaultJcrItemMappingFilter filter = new DefaultJcrItemMappingFilter();
+        InMemoryContentNodeMetrics metrics = new InMemoryContentNodeMetrics();
+        mapper.setMetrics(metrics);
+
+        LazyJcrContentNode lazyNode = mapper.mapLazily(node, filter);
+        assertEquals("testLazy", lazyNode.getName());
+        assertEquals(1, metrics.getCount(ContentNodeMetrics.Counter.NODES_VISITED));
+        assertEquals(0, metrics.getCount(ContentNodeMetrics.Counter.PROPERTIES_SET));
+
+        assertEquals("Title", lazyNode.getProperty("title").getValue());
+        assertEquals(2, metrics.getCount(ContentNodeMetrics.Counter.PROPERTIES_SET));
+        assertEquals(1, metrics.getCount(ContentNodeMetrics.Counter.NODES_VISITED));
+        assertFalse(lazyNode.isLoaded());
+
+        assertEquals(2, lazyNode.getNodes().size());
+        assertTrue(lazyNode.isLoaded());
+        assertEquals(3, metrics.getCount(ContentNodeMetrics.Counter.NODES_VISITED));
+        assertEquals(2, metrics.getCount(ContentNodeMetrics.Counter.PROPERTIES_SET));
+
+        assertEquals(mapper.map(node, filter), lazyNode);
+
+        LazyJcrContentNode detachedNode = mapper.mapLazily(node, filter);
+        detachedNode.detach();
+        node.remove();
+        assertEquals("Data 1", detachedNode.getNode("child1").getProperty("data").getValue());
+        assertEquals(lazyNode, detachedNode);
+    }
+
+    @Test
+    public void testMapToHandler() throws Exception {
+        Node liveVariantNode = getRootNode().getNode(StringUtils.removeStart(NEWS1_DOC_HANDLE_PATH + "/news1", "/"));
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+
+        try (ContentNodeJsonWriter writer = new ContentNodeJsonWriter(streamed)) {
+            mapper.mapTo(liveVariantNode, writer);
+        }
+
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+        try (ContentNodeJsonWriter writer = new ContentNodeJsonWriter(written)) {
+            writer.writeNode(mapper.map(liveVariantNode));
+        }
+
+        assertEquals(written.toString("UTF-8"), streamed.toString("UTF-8"));
+
+        ContentNodeTreeBuilder builder = new ContentNodeTreeBuilder();
+        mapper.mapTo(liveVariantNode, builder);
+        assertTrue(builder.isComplete());
+        assertEquals("news1", builder.getRootNode().getName());
+        assertEquals(HippoStdNodeType.PUBLISHED,
+                builder.getRootNode().getProperty(HippoStdNodeType.HIPPOSTD_STATE).getValue());
+    }
+
     @Test
     public void testMapDocumentHandle() throws Exception {
         Node handleNode = getRootNode().getNode(StringUtils.removeStart(NEWS1_DOC_HANDLE_PATH, "/"));
@@ -0,0 +1,100 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.mapper.jcr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.jcr.Node;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hippoecm.repository.HippoStdNodeType;
+import org.hippoecm.repository.api.HippoNodeType;
+import org.junit.Test;
+import org.onehippo.forge.content.pojo.common.jcr.BaseHippoJcrContentNodeTest;
+import org.onehippo.forge.content.pojo.common.json.ContentNodeJsonReader;
+import org.onehippo.forge.content.pojo.mapper.jcr.hippo.DocumentVariantNodeMappingFilter;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+
+public class JcrContentNodeExporterTest extends BaseHippoJcrContentNodeTest {
+
+    @Test
+    public void testExportDocumentHandles() throws Exception {
+        JcrContentNodeExporter exporter = new JcrContentNodeExporter(
+                new DocumentVariantNodeMappingFilter(HippoStdNodeType.PUBLISHED));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        ContentNodeExportResult result = exporter.export(getRootNode(), output);
+
+        assertEquals(2, result.getDocumentCount());
+        assertEquals(output.size(), result.getByteCount());
+        assertTrue(result.getFailedPaths().isEmpty());
+        assertTrue(result.getDocumentsPerSecond() >= 0.0);
+        assertTrue(result.getBytesPerSecond() >= 0.0);
+
+        String[] lines = StringUtils.split(new String(output.toByteArray(), StandardCharsets.UTF_8), '\n');
+        assertEquals(2, lines.length);
+
+        try (ContentNodeJsonReader reader = new ContentNodeJsonReader(
+                new ByteArrayInputStream(output.toByteArray()))) {
+            ContentNode imageSetHandle = reader.readNode();
+            assertEquals("news-image-1.jpg", imageSetHandle.getName());
+            assertEquals(HippoNodeType.NT_HANDLE, imageSetHandle.getPrimaryType());
+
+            ContentNode newsHandle = reader.readNode();
+            assertEquals("news1", newsHandle.getName());
+            assertEquals(HippoNodeType.NT_HANDLE, newsHandle.getPrimaryType());
+
+            List<ContentNode> variants = newsHandle.getNodes();
+            assertEquals(1, variants.size());
+            assertEquals(HippoStdNodeType.PUBLISHED,
+                    variants.get(0).getProperty(HippoStdNodeType.HIPPOSTD_STATE).getValue());
+            assertEquals(NEWS_TITLE_PROP_VALUE, variants.get(0).getProperty(NEWS_TITLE_PROP_NAME).getValue());
+
+            assertNull(reader.readNode());
+        }
+    }
+
+    @Test
+    public void testExportSubtreeByDocumentNodeType() throws Exception {
+        Node newsFolderNode = getRootNode().getNode(StringUtils.removeStart(NEWS_DOC_FOLDER_PATH, "/"));
+
+        JcrContentNodeExporter exporter = new JcrContentNodeExporter(
+                new DocumentVariantNodeMappingFilter(HippoStdNodeType.PUBLISHED, HippoStdNodeType.UNPUBLISHED));
+        exporter.setDocumentNodeType(NEWS_NODE_TYPE);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        ContentNodeExportResult result = exporter.export(newsFolderNode, output);
+
+        assertEquals(2, result.getDocumentCount());
+        assertEquals(output.size(), result.getByteCount());
+
+        try (ContentNodeJsonReader reader = new ContentNodeJsonReader(
+                new ByteArrayInputStream(output.toByteArray()))) {
+            assertEquals(HippoStdNodeType.PUBLISHED,
+                    reader.readNode().getProperty(HippoStdNodeType.HIPPOSTD_STATE).getValue());
+            assertEquals(HippoStdNodeType.UNPUBLISHED,
+                    reader.readNode().getProperty(HippoStdNodeType.HIPPOSTD_STATE).getValue());
+            assertNull(reader.readNode());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.mapper.jcr;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.jcr.Session;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.hippoecm.repository.HippoStdNodeType;
+import org.hippoecm.repository.api.HippoNodeType;
+import org.onehippo.forge.content.pojo.common.jcr.JcrSessionFactory;
+import org.onehippo.forge.content.pojo.mapper.jcr.hippo.DocumentVariantNodeMappingFilter;
+import org.onehippo.repository.mock.MockNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark for {@link ParallelJcrContentNodeExporter} exporting document handles
+ * of an in-memory mock repository with 1, 2, 4 and 8 worker threads.
+ *
+ * Demonstrates scaling with the worker count.
+ * If mapping scales with the worker count, doubling the worker count should roughly halve the time,
+ * up to the number of available cores.
+ *
+ * Run with: mvn test -Dtest=ParallelJcrContentNodeExporterBenchmark#runBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelJcrContentNodeExporterBenchmark {
+
+    private static final String DOCUMENT_TYPE = "myhippoproject:news";
+    private static final int DOCUMENT_COUNT = 2000;
+    private static final int PARAGRAPH_COUNT = 20;
+
+    @Param({"1", "2", "4", "8"})
+    private int workerCount;
+
+    private ParallelJcrContentNodeExporter exporter;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final MockNode root = createJcrDocuments(DOCUMENT_COUNT);
+
+        exporter = new ParallelJcrContentNodeExporter(new JcrSessionFactory() {
+            @Override
+            public Session createSession() {
+                return root.getSession();
+            }
+
+            @Override
+            public void releaseSession(Session session) {
+                // the mock session is shared by the workers.
+            }
+        }, workerCount, new DocumentVariantNodeMappingFilter(HippoStdNodeType.PUBLISHED));
+        exporter.setProgressLogInterval(0);
+    }
+
+    @Benchmark
+    public ContentNodeExportResult benchmarkExport() throws Exception {
+        return exporter.export("/documents", NullOutputStream.INSTANCE);
+    }
+
+    private MockNode createJcrDocuments(int count) throws Exception {
+        MockNode root = MockNode.root();
+        MockNode folder = root.addNode("documents", HippoStdNodeType.NT_FOLDER);
+
+        for (int i = 0; i < count; i++) {
+            MockNode handle = folder.addNode("doc" + i, HippoNodeType.NT_HANDLE);
+            MockNode variant = handle.addNode("doc" + i, DOCUMENT_TYPE);
+            variant.addMixin(HippoNodeType.NT_DOCUMENT);
+            variant.addMixin(HippoStdNodeType.NT_PUBLISHABLE);
+            variant.setProperty(HippoStdNodeType.HIPPOSTD_STATE, HippoStdNodeType.PUBLISHED);
+            variant.setProperty("myhippoproject:title", "Document " + i);
+
+            for (int j = 0; j < PARAGRAPH_COUNT; j++) {
+                MockNode paragraph = variant.addNode("myhippoproject:paragraph", "hippo:compound");
+                paragraph.setProperty("myhippoproject:text", "Paragraph " + j + " of document " + i);
+                paragraph.setProperty("myhippoproject:order", j);
+            }
+        }
+
+        return root;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ParallelJcrContentNodeExporterBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    /**
+     * JUnit entry point for running benchmark via Maven.
+     * Results are saved to ~/Documents/parallel-jcr-content-node-exporter-benchmark.json
+     */
+    @org.junit.Test
+    public void runBenchmark() throws RunnerException {
+        String outputPath = System.getProperty("user.home")
+                + "/Documents/parallel-jcr-content-node-exporter-benchmark.json";
+
+        Options opt = new OptionsBuilder()
+                .include(ParallelJcrContentNodeExporterBenchmark.class.getSimpleName())
+                .result(outputPath)
+                .resultFormat(org.openjdk.jmh.results.format.ResultFormatType.JSON)
+                .build();
+
+        new Runner(opt).run();
+
+        System.out.println("\n=== Benchmark results saved to: " + outputPath + " ===\n");
+    }
+}
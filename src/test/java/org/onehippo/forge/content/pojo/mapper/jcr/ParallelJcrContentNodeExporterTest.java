@@ -0,0 +1,149 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.mapper.jcr;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jcr.Session;
+
+import org.hippoecm.repository.HippoStdNodeType;
+import org.junit.Before;
+import org.junit.Test;
+import org.onehippo.forge.content.pojo.common.jcr.BaseHippoJcrContentNodeTest;
+import org.onehippo.forge.content.pojo.common.jcr.JcrSessionFactory;
+import org.onehippo.forge.content.pojo.mapper.jcr.hippo.DocumentVariantNodeMappingFilter;
+import org.onehippo.forge.content.pojo.model.ContentNode;
+import org.onehippo.repository.mock.MockNode;
+
+public class ParallelJcrContentNodeExporterTest extends BaseHippoJcrContentNodeTest {
+
+    private static final int DOCUMENT_COUNT = 40;
+
+    private final AtomicInteger createdSessionCount = new AtomicInteger();
+    private final AtomicInteger releasedSessionCount = new AtomicInteger();
+
+    private JcrSessionFactory sessionFactory;
+
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+
+        MockNode folderNode = getRootNode().getNode("content/documents/" + MY_HIPPO_PROJECT_NS_PREFIX + "/news/2015");
+
+        for (int i = 0; i < DOCUMENT_COUNT; i++) {
+            MockNode handleNode = createHippoDocumentHandleNode(folderNode, "news-" + i, "News " + i);
+            MockNode variantNode = createHippoDocumentVariantNode(handleNode, NEWS_NODE_TYPE,
+                    HippoStdNodeType.PUBLISHED);
+            variantNode.setProperty(NEWS_TITLE_PROP_NAME, "News " + i);
+            variantNode.setProperty(NEWS_SUMMARY_PROP_NAME, "Summary " + i);
+        }
+
+        sessionFactory = new JcrSessionFactory() {
+            @Override
+            public Session createSession() {
+                createdSessionCount.incrementAndGet();
+                return getRootNode().getSession();
+            }
+
+            @Override
+            public void releaseSession(Session session) {
+                releasedSessionCount.incrementAndGet();
+            }
+        };
+    }
+
+    @Test
+    public void testMapDocumentsInDocumentOrder() throws Exception {
+        ParallelJcrContentNodeExporter exporter = new ParallelJcrContentNodeExporter(sessionFactory, 4,
+                new DocumentVariantNodeMappingFilter(HippoStdNodeType.PUBLISHED));
+        exporter.setMaxPendingDocuments(3);
+
+        List<ContentNode> contentNodes = exporter.mapDocuments(NEWS_DOC_FOLDER_PATH);
+
+        assertEquals(DOCUMENT_COUNT + 1, contentNodes.size());
+        assertEquals("news1", contentNodes.get(0).getName());
+
+        for (int i = 0; i < DOCUMENT_COUNT; i++) {
+            ContentNode handle = contentNodes.get(i + 1);
+            assertEquals("news-" + i, handle.getName());
+            assertEquals("News " + i, handle.getNodes().get(0).getProperty(NEWS_TITLE_PROP_NAME).getValue());
+        }
+
+        assertTrue(createdSessionCount.get() >= 2);
+        assertTrue(createdSessionCount.get() <= 5);
+        assertEquals(createdSessionCount.get(), releasedSessionCount.get());
+    }
+
+    @Test
+    public void testExportSameAsSingleSessionExport() throws Exception {
+        JcrContentNodeExporter singleExporter = new JcrContentNodeExporter(
+                new DocumentVariantNodeMappingFilter(HippoStdNodeType.PUBLISHED));
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        singleExporter.export(getRootNode().getSession().getNode(NEWS_DOC_FOLDER_PATH), expected);
+
+        for (int workerCount : new int[] { 1, 2, 8 }) {
+            ParallelJcrContentNodeExporter exporter = new ParallelJcrContentNodeExporter(sessionFactory,
+                    workerCount, new DocumentVariantNodeMappingFilter(HippoStdNodeType.PUBLISHED));
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+            ContentNodeExportResult result = exporter.export(NEWS_DOC_FOLDER_PATH, output);
+
+            assertEquals(DOCUMENT_COUNT + 1, result.getDocumentCount());
+            assertEquals(output.size(), result.getByteCount());
+            assertTrue(result.getFailedPaths().isEmpty());
+            assertArrayEquals(expected.toByteArray(), output.toByteArray());
+        }
+
+        assertEquals(createdSessionCount.get(), releasedSessionCount.get());
+    }
+
+    @Test
+    public void testMapDocumentsWithIncludePatternsByManyWorkers() throws Exception {
+        for (int run = 0; run < 5; run++) {
+            // a new filter in each run, compiling its patterns lazily while shared by all the workers.
+            DocumentVariantNodeMappingFilter filter = new DocumentVariantNodeMappingFilter(HippoStdNodeType.PUBLISHED);
+            filter.addPropertyPathInclude(NEWS_TITLE_PROP_NAME);
+            filter.addPropertyPathInclude("hippo*:*");
+            filter.addPropertyPathInclude("jcr:*");
+
+            ParallelJcrContentNodeExporter exporter = new ParallelJcrContentNodeExporter(sessionFactory, 8, filter);
+
+            List<ContentNode> contentNodes = exporter.mapDocuments(NEWS_DOC_FOLDER_PATH);
+
+            assertEquals(DOCUMENT_COUNT + 1, contentNodes.size());
+
+            for (int i = 0; i < DOCUMENT_COUNT; i++) {
+                ContentNode variant = contentNodes.get(i + 1).getNodes().get(0);
+                assertEquals("News " + i, variant.getProperty(NEWS_TITLE_PROP_NAME).getValue());
+                assertNull(variant.getProperty(NEWS_SUMMARY_PROP_NAME));
+            }
+        }
+
+        assertEquals(createdSessionCount.get(), releasedSessionCount.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWorkerCount() throws Exception {
+        new ParallelJcrContentNodeExporter(sessionFactory, 0);
+    }
+}
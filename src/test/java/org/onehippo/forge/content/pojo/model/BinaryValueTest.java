@@ -36,6 +36,7 @@ public class BinaryValueTest {
         assertEquals(RED_DOT_IMG_DATA_IN_BASE64,
                 Base64.getEncoder().encodeToString(IOUtils.toByteArray(bv.getStream())));
         assertEquals(RED_DOT_IMG_DATA_URI, bv.toUriString());
+        assertEquals(Base64.getDecoder().decode(RED_DOT_IMG_DATA_IN_BASE64).length, bv.getLength());
         bv.dispose();
     }
 
@@ -0,0 +1,123 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.model;
+
+import java.io.InputStream;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.openjdk.jol.info.GraphLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures the heap footprint of {@link ContentNode} trees with <a href="https://openjdk.org/projects/code-tools/jol/">JOL</a>,
+ * comparing the compact array-backed lists with the former <code>LinkedList</code> based layout.
+ */
+public class ContentNodeFootprintTest {
+
+    private static Logger log = LoggerFactory.getLogger(ContentNodeFootprintTest.class);
+
+    private static final String NEWS_CONTENT_JSON_RESOURCE = "/org/onehippo/forge/content/pojo/binder/jcr/news-harvest.json";
+
+    @Test
+    public void testDocumentFootprint() throws Exception {
+        ContentNode document;
+
+        try (InputStream input = ContentNodeFootprintTest.class.getResourceAsStream(NEWS_CONTENT_JSON_RESOURCE)) {
+            document = new ObjectMapper().readValue(input, ContentNode.class);
+        }
+
+        // Rebuild the whole tree through the model API, as a mapper or an importer does.
+        // Building the mirror touches every list and mixin set of the compact tree, so both trees are measured alike.
+        final ContentNode compactDocument = (ContentNode) document.clone();
+        final LegacyContentNode legacyDocument = new LegacyContentNode(compactDocument, null);
+
+        final long compactSize = GraphLayout.parseInstance(compactDocument).totalSize();
+        final long legacySize = GraphLayout.parseInstance(legacyDocument).totalSize();
+
+        log.info("news-harvest.json footprint: {} bytes with compact lists, {} bytes with linked lists, {} bytes saved.",
+                compactSize, legacySize, legacySize - compactSize);
+
+        assertTrue(compactSize < legacySize);
+    }
+
+    @Test
+    public void testSingleValuedPropertyFootprint() throws Exception {
+        ContentProperty contentProp = new ContentProperty("myhippoproject:title", ContentPropertyType.STRING);
+        contentProp.setValue("News Harvest");
+
+        GraphLayout compactLayout = GraphLayout.parseInstance(contentProp.getValues());
+        GraphLayout legacyLayout = GraphLayout.parseInstance(new LinkedList<>(contentProp.getValues()));
+
+        assertFalse(compactLayout.getClasses().contains(String[].class));
+        assertTrue(compactLayout.totalSize() < legacyLayout.totalSize());
+    }
+
+    /**
+     * Mirror of the former {@link ContentNode} field layout, keeping content properties and child nodes in
+     * <code>LinkedList</code>s, sharing the names, types and values with the compared {@link ContentNode}.
+     */
+    private static class LegacyContentNode {
+
+        private final String name;
+        private final String primaryType;
+        private final Set<String> mixinTypes;
+        private final List<LegacyContentProperty> properties = new LinkedList<>();
+        private final LegacyContentNode parent;
+        private final List<LegacyContentNode> nodes = new LinkedList<>();
+
+        private LegacyContentNode(ContentNode contentNode, LegacyContentNode parent) {
+            name = contentNode.getName();
+            primaryType = contentNode.getPrimaryType();
+            mixinTypes = contentNode.getMixinTypes();
+            this.parent = parent;
+
+            for (ContentProperty contentProp : contentNode.getProperties()) {
+                properties.add(new LegacyContentProperty(contentProp));
+            }
+
+            for (ContentNode child : contentNode.getNodes()) {
+                nodes.add(new LegacyContentNode(child, this));
+            }
+        }
+    }
+
+    /**
+     * Mirror of the former {@link ContentProperty} field layout, keeping values in a <code>LinkedList</code>.
+     */
+    private static class LegacyContentProperty {
+
+        private final String name;
+        private final ContentPropertyType type;
+        private final boolean multiple;
+        private final List<String> values;
+
+        private LegacyContentProperty(ContentProperty contentProp) {
+            name = contentProp.getName();
+            type = contentProp.getType();
+            multiple = contentProp.isMultiple();
+            values = new LinkedList<>(contentProp.getValues());
+        }
+    }
+}
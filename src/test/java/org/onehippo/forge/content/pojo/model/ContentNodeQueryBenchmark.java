@@ -0,0 +1,157 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.model;
+
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jxpath.CompiledExpression;
+import org.apache.commons.jxpath.JXPathContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * JMH benchmark comparing the per-call JXPath path (a new {@link JXPathContext} parsing the expression on every call)
+ * with {@link ContentNodeQuery}, compiled once and executed against a document content node many times
+ * as an import mapper does. All the expressions are in the subset executed natively by {@link ContentNodeQuery},
+ * and {@link #benchmarkJXPathCompiledExpressions(Blackhole)} shows the cost of executing them by JXPath instead.
+ *
+ * Run with: mvn test -Dtest=ContentNodeQueryBenchmark#runBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentNodeQueryBenchmark {
+
+    private static final String[] EXPRESSIONS = {
+            "nodes[1]",
+            "nodes[@primaryType='myhippoproject:newsdocument']",
+            "nodes[1]/properties[@itemName='myhippoproject:title']/value",
+            "nodes[1]/properties[@itemName='myhippoproject:introduction']/value",
+            "nodes[1]/properties[@itemName='myhippoproject:location']/value",
+            "nodes[1]/properties[@itemName='myhippoproject:source']/value",
+            "nodes[1]/properties[@itemName='hippostd:state']/value",
+            "nodes[1]/properties[@itemName='hippotranslation:locale']/value",
+            "nodes[1]/properties[@itemName='hippostdpubwf:publicationDate']/value",
+            "nodes[1]/nodes[@itemName='myhippoproject:content']/properties[@itemName='hippostd:content']/value",
+            "nodes[1]/nodes[@primaryType='hippogallerypicker:imagelink']/properties[@itemName='hippo:docbase']/value",
+            "nodes[@itemName='hippo:translation']/properties[@itemName='hippo:message']/value",
+    };
+
+    private ContentNode handleNode;
+
+    private ContentNodeQuery[] queries;
+
+    private CompiledExpression[] compiledExpressions;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        try (InputStream input = ContentNodeQueryBenchmark.class
+                .getResourceAsStream("/org/onehippo/forge/content/pojo/binder/jcr/news-harvest.json")) {
+            handleNode = new ObjectMapper().readValue(input, ContentNode.class);
+        }
+
+        queries = new ContentNodeQuery[EXPRESSIONS.length];
+        compiledExpressions = new CompiledExpression[EXPRESSIONS.length];
+
+        for (int i = 0; i < EXPRESSIONS.length; i++) {
+            queries[i] = new ContentNodeQuery(EXPRESSIONS[i]);
+            compiledExpressions[i] = JXPathContext.compile(EXPRESSIONS[i]);
+        }
+    }
+
+    @Benchmark
+    public void benchmarkPerCallJXPathContext(Blackhole blackhole) {
+        // A new JXPath context per query, resolving the expression on every call.
+        for (String expression : EXPRESSIONS) {
+            JXPathContext jxpathCtx = JXPathContext.newContext(handleNode);
+            jxpathCtx.setLenient(true);
+            blackhole.consume(jxpathCtx.getValue(expression));
+        }
+    }
+
+    @Benchmark
+    public void benchmarkCachedQueries(Blackhole blackhole) {
+        // Compiled queries looked up from the shared LRU cache, as ContentNode#queryObjectByXPath(String) does.
+        for (String expression : EXPRESSIONS) {
+            blackhole.consume(ContentNodeQuery.compile(expression).queryObject(handleNode));
+        }
+    }
+
+    @Benchmark
+    public void benchmarkPrecompiledQueries(Blackhole blackhole) {
+        // Compiled queries held by the caller.
+        for (ContentNodeQuery query : queries) {
+            blackhole.consume(query.queryObject(handleNode));
+        }
+    }
+
+    @Benchmark
+    public void benchmarkJXPathCompiledExpressions(Blackhole blackhole) {
+        // JXPath compiled expressions held by the caller, walking the content node through JXPath pointers.
+        for (CompiledExpression compiledExpression : compiledExpressions) {
+            JXPathContext jxpathCtx = JXPathContext.newContext(handleNode);
+            jxpathCtx.setLenient(true);
+            blackhole.consume(compiledExpression.getValue(jxpathCtx));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ContentNodeQueryBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    /**
+     * JUnit entry point for running benchmark via Maven.
+     * Results are saved to ~/Documents/content-node-query-benchmark.json
+     */
+    @org.junit.Test
+    public void runBenchmark() throws RunnerException {
+        String outputPath = System.getProperty("user.home") + "/Documents/content-node-query-benchmark.json";
+
+        Options opt = new OptionsBuilder()
+                .include(ContentNodeQueryBenchmark.class.getSimpleName())
+                .result(outputPath)
+                .resultFormat(org.openjdk.jmh.results.format.ResultFormatType.JSON)
+                .build();
+
+        new Runner(opt).run();
+
+        System.out.println("\n=== Benchmark results saved to: " + outputPath + " ===\n");
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ *  Copyright 2025 Bloomreach (http://www.bloomreach.com)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.onehippo.forge.content.pojo.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.jxpath.JXPathContext;
+import org.apache.commons.jxpath.Pointer;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ContentNodeQueryTest {
+
+    private ContentNode news1;
+    private ContentNode news2;
+
+    @Before
+    public void setUp() throws Exception {
+        news1 = createNewsDocument("news1", "News 1");
+        news2 = createNewsDocument("news2", "News 2");
+    }
+
+    @Test
+    public void testQueryAgainstDifferentContentNodes() throws Exception {
+        ContentNodeQuery titleQuery = new ContentNodeQuery("properties[@itemName='myhippoproject:title']/value");
+        assertEquals("properties[@itemName='myhippoproject:title']/value", titleQuery.getExpression());
+        assertEquals("News 1", titleQuery.queryObject(news1));
+        assertEquals("News 2", titleQuery.queryObject(news2));
+
+        ContentNodeQuery titlePropQuery = new ContentNodeQuery("properties[@itemName='myhippoproject:title']");
+        assertSame(news1.getProperty("myhippoproject:title"), titlePropQuery.queryProperty(news1));
+        assertSame(news2.getProperty("myhippoproject:title"), titlePropQuery.queryProperty(news2));
+
+        ContentNodeQuery bodyQuery = new ContentNodeQuery("nodes[@primaryType='hippostd:html']");
+        assertSame(news1.getNode("myhippoproject:body"), bodyQuery.queryNode(news1));
+        assertSame(news2.getNode("myhippoproject:body"), bodyQuery.queryNode(news2));
+
+        ContentNodeQuery relatedQuery = new ContentNodeQuery("nodes[@primaryType='hippo:mirror']");
+        List<ContentNode> relatedNodes = relatedQuery.queryNodes(news1);
+        assertEquals(2, relatedNodes.size());
+        assertSame(news1.getNodes().get(1), relatedNodes.get(0));
+        assertSame(news1.getNodes().get(2), relatedNodes.get(1));
+
+        ContentNodeQuery docbaseQuery = new ContentNodeQuery("nodes/properties[@itemName='hippo:docbase']");
+        List<ContentProperty> docbaseProps = docbaseQuery.queryProperties(news2);
+        assertEquals(2, docbaseProps.size());
+        assertEquals("news2-related-1", docbaseProps.get(0).getValue());
+        assertEquals("news2-related-2", docbaseProps.get(1).getValue());
+
+        ContentNodeQuery nonExistingQuery = new ContentNodeQuery("nodes[@itemName='nonexisting']");
+        assertNull(nonExistingQuery.queryNode(news1));
+        assertEquals(0, nonExistingQuery.queryNodes(news1).size());
+    }
+
+    @Test
+    public void testNativeQueries() throws Exception {
+        ContentNode handle = new ContentNode("news", "hippo:handle");
+        handle.addNode(news1);
+        handle.addNode(news2);
+        news2.addMixinType("myhippoproject:taggable");
+
+        ContentNodeQuery query = new ContentNodeQuery("nodes[@primaryType='myhippoproject:news'][2]");
+        assertTrue(query.isNative());
+        assertSame(news2, query.queryNode(handle));
+
+        query = new ContentNodeQuery("nodes[@mixinTypes='myhippoproject:taggable']");
+        assertTrue(query.isNative());
+        assertSame(news2, query.queryNode(handle));
+
+        query = new ContentNodeQuery("nodes[@itemName='news2']/nodes[@itemName='myhippoproject:related'][2]"
+                + "/properties[@itemName=\"hippo:docbase\"]/value");
+        assertTrue(query.isNative());
+        assertEquals("news2-related-2", query.queryObject(handle));
+
+        query = new ContentNodeQuery("nodes/nodes[1]/primaryType");
+        assertTrue(query.isNative());
+        assertEquals("hippostd:html", query.queryObject(handle));
+        assertEquals(2, query.queryObjects(handle).size());
+
+        query = new ContentNodeQuery("nodes/nodes/properties/itemName");
+        assertTrue(query.isNative());
+        assertEquals(Arrays.asList("hippostd:content", "hippo:docbase", "hippo:docbase",
+                "hippostd:content", "hippo:docbase", "hippo:docbase"), query.queryObjects(handle));
+
+        query = new ContentNodeQuery("nodes[3]");
+        assertTrue(query.isNative());
+        assertNull(query.queryNode(handle));
+        assertEquals(0, query.queryNodes(handle).size());
+
+        assertFalse(new ContentNodeQuery("nodes[properties[@itemName='hippostd:state']/value='published']").isNative());
+        assertFalse(new ContentNodeQuery("nodes[1][@itemName='news1']").isNative());
+        assertFalse(new ContentNodeQuery("nodes[last()]").isNative());
+        assertFalse(new ContentNodeQuery("nodes[@itemName = 'news1']").isNative());
+        assertFalse(new ContentNodeQuery("properties/nodes").isNative());
+        assertFalse(new ContentNodeQuery("properties[@primaryType='hippostd:html']").isNative());
+        assertFalse(new ContentNodeQuery("nodes/value").isNative());
+        assertFalse(new ContentNodeQuery("//nodes").isNative());
+    }
+
+    @Test
+    public void testNativeQueriesSameAsJXPath() throws Exception {
+        ContentNode handle = new ContentNode("news", "hippo:handle");
+        handle.addNode(news1);
+        handle.addNode(news2);
+        news2.addMixinType("myhippoproject:taggable");
+
+        String[] expressions = {
+                "nodes",
+                "nodes[2]",
+                "nodes[3]",
+                "nodes/itemName",
+                "nodes/name",
+                "nodes/primaryType",
+                "nodes[@itemName='news2']",
+                "nodes[@primaryType='myhippoproject:news'][2]",
+                "nodes[@mixinTypes='myhippoproject:taggable']/itemName",
+                "nodes[@itemName='news1'][@primaryType='myhippoproject:news']/properties",
+                "nodes/properties[@itemName='myhippoproject:title']/value",
+                "nodes/nodes[1]/primaryType",
+                "nodes/nodes[@primaryType='hippo:mirror'][2]/properties[@itemName=\"hippo:docbase\"]/value",
+                "nodes/nodes/properties/itemName",
+                "nodes[@itemName='nonexisting']/nodes",
+        };
+
+        for (String expression : expressions) {
+            ContentNodeQuery query = new ContentNodeQuery(expression);
+            assertTrue(expression, query.isNative());
+
+            JXPathContext jxpathContext = JXPathContext.newContext(handle);
+            jxpathContext.setLenient(true);
+            List<Object> expected = new ArrayList<>();
+
+            for (Iterator<?> it = jxpathContext.iteratePointers(expression); it.hasNext(); ) {
+                expected.add(((Pointer) it.next()).getNode());
+            }
+
+            assertEquals(expression, expected, query.queryObjects(handle));
+            assertEquals(expression, jxpathContext.getValue(expression), query.queryObject(handle));
+        }
+
+        // a position too large for the native engine is left to JXPath.
+        ContentNodeQuery query = new ContentNodeQuery("nodes[99999999999]");
+        assertFalse(query.isNative());
+        assertNull(query.queryNode(handle));
+        assertEquals(0, query.queryNodes(handle).size());
+    }
+
+    @Test
+    public void testCompiledQueriesAreCached() throws Exception {
+        ContentNodeQuery query = ContentNodeQuery.compile("properties[@itemName='myhippoproject:title']/value");
+        assertSame(query, ContentNodeQuery.compile("properties[@itemName='myhippoproject:title']/value"));
+        assertEquals(news1.queryObjectByXPath(query.getExpression()), query.queryObject(news1));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedQueryEviction() throws Exception {
+        ContentNodeQueryCache cache = new ContentNodeQueryCache(2);
+        assertEquals(2, cache.getMaxSize());
+
+        ContentNodeQuery query1 = cache.getQuery("nodes[1]");
+        ContentNodeQuery query2 = cache.getQuery("nodes[2]");
+        assertEquals(2, cache.size());
+
+        // touch query1 to make query2 the least recently used one.
+        assertSame(query1, cache.getQuery("nodes[1]"));
+        ContentNodeQuery query3 = cache.getQuery("nodes[3]");
+        assertEquals(2, cache.size());
+
+        assertSame(query1, cache.getQuery("nodes[1]"));
+        assertSame(query3, cache.getQuery("nodes[3]"));
+        assertNotSame(query2, cache.getQuery("nodes[2]"));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxSize() throws Exception {
+        new ContentNodeQueryCache(0);
+    }
+
+    private ContentNode createNewsDocument(final String name, final String title) {
+        ContentNode document = new ContentNode(name, "myhippoproject:news");
+        document.setProperty("myhippoproject:title", title);
+
+        ContentNode bodyNode = new ContentNode("myhippoproject:body", "hippostd:html");
+        bodyNode.setProperty("hippostd:content", "<p>" + title + "</p>");
+        document.addNode(bodyNode);
+
+        for (int i = 1; i <= 2; i++) {
+            ContentNode mirrorNode = new ContentNode("myhippoproject:related", "hippo:mirror");
+            mirrorNode.setProperty("hippo:docbase", name + "-related-" + i);
+            document.addNode(mirrorNode);
+        }
+
+        return document;
+    }
+}
@@ -33,6 +33,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class ContentNodeTest {
 
@@ -231,4 +233,105 @@ public class ContentNodeTest {
         assertEquals(2, folder7_2.getIndex());
         assertEquals(1, folder9.getIndex());
     }
+
+    @Test
+    public void testContentNodeIndexAfterModifications() throws Exception {
+        ContentNode root = new ContentNode("", "repo:root");
+
+        for (int i = 0; i < 1000; i++) {
+            root.addNode(new ContentNode("folder", "nt:folder"));
+        }
+
+        ContentNode folder500 = root.getNodes().get(499);
+        assertEquals(500, folder500.getIndex());
+        assertEquals(1000, root.getNodes().get(999).getIndex());
+
+        ContentNode folder1001 = new ContentNode("folder", "nt:folder");
+        root.addNode(folder1001);
+        assertEquals(1001, folder1001.getIndex());
+
+        ContentNode removed = root.getNodes().remove(0);
+        assertEquals(499, folder500.getIndex());
+        assertEquals(1000, folder1001.getIndex());
+        assertEquals(1, removed.getIndex());
+
+        ContentNode inserted = new ContentNode("folder", "nt:folder");
+        root.getNodes().add(0, inserted);
+        assertSame(root, inserted.getParent());
+        assertEquals(1, inserted.getIndex());
+        assertEquals(500, folder500.getIndex());
+
+        ContentNode replacement = new ContentNode("folder", "nt:folder");
+        root.getNodes().set(499, replacement);
+        assertSame(root, replacement.getParent());
+        assertEquals(500, replacement.getIndex());
+
+        root.getNodes().get(0).setName("other");
+        assertEquals(1, root.getNodes().get(0).getIndex());
+        assertEquals(499, replacement.getIndex());
+        assertEquals(1000, folder1001.getIndex());
+
+        ObjectMapper mapper = new ObjectMapper();
+        ContentNode rootFromJSON = mapper.readValue(mapper.writeValueAsString(root), ContentNode.class);
+        ContentNode lastFolder = rootFromJSON.getNodes().get(1000);
+        assertSame(rootFromJSON, lastFolder.getParent());
+        assertEquals(1000, lastFolder.getIndex());
+    }
+
+    @Test
+    public void testPropertyAndNodeLookupByName() throws Exception {
+        ContentNode document = new ContentNode("document", "nt:unstructured");
+
+        for (int i = 0; i < 500; i++) {
+            document.setProperty("prop" + i, "value" + i);
+        }
+
+        assertEquals(500, document.getProperties().size());
+        assertEquals("value250", document.getProperty("prop250").getValue());
+        assertNull(document.getProperty("prop500"));
+
+        document.setProperty("prop250", "newvalue250");
+        assertEquals(500, document.getProperties().size());
+        assertEquals("prop250", document.getProperties().get(250).getName());
+        assertEquals("newvalue250", document.getProperty("prop250").getValue());
+
+        document.getProperties().remove(0);
+        assertNull(document.getProperty("prop0"));
+        assertEquals("value1", document.getProperty("prop1").getValue());
+        document.setProperty("prop0", "value0");
+        assertEquals("prop0", document.getProperties().get(499).getName());
+
+        ContentProperty renamedProp = document.getProperty("prop100");
+        renamedProp.setName("renamedProp");
+        assertSame(renamedProp, document.getProperty("renamedProp"));
+        assertNull(document.getProperty("prop100"));
+        document.setProperty("renamedProp", "renamedValue");
+        assertEquals(500, document.getProperties().size());
+        assertEquals("renamedValue", document.getProperty("renamedProp").getValue());
+
+        // the name index of the node owning a renamed property only is dropped.
+        ContentNode other = new ContentNode("other", "nt:unstructured");
+        other.setProperty("otherProp", "otherValue");
+        assertNull(other.getProperty("renamedOtherProp"));
+        other.getProperty("otherProp").setName("renamedOtherProp");
+        assertEquals("otherValue", other.getProperty("renamedOtherProp").getValue());
+
+        ContentNode child1 = new ContentNode("child", "nt:unstructured");
+        ContentNode child2 = new ContentNode("child", "nt:unstructured");
+        document.addNode(child1);
+        document.addNode(child2);
+        assertSame(child1, document.getNode("child"));
+        assertFalse(document.hasNode("renamed"));
+
+        child1.setName("renamed");
+        assertSame(child1, document.getNode("renamed"));
+        assertSame(child2, document.getNode("child"));
+
+        ObjectMapper mapper = new ObjectMapper();
+        ContentNode deserialized = mapper.readValue(mapper.writeValueAsString(document), ContentNode.class);
+        assertEquals(document, deserialized);
+        assertEquals("newvalue250", deserialized.getProperty("prop250").getValue());
+        assertTrue(deserialized.hasNode("renamed"));
+        assertEquals(mapper.writeValueAsString(document), mapper.writeValueAsString(deserialized));
+    }
 }